@@ -5,6 +5,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.web.embedded.jetty.JettyServletWebServerFactory;
 import org.springframework.context.annotation.Bean;
 
+import java.time.Clock;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -32,6 +33,11 @@ public class Application {
         return Executors.newVirtualThreadPerTaskExecutor();
     }
 
+    @Bean
+    public Clock clock() {
+        return Clock.systemUTC();
+    }
+
 }
 
 
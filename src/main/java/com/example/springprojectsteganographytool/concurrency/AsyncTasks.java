@@ -0,0 +1,108 @@
+package com.example.springprojectsteganographytool.concurrency;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Bridges blocking tasks and {@link CompletableFuture}s.
+ * <p>
+ * Futures returned by {@link #supply(Executor, Callable)} complete exceptionally with the exception the task
+ * threw, not a wrapper, so callers composing stages see the same typed exceptions as blocking callers.
+ * Cancelling such a future interrupts the task, which the pipeline's cancellation checkpoints react to.
+ */
+public final class AsyncTasks {
+
+    private AsyncTasks() {
+    }
+
+    /**
+     * Runs a task on an executor. The calling thread's {@link Deadline} is attached to the task.
+     *
+     * @param executor The executor to run the task on.
+     * @param task     The task to run.
+     * @return A future completed with the task's result or the exception it threw.
+     */
+    public static <T> CompletableFuture<T> supply(Executor executor, Callable<T> task) {
+        var deadline = Deadline.current();
+        var future = new InterruptibleFuture<T>();
+        var runner = new FutureTask<T>(() -> {
+            try (var _ = Deadline.attach(deadline)) {
+                Deadline.checkpoint(); // the task may have waited in a queue past its deadline
+                return task.call();
+            }
+        }) {
+            @Override
+            protected void set(T result) {
+                super.set(result);
+                future.complete(result);
+            }
+
+            @Override
+            protected void setException(Throwable failure) {
+                super.setException(failure);
+                future.completeExceptionally(failure);
+            }
+        };
+        future.runner = runner;
+
+        try {
+            executor.execute(runner);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Waits for a future, cancelling it if the waiting thread is interrupted.
+     * Unchecked failures are rethrown as-is; checked failures are wrapped in an {@link ExecutionException}.
+     *
+     * @param future The future to wait for.
+     * @return The future's result.
+     * @throws InterruptedException If the calling thread is interrupted while waiting; the future is cancelled.
+     * @throws ExecutionException   If the future failed with a checked exception.
+     */
+    public static <T> T await(Future<T> future) throws InterruptedException, ExecutionException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            switch (e.getCause()) {
+                case RuntimeException runtimeException -> throw runtimeException;
+                case Error error -> throw error;
+                case ExecutionException executionException -> throw executionException;
+                case null, default -> throw e;
+            }
+        }
+    }
+
+    /**
+     * A future whose cancellation interrupts the task producing it.
+     */
+    private static final class InterruptibleFuture<T> extends CompletableFuture<T> {
+
+        private volatile FutureTask<T> runner;
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            var cancelled = super.cancel(mayInterruptIfRunning);
+            var task = runner;
+            if (cancelled && task != null) {
+                task.cancel(true);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public <U> CompletableFuture<U> newIncompleteFuture() {
+            return new CompletableFuture<>();
+        }
+    }
+
+}
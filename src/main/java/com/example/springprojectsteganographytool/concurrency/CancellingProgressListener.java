@@ -0,0 +1,94 @@
+package com.example.springprojectsteganographytool.concurrency;
+
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriter;
+import javax.imageio.event.IIOReadProgressListener;
+import javax.imageio.event.IIOWriteProgressListener;
+
+/**
+ * Image I/O progress listener that aborts a read or write once the current operation is cancelled.
+ * <p>
+ * Readers and writers report progress (per row for PNG) on the thread doing the work, so the listener
+ * checks that thread's {@link Deadline} and interrupt status. An aborted read or write returns early;
+ * the caller should call {@link Deadline#checkpoint()} afterwards to turn that into a cancellation.
+ */
+public final class CancellingProgressListener implements IIOReadProgressListener, IIOWriteProgressListener {
+
+    public static final CancellingProgressListener INSTANCE = new CancellingProgressListener();
+
+    private CancellingProgressListener() {
+    }
+
+    @Override
+    public void imageProgress(ImageReader source, float percentageDone) {
+        if (Deadline.isCancelled()) {
+            source.abort();
+        }
+    }
+
+    @Override
+    public void imageProgress(ImageWriter source, float percentageDone) {
+        if (Deadline.isCancelled()) {
+            source.abort();
+        }
+    }
+
+    // ----- Unused callbacks -----
+
+    @Override
+    public void sequenceStarted(ImageReader source, int minIndex) {
+    }
+
+    @Override
+    public void sequenceComplete(ImageReader source) {
+    }
+
+    @Override
+    public void imageStarted(ImageReader source, int imageIndex) {
+    }
+
+    @Override
+    public void imageComplete(ImageReader source) {
+    }
+
+    @Override
+    public void thumbnailStarted(ImageReader source, int imageIndex, int thumbnailIndex) {
+    }
+
+    @Override
+    public void thumbnailProgress(ImageReader source, float percentageDone) {
+    }
+
+    @Override
+    public void thumbnailComplete(ImageReader source) {
+    }
+
+    @Override
+    public void readAborted(ImageReader source) {
+    }
+
+    @Override
+    public void imageStarted(ImageWriter source, int imageIndex) {
+    }
+
+    @Override
+    public void imageComplete(ImageWriter source) {
+    }
+
+    @Override
+    public void thumbnailStarted(ImageWriter source, int imageIndex, int thumbnailIndex) {
+    }
+
+    @Override
+    public void thumbnailProgress(ImageWriter source, float percentageDone) {
+    }
+
+    @Override
+    public void thumbnailComplete(ImageWriter source) {
+    }
+
+    @Override
+    public void writeAborted(ImageWriter source) {
+    }
+
+}
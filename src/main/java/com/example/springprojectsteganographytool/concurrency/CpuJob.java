@@ -0,0 +1,77 @@
+package com.example.springprojectsteganographytool.concurrency;
+
+import com.example.springprojectsteganographytool.exceptions.common.ServiceOverloadedException;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One request's share of the {@link CpuWorkerPool}.
+ * <p>
+ * All stages of a request are submitted through its job, so they are scheduled with the request's
+ * estimated cost, and the time they spend waiting in the admission queue is added up per request.
+ * A job can be used as the executor of a {@link TaskScope}.
+ */
+public final class CpuJob implements Executor {
+
+    private final CpuWorkerPool pool;
+    private final long estimatedCost;
+    private final AtomicLong queueWaitNanos = new AtomicLong();
+
+    CpuJob(CpuWorkerPool pool, long estimatedCost) {
+        this.pool = pool;
+        this.estimatedCost = estimatedCost;
+    }
+
+    /**
+     * Queues a stage of this job on the worker pool.
+     *
+     * @param task The stage to run.
+     * @throws ServiceOverloadedException If the admission queue is full.
+     */
+    @Override
+    public void execute(Runnable task) {
+        pool.submit(task, this);
+    }
+
+    /**
+     * Runs a stage of this job on a worker thread and waits for its result.
+     * Unchecked failures are rethrown as-is; checked failures are wrapped in an {@link ExecutionException}.
+     *
+     * @param task The stage to run.
+     * @return The stage result.
+     * @throws ServiceOverloadedException If the admission queue is full.
+     * @throws InterruptedException       If the calling thread is interrupted; the stage is cancelled.
+     * @throws ExecutionException         If the stage fails with a checked exception.
+     */
+    public <T> T call(Callable<T> task) throws InterruptedException, ExecutionException {
+        try (var scope = new TaskScope(this)) {
+            var result = scope.fork(task);
+            scope.join();
+
+            return result.resultNow();
+        }
+    }
+
+    /**
+     * @return The estimated cost this job is scheduled with, in pixel-equivalent work units.
+     */
+    public long estimatedCost() {
+        return estimatedCost;
+    }
+
+    /**
+     * @return The total time this job's stages have waited in the admission queue so far.
+     */
+    public Duration queueWait() {
+        return Duration.ofNanos(queueWaitNanos.get());
+    }
+
+    void recordQueueWait(long nanos) {
+        queueWaitNanos.addAndGet(nanos);
+    }
+
+}
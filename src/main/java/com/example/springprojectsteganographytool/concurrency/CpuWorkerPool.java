@@ -0,0 +1,194 @@
+package com.example.springprojectsteganographytool.concurrency;
+
+import com.example.springprojectsteganographytool.exceptions.common.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, core-sized executor for the CPU-bound stages (LSB embedding/extraction, PNG encoding, key derivation).
+ * <p>
+ * Request threads are virtual and unbounded, so running pixel and crypto work on them lets a burst of
+ * large uploads oversubscribe the cores and slow every request down together. Instead, CPU work runs on a
+ * fixed set of platform threads behind a bounded admission queue. When the queue is full the task is
+ * rejected immediately with a {@link ServiceOverloadedException}, which is reported as HTTP 429 with a
+ * {@code Retry-After} header.
+ * <p>
+ * Work is submitted through a {@link CpuJob} carrying the request's estimated cost, and the queue serves the
+ * cheapest work first: each queued task is ordered by a virtual deadline of its enqueue time plus its cost
+ * times {@code stego.cpu.scheduling.nanos-per-cost-unit}. Small jobs therefore overtake large ones, but only
+ * by a bounded amount of time, so a large job that has waited long enough is served before newer small ones
+ * (aging) and cannot be starved.
+ * <p>
+ * Exposes the {@code stego.cpu.queue.depth}, {@code stego.cpu.queue.wait}, {@code stego.cpu.active} and
+ * {@code stego.cpu.rejected} metrics.
+ */
+@Slf4j
+@Component
+public class CpuWorkerPool implements AutoCloseable {
+
+    private final ThreadPoolExecutor executor;
+    private final Duration retryAfter;
+    private final long nanosPerCostUnit;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Counter rejectedCounter;
+    private final Timer queueWaitTimer;
+
+    public CpuWorkerPool(
+            MeterRegistry meterRegistry,
+            @Value("${stego.cpu.threads:0}") int threads,
+            @Value("${stego.cpu.queue-capacity:64}") int queueCapacity,
+            @Value("${stego.cpu.retry-after:1s}") Duration retryAfter,
+            @Value("${stego.cpu.scheduling.nanos-per-cost-unit:20}") long nanosPerCostUnit
+    ) {
+        var poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new BoundedPriorityQueue(queueCapacity),
+                Thread.ofPlatform().name("stego-cpu-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.retryAfter = retryAfter;
+        this.nanosPerCostUnit = nanosPerCostUnit;
+
+        Gauge.builder("stego.cpu.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("CPU tasks waiting for a worker thread")
+                .register(meterRegistry);
+        Gauge.builder("stego.cpu.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("CPU worker threads currently running a task")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("stego.cpu.rejected")
+                .description("CPU tasks rejected because the admission queue was full")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("stego.cpu.queue.wait")
+                .description("Time CPU tasks spend in the admission queue")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+
+        log.info("CPU worker pool started with {} threads and an admission queue of {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * Starts a job for one request.
+     *
+     * @param estimatedCost The estimated cost of the request in pixel-equivalent work units.
+     * @return A job through which the request's stages are submitted.
+     */
+    public CpuJob newJob(long estimatedCost) {
+        return new CpuJob(this, Math.max(0L, estimatedCost));
+    }
+
+    /**
+     * Returns how many more tasks the pool could start right now without any of them waiting in the queue.
+     *
+     * @return The number of idle worker threads not already spoken for by queued tasks.
+     */
+    public int idleCapacity() {
+        return Math.max(0, executor.getMaximumPoolSize() - executor.getActiveCount() - executor.getQueue().size());
+    }
+
+    /**
+     * Stops the worker threads, interrupting any running tasks.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues a stage of a job.
+     *
+     * @param task The stage to run.
+     * @param job  The job the stage belongs to.
+     * @throws ServiceOverloadedException If the admission queue is full.
+     */
+    void submit(Runnable task, CpuJob job) {
+        var enqueuedAt = System.nanoTime();
+        var virtualDeadline = enqueuedAt + job.estimatedCost() * nanosPerCostUnit;
+
+        try {
+            executor.execute(new ScheduledTask(task, job, enqueuedAt, virtualDeadline, sequence.getAndIncrement()));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceOverloadedException(
+                    "The server is busy processing other images. Please retry later.", retryAfter
+            );
+        }
+    }
+
+    // ----- Scheduling -----
+
+    /**
+     * A queued stage, ordered by virtual deadline and then by submission order.
+     */
+    private final class ScheduledTask implements Runnable, Comparable<ScheduledTask> {
+
+        private final Runnable task;
+        private final CpuJob job;
+        private final long enqueuedAt;
+        private final long virtualDeadline;
+        private final long sequenceNumber;
+
+        private ScheduledTask(Runnable task, CpuJob job, long enqueuedAt, long virtualDeadline, long sequenceNumber) {
+            this.task = task;
+            this.job = job;
+            this.enqueuedAt = enqueuedAt;
+            this.virtualDeadline = virtualDeadline;
+            this.sequenceNumber = sequenceNumber;
+        }
+
+        @Override
+        public void run() {
+            var waited = System.nanoTime() - enqueuedAt;
+            job.recordQueueWait(waited);
+            queueWaitTimer.record(waited, TimeUnit.NANOSECONDS);
+
+            task.run();
+        }
+
+        @Override
+        public int compareTo(ScheduledTask other) {
+            var byDeadline = Long.compare(virtualDeadline - other.virtualDeadline, 0L); // nanoTime values may wrap
+            return byDeadline != 0 ? byDeadline : Long.compare(sequenceNumber, other.sequenceNumber);
+        }
+    }
+
+    /**
+     * Priority queue with an admission limit. The size check is not atomic with the insert, so under heavy
+     * contention the queue may briefly exceed its capacity by a few entries.
+     */
+    private static final class BoundedPriorityQueue extends PriorityBlockingQueue<Runnable> {
+
+        private final int capacity;
+
+        private BoundedPriorityQueue(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public boolean offer(Runnable task) {
+            return size() < capacity && super.offer(task);
+        }
+
+        @Override
+        public int remainingCapacity() {
+            return Math.max(0, capacity - size());
+        }
+    }
+
+}
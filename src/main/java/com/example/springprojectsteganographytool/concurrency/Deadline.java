@@ -0,0 +1,145 @@
+package com.example.springprojectsteganographytool.concurrency;
+
+import com.example.springprojectsteganographytool.exceptions.common.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+
+/**
+ * The deadline of the operation running on the current thread, plus cooperative cancellation checkpoints.
+ * <p>
+ * A deadline is opened when a request enters the service and is carried into every subtask forked through
+ * {@link TaskScope}. Long-running loops (pixel loops, PNG I/O, chunked crypto) call {@link #checkpoint()}
+ * periodically, so a request that timed out or whose thread was interrupted (for example because a sibling
+ * stage failed or the caller went away) stops using CPU within milliseconds instead of running to completion.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Opens a deadline for the current thread. An earlier deadline that is already open stays in effect.
+     *
+     * @param timeout The time the operation may take from now.
+     * @return A scope that restores the previous deadline when closed.
+     */
+    public static Scope within(Duration timeout) {
+        var requested = new Deadline(System.nanoTime() + timeout.toNanos());
+        var current = CURRENT.get();
+
+        return attach(current != null && current.deadlineNanos - requested.deadlineNanos <= 0 ? current : requested);
+    }
+
+    /**
+     * Opens a deadline for the current thread unless one is already open, in which case that one stays in effect
+     * (for example a background job's longer deadline).
+     *
+     * @param timeout The time the operation may take from now if no deadline is open.
+     * @return A scope that restores the previous deadline when closed.
+     */
+    public static Scope withDefault(Duration timeout) {
+        var current = CURRENT.get();
+        return current != null ? attach(current) : within(timeout);
+    }
+
+    /**
+     * Makes the given deadline the current thread's deadline, typically on a worker thread running a subtask.
+     *
+     * @param deadline The deadline to attach, or null for none.
+     * @return A scope that restores the previous deadline when closed.
+     */
+    public static Scope attach(Deadline deadline) {
+        var previous = CURRENT.get();
+        CURRENT.set(deadline);
+
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * @return The current thread's deadline, or null if none is open.
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return True if the current thread was interrupted or its deadline has passed.
+     */
+    public static boolean isCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+
+        var deadline = CURRENT.get();
+        return deadline != null && deadline.isExpired();
+    }
+
+    /**
+     * Stops the current operation if it was cancelled.
+     *
+     * @throws CancellationException      If the current thread was interrupted.
+     * @throws DeadlineExceededException  If the current deadline has passed.
+     */
+    public static void checkpoint() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("The operation was cancelled.");
+        }
+
+        var deadline = CURRENT.get();
+        if (deadline != null && deadline.isExpired()) {
+            throw new DeadlineExceededException("The operation did not complete within its deadline.");
+        }
+    }
+
+    /**
+     * Caps a wait time at the time left until the current deadline.
+     *
+     * @param maxWait The longest the caller is willing to wait.
+     * @return The wait time in nanoseconds; zero if the deadline has already passed.
+     */
+    public static long boundedWaitNanos(Duration maxWait) {
+        var deadline = CURRENT.get();
+        if (deadline == null) {
+            return maxWait.toNanos();
+        }
+
+        return Math.max(0L, Math.min(maxWait.toNanos(), deadline.remainingNanos()));
+    }
+
+    /**
+     * @return The time left until this deadline in nanoseconds; negative once it has passed.
+     */
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    /**
+     * @return True if this deadline has passed.
+     */
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * Restores the previously attached deadline when closed.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+}
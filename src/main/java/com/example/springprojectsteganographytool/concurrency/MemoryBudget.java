@@ -0,0 +1,172 @@
+package com.example.springprojectsteganographytool.concurrency;
+
+import com.example.springprojectsteganographytool.exceptions.common.ServiceOverloadedException;
+import com.example.springprojectsteganographytool.exceptions.file.FileTooLargeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Global, byte-weighted budget for the working memory of in-flight image operations.
+ * <p>
+ * The multipart limit only bounds the compressed upload: a small PNG can decode into a raster of hundreds of
+ * megabytes, and the working copy and PNG output multiply that. Each operation reserves its estimated peak
+ * memory before it starts and releases it when done. When the budget is exhausted, callers wait up to
+ * {@code stego.memory.max-wait} and are then rejected with a {@link ServiceOverloadedException} (HTTP 429).
+ * An operation that could never fit into the budget is rejected at once with a {@link FileTooLargeException}.
+ * <p>
+ * Memory kept beyond a single operation, such as cached covers, is reserved with {@link #tryReserve(long)} by a
+ * holder that registers a reclaimer; when an operation does not fit, the reclaimers are asked to give memory back
+ * before the operation waits.
+ * <p>
+ * Exposes the {@code stego.memory.reserved}, {@code stego.memory.budget} and {@code stego.memory.rejected} metrics.
+ */
+@Slf4j
+@Component
+public class MemoryBudget {
+
+    private static final long BYTES_PER_PERMIT = 1024; // permits are counted in KiB to fit larger budgets into an int
+    private static final int DEFAULT_BUDGET_DIVISOR = 4; // a quarter of the maximum heap when no budget is configured
+
+    private final Semaphore permits;
+    private final int totalPermits;
+    private final Duration maxWait;
+    private final Duration retryAfter;
+    private final AtomicLong reservedBytes = new AtomicLong();
+    private final List<LongConsumer> reclaimers = new CopyOnWriteArrayList<>();
+    private final Counter rejectedCounter;
+
+    public MemoryBudget(
+            MeterRegistry meterRegistry,
+            @Value("${stego.memory.budget:0}") DataSize budget,
+            @Value("${stego.memory.max-wait:2s}") Duration maxWait,
+            @Value("${stego.memory.retry-after:1s}") Duration retryAfter
+    ) {
+        var budgetBytes = budget.toBytes() > 0
+                ? budget.toBytes()
+                : Runtime.getRuntime().maxMemory() / DEFAULT_BUDGET_DIVISOR;
+
+        this.totalPermits = (int) Math.min(Integer.MAX_VALUE, budgetBytes / BYTES_PER_PERMIT);
+        this.permits = new Semaphore(totalPermits, true); // fair, so large reservations are not starved by small ones
+        this.maxWait = maxWait;
+        this.retryAfter = retryAfter;
+
+        Gauge.builder("stego.memory.reserved", reservedBytes, AtomicLong::get)
+                .description("Working memory reserved by in-flight image operations")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("stego.memory.budget", this, b -> (double) b.totalPermits * BYTES_PER_PERMIT)
+                .description("Total working memory budget for image operations")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("stego.memory.rejected")
+                .description("Image operations rejected because the memory budget was exhausted")
+                .register(meterRegistry);
+
+        log.info("Memory budget for image operations is {} MB", (long) totalPermits * BYTES_PER_PERMIT / (1024 * 1024));
+    }
+
+    /**
+     * Reserves working memory for one operation, waiting up to the configured time (and no longer than the
+     * current {@link Deadline}) for it to become available.
+     *
+     * @param bytes The estimated peak memory of the operation in bytes.
+     * @return A reservation that must be closed when the operation is done.
+     * @throws FileTooLargeException       If the operation needs more memory than the whole budget.
+     * @throws ServiceOverloadedException  If the memory does not become available in time.
+     * @throws InterruptedException        If the calling thread is interrupted while waiting.
+     */
+    public Reservation reserve(long bytes) throws InterruptedException {
+        var requested = Math.max(1L, (bytes + BYTES_PER_PERMIT - 1) / BYTES_PER_PERMIT);
+
+        if (requested > totalPermits) {
+            rejectedCounter.increment();
+            throw new FileTooLargeException(
+                    "The image is too large to process: it needs about " + (bytes / (1024 * 1024)) + " MB of working memory."
+            );
+        }
+
+        // A zero timeout keeps the fairness that a plain tryAcquire would bypass
+        if (!permits.tryAcquire((int) requested, 0, TimeUnit.NANOSECONDS)) {
+            var missing = (requested - permits.availablePermits()) * BYTES_PER_PERMIT;
+            reclaimers.forEach(reclaimer -> reclaimer.accept(missing));
+
+            if (!permits.tryAcquire((int) requested, Deadline.boundedWaitNanos(maxWait), TimeUnit.NANOSECONDS)) {
+                rejectedCounter.increment();
+                throw new ServiceOverloadedException(
+                        "Not enough memory is available to process the image right now. Please retry later.", retryAfter
+                );
+            }
+        }
+
+        reservedBytes.addAndGet(requested * BYTES_PER_PERMIT);
+        return new Reservation((int) requested);
+    }
+
+    /**
+     * Reserves memory only if it is available right away, for holders that can do without it.
+     * Neither waits nor asks the reclaimers for memory.
+     *
+     * @param bytes The memory to hold in bytes.
+     * @return A reservation that must be closed when the memory is given up, or null if the memory is not available.
+     */
+    public Reservation tryReserve(long bytes) {
+        var requested = Math.max(1L, (bytes + BYTES_PER_PERMIT - 1) / BYTES_PER_PERMIT);
+        try {
+            if (requested > totalPermits || !permits.tryAcquire((int) requested, 0, TimeUnit.NANOSECONDS)) {
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+
+        reservedBytes.addAndGet(requested * BYTES_PER_PERMIT);
+        return new Reservation((int) requested);
+    }
+
+    /**
+     * Registers a holder of memory reserved with {@link #tryReserve(long)} that can give it back.
+     *
+     * @param reclaimer Called with the number of bytes an operation is missing; it should close reservations
+     *                  worth at least that much if it can.
+     */
+    public void addReclaimer(LongConsumer reclaimer) {
+        reclaimers.add(reclaimer);
+    }
+
+    /**
+     * A held memory reservation. Closing it more than once has no further effect.
+     */
+    public final class Reservation implements AutoCloseable {
+
+        private final int reservedPermits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Reservation(int reservedPermits) {
+            this.reservedPermits = reservedPermits;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                reservedBytes.addAndGet(-reservedPermits * BYTES_PER_PERMIT);
+                permits.release(reservedPermits);
+            }
+        }
+    }
+
+}
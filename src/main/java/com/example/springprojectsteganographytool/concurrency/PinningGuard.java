@@ -0,0 +1,224 @@
+package com.example.springprojectsteganographytool.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Detects virtual-thread pinning and moves pinning stages off virtual threads.
+ * <p>
+ * ImageIO codecs, Java2D {@code drawImage} and JCE providers contain native and synchronized sections that can
+ * pin the carrier thread of a virtual thread, so a few slow requests can starve the carriers that every other
+ * request needs. This guard:
+ * <ul>
+ *     <li>streams the JFR {@code jdk.VirtualThreadPinned} event, aggregates it per call site (the innermost
+ *     application frame) and exports it as the {@code stego.vthread.pinned} counter and
+ *     {@code stego.vthread.pinned.duration} timer, tagged with the site;</li>
+ *     <li>wraps stages that may pin with {@link #call(String, Callable)}. A stage that is configured as pinning
+ *     ({@code stego.pinning.offload-sites}) or has been seen pinning {@code stego.pinning.learn-after} times runs
+ *     on a small platform-thread pool when called from a virtual thread; the virtual thread just waits without
+ *     holding its carrier. On platform threads (for example the CPU worker pool) stages always run inline.</li>
+ * </ul>
+ * A stage is identified as {@code SimpleClassName.method} of the method that calls the guard; it is seen pinning
+ * when that method appears anywhere on the stack of a pinning event.
+ */
+@Slf4j
+@Component
+public class PinningGuard implements AutoCloseable {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.example.springprojectsteganographytool.";
+    private static final String CONCURRENCY_PACKAGE = APPLICATION_PACKAGE + "concurrency.";
+    private static final int MAX_TAGGED_SITES = 100; // bounds metric cardinality; further sites are tagged "other"
+
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService offloadExecutor;
+    private final int learnAfter;
+    private final Set<String> offloadSites = ConcurrentHashMap.newKeySet();
+    private final Set<String> guardedSites = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicLong> pinnedCountsBySite = new ConcurrentHashMap<>();
+    private final Set<String> taggedSites = ConcurrentHashMap.newKeySet();
+    private final RecordingStream recordingStream;
+
+    public PinningGuard(
+            MeterRegistry meterRegistry,
+            @Value("${stego.pinning.monitor-enabled:true}") boolean monitorEnabled,
+            @Value("${stego.pinning.threshold:20ms}") Duration threshold,
+            @Value("${stego.pinning.learn-after:3}") int learnAfter,
+            @Value("${stego.pinning.offload-sites:}") List<String> offloadSites,
+            @Value("${stego.pinning.offload-threads:2}") int offloadThreads
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.learnAfter = learnAfter;
+        this.offloadExecutor = Executors.newFixedThreadPool(
+                offloadThreads,
+                Thread.ofPlatform().name("stego-offload-", 0).daemon(true).factory()
+        );
+        offloadSites.stream()
+                .map(String::trim)
+                .filter(site -> !site.isEmpty())
+                .forEach(this.offloadSites::add);
+
+        this.recordingStream = monitorEnabled ? startMonitor(threshold) : null;
+    }
+
+    /**
+     * Runs a stage that may pin its carrier thread.
+     * <p>
+     * If the caller is a virtual thread and the stage is known to pin, the stage runs on the offload pool and the
+     * caller waits for it (with the caller's {@link Deadline} attached). Otherwise it runs inline.
+     *
+     * @param site The stage, as {@code SimpleClassName.method} of the calling method.
+     * @param task The stage to run.
+     * @return The stage result.
+     * @throws Exception Whatever the stage throws, unwrapped.
+     */
+    public <T> T call(String site, Callable<T> task) throws Exception {
+        guardedSites.add(site);
+
+        if (!Thread.currentThread().isVirtual() || !offloadSites.contains(site)) {
+            return task.call();
+        }
+
+        meterRegistry.counter("stego.vthread.offloaded", "site", site).increment();
+        try (var scope = new TaskScope(offloadExecutor)) {
+            var result = scope.fork(task);
+            scope.join();
+
+            return result.resultNow();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return The stages currently offloaded from virtual threads.
+     */
+    public Set<String> offloadSites() {
+        return Set.copyOf(offloadSites);
+    }
+
+    /**
+     * Stops the JFR stream and the offload pool.
+     */
+    @Override
+    public void close() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+        offloadExecutor.shutdownNow();
+    }
+
+    // ----- Private Helper Methods -----
+
+    private RecordingStream startMonitor(Duration threshold) {
+        try {
+            var stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::onPinned);
+            stream.startAsync();
+
+            log.info("Monitoring virtual-thread pinning longer than {} ms", threshold.toMillis());
+            return stream;
+        } catch (RuntimeException e) {
+            // JFR may be unavailable (for example in some minimal runtimes); offloading by configuration still works
+            log.warn("Virtual-thread pinning monitor could not be started", e);
+            return null;
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        var frames = event.getStackTrace() == null ? List.<RecordedFrame>of() : event.getStackTrace().getFrames();
+
+        String callSite = null;
+        for (var frame : frames) {
+            var site = siteOf(frame);
+            if (site == null) {
+                continue;
+            }
+
+            if (callSite == null) {
+                callSite = site;
+            }
+
+            if (guardedSites.contains(site)) {
+                learn(site);
+            }
+        }
+
+        var tag = tagFor(callSite == null ? "unknown" : callSite);
+        Counter.builder("stego.vthread.pinned")
+                .description("Virtual-thread pinning events longer than the threshold, by call site")
+                .tag("site", tag)
+                .register(meterRegistry)
+                .increment();
+        Timer.builder("stego.vthread.pinned.duration")
+                .description("Duration of virtual-thread pinning, by call site")
+                .tag("site", tag)
+                .register(meterRegistry)
+                .record(event.getDuration());
+    }
+
+    private void learn(String site) {
+        var count = pinnedCountsBySite.computeIfAbsent(site, _ -> new AtomicLong()).incrementAndGet();
+        if (count >= learnAfter && offloadSites.add(site)) {
+            log.info("Stage {} pinned virtual threads {} times; it now runs on the offload pool", site, count);
+        }
+    }
+
+    private String tagFor(String site) {
+        if (taggedSites.contains(site) || (taggedSites.size() < MAX_TAGGED_SITES && taggedSites.add(site))) {
+            return site;
+        }
+        return "other";
+    }
+
+    /**
+     * @return {@code SimpleClassName.method} for an application frame outside this package, otherwise null.
+     * Lambda bodies ({@code lambda$method$N}) are attributed to their enclosing method.
+     */
+    private static String siteOf(RecordedFrame frame) {
+        var method = frame.getMethod();
+        if (method == null) {
+            return null;
+        }
+
+        var className = method.getType().getName();
+        if (
+                !className.startsWith(APPLICATION_PACKAGE)
+                        || className.startsWith(CONCURRENCY_PACKAGE)
+                        || className.contains("$$Lambda") // generated lambda classes; their bodies are synthetic methods
+        ) {
+            return null;
+        }
+
+        var methodName = method.getName();
+        if (methodName.startsWith("lambda$")) {
+            var end = methodName.indexOf('$', "lambda$".length());
+            methodName = methodName.substring("lambda$".length(), end < 0 ? methodName.length() : end);
+        }
+
+        return className.substring(className.lastIndexOf('.') + 1) + "." + methodName;
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.example.springprojectsteganographytool.concurrency;
+
+import com.example.springprojectsteganographytool.exceptions.common.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coalesces concurrent identical computations.
+ * <p>
+ * The first caller for a key (the leader) runs the computation on its own thread; callers arriving while it
+ * is in flight wait for and share its result or failure. Nothing is cached: the key is released as soon as
+ * the computation finishes. Followers wait no longer than their own {@link Deadline}, and if the leader was
+ * cancelled (for example by its deadline) a follower that still has time takes over as the new leader.
+ *
+ * @param <K> The key identifying identical computations.
+ */
+public final class SingleFlight<K> {
+
+    private static final Object LEADER_CANCELLED = new Object();
+
+    private final Map<K, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Counter sharedCounter;
+
+    /**
+     * @param name          The name reported in the {@code stego.singleflight.shared} metric.
+     * @param meterRegistry The registry the metric is registered with.
+     */
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.sharedCounter = Counter.builder("stego.singleflight.shared")
+                .description("Calls served by an identical computation already in flight")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the computation for a key, or waits for the identical one already in flight.
+     * Callers must use one key for one result type.
+     *
+     * @param key      The key identifying the computation.
+     * @param loader   The computation.
+     * @return The computation's result.
+     * @throws Exception The exception the computation threw, unwrapped, or
+     *                   {@link DeadlineExceededException} if the caller's deadline passed while waiting.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(K key, Callable<V> loader) throws Exception {
+        while (true) {
+            var flight = new CompletableFuture<Object>();
+            var existing = inFlight.putIfAbsent(key, flight);
+
+            if (existing == null) {
+                try {
+                    var result = loader.call();
+                    flight.complete(result);
+                    return result;
+                } catch (Exception | Error e) {
+                    flight.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    inFlight.remove(key, flight);
+                }
+            }
+
+            sharedCounter.increment();
+            var result = await(existing);
+            if (result != LEADER_CANCELLED) {
+                return (V) result;
+            }
+            Deadline.checkpoint(); // retry as the new leader, unless this caller is cancelled too
+        }
+    }
+
+    /**
+     * Waits for a flight led by another caller.
+     *
+     * @return The flight's result, or {@link #LEADER_CANCELLED} if the leader was cancelled or interrupted.
+     */
+    private static Object await(CompletableFuture<Object> flight) throws Exception {
+        var deadline = Deadline.current();
+        try {
+            return deadline == null
+                    ? flight.get()
+                    : flight.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException("The operation did not complete within its deadline.");
+        } catch (ExecutionException e) {
+            switch (e.getCause()) {
+                case CancellationException _, InterruptedException _ -> {
+                    return LEADER_CANCELLED;
+                }
+                case Exception exception -> throw exception;
+                case Error error -> throw error;
+                case null, default -> throw e;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.example.springprojectsteganographytool.concurrency;
+
+import com.example.springprojectsteganographytool.exceptions.common.DeadlineExceededException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A small structured-concurrency scope for running independent pipeline stages concurrently.
+ * <p>
+ * Subtasks are forked onto an executor and joined together. The first subtask failure cancels
+ * (and interrupts) all its siblings and is rethrown by {@link #join()}. Closing the scope, for
+ * example when the owning thread is interrupted or a later stage fails, cancels every subtask
+ * that is still running, so no work outlives the scope.
+ * <p>
+ * The forking thread's {@link Deadline} is attached to every subtask, and {@link #join()} waits no longer
+ * than that deadline.
+ * <p>
+ * This mirrors the shutdown-on-failure policy of {@code StructuredTaskScope}, which is still a
+ * preview API on the Java version this project targets.
+ */
+public final class TaskScope implements AutoCloseable {
+
+    private final Executor executor;
+    private final List<Future<?>> subtasks = new ArrayList<>();
+    private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+
+    public TaskScope(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Starts a subtask in this scope.
+     *
+     * @param task The subtask to run.
+     * @return A future whose result can be read with {@link Future#resultNow()} after {@link #join()}.
+     */
+    public <T> Future<T> fork(Callable<T> task) {
+        var deadline = Deadline.current();
+        var subtask = new FutureTask<T>(() -> {
+            try (var _ = Deadline.attach(deadline)) {
+                Deadline.checkpoint(); // the subtask may have waited in a queue past its deadline
+                return task.call();
+            }
+        }) {
+            @Override
+            protected void setException(Throwable failure) {
+                // Record the failure before completing, so join() never sees a failed subtask without it
+                var first = !isCancelled() && firstFailure.compareAndSet(null, failure);
+                super.setException(failure);
+                if (first) {
+                    cancelAll();
+                }
+            }
+        };
+
+        synchronized (subtasks) {
+            subtasks.add(subtask);
+        }
+        executor.execute(subtask);
+        return subtask;
+    }
+
+    /**
+     * Waits for all subtasks to complete, but no longer than the current deadline.
+     * Unchecked failures are rethrown as-is; checked failures are wrapped in an {@link ExecutionException}.
+     *
+     * @throws DeadlineExceededException If the deadline passes first; all subtasks are cancelled.
+     * @throws InterruptedException      If the calling thread is interrupted while waiting.
+     * @throws ExecutionException   If a subtask failed with a checked exception.
+     */
+    public void join() throws InterruptedException, ExecutionException {
+        List<Future<?>> snapshot;
+        synchronized (subtasks) {
+            snapshot = List.copyOf(subtasks);
+        }
+
+        var deadline = Deadline.current();
+        for (var subtask : snapshot) {
+            try {
+                if (deadline == null) {
+                    subtask.get();
+                } else {
+                    subtask.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+                }
+            } catch (TimeoutException e) {
+                cancelAll();
+                throw new DeadlineExceededException("The operation did not complete within its deadline.");
+            } catch (CancellationException | ExecutionException ignored) {
+                // The first failure is recorded by the failing subtask and rethrown below
+            }
+        }
+
+        var failure = firstFailure.get();
+        if (failure instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        if (failure != null) {
+            throw new ExecutionException(failure);
+        }
+    }
+
+    /**
+     * Cancels every subtask that has not completed yet.
+     */
+    @Override
+    public void close() {
+        cancelAll();
+    }
+
+    // ----- Private Helper Methods -----
+
+    private void cancelAll() {
+        synchronized (subtasks) {
+            for (var subtask : subtasks) {
+                subtask.cancel(true);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.example.springprojectsteganographytool.controllers;
+
+import com.example.springprojectsteganographytool.models.StegoCoverDTO;
+import com.example.springprojectsteganographytool.services.CoverLibraryService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * REST controller for the server-side cover library.
+ * An uploaded cover is decoded once and stored as a raster; encodes against the library then pick the
+ * smallest stored cover that holds their payload.
+ */
+@RestController
+@RequestMapping("/api/v1/covers")
+public class CoverLibraryController {
+
+    private final CoverLibraryService coverLibraryService;
+
+    public CoverLibraryController(CoverLibraryService coverLibraryService) {
+        this.coverLibraryService = coverLibraryService;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StegoCoverDTO> addCover(
+            @RequestParam("coverImage") MultipartFile coverImage,
+            @RequestParam(value = "name", required = false) String name
+    ) throws IOException, InterruptedException, ExecutionException {
+        var cover = coverLibraryService.addCover(
+                name != null ? name : coverImage.getOriginalFilename(),
+                coverImage.getBytes()
+        );
+        return ResponseEntity.status(HttpStatus.CREATED).body(cover);
+    }
+
+    @GetMapping
+    public List<StegoCoverDTO> listCovers() {
+        return coverLibraryService.listCovers();
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> removeCover(@PathVariable UUID id) {
+        coverLibraryService.removeCover(id);
+        return ResponseEntity.noContent().build();
+    }
+
+}
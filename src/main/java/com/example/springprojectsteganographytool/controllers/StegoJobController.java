@@ -0,0 +1,129 @@
+package com.example.springprojectsteganographytool.controllers;
+
+import com.example.springprojectsteganographytool.models.StegoJobResultDTO;
+import com.example.springprojectsteganographytool.models.StegoJobStatusDTO;
+import com.example.springprojectsteganographytool.services.StegoJobService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * REST controller for background encode and decode jobs.
+ * Submissions return 202 Accepted with the job's status and a Location header pointing at it;
+ * progress is streamed as Server-Sent Events and the result is fetched once the job has completed.
+ * Encode submissions accept an {@code Idempotency-Key} header: a retry with the same key completes with the
+ * result of the original request instead of encoding and storing the payload again.
+ * The {@code /library} encode variants take no cover image and encode into the smallest fitting cover of the
+ * cover library.
+ */
+@RestController
+@RequestMapping("/api/v1/jobs")
+public class StegoJobController {
+
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private final StegoJobService stegoJobService;
+
+    public StegoJobController(StegoJobService stegoJobService) {
+        this.stegoJobService = stegoJobService;
+    }
+
+    @PostMapping(value = "/encode/text", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StegoJobStatusDTO> encodeText(
+            @RequestParam("coverImage") MultipartFile coverImage,
+            @RequestParam("message") String message,
+            @RequestParam("password") String password,
+            @RequestParam(value = "lsbDepth", defaultValue = "1") int lsbDepth,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) throws IOException {
+        return accepted(stegoJobService.submitEncodeText(coverImage.getBytes(), message, password, lsbDepth, idempotencyKey));
+    }
+
+    @PostMapping(value = "/encode/file", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StegoJobStatusDTO> encodeFile(
+            @RequestParam("coverImage") MultipartFile coverImage,
+            @RequestParam("embeddedFile") MultipartFile embeddedFile,
+            @RequestParam("password") String password,
+            @RequestParam(value = "lsbDepth", defaultValue = "1") int lsbDepth,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) throws IOException {
+        return accepted(stegoJobService.submitEncodeFile(
+                coverImage.getBytes(),
+                embeddedFile.getOriginalFilename(),
+                embeddedFile.getBytes(),
+                password,
+                lsbDepth,
+                idempotencyKey
+        ));
+    }
+
+    @PostMapping(value = "/encode/text/library", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StegoJobStatusDTO> encodeTextWithLibraryCover(
+            @RequestParam("message") String message,
+            @RequestParam("password") String password,
+            @RequestParam(value = "lsbDepth", defaultValue = "1") int lsbDepth,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) {
+        return accepted(stegoJobService.submitEncodeTextWithLibraryCover(message, password, lsbDepth, idempotencyKey));
+    }
+
+    @PostMapping(value = "/encode/file/library", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StegoJobStatusDTO> encodeFileWithLibraryCover(
+            @RequestParam("embeddedFile") MultipartFile embeddedFile,
+            @RequestParam("password") String password,
+            @RequestParam(value = "lsbDepth", defaultValue = "1") int lsbDepth,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) throws IOException {
+        return accepted(stegoJobService.submitEncodeFileWithLibraryCover(
+                embeddedFile.getOriginalFilename(),
+                embeddedFile.getBytes(),
+                password,
+                lsbDepth,
+                idempotencyKey
+        ));
+    }
+
+    @PostMapping(value = "/decode", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StegoJobStatusDTO> decode(
+            @RequestParam("stegoImage") MultipartFile stegoImage,
+            @RequestParam("password") String password
+    ) throws IOException {
+        return accepted(stegoJobService.submitDecode(stegoImage.getBytes(), password));
+    }
+
+    @GetMapping("/{jobId}")
+    public StegoJobStatusDTO getStatus(@PathVariable UUID jobId) {
+        return stegoJobService.getStatus(jobId);
+    }
+
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProgress(@PathVariable UUID jobId) {
+        return stegoJobService.subscribe(jobId);
+    }
+
+    @GetMapping("/{jobId}/result")
+    public StegoJobResultDTO getResult(@PathVariable UUID jobId) {
+        return stegoJobService.getResult(jobId);
+    }
+
+    private static ResponseEntity<StegoJobStatusDTO> accepted(StegoJobStatusDTO status) {
+        var location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/v1/jobs/{jobId}")
+                .buildAndExpand(status.jobId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(status);
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.example.springprojectsteganographytool.crypto;
+
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import java.nio.charset.StandardCharsets;
+import java.security.spec.AlgorithmParameterSpec;
+
+/**
+ * Cipher suites supported by the AES utility service.
+ * All suites use a 256-bit key derived by the configured {@link KdfScheme};
+ * the suite used for a payload is recorded in the stego metadata.
+ */
+public enum CipherSuite {
+
+    /**
+     * AES-256 in CBC mode with PKCS5 padding (legacy, unauthenticated).
+     */
+    AES_256_CBC("AES/CBC/PKCS5Padding", "AES", 16, "stego-aes-256-cbc"),
+
+    /**
+     * AES-256 in GCM mode with a 128-bit authentication tag.
+     */
+    AES_256_GCM("AES/GCM/NoPadding", "AES", 12, "stego-aes-256-gcm"),
+
+    /**
+     * ChaCha20-Poly1305 (RFC 8439), fast on hosts without AES hardware acceleration.
+     */
+    CHACHA20_POLY1305("ChaCha20-Poly1305", "ChaCha20", 12, "stego-chacha20-poly1305");
+
+    private static final int BLOCK_SIZE = 16; // AES block size in bytes (CBC padding)
+    private static final int TAG_LENGTH = 16; // Authentication tag length in bytes (AEAD suites)
+
+    private final String transformation;
+    private final String keyAlgorithm;
+    private final int ivLength;
+    private final byte[] hkdfInfo;
+
+    CipherSuite(String transformation, String keyAlgorithm, int ivLength, String hkdfInfo) {
+        this.transformation = transformation;
+        this.keyAlgorithm = keyAlgorithm;
+        this.ivLength = ivLength;
+        this.hkdfInfo = hkdfInfo.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public String transformation() {
+        return transformation;
+    }
+
+    public String keyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    public int ivLength() {
+        return ivLength;
+    }
+
+    /**
+     * Returns the HKDF context information that binds per-payload subkeys to this suite.
+     *
+     * @return A copy of the HKDF info bytes.
+     */
+    public byte[] hkdfInfo() {
+        return hkdfInfo.clone();
+    }
+
+    /**
+     * Builds the cipher parameters for the given IV (nonce).
+     *
+     * @param iv The IV or nonce.
+     * @return The parameter spec to initialize the cipher with.
+     */
+    public AlgorithmParameterSpec parameterSpec(byte[] iv) {
+        return this == AES_256_GCM
+                ? new GCMParameterSpec(TAG_LENGTH * 8, iv)
+                : new IvParameterSpec(iv);
+    }
+
+    /**
+     * Returns the cipher text length (excluding salts and IV) for a plain text of the given length.
+     *
+     * @param plainTextLength The plain text length in bytes.
+     * @return The cipher text length in bytes.
+     */
+    public int cipherTextLength(int plainTextLength) {
+        return this == AES_256_CBC
+                ? (plainTextLength / BLOCK_SIZE + 1) * BLOCK_SIZE
+                : plainTextLength + TAG_LENGTH;
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.example.springprojectsteganographytool.crypto;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.util.List;
+
+/**
+ * Chooses the cipher suite used for new encodes.
+ * <p>
+ * {@code stego.crypto.cipher-suite} either names a {@link CipherSuite} or is {@code AUTO}. With
+ * {@code AUTO}, a short micro-benchmark runs at startup over the authenticated suites (AES-256-GCM
+ * and ChaCha20-Poly1305) and the fastest one on the current host becomes the default. Hosts with
+ * AES hardware acceleration typically pick GCM, hosts without it ChaCha20-Poly1305.
+ */
+@Component
+@Slf4j
+public class CipherSuiteSelector {
+
+    private static final String AUTO = "AUTO";
+    private static final List<CipherSuite> BENCHMARK_CANDIDATES = List.of(
+            CipherSuite.AES_256_GCM,
+            CipherSuite.CHACHA20_POLY1305
+    );
+    private static final int BENCHMARK_BYTES = 256 * 1024; // Plain text size per benchmark round
+    private static final long WARMUP_NANOS = 300_000_000L; // Warm-up time per suite, so intrinsics are compiled
+    private static final int MEASURED_ROUNDS = 20;
+
+    private final CipherSuite defaultSuite;
+
+    public CipherSuiteSelector(@Value("${stego.crypto.cipher-suite:AUTO}") String configuredSuite) {
+        this.defaultSuite = AUTO.equalsIgnoreCase(configuredSuite)
+                ? benchmark()
+                : CipherSuite.valueOf(configuredSuite.trim().toUpperCase());
+    }
+
+    /**
+     * Returns the cipher suite new payloads are encrypted with.
+     *
+     * @return The default cipher suite.
+     */
+    public CipherSuite defaultSuite() {
+        return defaultSuite;
+    }
+
+    // ----- Private Helper Methods -----
+
+    private static CipherSuite benchmark() {
+        var random = new SecureRandom();
+        var keyBytes = new byte[32];
+        var plainText = new byte[BENCHMARK_BYTES];
+        random.nextBytes(keyBytes);
+        random.nextBytes(plainText);
+
+        CipherSuite fastest = null;
+        var fastestNanos = Long.MAX_VALUE;
+
+        for (var suite : BENCHMARK_CANDIDATES) {
+            try {
+                var cipher = Cipher.getInstance(suite.transformation());
+                var key = new SecretKeySpec(keyBytes, suite.keyAlgorithm());
+                var output = new byte[suite.cipherTextLength(plainText.length)];
+                var iv = new byte[suite.ivLength()];
+
+                var warmupEnd = System.nanoTime() + WARMUP_NANOS;
+                while (System.nanoTime() - warmupEnd < 0) {
+                    encryptOnce(cipher, suite, key, iv, random, plainText, output);
+                }
+
+                var start = System.nanoTime();
+                for (var round = 0; round < MEASURED_ROUNDS; round++) {
+                    encryptOnce(cipher, suite, key, iv, random, plainText, output);
+                }
+                var elapsed = System.nanoTime() - start;
+
+                var mbPerSecond = (double) BENCHMARK_BYTES * MEASURED_ROUNDS / (1024 * 1024) / (elapsed / 1e9);
+                log.info("Cipher suite {}: {} MiB/s", suite, String.format("%.1f", mbPerSecond));
+
+                if (elapsed < fastestNanos) {
+                    fastestNanos = elapsed;
+                    fastest = suite;
+                }
+            } catch (Exception e) {
+                log.warn("Cipher suite {} is not available on this host", suite, e);
+            }
+        }
+
+        if (fastest == null) {
+            log.warn("No authenticated cipher suite available, falling back to {}", CipherSuite.AES_256_CBC);
+            return CipherSuite.AES_256_CBC;
+        }
+
+        log.info("Selected {} as the default cipher suite", fastest);
+        return fastest;
+    }
+
+    private static void encryptOnce(
+            Cipher cipher,
+            CipherSuite suite,
+            SecretKeySpec key,
+            byte[] iv,
+            SecureRandom random,
+            byte[] plainText,
+            byte[] output
+    ) throws Exception {
+        random.nextBytes(iv); // AEAD ciphers refuse to reuse a key/nonce pair
+        cipher.init(Cipher.ENCRYPT_MODE, key, suite.parameterSpec(iv));
+        cipher.doFinal(plainText, 0, plainText.length, output, 0);
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.example.springprojectsteganographytool.crypto;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pools of reusable JCE primitives ({@link Cipher}, {@link SecretKeyFactory}, {@link Mac},
+ * {@link MessageDigest}) and DRBG {@link SecureRandom} instances.
+ * <p>
+ * Requests run on virtual threads, so per-thread caching would create a new instance for every task.
+ * Instead, each algorithm has a lock-free pool: a caller borrows an instance for the duration of one
+ * operation and returns it afterwards. Provider lookups only happen while a pool is still warming up,
+ * and every random source is used by one caller at a time, so there is no contention on a shared
+ * {@code SecureRandom}. At most {@code stego.crypto.pool.max-idle} instances are kept per algorithm.
+ */
+@Component
+public class CryptoPrimitivePool {
+
+    private static final String RANDOM_ALGORITHM = "DRBG";
+
+    private final int maxIdle;
+    private final Map<String, Pool<Cipher>> ciphers = new ConcurrentHashMap<>();
+    private final Map<String, Pool<SecretKeyFactory>> keyFactories = new ConcurrentHashMap<>();
+    private final Map<String, Pool<Mac>> macs = new ConcurrentHashMap<>();
+    private final Map<String, Pool<MessageDigest>> digests = new ConcurrentHashMap<>();
+    private final Pool<SecureRandom> randoms;
+
+    public CryptoPrimitivePool(@Value("${stego.crypto.pool.max-idle:64}") int maxIdle) {
+        this.maxIdle = maxIdle;
+        this.randoms = new Pool<>(() -> SecureRandom.getInstance(RANDOM_ALGORITHM), maxIdle);
+    }
+
+    /**
+     * Runs an operation with a pooled cipher. The cipher must be (re-)initialized by the operation.
+     *
+     * @param transformation The cipher transformation, e.g. "AES/CBC/PKCS5Padding".
+     * @param operation      The operation to run.
+     * @return The result of the operation.
+     * @throws Exception If the cipher cannot be created or the operation fails.
+     */
+    public <R> R withCipher(String transformation, PooledOperation<Cipher, R> operation) throws Exception {
+        return ciphers
+                .computeIfAbsent(transformation, t -> new Pool<>(() -> Cipher.getInstance(t), maxIdle))
+                .use(operation);
+    }
+
+    /**
+     * Runs an operation with a pooled secret key factory.
+     *
+     * @param algorithm The key factory algorithm, e.g. "PBKDF2WithHmacSHA256".
+     * @param operation The operation to run.
+     * @return The result of the operation.
+     * @throws Exception If the factory cannot be created or the operation fails.
+     */
+    public <R> R withSecretKeyFactory(String algorithm, PooledOperation<SecretKeyFactory, R> operation) throws Exception {
+        return keyFactories
+                .computeIfAbsent(algorithm, a -> new Pool<>(() -> SecretKeyFactory.getInstance(a), maxIdle))
+                .use(operation);
+    }
+
+    /**
+     * Runs an operation with a pooled MAC. The MAC must be (re-)initialized by the operation.
+     *
+     * @param algorithm The MAC algorithm, e.g. "HmacSHA256".
+     * @param operation The operation to run.
+     * @return The result of the operation.
+     * @throws Exception If the MAC cannot be created or the operation fails.
+     */
+    public <R> R withMac(String algorithm, PooledOperation<Mac, R> operation) throws Exception {
+        return macs
+                .computeIfAbsent(algorithm, a -> new Pool<>(() -> Mac.getInstance(a), maxIdle))
+                .use(operation);
+    }
+
+    /**
+     * Runs an operation with a pooled message digest. The digest is reset before it is returned to the pool.
+     *
+     * @param algorithm The digest algorithm, e.g. "SHA-256".
+     * @param operation The operation to run.
+     * @return The result of the operation.
+     * @throws Exception If the digest cannot be created or the operation fails.
+     */
+    public <R> R withMessageDigest(String algorithm, PooledOperation<MessageDigest, R> operation) throws Exception {
+        return digests
+                .computeIfAbsent(algorithm, a -> new Pool<>(() -> MessageDigest.getInstance(a), maxIdle))
+                .use(digest -> {
+                    try {
+                        return operation.apply(digest);
+                    } finally {
+                        digest.reset();
+                    }
+                });
+    }
+
+    /**
+     * Fills the given arrays with random bytes from a pooled DRBG instance.
+     *
+     * @param targets The arrays to fill.
+     * @throws Exception If no DRBG instance can be created.
+     */
+    public void nextBytes(byte[]... targets) throws Exception {
+        randoms.use(random -> {
+            for (var target : targets) {
+                random.nextBytes(target);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * An operation that uses a borrowed primitive.
+     *
+     * @param <T> The primitive type.
+     * @param <R> The result type.
+     */
+    @FunctionalInterface
+    public interface PooledOperation<T, R> {
+        R apply(T primitive) throws Exception;
+    }
+
+    /**
+     * Creates a new primitive when a pool is empty.
+     *
+     * @param <T> The primitive type.
+     */
+    @FunctionalInterface
+    private interface PrimitiveFactory<T> {
+        T create() throws GeneralSecurityException;
+    }
+
+    /**
+     * A lock-free pool that keeps at most {@code maxIdle} idle instances.
+     *
+     * @param <T> The pooled type.
+     */
+    private static final class Pool<T> {
+        private final Queue<T> idle = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger idleCount = new AtomicInteger();
+        private final PrimitiveFactory<T> factory;
+        private final int maxIdle;
+
+        private Pool(PrimitiveFactory<T> factory, int maxIdle) {
+            this.factory = factory;
+            this.maxIdle = maxIdle;
+        }
+
+        private <R> R use(PooledOperation<T, R> operation) throws Exception {
+            var instance = idle.poll();
+            if (instance != null) {
+                idleCount.decrementAndGet();
+            } else {
+                instance = factory.create();
+            }
+
+            try {
+                return operation.apply(instance);
+            } finally {
+                if (idleCount.incrementAndGet() <= maxIdle) {
+                    idle.offer(instance);
+                } else {
+                    idleCount.decrementAndGet(); // Pool is full; drop the instance
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.example.springprojectsteganographytool.crypto;
+
+import java.util.List;
+
+/**
+ * A file encrypted as independently decryptable chunks under one derived key.
+ *
+ * @param header The key header, [MASTER_SALT (PBKDF2_HKDF only)][SALT], shared by all chunks.
+ * @param chunks Every chunk as [IV][CIPHER_TEXT], in file order.
+ */
+public record EncryptedChunks(
+        byte[] header,
+        List<byte[]> chunks
+) {
+}
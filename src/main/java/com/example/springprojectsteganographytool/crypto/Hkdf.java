@@ -0,0 +1,66 @@
+package com.example.springprojectsteganographytool.crypto;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Arrays;
+
+/**
+ * Minimal HKDF-SHA256 implementation (RFC 5869) used to derive per-payload
+ * subkeys from a cached master key. The {@link Mac} is supplied by the caller
+ * so that pooled instances can be reused.
+ */
+public final class Hkdf {
+
+    public static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int HASH_LENGTH = 32; // Output length of HMAC-SHA256 in bytes
+
+    private Hkdf() {
+    }
+
+    /**
+     * Derives a key of the requested length from the input keying material.
+     *
+     * @param mac      An HmacSHA256 instance; it is re-initialized by this method.
+     * @param inputKey The input keying material (e.g. the master key).
+     * @param salt     The salt used in the extract step.
+     * @param info     Context information bound into the expand step.
+     * @param length   The number of bytes to derive (at most 255 * 32).
+     * @return The derived key bytes.
+     * @throws Exception If the HMAC algorithm is unavailable or the key is invalid.
+     */
+    public static byte[] derive(Mac mac, byte[] inputKey, byte[] salt, byte[] info, int length) throws Exception {
+        if (length <= 0 || length > 255 * HASH_LENGTH) {
+            throw new IllegalArgumentException("Invalid HKDF output length: " + length);
+        }
+
+        // 1) Extract: PRK = HMAC(salt, IKM)
+        mac.init(new SecretKeySpec(salt, MAC_ALGORITHM));
+        var pseudoRandomKey = mac.doFinal(inputKey);
+
+        // 2) Expand: T(i) = HMAC(PRK, T(i-1) | info | i)
+        try {
+            mac.init(new SecretKeySpec(pseudoRandomKey, MAC_ALGORITHM));
+
+            var output = new byte[length];
+            var block = new byte[0];
+            var written = 0;
+
+            for (var counter = 1; written < length; counter++) {
+                mac.update(block);
+                mac.update(info);
+                mac.update((byte) counter);
+                block = mac.doFinal();
+
+                var toCopy = Math.min(block.length, length - written);
+                System.arraycopy(block, 0, output, written, toCopy);
+                written += toCopy;
+            }
+
+            Arrays.fill(block, (byte) 0);
+            return output;
+        } finally {
+            Arrays.fill(pseudoRandomKey, (byte) 0);
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.example.springprojectsteganographytool.crypto;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Determines the PBKDF2 iteration count used for new payloads.
+ * <p>
+ * When {@code stego.crypto.kdf.target-millis} is greater than zero, PBKDF2 speed is measured on the
+ * host at startup and the iteration count is chosen so that one derivation takes roughly the target
+ * time, clamped to the configured minimum and maximum. Otherwise the configured iteration count is used.
+ * <p>
+ * The iteration count is stored per image in the metadata, so changing it never breaks existing images.
+ */
+@Component
+@Slf4j
+public class KdfCalibrator {
+
+    /**
+     * Iteration count of images encoded before the count was recorded in the metadata.
+     */
+    public static final int LEGACY_ITERATION_COUNT = 65536;
+
+    private static final String KDF_ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SAMPLE_ITERATIONS = 10_000; // Iterations per calibration sample
+    private static final int SAMPLE_RUNS = 5; // Number of measured samples; the fastest one is used
+    private static final int ROUNDING = 1_000; // Calibrated counts are rounded down to a multiple of this
+
+    private final int minIterations;
+    private final int maxIterations;
+    private final int iterationCount;
+
+    public KdfCalibrator(
+            @Value("${stego.crypto.kdf.iterations:65536}") int configuredIterations,
+            @Value("${stego.crypto.kdf.target-millis:0}") long targetMillis,
+            @Value("${stego.crypto.kdf.min-iterations:65536}") int minIterations,
+            @Value("${stego.crypto.kdf.max-iterations:5000000}") int maxIterations
+    ) {
+        if (minIterations <= 0 || maxIterations < minIterations) {
+            throw new IllegalArgumentException("Invalid PBKDF2 iteration bounds: " + minIterations + ".." + maxIterations);
+        }
+
+        this.minIterations = minIterations;
+        this.maxIterations = maxIterations;
+        this.iterationCount = targetMillis > 0
+                ? calibrate(targetMillis)
+                : clamp(configuredIterations);
+    }
+
+    /**
+     * Returns the PBKDF2 iteration count new payloads are encrypted with.
+     *
+     * @return The iteration count.
+     */
+    public int iterationCount() {
+        return iterationCount;
+    }
+
+    /**
+     * Validates an iteration count taken from encryption parameters and resolves legacy (missing) values.
+     * Counts above the configured maximum are rejected so that crafted images cannot force
+     * arbitrarily expensive derivations.
+     *
+     * @param iterations The iteration count from the metadata, or null for legacy images.
+     * @return The iteration count to derive the key with.
+     * @throws IllegalArgumentException If the iteration count is not positive or exceeds the maximum.
+     */
+    public int resolveIterations(Integer iterations) {
+        if (iterations == null) {
+            return LEGACY_ITERATION_COUNT;
+        }
+        if (iterations <= 0 || iterations > maxIterations) {
+            throw new IllegalArgumentException("Unsupported PBKDF2 iteration count: " + iterations);
+        }
+        return iterations;
+    }
+
+    // ----- Private Helper Methods -----
+
+    private int calibrate(long targetMillis) {
+        try {
+            var factory = SecretKeyFactory.getInstance(KDF_ALGORITHM);
+            var password = "calibration".toCharArray();
+            var salt = new byte[16];
+
+            // Warm up once so the measurement is not dominated by class loading and JIT compilation
+            derive(factory, password, salt);
+
+            var fastestNanos = Long.MAX_VALUE;
+            for (var run = 0; run < SAMPLE_RUNS; run++) {
+                var start = System.nanoTime();
+                derive(factory, password, salt);
+                fastestNanos = Math.min(fastestNanos, System.nanoTime() - start);
+            }
+
+            var nanosPerIteration = Math.max(1.0, (double) fastestNanos / SAMPLE_ITERATIONS);
+            var raw = (long) ((targetMillis * 1_000_000.0) / nanosPerIteration);
+            var calibrated = clamp((int) Math.min(Integer.MAX_VALUE, (raw / ROUNDING) * ROUNDING));
+
+            log.info("PBKDF2 calibrated to {} iterations for a {} ms target ({} ns/iteration)",
+                    calibrated, targetMillis, String.format("%.1f", nanosPerIteration));
+            return calibrated;
+        } catch (Exception e) {
+            log.warn("PBKDF2 calibration failed, falling back to {} iterations", minIterations, e);
+            return minIterations;
+        }
+    }
+
+    private static void derive(SecretKeyFactory factory, char[] password, byte[] salt) throws Exception {
+        var spec = new PBEKeySpec(password, salt, SAMPLE_ITERATIONS, 256);
+        try {
+            factory.generateSecret(spec);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private int clamp(int iterations) {
+        return Math.max(minIterations, Math.min(maxIterations, iterations));
+    }
+
+}
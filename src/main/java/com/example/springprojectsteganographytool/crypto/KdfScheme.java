@@ -0,0 +1,23 @@
+package com.example.springprojectsteganographytool.crypto;
+
+/**
+ * Key-derivation schemes supported by the AES utility service.
+ * The scheme used for a payload is recorded in the stego metadata so that
+ * the decoder derives the key the same way the encoder did.
+ */
+public enum KdfScheme {
+
+    /**
+     * PBKDF2-HMAC-SHA256 over the password and a random per-payload salt.
+     * Layout: [SALT(16)][IV][CIPHER_TEXT]
+     */
+    PBKDF2,
+
+    /**
+     * PBKDF2-HMAC-SHA256 derives a master key once per password and master salt,
+     * which is cached; per-payload keys are then derived from it with HKDF-SHA256.
+     * Layout: [MASTER_SALT(16)][SALT(16)][IV][CIPHER_TEXT]
+     */
+    PBKDF2_HKDF
+
+}
@@ -0,0 +1,159 @@
+package com.example.springprojectsteganographytool.crypto;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Short-lived, size-bounded cache of PBKDF2 master keys used by the {@link KdfScheme#PBKDF2_HKDF} scheme.
+ * <p>
+ * Entries are keyed by a SHA-256 digest of the master salt, iteration count and password, expire after the configured TTL,
+ * and are evicted in least-recently-used order once the cache is full. Key material is zeroed whenever
+ * an entry is expired, evicted or replaced, and callers always receive a copy they are expected to zero.
+ * <p>
+ * The cache also owns the current master salt. It is rotated with the same TTL, so repeated encodes by
+ * the same client within one rotation period share a master key and skip PBKDF2.
+ */
+@Component
+public class MasterKeyCache {
+
+    private static final int MASTER_SALT_LENGTH = 16; // Length of the master salt in bytes
+
+    private final CryptoPrimitivePool cryptoPrimitivePool;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, Entry> entries;
+
+    private byte[] currentMasterSalt;
+    private long currentMasterSaltExpiresAt;
+
+    public MasterKeyCache(
+            CryptoPrimitivePool cryptoPrimitivePool,
+            @Value("${stego.crypto.master-key-cache.ttl:5m}") Duration ttl,
+            @Value("${stego.crypto.master-key-cache.max-entries:256}") int maxEntries
+    ) {
+        this.cryptoPrimitivePool = cryptoPrimitivePool;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > MasterKeyCache.this.maxEntries) {
+                    eldest.getValue().destroy();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the master salt of the current rotation period, generating a new one when it has expired.
+     *
+     * @return A copy of the current master salt.
+     * @throws Exception If no random source is available.
+     */
+    public synchronized byte[] currentMasterSalt() throws Exception {
+        var now = System.nanoTime();
+        if (currentMasterSalt == null || now - currentMasterSaltExpiresAt >= 0) {
+            currentMasterSalt = new byte[MASTER_SALT_LENGTH];
+            cryptoPrimitivePool.nextBytes(currentMasterSalt);
+            currentMasterSaltExpiresAt = now + ttlNanos;
+        }
+        return currentMasterSalt.clone();
+    }
+
+    /**
+     * Returns the cached master key for the password and master salt, deriving and caching it on a miss.
+     * The (expensive) derivation runs outside the cache lock so that other lookups are not blocked.
+     *
+     * @param password   The password the master key is derived from.
+     * @param masterSalt The master salt the master key is derived with.
+     * @param iterations The PBKDF2 iteration count the master key is derived with.
+     * @param deriver    The derivation to run on a cache miss.
+     * @return A copy of the master key; the caller should zero it after use.
+     * @throws Exception If the derivation fails.
+     */
+    public byte[] getOrDerive(String password, byte[] masterSalt, int iterations, Callable<byte[]> deriver) throws Exception {
+        var cacheKey = cacheKey(password, masterSalt, iterations);
+
+        synchronized (this) {
+            purgeExpired();
+            var cached = entries.get(cacheKey);
+            if (cached != null) {
+                return cached.key.clone();
+            }
+        }
+
+        var derived = deriver.call();
+
+        synchronized (this) {
+            var existing = entries.get(cacheKey);
+            if (existing != null) {
+                // Another thread derived the same key concurrently; keep the cached one
+                var copy = existing.key.clone();
+                Arrays.fill(derived, (byte) 0);
+                return copy;
+            }
+            entries.put(cacheKey, new Entry(derived.clone(), System.nanoTime() + ttlNanos));
+            return derived;
+        }
+    }
+
+    /**
+     * Zeroes and removes every cached master key.
+     */
+    public synchronized void clear() {
+        entries.values().forEach(Entry::destroy);
+        entries.clear();
+    }
+
+    // ----- Private Helper Methods -----
+
+    private void purgeExpired() {
+        var now = System.nanoTime();
+        var iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            if (now - entry.expiresAt >= 0) {
+                entry.destroy();
+                iterator.remove();
+            }
+        }
+    }
+
+    private String cacheKey(String password, byte[] masterSalt, int iterations) throws Exception {
+        return cryptoPrimitivePool.withMessageDigest("SHA-256", digest -> {
+            digest.update(masterSalt);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(iterations).array());
+            digest.update(password.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        });
+    }
+
+    /**
+     * A cached master key and its expiry time (in {@link System#nanoTime()} units).
+     */
+    private static final class Entry {
+        private final byte[] key;
+        private final long expiresAt;
+
+        private Entry(byte[] key, long expiresAt) {
+            this.key = key;
+            this.expiresAt = expiresAt;
+        }
+
+        private void destroy() {
+            Arrays.fill(key, (byte) 0);
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.example.springprojectsteganographytool.documents;
+
+import com.example.springprojectsteganographytool.models.StegoEncodeResponseDTO;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * The result of an encode request stored under the idempotency key the client sent with it.
+ * Retries of the request within the retry window return this result instead of encoding and storing the
+ * payload again.
+ */
+@Document("stego_idempotency_keys")
+@Data
+@NoArgsConstructor
+public class StegoIdempotencyRecord {
+
+    @Id
+    private String key;
+
+    private String requestHash; // SHA-256 of the request; the key is rejected for any other request
+    private StegoEncodeResponseDTO result;
+
+    private Instant createdDate; // TTL-indexed for the retry window by IdempotencyServiceImpl, which also enforces it on read
+
+    @Builder
+    public StegoIdempotencyRecord(
+            String key,
+            String requestHash,
+            StegoEncodeResponseDTO result
+    ) {
+        this.key = key;
+        this.requestHash = requestHash;
+        this.result = result;
+        this.createdDate = Instant.now();
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.example.springprojectsteganographytool.documents;
+
+import com.example.springprojectsteganographytool.models.StegoSchedulingDTO;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The decoded payload of a distributed decode job, handed from the worker that decoded it to the node that
+ * serves the result. The payload is sealed with the cluster secret; the record is deleted when the result is
+ * read and is otherwise dropped by Mongo once the job's retention has passed.
+ * <p>
+ * A record is identified by the lease under which its job completed, so a worker that lost its lease
+ * never overwrites or removes the record of the worker that took over.
+ */
+@Document("stego_job_results")
+@Data
+@NoArgsConstructor
+public class StegoJobResult {
+
+    @Id
+    private UUID id;
+
+    private UUID jobId;
+
+    // Sealed payload, see WorkQueueSealer
+    private byte[] message;
+    private byte[] embeddedFileName;
+    private byte[] embeddedFileContent;
+
+    private boolean hasText;
+    private boolean hasFile;
+    private StegoSchedulingDTO scheduling;
+
+    @Indexed(expireAfter = "0s") // dropped by Mongo at this time; also enforced on read
+    private Instant expiresAt;
+
+    @Builder
+    public StegoJobResult(
+            UUID id,
+            UUID jobId,
+            byte[] message,
+            byte[] embeddedFileName,
+            byte[] embeddedFileContent,
+            boolean hasText,
+            boolean hasFile,
+            StegoSchedulingDTO scheduling,
+            Instant expiresAt
+    ) {
+        this.id = id;
+        this.jobId = jobId;
+        this.message = message;
+        this.embeddedFileName = embeddedFileName;
+        this.embeddedFileContent = embeddedFileContent;
+        this.hasText = hasText;
+        this.hasFile = hasFile;
+        this.scheduling = scheduling;
+        this.expiresAt = expiresAt;
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.example.springprojectsteganographytool.documents;
+
+import com.example.springprojectsteganographytool.models.StegoEncodeResponseDTO;
+import com.example.springprojectsteganographytool.models.StegoJobStage;
+import com.example.springprojectsteganographytool.models.StegoJobType;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A background job in the shared work queue.
+ * A node claims the job by taking a lease (a fresh lease token with an expiry) and renews it with heartbeats;
+ * once the lease expires another node may reclaim the job. Updates from a node are only applied while its
+ * lease token is still the current one.
+ * <p>
+ * The password is stored sealed with the cluster secret, and a decode result is not stored here but handed
+ * off through a {@link StegoJobResult}.
+ */
+@Document("stego_work_items")
+@CompoundIndex(name = "stage_lease", def = "{'stage': 1, 'leaseExpiresAt': 1}")
+@Data
+@NoArgsConstructor
+public class StegoWorkItem {
+
+    public static final int MAX_PAYLOAD_BYTES = 15 * 1024 * 1024; // Mongo rejects documents over 16 MB
+
+    @Id
+    private UUID id;
+
+    private StegoJobType type;
+    private StegoJobStage stage;
+    private int stageIndex;
+
+    // Payload, removed once the job has finished
+    private byte[] imageBytes;
+    private String message;
+    private String originalFileName;
+    private byte[] fileBytes;
+    private byte[] sealedPassword;
+    private int lsbDepth;
+
+    // Idempotency key sent with an encode request, and the hash of the request it identifies
+    private String idempotencyKey;
+    private String requestHash;
+
+    // Lease
+    private String owner;
+    private UUID leaseToken;
+    private Instant leaseExpiresAt;
+    private int attempts;
+
+    // Outcome
+    private StegoEncodeResponseDTO encodeResult;
+    private UUID resultId; // the StegoJobResult holding a decode result
+    private String error;
+
+    @Indexed
+    private Instant createdDate;
+    private Instant updatedDate;
+
+    @Indexed(expireAfter = "1d") // finished jobs are dropped by Mongo; retention is enforced on read
+    private Instant finishedDate;
+
+    @Builder
+    public StegoWorkItem(
+            StegoJobType type,
+            byte[] imageBytes,
+            String message,
+            String originalFileName,
+            byte[] fileBytes,
+            int lsbDepth,
+            String idempotencyKey,
+            String requestHash
+    ) {
+        this.id = UUID.randomUUID();
+        this.type = type;
+        this.stage = StegoJobStage.QUEUED;
+        this.stageIndex = 0;
+        this.imageBytes = imageBytes;
+        this.message = message;
+        this.originalFileName = originalFileName;
+        this.fileBytes = fileBytes;
+        this.lsbDepth = lsbDepth;
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+        this.createdDate = Instant.now();
+        this.updatedDate = this.createdDate;
+    }
+
+}
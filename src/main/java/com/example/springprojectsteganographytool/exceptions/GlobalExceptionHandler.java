@@ -1,14 +1,26 @@
 package com.example.springprojectsteganographytool.exceptions;
 
+import com.example.springprojectsteganographytool.exceptions.common.DeadlineExceededException;
 import com.example.springprojectsteganographytool.exceptions.common.OperationNotAllowedException;
+import com.example.springprojectsteganographytool.exceptions.common.ServiceOverloadedException;
+import com.example.springprojectsteganographytool.exceptions.data.CoverLibraryFullException;
+import com.example.springprojectsteganographytool.exceptions.data.CoverNotFoundException;
+import com.example.springprojectsteganographytool.exceptions.data.InvalidBatchException;
+import com.example.springprojectsteganographytool.exceptions.data.InvalidContainerException;
+import com.example.springprojectsteganographytool.exceptions.data.InvalidIdempotencyKeyException;
+import com.example.springprojectsteganographytool.exceptions.data.InvalidRangeException;
 import com.example.springprojectsteganographytool.exceptions.data.MessageTooLargeException;
+import com.example.springprojectsteganographytool.exceptions.data.ShardSetInvalidException;
 import com.example.springprojectsteganographytool.exceptions.data.StegoDataNotFoundException;
+import com.example.springprojectsteganographytool.exceptions.data.StegoJobNotCompletedException;
+import com.example.springprojectsteganographytool.exceptions.data.StegoJobNotFoundException;
 import com.example.springprojectsteganographytool.exceptions.data.StorageException;
 import com.example.springprojectsteganographytool.exceptions.encryption.AesKeyInvalidException;
 import com.example.springprojectsteganographytool.exceptions.encryption.AesOperationException;
 import com.example.springprojectsteganographytool.exceptions.encryption.InvalidEncryptionKeyException;
 import com.example.springprojectsteganographytool.exceptions.file.FileTooLargeException;
 import com.example.springprojectsteganographytool.exceptions.file.FileTypeNotSupportedException;
+import com.example.springprojectsteganographytool.exceptions.file.InvalidAudioFormatException;
 import com.example.springprojectsteganographytool.exceptions.file.InvalidImageFormatException;
 import com.example.springprojectsteganographytool.exceptions.file.StegoImageNotFoundException;
 import com.example.springprojectsteganographytool.exceptions.lsb.InvalidLsbDepthException;
@@ -17,6 +29,7 @@ import com.example.springprojectsteganographytool.exceptions.lsb.LsbEncodingExce
 import com.example.springprojectsteganographytool.exceptions.metadata.MetadataDecodingException;
 import com.example.springprojectsteganographytool.exceptions.metadata.MetadataEncodingException;
 import com.example.springprojectsteganographytool.exceptions.metadata.MetadataNotFoundException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -41,6 +54,18 @@ public class GlobalExceptionHandler {
      * @return a ResponseEntity containing the response body and status
      */
     private ResponseEntity<Object> buildResponse(String message, HttpStatus status) {
+        return buildResponse(message, status, new HttpHeaders());
+    }
+
+    /**
+     * Builds a standardized response body for exceptions with additional response headers.
+     *
+     * @param message the error message to include in the response
+     * @param status  the HTTP status to set for the response
+     * @param headers the headers to add to the response
+     * @return a ResponseEntity containing the response body, headers and status
+     */
+    private ResponseEntity<Object> buildResponse(String message, HttpStatus status, HttpHeaders headers) {
         var body = new HashMap<String, Object>();
 
         body.put("timestamp", Instant.now());
@@ -48,7 +73,7 @@ public class GlobalExceptionHandler {
         body.put("error", status.getReasonPhrase());
         body.put("message", message);
 
-        return new ResponseEntity<>(body, status);
+        return new ResponseEntity<>(body, headers, status);
     }
 
     /**
@@ -106,6 +131,61 @@ public class GlobalExceptionHandler {
         return buildResponse(ex.getMessage(), HttpStatus.PAYLOAD_TOO_LARGE);
     }
 
+    /**
+     * Handles ShardSetInvalidException and returns a 400 Bad Request response.
+     *
+     * @param ex the exception to handle
+     * @return a ResponseEntity with the error details
+     */
+    @ExceptionHandler(ShardSetInvalidException.class)
+    public ResponseEntity<Object> handleShardSetInvalid(ShardSetInvalidException ex) {
+        return buildResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles InvalidBatchException and returns a 400 Bad Request response.
+     *
+     * @param ex the exception to handle
+     * @return a ResponseEntity with the error details
+     */
+    @ExceptionHandler(InvalidBatchException.class)
+    public ResponseEntity<Object> handleInvalidBatch(InvalidBatchException ex) {
+        return buildResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles InvalidIdempotencyKeyException and returns a 422 Unprocessable Entity response.
+     *
+     * @param ex the exception to handle
+     * @return a ResponseEntity with the error details
+     */
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<Object> handleInvalidIdempotencyKey(InvalidIdempotencyKeyException ex) {
+        return buildResponse(ex.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Handles InvalidContainerException and returns a 400 Bad Request response.
+     *
+     * @param ex the exception to handle
+     * @return a ResponseEntity with the error details
+     */
+    @ExceptionHandler(InvalidContainerException.class)
+    public ResponseEntity<Object> handleInvalidContainer(InvalidContainerException ex) {
+        return buildResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles InvalidRangeException and returns a 416 Range Not Satisfiable response.
+     *
+     * @param ex the exception to handle
+     * @return a ResponseEntity with the error details
+     */
+    @ExceptionHandler(InvalidRangeException.class)
+    public ResponseEntity<Object> handleInvalidRange(InvalidRangeException ex) {
+        return buildResponse(ex.getMessage(), HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+    }
+
     /**
      * Handles MetadataNotFoundException and returns a 404 Not Found response.
      *
@@ -139,6 +219,17 @@ public class GlobalExceptionHandler {
         return buildResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles InvalidAudioFormatException and returns a 400 Bad Request response.
+     *
+     * @param ex the exception to handle
+     * @return a ResponseEntity with the error details
+     */
+    @ExceptionHandler(InvalidAudioFormatException.class)
+    public ResponseEntity<Object> handleInvalidAudioFormat(InvalidAudioFormatException ex) {
+        return buildResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Handles various processing-related exceptions and returns a 500 Internal Server Error response.
      *
@@ -168,6 +259,50 @@ public class GlobalExceptionHandler {
         return buildResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handles CoverNotFoundException and returns a 404 Not Found response.
+     *
+     * @param ex the exception to handle
+     * @return a ResponseEntity with the error details
+     */
+    @ExceptionHandler(CoverNotFoundException.class)
+    public ResponseEntity<Object> handleCoverNotFound(CoverNotFoundException ex) {
+        return buildResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Handles CoverLibraryFullException and returns a 507 Insufficient Storage response.
+     *
+     * @param ex the exception to handle
+     * @return a ResponseEntity with the error details
+     */
+    @ExceptionHandler(CoverLibraryFullException.class)
+    public ResponseEntity<Object> handleCoverLibraryFull(CoverLibraryFullException ex) {
+        return buildResponse(ex.getMessage(), HttpStatus.INSUFFICIENT_STORAGE);
+    }
+
+    /**
+     * Handles StegoJobNotFoundException and returns a 404 Not Found response.
+     *
+     * @param ex the exception to handle
+     * @return a ResponseEntity with the error details
+     */
+    @ExceptionHandler(StegoJobNotFoundException.class)
+    public ResponseEntity<Object> handleStegoJobNotFound(StegoJobNotFoundException ex) {
+        return buildResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Handles StegoJobNotCompletedException and returns a 409 Conflict response.
+     *
+     * @param ex the exception to handle
+     * @return a ResponseEntity with the error details
+     */
+    @ExceptionHandler(StegoJobNotCompletedException.class)
+    public ResponseEntity<Object> handleStegoJobNotCompleted(StegoJobNotCompletedException ex) {
+        return buildResponse(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
     /**
      * Handles StorageException and returns a 500 Internal Server Error response.
      *
@@ -190,4 +325,30 @@ public class GlobalExceptionHandler {
         return buildResponse(ex.getMessage(), HttpStatus.FORBIDDEN);
     }
 
+    /**
+     * Handles ServiceOverloadedException and returns a 429 Too Many Requests response
+     * with a Retry-After header.
+     *
+     * @param ex the exception to handle
+     * @return a ResponseEntity with the error details
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Object> handleServiceOverloaded(ServiceOverloadedException ex) {
+        var headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())));
+
+        return buildResponse(ex.getMessage(), HttpStatus.TOO_MANY_REQUESTS, headers);
+    }
+
+    /**
+     * Handles DeadlineExceededException and returns a 503 Service Unavailable response.
+     *
+     * @param ex the exception to handle
+     * @return a ResponseEntity with the error details
+     */
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<Object> handleDeadlineExceeded(DeadlineExceededException ex) {
+        return buildResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
 }
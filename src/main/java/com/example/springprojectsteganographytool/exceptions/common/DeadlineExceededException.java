@@ -0,0 +1,20 @@
+package com.example.springprojectsteganographytool.exceptions.common;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Exception thrown when an operation does not complete within its request deadline.
+ * This exception extends {@link CancellationException}, so code that already lets cancellations
+ * through (for example the codec loops and the service error wrapping) treats it the same way.
+ */
+public class DeadlineExceededException extends CancellationException {
+
+    /**
+     * Constructs a new DeadlineExceededException with the specified detail message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.springprojectsteganographytool.exceptions.common;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when the CPU worker pool cannot accept more work and the request is shed.
+ * This exception extends the {@link RuntimeException}, making it an unchecked exception.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    /**
+     * Constructs a new ServiceOverloadedException with the specified detail message
+     * and retry hint.
+     *
+     * @param message    the detail message explaining the reason for the exception
+     * @param retryAfter how long the client should wait before retrying
+     */
+    public ServiceOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns how long the client should wait before retrying.
+     *
+     * @return the retry delay
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.springprojectsteganographytool.exceptions.data;
+
+/**
+ * Exception thrown when a cover does not fit into the cover library because it is full.
+ * This exception extends the {@link RuntimeException}, making it an unchecked exception.
+ */
+public class CoverLibraryFullException extends RuntimeException {
+
+    /**
+     * Constructs a new CoverLibraryFullException with the specified detail message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public CoverLibraryFullException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new CoverLibraryFullException with the specified detail message
+     * and cause.
+     *
+     * @param message the detail message explaining the reason for the exception
+     * @param cause   the cause of the exception (a throwable that caused this exception)
+     */
+    public CoverLibraryFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
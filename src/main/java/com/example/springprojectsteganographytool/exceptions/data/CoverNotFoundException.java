@@ -0,0 +1,29 @@
+package com.example.springprojectsteganographytool.exceptions.data;
+
+/**
+ * Exception thrown when a cover is not found in the cover library.
+ * This exception extends the {@link RuntimeException}, making it an unchecked exception.
+ */
+public class CoverNotFoundException extends RuntimeException {
+
+    /**
+     * Constructs a new CoverNotFoundException with the specified detail message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public CoverNotFoundException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new CoverNotFoundException with the specified detail message
+     * and cause.
+     *
+     * @param message the detail message explaining the reason for the exception
+     * @param cause   the cause of the exception (a throwable that caused this exception)
+     */
+    public CoverNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
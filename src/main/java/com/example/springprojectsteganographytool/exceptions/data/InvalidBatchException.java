@@ -0,0 +1,19 @@
+package com.example.springprojectsteganographytool.exceptions.data;
+
+/**
+ * Exception thrown when a batch encode request cannot be run, for example when it holds no items, too many
+ * items, or an item without a message or password.
+ * This exception extends the {@link RuntimeException}, making it an unchecked exception.
+ */
+public class InvalidBatchException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidBatchException with the specified detail message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public InvalidBatchException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.example.springprojectsteganographytool.exceptions.data;
+
+/**
+ * Exception thrown when a multi-entry container cannot be built or read as requested, for example when entry
+ * names are missing or repeated, or when the image does not hold a container.
+ * This exception extends the {@link RuntimeException}, making it an unchecked exception.
+ */
+public class InvalidContainerException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidContainerException with the specified detail message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public InvalidContainerException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.example.springprojectsteganographytool.exceptions.data;
+
+/**
+ * Exception thrown when an idempotency key is malformed or was already used for a different request.
+ * This exception extends the {@link RuntimeException}, making it an unchecked exception.
+ */
+public class InvalidIdempotencyKeyException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidIdempotencyKeyException with the specified detail message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public InvalidIdempotencyKeyException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.example.springprojectsteganographytool.exceptions.data;
+
+/**
+ * Exception thrown when a requested byte range cannot be served, for example when it starts beyond the end of
+ * the embedded file, or when the embedded file was not stored with a chunk index.
+ * This exception extends the {@link RuntimeException}, making it an unchecked exception.
+ */
+public class InvalidRangeException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidRangeException with the specified detail message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public InvalidRangeException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.example.springprojectsteganographytool.exceptions.data;
+
+/**
+ * Exception thrown when the images given for a sharded encode or decode do not form a valid shard set,
+ * for example when shards are missing, duplicated or belong to different payloads.
+ * This exception extends the {@link RuntimeException}, making it an unchecked exception.
+ */
+public class ShardSetInvalidException extends RuntimeException {
+
+    /**
+     * Constructs a new ShardSetInvalidException with the specified detail message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public ShardSetInvalidException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.example.springprojectsteganographytool.exceptions.data;
+
+/**
+ * Exception thrown when the result of a background job is requested before the job has completed.
+ * This exception extends the {@link RuntimeException}, making it an unchecked exception.
+ */
+public class StegoJobNotCompletedException extends RuntimeException {
+
+    /**
+     * Constructs a new StegoJobNotCompletedException with the specified detail message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public StegoJobNotCompletedException(String message) {
+        super(message);
+    }
+
+}
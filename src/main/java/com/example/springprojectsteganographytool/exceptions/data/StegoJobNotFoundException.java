@@ -0,0 +1,18 @@
+package com.example.springprojectsteganographytool.exceptions.data;
+
+/**
+ * Exception thrown when a background job is not found.
+ * This exception extends the {@link RuntimeException}, making it an unchecked exception.
+ */
+public class StegoJobNotFoundException extends RuntimeException {
+
+    /**
+     * Constructs a new StegoJobNotFoundException with the specified detail message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public StegoJobNotFoundException(String message) {
+        super(message);
+    }
+
+}
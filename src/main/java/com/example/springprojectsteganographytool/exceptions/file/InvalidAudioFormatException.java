@@ -0,0 +1,29 @@
+package com.example.springprojectsteganographytool.exceptions.file;
+
+/**
+ * Exception thrown when an invalid or unsupported audio format is encountered.
+ * This exception extends the {@link RuntimeException}, making it an unchecked exception.
+ */
+public class InvalidAudioFormatException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidAudioFormatException with the specified detail message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public InvalidAudioFormatException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new InvalidAudioFormatException with the specified detail message
+     * and cause.
+     *
+     * @param message the detail message explaining the reason for the exception
+     * @param cause   the cause of the exception (a throwable that caused this exception)
+     */
+    public InvalidAudioFormatException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
@@ -5,20 +5,26 @@ import com.example.springprojectsteganographytool.models.StegoDecodeResponseDTO;
 import com.example.springprojectsteganographytool.models.StegoDownloadDTO;
 import com.example.springprojectsteganographytool.models.StegoEncodeResponseDTO;
 import com.example.springprojectsteganographytool.models.StegoMetadataDTO;
+import com.example.springprojectsteganographytool.models.StegoSchedulingDTO;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface StegoDataMapper {
 
+    @Mapping(target = "scheduling", ignore = true)
     StegoEncodeResponseDTO StegoDataToEncodeResponseDTO(StegoData stegoData);
 
+    @Mapping(source = "scheduling", target = "scheduling")
+    StegoEncodeResponseDTO StegoDataToEncodeResponseDTO(StegoData stegoData, StegoSchedulingDTO scheduling);
+
     StegoMetadataDTO StegoDataToMetadataDTO(StegoData stegoData);
 
     @Mapping(source = "embeddedFileName", target = "fileName")
     @Mapping(source = "embeddedFileBytes", target = "fileData")
     StegoDownloadDTO StegoDataToDownloadDTO(StegoData stegoData);
 
+    @Mapping(target = "scheduling", ignore = true)
     StegoDecodeResponseDTO StegoDataToDecodeResponseDTO(StegoData stegoData);
 
 }
@@ -0,0 +1,8 @@
+package com.example.springprojectsteganographytool.models;
+
+// One text message of a batch encode, with the password it is encrypted with
+public record StegoBatchItemDTO(
+        String message, // Text message to embed
+        String password // Password for encrypting this message
+) {
+}
@@ -0,0 +1,13 @@
+package com.example.springprojectsteganographytool.models;
+
+// Chunk index recorded in the stego metadata of a file embedded as independently decryptable chunks;
+// every chunk but the last holds chunkSize plain bytes, so the position of any chunk follows from its number
+public record StegoChunkIndexDTO(
+        int chunkSize, // Plain bytes per chunk
+        int chunkCount, // Number of chunks
+        long fileLength, // Length of the whole plain file in bytes
+        int headerLength, // Length of the key header (salts) in bytes, stored right after the metadata
+        int storedChunkLength, // Stored length of every chunk but the last, in bytes
+        int lastStoredChunkLength // Stored length of the last chunk in bytes
+) {
+}
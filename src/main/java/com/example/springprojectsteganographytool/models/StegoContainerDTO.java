@@ -0,0 +1,8 @@
+package com.example.springprojectsteganographytool.models;
+
+// Container header recorded in the stego metadata of an image carrying several named entries
+public record StegoContainerDTO(
+        int entryCount, // Number of entries in the directory
+        int directoryLength // Length of the encrypted directory in bytes, stored right after the metadata
+) {
+}
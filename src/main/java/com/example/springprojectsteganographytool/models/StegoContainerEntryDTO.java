@@ -0,0 +1,9 @@
+package com.example.springprojectsteganographytool.models;
+
+// Used for passing an entry into a container and returning it after extraction
+public record StegoContainerEntryDTO(
+        String name,
+        boolean hasText, // content holds UTF-8 text if true, file bytes otherwise
+        byte[] content
+) {
+}
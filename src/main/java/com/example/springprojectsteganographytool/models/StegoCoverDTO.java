@@ -0,0 +1,13 @@
+package com.example.springprojectsteganographytool.models;
+
+import java.util.UUID;
+
+// A cover stored in the server-side cover library
+public record StegoCoverDTO(
+        UUID id, // Identifier of the stored raster
+        String name, // Name given when the cover was added
+        int width, // Width in pixels
+        int height, // Height in pixels
+        long pixelCount // width * height; the library index is sorted by this, which orders covers by capacity at every LSB depth
+) {
+}
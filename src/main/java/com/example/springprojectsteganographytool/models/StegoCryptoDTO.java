@@ -0,0 +1,12 @@
+package com.example.springprojectsteganographytool.models;
+
+import com.example.springprojectsteganographytool.crypto.CipherSuite;
+import com.example.springprojectsteganographytool.crypto.KdfScheme;
+
+// Encryption parameters recorded in the stego metadata, null for legacy images
+public record StegoCryptoDTO(
+        KdfScheme kdfScheme, // PBKDF2 or PBKDF2_HKDF
+        Integer kdfIterations, // PBKDF2 iteration count, null for 65536
+        CipherSuite cipherSuite // Cipher suite, null for AES_256_CBC
+) {
+}
@@ -6,6 +6,7 @@ public record StegoDecodeResponseDTO(
         String embeddedFileName,
         byte[] embeddedFileContent,
         boolean hasText,
-        boolean hasFile
+        boolean hasFile,
+        StegoSchedulingDTO scheduling
 ) {
 }
@@ -0,0 +1,10 @@
+package com.example.springprojectsteganographytool.models;
+
+// One entry of a container's directory; the directory is stored encrypted and lists entries in storage order
+public record StegoDirectoryEntryDTO(
+        String name, // Unique within the container
+        boolean hasText, // Text entry (UTF-8) or file entry
+        int size, // Plain size in bytes
+        int encryptedLength // Stored size in bytes; each entry is encrypted on its own
+) {
+}
@@ -1,5 +1,6 @@
 package com.example.springprojectsteganographytool.models;
 
+import java.time.Instant;
 import java.util.UUID;
 
 // Used for returning a response after processing a stego image
@@ -9,6 +10,7 @@ public record StegoEncodeResponseDTO(
         String embeddedFileName,
         boolean hasText,
         boolean hasFile,
-        Instant createdDate
+        Instant createdDate,
+        StegoSchedulingDTO scheduling // only set on the response to an encode request
 ) {
 }
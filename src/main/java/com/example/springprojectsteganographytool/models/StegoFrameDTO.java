@@ -0,0 +1,10 @@
+package com.example.springprojectsteganographytool.models;
+
+// One frame of an animated image, extracted as a standalone still image without decoding its pixels
+public record StegoFrameDTO(
+        int index, // Position of the frame in the animation, from 0
+        int width, // Frame width in pixels
+        int height, // Frame height in pixels
+        byte[] png // The frame as a PNG file
+) {
+}
@@ -0,0 +1,9 @@
+package com.example.springprojectsteganographytool.models;
+
+// Used for returning the result of a completed background job; exactly one result is set
+public record StegoJobResultDTO(
+        StegoJobStatusDTO status,
+        StegoEncodeResponseDTO encodeResult,
+        StegoDecodeResponseDTO decodeResult
+) {
+}
@@ -0,0 +1,15 @@
+package com.example.springprojectsteganographytool.models;
+
+// Pipeline stage of an encode or decode, reported as job progress
+public enum StegoJobStage {
+    QUEUED,
+    READING_IMAGE, // decoding the uploaded image
+    DERIVING_KEY,
+    ENCRYPTING, // encrypting the payload while preparing the cover
+    EMBEDDING, // writing the payload into the pixels and encoding the PNG
+    STORING,
+    READING_METADATA,
+    EXTRACTING, // extracting and decrypting the payload
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,17 @@
+package com.example.springprojectsteganographytool.models;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Used for reporting the progress of a background encode/decode job
+public record StegoJobStatusDTO(
+        UUID jobId,
+        StegoJobType type,
+        StegoJobStage stage,
+        int stageIndex, // position of the current stage in the job type's stages
+        int stageCount,
+        String error, // set when the stage is FAILED
+        Instant createdDate,
+        Instant updatedDate
+) {
+}
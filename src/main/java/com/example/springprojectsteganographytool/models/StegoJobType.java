@@ -0,0 +1,36 @@
+package com.example.springprojectsteganographytool.models;
+
+import java.util.List;
+
+// Kind of background job, with the stages it goes through in order
+public enum StegoJobType {
+    ENCODE_TEXT(List.of(
+            StegoJobStage.QUEUED,
+            StegoJobStage.READING_IMAGE,
+            StegoJobStage.DERIVING_KEY,
+            StegoJobStage.ENCRYPTING,
+            StegoJobStage.EMBEDDING,
+            StegoJobStage.STORING,
+            StegoJobStage.COMPLETED
+    )),
+    ENCODE_FILE(ENCODE_TEXT.stages),
+    ENCODE_TEXT_LIBRARY(ENCODE_TEXT.stages),
+    ENCODE_FILE_LIBRARY(ENCODE_TEXT.stages),
+    DECODE(List.of(
+            StegoJobStage.QUEUED,
+            StegoJobStage.READING_IMAGE,
+            StegoJobStage.READING_METADATA,
+            StegoJobStage.EXTRACTING,
+            StegoJobStage.COMPLETED
+    ));
+
+    private final List<StegoJobStage> stages;
+
+    StegoJobType(List<StegoJobStage> stages) {
+        this.stages = stages;
+    }
+
+    public List<StegoJobStage> stages() {
+        return stages;
+    }
+}
@@ -5,6 +5,10 @@ public record StegoMetadataDTO(
         boolean hasText,
         boolean hasFile,
         String encryptionKeyHash, // SHA-256 hash of the AES key
-        String originalFileName // Original file name
+        String originalFileName, // Original file name
+        StegoCryptoDTO crypto, // Encryption parameters, null for legacy images
+        StegoShardDTO shard, // Shard header, null for images carrying a whole payload
+        StegoContainerDTO container, // Container header, null for images carrying a single text or file
+        StegoChunkIndexDTO chunks // Chunk index, null unless the file was embedded as independently decryptable chunks
 ) {
 }
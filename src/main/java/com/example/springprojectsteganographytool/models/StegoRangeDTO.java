@@ -0,0 +1,10 @@
+package com.example.springprojectsteganographytool.models;
+
+// A byte range of a file embedded with a chunk index
+public record StegoRangeDTO(
+        String originalFileName, // Original file name
+        long offset, // Position of the first returned byte in the file
+        byte[] content, // The requested bytes, cut at the end of the file
+        long fileLength // Length of the whole file in bytes
+) {
+}
@@ -0,0 +1,8 @@
+package com.example.springprojectsteganographytool.models;
+
+// An image found by a scan to carry a stego header
+public record StegoScanHitDTO(
+        String source, // File path or upload name of the image
+        StegoMetadataDTO metadata // Metadata read from the image's leading rows
+) {
+}
@@ -0,0 +1,13 @@
+package com.example.springprojectsteganographytool.models;
+
+import java.util.List;
+
+// Result of scanning a set of images for stego headers
+public record StegoScanReportDTO(
+        long scanned, // Images examined, including misses and failures
+        long misses, // Images without a stego header, including files that are not images
+        List<StegoScanHitDTO> hits, // Images carrying a stego header, sorted by source
+        List<String> failed, // Sources that could not be read, or whose header was found but its metadata was unreadable
+        long elapsedMillis // Wall-clock duration of the scan
+) {
+}
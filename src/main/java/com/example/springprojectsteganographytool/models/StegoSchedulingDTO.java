@@ -0,0 +1,8 @@
+package com.example.springprojectsteganographytool.models;
+
+// Used for reporting how a request was scheduled on the CPU worker pool
+public record StegoSchedulingDTO(
+        long estimatedCost, // estimated work in pixel-equivalent units; cheaper requests are served first
+        long queueWaitMillis // total time the request's stages waited for a worker thread
+) {
+}
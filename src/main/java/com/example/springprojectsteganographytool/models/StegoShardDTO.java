@@ -0,0 +1,12 @@
+package com.example.springprojectsteganographytool.models;
+
+import java.util.UUID;
+
+// Shard header recorded in the stego metadata of an image carrying one part of a payload split across several covers
+public record StegoShardDTO(
+        UUID setId, // Shared by all shards of one payload
+        int index, // Position of this shard's bytes in the payload, from 0
+        int count, // Number of shards in the set
+        long payloadLength // Length of the whole encrypted payload in bytes
+) {
+}
@@ -0,0 +1,12 @@
+package com.example.springprojectsteganographytool.models;
+
+import java.util.List;
+import java.util.UUID;
+
+// Used for returning a response after splitting a payload across several cover images
+public record StegoShardedEncodeResponseDTO(
+        UUID shardSetId,
+        List<StegoEncodeResponseDTO> shards, // In shard order, i.e. the order the covers were given in
+        StegoSchedulingDTO scheduling
+) {
+}
@@ -0,0 +1,8 @@
+package com.example.springprojectsteganographytool.repos;
+
+import com.example.springprojectsteganographytool.documents.StegoIdempotencyRecord;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface StegoIdempotencyRecordRepository extends MongoRepository<StegoIdempotencyRecord, String> {
+
+}
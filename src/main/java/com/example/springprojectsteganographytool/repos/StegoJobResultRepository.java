@@ -0,0 +1,19 @@
+package com.example.springprojectsteganographytool.repos;
+
+import com.example.springprojectsteganographytool.documents.StegoJobResult;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.UUID;
+
+public interface StegoJobResultRepository extends MongoRepository<StegoJobResult, UUID> {
+
+    /**
+     * Removes a result and returns it, so that it is handed out at most once.
+     *
+     * @param id    The ID of the result.
+     * @param jobId The ID of the job it belongs to.
+     * @return The removed result, or null if there was none.
+     */
+    StegoJobResult deleteByIdAndJobId(UUID id, UUID jobId);
+
+}
@@ -0,0 +1,14 @@
+package com.example.springprojectsteganographytool.repos;
+
+import com.example.springprojectsteganographytool.documents.StegoWorkItem;
+import com.example.springprojectsteganographytool.models.StegoJobStage;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface StegoWorkItemRepository extends MongoRepository<StegoWorkItem, UUID>, StegoWorkQueue {
+
+    long countByStageNotIn(Collection<StegoJobStage> stages);
+
+}
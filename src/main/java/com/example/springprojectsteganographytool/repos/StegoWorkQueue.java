@@ -0,0 +1,90 @@
+package com.example.springprojectsteganographytool.repos;
+
+import com.example.springprojectsteganographytool.documents.StegoWorkItem;
+import com.example.springprojectsteganographytool.models.StegoEncodeResponseDTO;
+import com.example.springprojectsteganographytool.models.StegoJobStage;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Lease operations of the shared work queue.
+ * Every operation is a single atomic Mongo update, so any number of nodes can work the queue concurrently.
+ * Operations taking a lease token only apply while that token is the job's current lease.
+ */
+public interface StegoWorkQueue {
+
+    /**
+     * Creates the queue's indexes if they do not exist yet.
+     */
+    void ensureIndexes();
+
+    /**
+     * Claims the oldest job that is queued or whose lease has expired.
+     *
+     * @param owner       The ID of the claiming node.
+     * @param lease       How long the claim lasts without a heartbeat.
+     * @param maxAttempts Jobs claimed this many times already are not claimed again.
+     * @return The claimed job with its new lease token, or empty if there is nothing to claim.
+     */
+    Optional<StegoWorkItem> claimNext(String owner, Duration lease, int maxAttempts);
+
+    /**
+     * Extends a lease.
+     *
+     * @return false if the lease has been lost to another claim or the job has finished.
+     */
+    boolean renewLease(UUID id, UUID leaseToken, Duration lease);
+
+    /**
+     * Records the stage a leased job has reached.
+     *
+     * @return false if the lease has been lost.
+     */
+    boolean advance(UUID id, UUID leaseToken, StegoJobStage stage, int stageIndex);
+
+    /**
+     * Puts a leased job back in the queue without counting the attempt, e.g. when the node is shutting down
+     * or has no capacity after all.
+     *
+     * @return false if the lease has been lost.
+     */
+    boolean release(UUID id, UUID leaseToken);
+
+    /**
+     * Marks a leased job as completed, storing its result and dropping the payload.
+     *
+     * @param encodeResult The result of an encode job, or null.
+     * @param resultId     The ID of the {@link com.example.springprojectsteganographytool.documents.StegoJobResult}
+     *                     holding the result of a decode job, or null.
+     * @return false if the lease has been lost.
+     */
+    boolean complete(UUID id, UUID leaseToken, StegoEncodeResponseDTO encodeResult, UUID resultId);
+
+    /**
+     * Marks a leased job as failed and drops the payload.
+     *
+     * @return false if the lease has been lost.
+     */
+    boolean fail(UUID id, UUID leaseToken, String error);
+
+    /**
+     * Fails jobs whose lease has expired after their last allowed attempt.
+     *
+     * @param maxAttempts The number of claims a job is allowed.
+     * @return The number of jobs failed.
+     */
+    long failAbandoned(int maxAttempts);
+
+    /**
+     * Loads the progress fields of jobs, without payloads and results.
+     *
+     * @param ids The IDs of the jobs.
+     * @return The jobs found.
+     */
+    List<StegoWorkItem> findProgress(Collection<UUID> ids);
+
+}
@@ -0,0 +1,156 @@
+package com.example.springprojectsteganographytool.repos;
+
+import com.example.springprojectsteganographytool.documents.StegoWorkItem;
+import com.example.springprojectsteganographytool.models.StegoEncodeResponseDTO;
+import com.example.springprojectsteganographytool.models.StegoJobStage;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Mongo implementation of the work queue's lease operations, picked up as a fragment of {@link StegoWorkItemRepository}.
+ */
+class StegoWorkQueueImpl implements StegoWorkQueue {
+
+    private static final List<StegoJobStage> NOT_RUNNING = List.of(
+            StegoJobStage.QUEUED,
+            StegoJobStage.COMPLETED,
+            StegoJobStage.FAILED
+    );
+    private static final String[] PAYLOAD_FIELDS = {"imageBytes", "message", "originalFileName", "fileBytes", "sealedPassword"};
+
+    private final MongoTemplate mongoTemplate;
+    private final Clock clock; // lease times; replaceable so tests can expire leases without waiting
+
+    StegoWorkQueueImpl(MongoTemplate mongoTemplate, Clock clock) {
+        this.mongoTemplate = mongoTemplate;
+        this.clock = clock;
+    }
+
+    @Override
+    public void ensureIndexes() {
+        var indexOps = mongoTemplate.indexOps(StegoWorkItem.class);
+        new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(StegoWorkItem.class)
+                .forEach(indexOps::ensureIndex);
+    }
+
+    @Override
+    public Optional<StegoWorkItem> claimNext(String owner, Duration lease, int maxAttempts) {
+        var now = clock.instant();
+        var claimable = new Criteria().orOperator(
+                Criteria.where("stage").is(StegoJobStage.QUEUED),
+                Criteria.where("stage").nin(NOT_RUNNING).and("leaseExpiresAt").lt(now)
+        ).and("attempts").lt(maxAttempts);
+
+        var update = new Update()
+                .set("stage", StegoJobStage.READING_IMAGE)
+                .set("stageIndex", 1)
+                .set("owner", owner)
+                .set("leaseToken", UUID.randomUUID())
+                .set("leaseExpiresAt", now.plus(lease))
+                .set("updatedDate", now)
+                .inc("attempts", 1);
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                new Query(claimable).with(Sort.by("createdDate")),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                StegoWorkItem.class
+        ));
+    }
+
+    @Override
+    public boolean renewLease(UUID id, UUID leaseToken, Duration lease) {
+        var now = clock.instant();
+        return updateLeased(id, leaseToken, new Update()
+                .set("leaseExpiresAt", now.plus(lease))
+                .set("updatedDate", now));
+    }
+
+    @Override
+    public boolean advance(UUID id, UUID leaseToken, StegoJobStage stage, int stageIndex) {
+        return updateLeased(id, leaseToken, new Update()
+                .set("stage", stage)
+                .set("stageIndex", stageIndex)
+                .set("updatedDate", clock.instant()));
+    }
+
+    @Override
+    public boolean release(UUID id, UUID leaseToken) {
+        return updateLeased(id, leaseToken, new Update()
+                .set("stage", StegoJobStage.QUEUED)
+                .set("stageIndex", 0)
+                .unset("owner")
+                .unset("leaseToken")
+                .unset("leaseExpiresAt")
+                .set("updatedDate", clock.instant())
+                .inc("attempts", -1));
+    }
+
+    @Override
+    public boolean complete(UUID id, UUID leaseToken, StegoEncodeResponseDTO encodeResult, UUID resultId) {
+        var update = finish(StegoJobStage.COMPLETED)
+                .set("encodeResult", encodeResult)
+                .set("resultId", resultId);
+        return updateLeased(id, leaseToken, update);
+    }
+
+    @Override
+    public boolean fail(UUID id, UUID leaseToken, String error) {
+        return updateLeased(id, leaseToken, finish(StegoJobStage.FAILED).set("error", error));
+    }
+
+    @Override
+    public long failAbandoned(int maxAttempts) {
+        var abandoned = Criteria.where("stage").nin(NOT_RUNNING)
+                .and("leaseExpiresAt").lt(clock.instant())
+                .and("attempts").gte(maxAttempts);
+        var update = finish(StegoJobStage.FAILED)
+                .set("error", "The job was abandoned by its worker " + maxAttempts + " times.");
+
+        return mongoTemplate.updateMulti(new Query(abandoned), update, StegoWorkItem.class).getModifiedCount();
+    }
+
+    @Override
+    public List<StegoWorkItem> findProgress(Collection<UUID> ids) {
+        var query = new Query(Criteria.where("_id").in(ids));
+        query.fields().exclude(PAYLOAD_FIELDS).exclude("encodeResult");
+
+        return mongoTemplate.find(query, StegoWorkItem.class);
+    }
+
+    private boolean updateLeased(UUID id, UUID leaseToken, Update update) {
+        var leased = Criteria.where("_id").is(id)
+                .and("leaseToken").is(leaseToken)
+                .and("stage").nin(NOT_RUNNING);
+
+        return mongoTemplate.updateFirst(new Query(leased), update, StegoWorkItem.class).getModifiedCount() == 1;
+    }
+
+    private Update finish(StegoJobStage stage) {
+        var now = clock.instant();
+        var update = new Update()
+                .set("stage", stage)
+                .unset("leaseToken")
+                .unset("leaseExpiresAt")
+                .set("updatedDate", now)
+                .set("finishedDate", now);
+        for (var field : PAYLOAD_FIELDS) {
+            update.unset(field);
+        }
+        return update;
+    }
+
+}
@@ -1,11 +1,21 @@
 package com.example.springprojectsteganographytool.services;
 
+import com.example.springprojectsteganographytool.crypto.EncryptedChunks;
 import com.example.springprojectsteganographytool.exceptions.encryption.AesKeyInvalidException;
 import com.example.springprojectsteganographytool.exceptions.encryption.AesOperationException;
+import com.example.springprojectsteganographytool.models.StegoCryptoDTO;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service interface for AES encryption and decryption operations,
  * including text and file handling, as well as key generation.
+ * <p>
+ * The blocking methods run on the calling thread. The asynchronous variants run on the CPU worker pool and
+ * complete exceptionally with the same exceptions the blocking methods throw.
  */
 public interface AesUtilService {
 
@@ -65,6 +75,231 @@ public interface AesUtilService {
             String key
     ) throws AesKeyInvalidException, AesOperationException;
 
+    /**
+     * Encrypts the given plain text using the specified key and encryption parameters.
+     *
+     * @param plainText The plain text to encrypt.
+     * @param key       The encryption key.
+     * @param crypto    The encryption parameters to use, or null for the legacy parameters.
+     * @return A byte array containing the encrypted text.
+     * @throws AesKeyInvalidException If the AES key is invalid.
+     * @throws AesOperationException  If an error occurs during the encryption process.
+     */
+    byte[] encryptText(
+            String plainText,
+            String key,
+            StegoCryptoDTO crypto
+    ) throws AesKeyInvalidException, AesOperationException;
+
+    /**
+     * Decrypts the given cipher bytes using the specified key and the parameters they were encrypted with.
+     *
+     * @param cipherBytes The byte array representing the encrypted text.
+     * @param key         The decryption key.
+     * @param crypto      The encryption parameters recorded at encode time, or null for legacy payloads.
+     * @return The decrypted plain text as a String.
+     * @throws AesKeyInvalidException If the AES key is invalid.
+     * @throws AesOperationException  If an error occurs during the decryption process.
+     */
+    String decryptText(
+            byte[] cipherBytes,
+            String key,
+            StegoCryptoDTO crypto
+    ) throws AesKeyInvalidException, AesOperationException;
+
+    /**
+     * Encrypts the given file bytes using the specified key and encryption parameters.
+     *
+     * @param fileBytes The byte array representing the file to encrypt.
+     * @param key       The encryption key.
+     * @param crypto    The encryption parameters to use, or null for the legacy parameters.
+     * @return A byte array containing the encrypted file data.
+     * @throws AesKeyInvalidException If the AES key is invalid.
+     * @throws AesOperationException  If an error occurs during the encryption process.
+     */
+    byte[] encryptFile(
+            byte[] fileBytes,
+            String key,
+            StegoCryptoDTO crypto
+    ) throws AesKeyInvalidException, AesOperationException;
+
+    /**
+     * Decrypts the given cipher bytes of a file using the specified key and the parameters they were encrypted with.
+     *
+     * @param cipherBytes The byte array representing the encrypted file data.
+     * @param key         The decryption key.
+     * @param crypto      The encryption parameters recorded at encode time, or null for legacy payloads.
+     * @return A byte array containing the decrypted file data.
+     * @throws AesKeyInvalidException If the AES key is invalid.
+     * @throws AesOperationException  If an error occurs during the decryption process.
+     */
+    byte[] decryptFile(
+            byte[] cipherBytes,
+            String key,
+            StegoCryptoDTO crypto
+    ) throws AesKeyInvalidException, AesOperationException;
+
+    /**
+     * Encrypts the remaining bytes of the source buffer into the destination buffer.
+     * The destination needs at least {@link #encryptedLength(int, StegoCryptoDTO)} bytes remaining.
+     * Passing a source that views the destination right after the header space encrypts in place.
+     *
+     * @param source      The plain text, from its position to its limit (heap or direct).
+     * @param destination The buffer receiving the salt(s), IV and cipher text (heap or direct).
+     * @param key         The encryption key.
+     * @param crypto      The encryption parameters to use, or null for the legacy parameters.
+     * @return The number of bytes written to the destination.
+     * @throws AesKeyInvalidException If the AES key is invalid.
+     * @throws AesOperationException  If an error occurs during the encryption process.
+     */
+    int encrypt(
+            ByteBuffer source,
+            ByteBuffer destination,
+            String key,
+            StegoCryptoDTO crypto
+    ) throws AesKeyInvalidException, AesOperationException;
+
+    /**
+     * Decrypts the remaining bytes of the source buffer into the destination buffer.
+     * The destination needs at least the cipher text length remaining and may view the source to decrypt in place.
+     *
+     * @param source      The salt(s), IV and cipher text, from its position to its limit (heap or direct).
+     * @param destination The buffer receiving the plain text (heap or direct).
+     * @param key         The decryption key.
+     * @param crypto      The encryption parameters recorded at encode time, or null for legacy payloads.
+     * @return The number of plain text bytes written to the destination.
+     * @throws AesKeyInvalidException If the AES key is invalid.
+     * @throws AesOperationException  If an error occurs during the decryption process.
+     */
+    int decrypt(
+            ByteBuffer source,
+            ByteBuffer destination,
+            String key,
+            StegoCryptoDTO crypto
+    ) throws AesKeyInvalidException, AesOperationException;
+
+    /**
+     * Encrypts the source memory segment into the destination memory segment.
+     *
+     * @param source      The plain text segment.
+     * @param destination The segment receiving the salt(s), IV and cipher text.
+     * @param key         The encryption key.
+     * @param crypto      The encryption parameters to use, or null for the legacy parameters.
+     * @return The number of bytes written to the destination.
+     * @throws AesKeyInvalidException If the AES key is invalid.
+     * @throws AesOperationException  If an error occurs during the encryption process.
+     */
+    long encrypt(
+            MemorySegment source,
+            MemorySegment destination,
+            String key,
+            StegoCryptoDTO crypto
+    ) throws AesKeyInvalidException, AesOperationException;
+
+    /**
+     * Decrypts the source memory segment into the destination memory segment.
+     *
+     * @param source      The salt(s), IV and cipher text segment.
+     * @param destination The segment receiving the plain text.
+     * @param key         The decryption key.
+     * @param crypto      The encryption parameters recorded at encode time, or null for legacy payloads.
+     * @return The number of plain text bytes written to the destination.
+     * @throws AesKeyInvalidException If the AES key is invalid.
+     * @throws AesOperationException  If an error occurs during the decryption process.
+     */
+    long decrypt(
+            MemorySegment source,
+            MemorySegment destination,
+            String key,
+            StegoCryptoDTO crypto
+    ) throws AesKeyInvalidException, AesOperationException;
+
+    /**
+     * Returns the size of an encrypted payload, including salt(s) and IV, for a plain text of the given length.
+     *
+     * @param plainTextLength The plain text length in bytes.
+     * @param crypto          The encryption parameters to use, or null for the legacy parameters.
+     * @return The encrypted length in bytes.
+     */
+    int encryptedLength(
+            int plainTextLength,
+            StegoCryptoDTO crypto
+    );
+
+    /**
+     * Returns the length of the key header shared by the chunks of a chunked file: the salt(s) without an IV.
+     *
+     * @param crypto The encryption parameters to use, or null for the legacy parameters.
+     * @return The key header length in bytes.
+     */
+    int chunkHeaderLength(
+            StegoCryptoDTO crypto
+    );
+
+    /**
+     * Returns the stored length of one chunk of a chunked file, IV included, for a chunk of the given plain length.
+     *
+     * @param plainChunkLength The plain length of the chunk in bytes.
+     * @param crypto           The encryption parameters to use, or null for the legacy parameters.
+     * @return The stored chunk length in bytes.
+     */
+    int encryptedChunkLength(
+            int plainChunkLength,
+            StegoCryptoDTO crypto
+    );
+
+    /**
+     * Encrypts a file as chunks of the given plain size that can be decrypted on their own.
+     * The key is derived once; every chunk gets its own IV, and the chunk number, chunk count and last-chunk flag
+     * are bound as associated data so that chunks cannot be reordered or truncated. Only AEAD suites are accepted.
+     * An empty file yields one empty chunk.
+     *
+     * @param fileBytes The file to encrypt.
+     * @param chunkSize The plain bytes per chunk; only the last chunk may be shorter.
+     * @param key       The encryption key.
+     * @param crypto    The encryption parameters to use, or null for the legacy parameters.
+     * @return The key header and the encrypted chunks.
+     * @throws AesKeyInvalidException If the AES key is invalid.
+     * @throws AesOperationException  If the cipher suite is not authenticated or an error occurs during the encryption
+     *                                process.
+     */
+    EncryptedChunks encryptChunks(
+            byte[] fileBytes,
+            int chunkSize,
+            String key,
+            StegoCryptoDTO crypto
+    ) throws AesKeyInvalidException, AesOperationException;
+
+    /**
+     * Decrypts consecutive chunks of a chunked file, deriving the key from the key header once.
+     *
+     * @param header     The key header written by {@link #encryptChunks(byte[], int, String, StegoCryptoDTO)}.
+     * @param chunks     The stored chunks to decrypt, in file order.
+     * @param firstChunk The number of the first given chunk in the file, from 0.
+     * @param chunkCount The number of chunks in the whole file.
+     * @param key        The decryption key.
+     * @param crypto     The encryption parameters recorded at encode time, or null for legacy payloads.
+     * @return The plain bytes of every given chunk, in the same order.
+     * @throws AesKeyInvalidException If the AES key is invalid.
+     * @throws AesOperationException  If an error occurs during the decryption process.
+     */
+    List<byte[]> decryptChunks(
+            byte[] header,
+            List<byte[]> chunks,
+            int firstChunk,
+            int chunkCount,
+            String key,
+            StegoCryptoDTO crypto
+    ) throws AesKeyInvalidException, AesOperationException;
+
+    /**
+     * Returns the encryption parameters new payloads should be encrypted with.
+     * The returned value is meant to be stored in the stego metadata.
+     *
+     * @return The default encryption parameters of this service.
+     */
+    StegoCryptoDTO defaultCryptoSpec();
+
     /**
      * Generates a secure encryption key based on the provided input key.
      *
@@ -77,4 +312,69 @@ public interface AesUtilService {
             String key
     ) throws AesKeyInvalidException, AesOperationException;
 
+    // ----- Asynchronous variants -----
+
+    /**
+     * Encrypts the given plain text on the CPU worker pool.
+     *
+     * @param plainText The plain text to encrypt.
+     * @param key       The encryption key.
+     * @return A future completed with the encrypted text.
+     * @see #encryptText(String, String)
+     */
+    CompletableFuture<byte[]> encryptTextAsync(
+            String plainText,
+            String key
+    );
+
+    /**
+     * Decrypts the given cipher bytes on the CPU worker pool.
+     *
+     * @param cipherBytes The byte array representing the encrypted text.
+     * @param key         The decryption key.
+     * @return A future completed with the decrypted plain text.
+     * @see #decryptText(byte[], String)
+     */
+    CompletableFuture<String> decryptTextAsync(
+            byte[] cipherBytes,
+            String key
+    );
+
+    /**
+     * Encrypts the given file bytes on the CPU worker pool.
+     *
+     * @param fileBytes The byte array representing the file to encrypt.
+     * @param key       The encryption key.
+     * @return A future completed with the encrypted file data.
+     * @see #encryptFile(byte[], String)
+     */
+    CompletableFuture<byte[]> encryptFileAsync(
+            byte[] fileBytes,
+            String key
+    );
+
+    /**
+     * Decrypts the given cipher bytes of a file on the CPU worker pool.
+     *
+     * @param cipherBytes The byte array representing the encrypted file data.
+     * @param key         The decryption key.
+     * @return A future completed with the decrypted file data.
+     * @see #decryptFile(byte[], String)
+     */
+    CompletableFuture<byte[]> decryptFileAsync(
+            byte[] cipherBytes,
+            String key
+    );
+
+    /**
+     * Generates a secure encryption key on the CPU worker pool.
+     *
+     * @param key The input key to generate a secure encryption key.
+     * @return A future completed with the generated encryption key.
+     * @see #generateKey(String)
+     */
+    CompletableFuture<String> generateKeyAsync(
+            String key
+    );
+
 }
\ No newline at end of file
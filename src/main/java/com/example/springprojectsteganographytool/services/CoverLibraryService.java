@@ -0,0 +1,82 @@
+package com.example.springprojectsteganographytool.services;
+
+import com.example.springprojectsteganographytool.exceptions.data.CoverLibraryFullException;
+import com.example.springprojectsteganographytool.exceptions.data.CoverNotFoundException;
+import com.example.springprojectsteganographytool.exceptions.data.MessageTooLargeException;
+import com.example.springprojectsteganographytool.exceptions.data.StorageException;
+import com.example.springprojectsteganographytool.exceptions.file.InvalidImageFormatException;
+import com.example.springprojectsteganographytool.exceptions.lsb.InvalidLsbDepthException;
+import com.example.springprojectsteganographytool.models.StegoCoverDTO;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Service interface for the server-side cover library: covers uploaded once, stored as decoded rasters and
+ * selected by capacity, so encodes need neither a cover upload nor an image decode.
+ */
+public interface CoverLibraryService {
+
+    /**
+     * Decodes a cover image once and adds its raster to the library.
+     *
+     * @param name       A display name for the cover.
+     * @param imageBytes The encoded cover image (any format supported by ImageIO).
+     * @return The stored cover.
+     * @throws InvalidImageFormatException If the image format is unsupported or the data is corrupted.
+     * @throws CoverLibraryFullException   If the library has no room left for the cover.
+     * @throws StorageException            If the raster cannot be written.
+     * @throws InterruptedException        If the calling thread is interrupted while the cover is decoded.
+     * @throws ExecutionException          If decoding the cover fails with a checked exception.
+     */
+    StegoCoverDTO addCover(
+            String name,
+            byte[] imageBytes
+    ) throws InvalidImageFormatException, CoverLibraryFullException, StorageException, InterruptedException, ExecutionException;
+
+    /**
+     * Lists the covers in the library, smallest first.
+     *
+     * @return The stored covers.
+     */
+    List<StegoCoverDTO> listCovers();
+
+    /**
+     * Removes a cover from the library and deletes its raster.
+     *
+     * @param id The identifier of the cover.
+     * @throws CoverNotFoundException If no cover with the identifier exists.
+     * @throws StorageException       If the raster cannot be deleted.
+     */
+    void removeCover(
+            UUID id
+    ) throws CoverNotFoundException, StorageException;
+
+    /**
+     * Finds the smallest cover in the library that holds a payload of the given length.
+     *
+     * @param payloadLength The length of the payload to embed in bytes.
+     * @param lsbDepth      The LSB depth the payload will be embedded with (1 or 2).
+     * @return The selected cover; its dimensions give the size of its working copy.
+     * @throws InvalidLsbDepthException If the specified LSB depth is invalid.
+     * @throws MessageTooLargeException If no cover in the library is large enough.
+     */
+    StegoCoverDTO selectCover(
+            long payloadLength,
+            int lsbDepth
+    ) throws InvalidLsbDepthException, MessageTooLargeException;
+
+    /**
+     * Returns a working copy of a cover in the library.
+     *
+     * @param id The identifier of the cover.
+     * @return A new ARGB image with the cover's pixels.
+     * @throws CoverNotFoundException If no cover with the identifier exists, e.g. it was removed after it was selected.
+     */
+    BufferedImage copyCover(
+            UUID id
+    ) throws CoverNotFoundException;
+
+}
@@ -0,0 +1,59 @@
+package com.example.springprojectsteganographytool.services;
+
+import com.example.springprojectsteganographytool.exceptions.data.InvalidIdempotencyKeyException;
+import com.example.springprojectsteganographytool.models.StegoEncodeResponseDTO;
+import com.example.springprojectsteganographytool.models.StegoJobType;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Service interface for idempotent encode requests.
+ * A client that retries an encode with the same idempotency key within the retry window gets the result of the
+ * original request back, without the payload being encrypted, embedded or stored again.
+ */
+public interface IdempotencyService {
+
+    /**
+     * Validates an idempotency key and identifies the request sent with it.
+     * Called when a request is accepted, so that a misused key fails the request rather than its job.
+     *
+     * @param idempotencyKey   The key sent by the client, or null.
+     * @param type             The type of the encode request.
+     * @param coverImageBytes  The encoded cover image, or null for an encode into a library cover.
+     * @param message          The text message to encode, or null.
+     * @param originalFileName The name of the file to encode, or null.
+     * @param fileBytes        The file to encode, or null.
+     * @param password         The password the payload is encrypted with; a retry with another password is a
+     *                         different request.
+     * @param lsbDepth         The LSB depth to encode with.
+     * @return The hash of the request to pass to {@link #encodeOnce}, or null if no key was given.
+     * @throws InvalidIdempotencyKeyException If the key is malformed or was used for a different request.
+     */
+    String checkRequest(
+            String idempotencyKey,
+            StegoJobType type,
+            byte[] coverImageBytes,
+            String message,
+            String originalFileName,
+            byte[] fileBytes,
+            String password,
+            int lsbDepth
+    ) throws InvalidIdempotencyKeyException;
+
+    /**
+     * Runs an encode once per idempotency key, returning the stored result for retries within the retry window.
+     *
+     * @param idempotencyKey The key sent by the client; null runs the encode unconditionally.
+     * @param requestHash    The hash returned by {@link #checkRequest}.
+     * @param encode         The encode to run if the key has no result yet.
+     * @return The result of the encode, or of the original request.
+     * @throws InvalidIdempotencyKeyException If the key was used for a different request.
+     * @throws Exception                      The exception the encode threw.
+     */
+    StegoEncodeResponseDTO encodeOnce(
+            String idempotencyKey,
+            String requestHash,
+            Callable<StegoEncodeResponseDTO> encode
+    ) throws Exception;
+
+}
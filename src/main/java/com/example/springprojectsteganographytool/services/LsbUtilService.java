@@ -2,16 +2,32 @@ package com.example.springprojectsteganographytool.services;
 
 import com.example.springprojectsteganographytool.exceptions.data.MessageTooLargeException;
 import com.example.springprojectsteganographytool.exceptions.data.StegoDataNotFoundException;
+import com.example.springprojectsteganographytool.exceptions.file.InvalidAudioFormatException;
 import com.example.springprojectsteganographytool.exceptions.file.InvalidImageFormatException;
 import com.example.springprojectsteganographytool.exceptions.lsb.InvalidLsbDepthException;
 import com.example.springprojectsteganographytool.exceptions.lsb.LsbDecodingException;
 import com.example.springprojectsteganographytool.exceptions.lsb.LsbEncodingException;
+import com.example.springprojectsteganographytool.exceptions.metadata.MetadataDecodingException;
+import com.example.springprojectsteganographytool.exceptions.metadata.MetadataEncodingException;
+import com.example.springprojectsteganographytool.exceptions.metadata.MetadataNotFoundException;
+import com.example.springprojectsteganographytool.models.StegoFrameDTO;
 import com.example.springprojectsteganographytool.models.StegoMetadataDTO;
 
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Service interface for performing Least Significant Bit (LSB) steganography operations.
  * Provides methods for encoding data into images, decoding data from stego images,
  * and extracting metadata from stego images.
+ * <p>
+ * Implementations run on the calling thread; callers decide which stages run concurrently.
+ * The asynchronous variants run on the CPU worker pool and complete exceptionally with the same exceptions
+ * the blocking methods throw.
  */
 public interface LsbUtilService {
 
@@ -49,6 +65,545 @@ public interface LsbUtilService {
             Integer lsbDepth
     ) throws InvalidLsbDepthException, LsbDecodingException, StegoDataNotFoundException, InvalidImageFormatException;
 
+    /**
+     * Reads the dimensions of an uploaded image from its header, without decoding its pixels, so that the memory
+     * and CPU cost of decoding it can be accounted for first.
+     *
+     * @param imageBytes The encoded image.
+     * @return The width and height of the image in pixels.
+     * @throws InvalidImageFormatException If the image format is unsupported or the data is corrupted.
+     */
+    Dimension readImageSize(
+            byte[] imageBytes
+    ) throws InvalidImageFormatException;
+
+    /**
+     * Decodes an uploaded image (any format supported by ImageIO) into the ARGB format used for LSB operations.
+     *
+     * @param imageBytes The encoded image.
+     * @return The decoded ARGB image.
+     * @throws InvalidImageFormatException If the image format is unsupported or the data is corrupted.
+     */
+    BufferedImage readImage(
+            byte[] imageBytes
+    ) throws InvalidImageFormatException;
+
+    /**
+     * Decodes an uploaded cover image like {@link #readImage(byte[])}, serving repeated uploads of the same bytes
+     * from the cover cache. The returned image may be shared with other requests and must not be modified;
+     * embed into a copy made by {@link #prepareCover(BufferedImage)}.
+     *
+     * @param imageBytes The encoded cover image.
+     * @return The decoded ARGB cover image.
+     * @throws InvalidImageFormatException If the image format is unsupported or the data is corrupted.
+     */
+    BufferedImage readCover(
+            byte[] imageBytes
+    ) throws InvalidImageFormatException;
+
+    /**
+     * Creates the ARGB working copy of a decoded cover image that a payload can be embedded into.
+     * The cover image itself is never modified.
+     *
+     * @param coverImage The decoded cover image.
+     * @return A new ARGB image with the cover's pixels.
+     * @throws LsbEncodingException If the cover image cannot be copied.
+     */
+    BufferedImage prepareCover(
+            BufferedImage coverImage
+    ) throws LsbEncodingException;
+
+    /**
+     * Copies a working image created by {@link #prepareCover(BufferedImage)}, so one converted cover can be
+     * embedded into many times. The pixels are copied as a whole instead of being converted again.
+     *
+     * @param workingImage The ARGB working image to copy; it is not modified.
+     * @return A new ARGB working image with the same pixels.
+     * @throws LsbEncodingException If the image cannot be copied.
+     */
+    BufferedImage copyWorkingImage(
+            BufferedImage workingImage
+    ) throws LsbEncodingException;
+
+    /**
+     * Embeds a payload and its metadata into a working image created by {@link #prepareCover(BufferedImage)}.
+     * The working image is modified in place.
+     *
+     * @param workingImage The ARGB working image to write into.
+     * @param payloadBytes The byte array representing the payload to encode.
+     * @param metadata     Metadata containing encoding details.
+     * @return A byte array representing the stego image (PNG) with the encoded payload.
+     * @throws InvalidLsbDepthException If the specified LSB depth is invalid.
+     * @throws MessageTooLargeException If the payload is too large to fit in the image.
+     * @throws LsbEncodingException     If an error occurs during encoding.
+     */
+    byte[] embed(
+            BufferedImage workingImage,
+            byte[] payloadBytes,
+            StegoMetadataDTO metadata
+    ) throws InvalidLsbDepthException, MessageTooLargeException, LsbEncodingException;
+
+    /**
+     * Checks that a payload of the given length fits into the cover image together with the metadata.
+     *
+     * @param coverImage    The decoded cover image.
+     * @param payloadLength The length of the payload in bytes.
+     * @param metadata      Metadata containing encoding details.
+     * @throws InvalidLsbDepthException  If the specified LSB depth is invalid.
+     * @throws MessageTooLargeException  If the payload is too large to fit in the image.
+     * @throws MetadataEncodingException If the metadata cannot be serialized.
+     */
+    void ensureCapacity(
+            BufferedImage coverImage,
+            long payloadLength,
+            StegoMetadataDTO metadata
+    ) throws InvalidLsbDepthException, MessageTooLargeException, MetadataEncodingException;
+
+    /**
+     * Returns the largest payload that fits into the cover image together with the metadata.
+     *
+     * @param coverImage The decoded cover image.
+     * @param metadata   Metadata containing encoding details.
+     * @return The payload capacity in bytes; 0 if only an empty payload fits.
+     * @throws InvalidLsbDepthException  If the specified LSB depth is invalid.
+     * @throws MessageTooLargeException  If not even the metadata fits into the image.
+     * @throws MetadataEncodingException If the metadata cannot be serialized.
+     */
+    long payloadCapacity(
+            BufferedImage coverImage,
+            StegoMetadataDTO metadata
+    ) throws InvalidLsbDepthException, MessageTooLargeException, MetadataEncodingException;
+
+    /**
+     * Returns the largest payload that fits into a cover of the given size together with the metadata.
+     *
+     * @param width    The cover width in pixels.
+     * @param height   The cover height in pixels.
+     * @param metadata Metadata containing encoding details.
+     * @return The payload capacity in bytes; 0 if only an empty payload fits.
+     * @throws InvalidLsbDepthException  If the specified LSB depth is invalid.
+     * @throws MessageTooLargeException  If not even the metadata fits into the cover.
+     * @throws MetadataEncodingException If the metadata cannot be serialized.
+     */
+    long payloadCapacity(
+            int width,
+            int height,
+            StegoMetadataDTO metadata
+    ) throws InvalidLsbDepthException, MessageTooLargeException, MetadataEncodingException;
+
+    /**
+     * Returns the smallest number of pixels a cover needs to hold a payload of the given length together with
+     * a metadata block of the given length. Sorting covers by pixel count therefore sorts them by capacity at
+     * every LSB depth.
+     *
+     * @param payloadLength  The length of the payload in bytes.
+     * @param metadataLength The length of the serialized metadata block in bytes.
+     * @param lsbDepth       The LSB depth the payload is embedded with (1 or 2).
+     * @return The required pixel count.
+     * @throws InvalidLsbDepthException If the specified LSB depth is invalid.
+     */
+    long requiredPixelCount(
+            long payloadLength,
+            int metadataLength,
+            int lsbDepth
+    ) throws InvalidLsbDepthException;
+
+    /**
+     * Checks that a container with entries of the given lengths fits into the cover image together with the
+     * metadata and the directory.
+     *
+     * @param coverImage   The decoded cover image.
+     * @param entryLengths The stored length of every entry in bytes, in storage order.
+     * @param metadata     Metadata containing encoding details and the container header.
+     * @throws InvalidLsbDepthException  If the specified LSB depth is invalid.
+     * @throws MessageTooLargeException  If the container is too large to fit in the image.
+     * @throws MetadataNotFoundException If the metadata carries no container header.
+     * @throws MetadataEncodingException If the metadata cannot be serialized.
+     */
+    void ensureContainerCapacity(
+            BufferedImage coverImage,
+            int[] entryLengths,
+            StegoMetadataDTO metadata
+    ) throws InvalidLsbDepthException, MessageTooLargeException, MetadataNotFoundException, MetadataEncodingException;
+
+    /**
+     * Embeds a container (metadata, directory and entries) into a working image created by
+     * {@link #prepareCover(BufferedImage)}. Every entry starts on a pixel boundary, so it can later be read on its own.
+     * The working image is modified in place.
+     *
+     * @param workingImage The ARGB working image to write into.
+     * @param directory    The stored directory; its length must match the container header.
+     * @param entries      The stored entries, in directory order.
+     * @param metadata     Metadata containing encoding details and the container header.
+     * @return A byte array representing the stego image (PNG) with the embedded container.
+     * @throws InvalidLsbDepthException If the specified LSB depth is invalid.
+     * @throws MessageTooLargeException If the container is too large to fit in the image.
+     * @throws LsbEncodingException     If an error occurs during encoding.
+     */
+    byte[] embedContainer(
+            BufferedImage workingImage,
+            byte[] directory,
+            List<byte[]> entries,
+            StegoMetadataDTO metadata
+    ) throws InvalidLsbDepthException, MessageTooLargeException, LsbEncodingException;
+
+    /**
+     * Reads the stored directory of a container, without reading any entry.
+     *
+     * @param stegoImage The decoded stego image.
+     * @param metadata   The metadata extracted from the image.
+     * @return The stored directory.
+     * @throws InvalidLsbDepthException    If the LSB depth in the metadata is invalid.
+     * @throws MetadataNotFoundException   If the metadata carries no container header.
+     * @throws LsbDecodingException        If the directory cannot be read.
+     * @throws InvalidImageFormatException If the image does not contain a valid LSB header.
+     */
+    byte[] readContainerDirectory(
+            BufferedImage stegoImage,
+            StegoMetadataDTO metadata
+    ) throws InvalidLsbDepthException, MetadataNotFoundException, LsbDecodingException, InvalidImageFormatException;
+
+    /**
+     * Reads one stored entry of a container, touching only the pixels of that entry.
+     *
+     * @param stegoImage   The decoded stego image.
+     * @param metadata     The metadata extracted from the image.
+     * @param entryLengths The stored length of every entry up to and including the requested one, from the directory.
+     * @param index        The position of the entry in the directory.
+     * @return The stored entry.
+     * @throws InvalidLsbDepthException    If the LSB depth in the metadata is invalid.
+     * @throws MetadataNotFoundException   If the metadata carries no container header.
+     * @throws LsbDecodingException        If the entry cannot be read.
+     * @throws InvalidImageFormatException If the image does not contain a valid LSB header.
+     */
+    byte[] readContainerEntry(
+            BufferedImage stegoImage,
+            StegoMetadataDTO metadata,
+            int[] entryLengths,
+            int index
+    ) throws InvalidLsbDepthException, MetadataNotFoundException, LsbDecodingException, InvalidImageFormatException;
+
+    /**
+     * Checks that a file embedded as chunks fits into the cover image together with the metadata and the key header.
+     * The stored lengths come from the chunk index in the metadata.
+     *
+     * @param coverImage The decoded cover image.
+     * @param metadata   Metadata containing encoding details and the chunk index.
+     * @throws InvalidLsbDepthException  If the specified LSB depth is invalid.
+     * @throws MessageTooLargeException  If the chunks are too large to fit in the image.
+     * @throws MetadataNotFoundException If the metadata carries no chunk index.
+     * @throws MetadataEncodingException If the metadata cannot be serialized.
+     */
+    void ensureChunkedCapacity(
+            BufferedImage coverImage,
+            StegoMetadataDTO metadata
+    ) throws InvalidLsbDepthException, MessageTooLargeException, MetadataNotFoundException, MetadataEncodingException;
+
+    /**
+     * Embeds a file stored as chunks into a working image created by {@link #prepareCover(BufferedImage)}.
+     * The key header follows the metadata; every chunk starts on a pixel boundary at a fixed stride.
+     *
+     * @param workingImage The ARGB working image to write into; it is modified in place.
+     * @param header       The key header shared by the chunks.
+     * @param chunks       The stored chunks, in file order; their lengths must match the chunk index.
+     * @param metadata     Metadata containing encoding details and the chunk index.
+     * @return A byte array representing the stego image (PNG) with the embedded chunks.
+     * @throws InvalidLsbDepthException If the specified LSB depth is invalid.
+     * @throws MessageTooLargeException If the chunks are too large to fit in the image.
+     * @throws LsbEncodingException     If an error occurs during encoding.
+     */
+    byte[] embedChunked(
+            BufferedImage workingImage,
+            byte[] header,
+            List<byte[]> chunks,
+            StegoMetadataDTO metadata
+    ) throws InvalidLsbDepthException, MessageTooLargeException, LsbEncodingException;
+
+    /**
+     * Reads the key header of a file stored as chunks.
+     *
+     * @param stegoImage The decoded stego image.
+     * @param metadata   The metadata extracted from the image.
+     * @return The key header.
+     * @throws InvalidLsbDepthException    If the LSB depth in the metadata is invalid.
+     * @throws MetadataNotFoundException   If the metadata carries no chunk index.
+     * @throws LsbDecodingException        If the key header cannot be read.
+     * @throws InvalidImageFormatException If the image does not contain a valid LSB header.
+     */
+    byte[] readChunkHeader(
+            BufferedImage stegoImage,
+            StegoMetadataDTO metadata
+    ) throws InvalidLsbDepthException, MetadataNotFoundException, LsbDecodingException, InvalidImageFormatException;
+
+    /**
+     * Reads consecutive stored chunks of a file, touching only the pixels of those chunks.
+     *
+     * @param stegoImage The decoded stego image.
+     * @param metadata   The metadata extracted from the image.
+     * @param firstChunk The number of the first chunk to read, from 0.
+     * @param chunkCount The number of chunks to read.
+     * @return The stored chunks, in file order.
+     * @throws InvalidLsbDepthException    If the LSB depth in the metadata is invalid.
+     * @throws MetadataNotFoundException   If the metadata carries no chunk index.
+     * @throws LsbDecodingException        If the chunks cannot be read or are out of range.
+     * @throws InvalidImageFormatException If the image does not contain a valid LSB header.
+     */
+    List<byte[]> readChunks(
+            BufferedImage stegoImage,
+            StegoMetadataDTO metadata,
+            int firstChunk,
+            int chunkCount
+    ) throws InvalidLsbDepthException, MetadataNotFoundException, LsbDecodingException, InvalidImageFormatException;
+
+    /**
+     * Decodes a payload from an already decoded stego image using LSB steganography.
+     *
+     * @param stegoImage The decoded stego image.
+     * @param lsbDepth   The LSB depth used during encoding, or null to read it from the metadata.
+     * @return A byte array representing the decoded payload.
+     * @throws InvalidLsbDepthException    If the specified LSB depth is invalid.
+     * @throws LsbDecodingException        If an error occurs during decoding.
+     * @throws StegoDataNotFoundException  If no stego data is found in the image.
+     * @throws InvalidImageFormatException If the image does not contain a valid LSB header.
+     */
+    byte[] decode(
+            BufferedImage stegoImage,
+            Integer lsbDepth
+    ) throws InvalidLsbDepthException, LsbDecodingException, StegoDataNotFoundException, InvalidImageFormatException;
+
+    /**
+     * Extracts the metadata embedded in a stego image.
+     *
+     * @param stegoImageBytes The byte array representing the stego image.
+     * @return The embedded metadata.
+     * @throws MetadataNotFoundException   If the image carries no metadata.
+     * @throws MetadataDecodingException   If the metadata cannot be decoded.
+     * @throws InvalidImageFormatException If the image does not contain a valid LSB header.
+     */
+    StegoMetadataDTO extractMetadata(
+            byte[] stegoImageBytes
+    ) throws MetadataNotFoundException, MetadataDecodingException, InvalidImageFormatException;
+
+    /**
+     * Extracts the metadata embedded in an already decoded stego image.
+     *
+     * @param stegoImage The decoded stego image.
+     * @return The embedded metadata.
+     * @throws MetadataNotFoundException   If the image carries no metadata.
+     * @throws MetadataDecodingException   If the metadata cannot be decoded.
+     * @throws InvalidImageFormatException If the image does not contain a valid LSB header.
+     */
+    StegoMetadataDTO extractMetadata(
+            BufferedImage stegoImage
+    ) throws MetadataNotFoundException, MetadataDecodingException, InvalidImageFormatException;
+
+    /**
+     * Extracts the metadata of a stego image while decoding only the leading rows that hold the header and the
+     * metadata, instead of the whole image. Only as much of the stream is read as those rows need.
+     *
+     * @param imageStream The encoded image; it is not closed.
+     * @return The embedded metadata.
+     * @throws MetadataNotFoundException   If the image carries no metadata.
+     * @throws MetadataDecodingException   If the image or the metadata cannot be decoded.
+     * @throws InvalidImageFormatException If the format is unsupported or the image has no valid LSB header.
+     */
+    StegoMetadataDTO probeMetadata(
+            InputStream imageStream
+    ) throws MetadataNotFoundException, MetadataDecodingException, InvalidImageFormatException;
+
+    /**
+     * Splits an animated PNG into its frames, each as a standalone PNG, without decoding any pixels.
+     * Frames can then be decoded with {@link #readImage(byte[])} one at a time.
+     *
+     * @param animatedImageBytes The animated PNG.
+     * @return The frames in animation order.
+     * @throws InvalidImageFormatException If the image is not a well-formed animated PNG.
+     */
+    List<StegoFrameDTO> splitFrames(
+            byte[] animatedImageBytes
+    ) throws InvalidImageFormatException;
+
+    /**
+     * Builds an animated PNG from an animation whose frames are replaced by stego frames, keeping the frame
+     * order, offsets and timing of the original.
+     *
+     * @param animatedImageBytes The original animated PNG.
+     * @param framePngs          One PNG per frame, as returned by {@link #embed(BufferedImage, byte[], StegoMetadataDTO)},
+     *                           in animation order; null keeps the original frame.
+     * @return The animated stego image.
+     * @throws InvalidImageFormatException If the original is not an animated PNG or a frame does not match it.
+     * @throws LsbEncodingException        If an original frame cannot be re-encoded.
+     */
+    byte[] assembleFrames(
+            byte[] animatedImageBytes,
+            List<byte[]> framePngs
+    ) throws InvalidImageFormatException, LsbEncodingException;
+
+    /**
+     * Encodes a payload into the sample LSBs of 16-bit PCM WAV audio, streaming the cover to the output.
+     * The header, metadata and payload use the same layout as in images, with one sample per bit slot; memory
+     * does not grow with the length of the audio.
+     *
+     * @param coverAudio   The cover WAV stream; it is not closed.
+     * @param stegoAudio   The stream the stego WAV is written to; it is not closed.
+     * @param payloadBytes The byte array representing the payload to encode.
+     * @param metadata     Metadata containing encoding details.
+     * @throws InvalidLsbDepthException    If the specified LSB depth is invalid.
+     * @throws MessageTooLargeException    If the payload is too large to fit in the audio.
+     * @throws InvalidAudioFormatException If the cover is not 16-bit PCM WAV audio.
+     * @throws LsbEncodingException        If an error occurs during encoding.
+     */
+    void embedAudio(
+            InputStream coverAudio,
+            OutputStream stegoAudio,
+            byte[] payloadBytes,
+            StegoMetadataDTO metadata
+    ) throws InvalidLsbDepthException, MessageTooLargeException, InvalidAudioFormatException, LsbEncodingException;
+
+    /**
+     * Extracts the metadata embedded in stego WAV audio, reading only the samples that hold the header and the
+     * metadata, a few kilobytes for typical metadata.
+     *
+     * @param stegoAudio The stego WAV stream; it is not closed.
+     * @return The embedded metadata.
+     * @throws MetadataNotFoundException   If the audio carries no metadata.
+     * @throws MetadataDecodingException   If the metadata cannot be decoded.
+     * @throws InvalidAudioFormatException If the stream is not 16-bit PCM WAV audio or has no valid LSB header.
+     */
+    StegoMetadataDTO extractAudioMetadata(
+            InputStream stegoAudio
+    ) throws MetadataNotFoundException, MetadataDecodingException, InvalidAudioFormatException;
+
+    /**
+     * Decodes the payload embedded in stego WAV audio, using the LSB depth recorded in its metadata.
+     * Samples after the payload are not read.
+     *
+     * @param stegoAudio The stego WAV stream; it is not closed.
+     * @return A byte array representing the decoded payload.
+     * @throws MetadataNotFoundException   If the audio carries no metadata.
+     * @throws MetadataDecodingException   If the metadata cannot be decoded.
+     * @throws InvalidLsbDepthException    If the recorded LSB depth is invalid.
+     * @throws LsbDecodingException        If an error occurs during decoding.
+     * @throws InvalidAudioFormatException If the stream is not 16-bit PCM WAV audio or has no valid LSB header.
+     */
+    byte[] decodeAudio(
+            InputStream stegoAudio
+    ) throws MetadataNotFoundException, MetadataDecodingException, InvalidLsbDepthException, LsbDecodingException, InvalidAudioFormatException;
+
+    /**
+     * Estimates the peak working memory, in bytes, that embedding a payload into the cover image allocates
+     * (ARGB working copy, PNG output buffer and payload blocks).
+     *
+     * @param coverImage    The decoded cover image.
+     * @param payloadLength The length of the payload in bytes.
+     * @return The estimated peak memory in bytes.
+     */
+    long estimateEncodeMemory(
+            BufferedImage coverImage,
+            long payloadLength
+    );
+
+    /**
+     * Estimates the peak working memory, in bytes, of decoding a cover of the given size and embedding a payload
+     * into it, before the cover is decoded.
+     *
+     * @param width         The cover width in pixels.
+     * @param height        The cover height in pixels.
+     * @param payloadLength The length of the payload in bytes.
+     * @return The estimated peak memory in bytes.
+     */
+    long estimateEncodeMemory(
+            int width,
+            int height,
+            long payloadLength
+    );
+
+    /**
+     * Estimates the peak working memory, in bytes, that extracting and decrypting a payload from the stego image
+     * allocates, assuming the largest payload the image can hold.
+     *
+     * @param stegoImage The decoded stego image.
+     * @return The estimated peak memory in bytes.
+     */
+    long estimateDecodeMemory(
+            BufferedImage stegoImage
+    );
+
+    /**
+     * Estimates the peak working memory, in bytes, of decoding an image of the given size with
+     * {@link #readImage(byte[])}, before the image is decoded.
+     *
+     * @param width  The image width in pixels.
+     * @param height The image height in pixels.
+     * @return The estimated peak memory in bytes.
+     */
+    long estimateReadMemory(
+            int width,
+            int height
+    );
+
+    /**
+     * Estimates the peak working memory, in bytes, of decoding a stego image of the given size and extracting and
+     * decrypting a payload from it, before the image is decoded.
+     *
+     * @param width  The image width in pixels.
+     * @param height The image height in pixels.
+     * @return The estimated peak memory in bytes.
+     */
+    long estimateDecodeMemory(
+            int width,
+            int height
+    );
+
+    // ----- Asynchronous variants -----
+
+    /**
+     * Encodes a payload into an image on the CPU worker pool.
+     *
+     * @param imageBytes   The byte array representing the original image.
+     * @param payloadBytes The byte array representing the payload to encode.
+     * @param metadata     Metadata containing encoding details.
+     * @return A future completed with the stego image.
+     * @see #encode(byte[], byte[], StegoMetadataDTO)
+     */
+    CompletableFuture<byte[]> encodeAsync(
+            byte[] imageBytes,
+            byte[] payloadBytes,
+            StegoMetadataDTO metadata
+    );
 
-    StegoMetadataDTO extractMetadata(byte[] stegoImageBytes);
-}
\ No newline at end of file
+    /**
+     * Decodes a payload from a stego image on the CPU worker pool.
+     *
+     * @param stegoImageBytes The byte array representing the stego image.
+     * @param lsbDepth        The LSB depth used during encoding.
+     * @return A future completed with the decoded payload.
+     * @see #decode(byte[], Integer)
+     */
+    CompletableFuture<byte[]> decodeAsync(
+            byte[] stegoImageBytes,
+            Integer lsbDepth
+    );
+
+    /**
+     * Decodes an uploaded image on the CPU worker pool.
+     *
+     * @param imageBytes The encoded image.
+     * @return A future completed with the decoded ARGB image.
+     * @see #readImage(byte[])
+     */
+    CompletableFuture<BufferedImage> readImageAsync(
+            byte[] imageBytes
+    );
+
+    /**
+     * Extracts the metadata embedded in a stego image on the CPU worker pool.
+     *
+     * @param stegoImageBytes The byte array representing the stego image.
+     * @return A future completed with the embedded metadata.
+     * @see #extractMetadata(byte[])
+     */
+    CompletableFuture<StegoMetadataDTO> extractMetadataAsync(
+            byte[] stegoImageBytes
+    );
+}
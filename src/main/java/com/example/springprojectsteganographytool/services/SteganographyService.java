@@ -1,23 +1,34 @@
 package com.example.springprojectsteganographytool.services;
 
+import com.example.springprojectsteganographytool.exceptions.data.InvalidBatchException;
+import com.example.springprojectsteganographytool.exceptions.data.InvalidContainerException;
+import com.example.springprojectsteganographytool.exceptions.data.InvalidRangeException;
 import com.example.springprojectsteganographytool.exceptions.data.MessageTooLargeException;
+import com.example.springprojectsteganographytool.exceptions.data.ShardSetInvalidException;
 import com.example.springprojectsteganographytool.exceptions.data.StegoDataNotFoundException;
 import com.example.springprojectsteganographytool.exceptions.data.StorageException;
 import com.example.springprojectsteganographytool.exceptions.encryption.AesOperationException;
 import com.example.springprojectsteganographytool.exceptions.encryption.InvalidEncryptionKeyException;
 import com.example.springprojectsteganographytool.exceptions.file.FileTooLargeException;
+import com.example.springprojectsteganographytool.exceptions.file.InvalidImageFormatException;
 import com.example.springprojectsteganographytool.exceptions.lsb.InvalidLsbDepthException;
 import com.example.springprojectsteganographytool.exceptions.lsb.LsbDecodingException;
 import com.example.springprojectsteganographytool.exceptions.lsb.LsbEncodingException;
 import com.example.springprojectsteganographytool.exceptions.metadata.MetadataDecodingException;
 import com.example.springprojectsteganographytool.exceptions.metadata.MetadataEncodingException;
 import com.example.springprojectsteganographytool.exceptions.metadata.MetadataNotFoundException;
+import com.example.springprojectsteganographytool.models.StegoBatchItemDTO;
+import com.example.springprojectsteganographytool.models.StegoContainerEntryDTO;
 import com.example.springprojectsteganographytool.models.StegoDecodeResponseDTO;
+import com.example.springprojectsteganographytool.models.StegoDirectoryEntryDTO;
 import com.example.springprojectsteganographytool.models.StegoEncodeResponseDTO;
+import com.example.springprojectsteganographytool.models.StegoRangeDTO;
+import com.example.springprojectsteganographytool.models.StegoShardedEncodeResponseDTO;
 
 import java.awt.image.BufferedImage;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 /**
@@ -55,6 +66,31 @@ public interface SteganographyService {
             MetadataEncodingException,
             StorageException, ExecutionException, InterruptedException;
 
+    /**
+     * Encodes a text message into a cover image, reporting each pipeline stage as it starts.
+     *
+     * @param coverImage The image to be used as the cover for encoding.
+     * @param message    The text message to encode.
+     * @param password   The password for encrypting the message.
+     * @param lsbDepth   The number of least significant bits per channel to use (1 or 2).
+     * @param listener   The listener receiving the pipeline stages.
+     * @return A DTO containing details of the encoding process.
+     * @see #encodeText(BufferedImage, String, String, int)
+     */
+    StegoEncodeResponseDTO encodeText(
+            BufferedImage coverImage,
+            String message,
+            String password,
+            int lsbDepth,
+            StegoProgressListener listener
+    ) throws InvalidLsbDepthException,
+            MessageTooLargeException,
+            InvalidEncryptionKeyException,
+            LsbEncodingException,
+            AesOperationException,
+            MetadataEncodingException,
+            StorageException, ExecutionException, InterruptedException;
+
     /**
      * Encodes a file into a cover image using the specified LSB depth.
      *
@@ -86,6 +122,33 @@ public interface SteganographyService {
             MetadataEncodingException,
             StorageException, ExecutionException, InterruptedException;
 
+    /**
+     * Encodes a file into a cover image, reporting each pipeline stage as it starts.
+     *
+     * @param coverImage       The image to be used as the cover for encoding.
+     * @param originalFileName The original name of the file being encoded.
+     * @param fileBytes        The byte array of the file to encode.
+     * @param password         The password for encrypting the file.
+     * @param lsbDepth         The number of least significant bits per channel to use (1 or 2).
+     * @param listener         The listener receiving the pipeline stages.
+     * @return A DTO containing details of the encoding process.
+     * @see #encodeFile(BufferedImage, String, byte[], String, int)
+     */
+    StegoEncodeResponseDTO encodeFile(
+            BufferedImage coverImage,
+            String originalFileName,
+            byte[] fileBytes,
+            String password,
+            int lsbDepth,
+            StegoProgressListener listener
+    ) throws InvalidLsbDepthException,
+            FileTooLargeException,
+            InvalidEncryptionKeyException,
+            LsbEncodingException,
+            AesOperationException,
+            MetadataEncodingException,
+            StorageException, ExecutionException, InterruptedException;
+
     /**
      * Decodes a stego image to extract the hidden message or file.
      *
@@ -109,6 +172,768 @@ public interface SteganographyService {
             AesOperationException,
             MetadataDecodingException, ExecutionException, InterruptedException;
 
+    /**
+     * Decodes a stego image, reporting each pipeline stage as it starts.
+     *
+     * @param stegoImage The image containing the hidden data.
+     * @param password   The password used to decrypt the hidden data.
+     * @param listener   The listener receiving the pipeline stages.
+     * @return A DTO containing the decoded data.
+     * @see #decodeProcess(BufferedImage, String)
+     */
+    StegoDecodeResponseDTO decodeProcess(
+            BufferedImage stegoImage,
+            String password,
+            StegoProgressListener listener
+    ) throws InvalidEncryptionKeyException,
+            MetadataNotFoundException,
+            StegoDataNotFoundException,
+            LsbDecodingException,
+            AesOperationException,
+            MetadataDecodingException, ExecutionException, InterruptedException;
+
+    /**
+     * Decodes an uploaded stego image, reporting each pipeline stage as it starts.
+     * Concurrent requests for the same image content share the image decoding, metadata and payload extraction,
+     * and concurrent requests with the same password also share the decryption; every request is still checked
+     * against its own password before it receives the payload.
+     *
+     * @param stegoImageBytes The uploaded image containing the hidden data.
+     * @param password        The password used to decrypt the hidden data.
+     * @param listener        The listener receiving the pipeline stages.
+     * @return A DTO containing the decoded data.
+     * @throws InvalidImageFormatException If the image format is unsupported or the data is corrupted.
+     * @see #decodeProcess(BufferedImage, String, StegoProgressListener)
+     */
+    StegoDecodeResponseDTO decodeProcess(
+            byte[] stegoImageBytes,
+            String password,
+            StegoProgressListener listener
+    ) throws InvalidImageFormatException,
+            InvalidEncryptionKeyException,
+            MetadataNotFoundException,
+            StegoDataNotFoundException,
+            LsbDecodingException,
+            AesOperationException,
+            MetadataDecodingException, ExecutionException, InterruptedException;
+
+    // ----- Asynchronous variants -----
+    // The returned futures complete exceptionally with the same exceptions the blocking methods throw,
+    // unwrapped; cancelling a future interrupts the pipeline.
+
+    /**
+     * Encodes a text message into a cover image without blocking the caller.
+     *
+     * @param coverImage The image to be used as the cover for encoding.
+     * @param message    The text message to encode.
+     * @param password   The password for encrypting the message.
+     * @param lsbDepth   The number of least significant bits per channel to use (1 or 2).
+     * @return A future completed with the details of the encoding process.
+     * @see #encodeText(BufferedImage, String, String, int)
+     */
+    CompletableFuture<StegoEncodeResponseDTO> encodeTextAsync(
+            BufferedImage coverImage,
+            String message,
+            String password,
+            int lsbDepth
+    );
+
+    /**
+     * Encodes a text message into a cover image without blocking the caller, reporting each pipeline stage.
+     *
+     * @param coverImage The image to be used as the cover for encoding.
+     * @param message    The text message to encode.
+     * @param password   The password for encrypting the message.
+     * @param lsbDepth   The number of least significant bits per channel to use (1 or 2).
+     * @param listener   The listener receiving the pipeline stages.
+     * @return A future completed with the details of the encoding process.
+     * @see #encodeText(BufferedImage, String, String, int, StegoProgressListener)
+     */
+    CompletableFuture<StegoEncodeResponseDTO> encodeTextAsync(
+            BufferedImage coverImage,
+            String message,
+            String password,
+            int lsbDepth,
+            StegoProgressListener listener
+    );
+
+    /**
+     * Encodes a file into a cover image without blocking the caller.
+     *
+     * @param coverImage       The image to be used as the cover for encoding.
+     * @param originalFileName The original name of the file being encoded.
+     * @param fileBytes        The byte array of the file to encode.
+     * @param password         The password for encrypting the file.
+     * @param lsbDepth         The number of least significant bits per channel to use (1 or 2).
+     * @return A future completed with the details of the encoding process.
+     * @see #encodeFile(BufferedImage, String, byte[], String, int)
+     */
+    CompletableFuture<StegoEncodeResponseDTO> encodeFileAsync(
+            BufferedImage coverImage,
+            String originalFileName,
+            byte[] fileBytes,
+            String password,
+            int lsbDepth
+    );
+
+    /**
+     * Encodes a file into a cover image without blocking the caller, reporting each pipeline stage.
+     *
+     * @param coverImage       The image to be used as the cover for encoding.
+     * @param originalFileName The original name of the file being encoded.
+     * @param fileBytes        The byte array of the file to encode.
+     * @param password         The password for encrypting the file.
+     * @param lsbDepth         The number of least significant bits per channel to use (1 or 2).
+     * @param listener         The listener receiving the pipeline stages.
+     * @return A future completed with the details of the encoding process.
+     * @see #encodeFile(BufferedImage, String, byte[], String, int, StegoProgressListener)
+     */
+    CompletableFuture<StegoEncodeResponseDTO> encodeFileAsync(
+            BufferedImage coverImage,
+            String originalFileName,
+            byte[] fileBytes,
+            String password,
+            int lsbDepth,
+            StegoProgressListener listener
+    );
+
+    /**
+     * Decodes a stego image without blocking the caller.
+     *
+     * @param stegoImage The image containing the hidden data.
+     * @param password   The password used to decrypt the hidden data.
+     * @return A future completed with the decoded data.
+     * @see #decodeProcess(BufferedImage, String)
+     */
+    CompletableFuture<StegoDecodeResponseDTO> decodeProcessAsync(
+            BufferedImage stegoImage,
+            String password
+    );
+
+    /**
+     * Decodes a stego image without blocking the caller, reporting each pipeline stage.
+     *
+     * @param stegoImage The image containing the hidden data.
+     * @param password   The password used to decrypt the hidden data.
+     * @param listener   The listener receiving the pipeline stages.
+     * @return A future completed with the decoded data.
+     * @see #decodeProcess(BufferedImage, String, StegoProgressListener)
+     */
+    CompletableFuture<StegoDecodeResponseDTO> decodeProcessAsync(
+            BufferedImage stegoImage,
+            String password,
+            StegoProgressListener listener
+    );
+
+    /**
+     * Decodes an uploaded stego image without blocking the caller, reporting each pipeline stage.
+     *
+     * @param stegoImageBytes The uploaded image containing the hidden data.
+     * @param password        The password used to decrypt the hidden data.
+     * @param listener        The listener receiving the pipeline stages.
+     * @return A future completed with the decoded data.
+     * @see #decodeProcess(byte[], String, StegoProgressListener)
+     */
+    CompletableFuture<StegoDecodeResponseDTO> decodeProcessAsync(
+            byte[] stegoImageBytes,
+            String password,
+            StegoProgressListener listener
+    );
+
+    // ----- Sharded payloads -----
+    // A payload too large for one cover is encrypted once and split across several covers; every shard carries
+    // a header with its set, index and count, so the stego images can be decoded together in any order.
+
+    /**
+     * Encrypts a file and splits it across several cover images, embedding the shards concurrently.
+     * Each cover receives a share of the payload proportional to its capacity; each shard is stored separately.
+     *
+     * @param coverImages      The images to be used as covers, in shard order.
+     *                         Covers too small to carry a part of the file are left out of the shard set.
+     * @param originalFileName The original name of the file being encoded.
+     * @param fileBytes        The byte array of the file to encode.
+     * @param password         The password for encrypting the file.
+     * @param lsbDepth         The number of least significant bits per channel to use (1 or 2).
+     * @param listener         The listener receiving the pipeline stages.
+     * @return A DTO containing the shard set ID and the details of every stored shard.
+     * @throws ShardSetInvalidException      If no covers or more than the configured maximum are given.
+     * @throws MessageTooLargeException      If the file does not fit into all covers together.
+     * @throws InvalidLsbDepthException      If the specified LSB depth is invalid.
+     * @throws InvalidEncryptionKeyException If the encryption key is invalid.
+     * @throws LsbEncodingException          If an error occurs during the encoding process.
+     * @throws AesOperationException         If an error occurs during AES encryption.
+     * @throws MetadataEncodingException     If an error occurs while encoding metadata.
+     * @throws StorageException              If an error occurs while storing the encoded data.
+     */
+    StegoShardedEncodeResponseDTO encodeFileSharded(
+            List<BufferedImage> coverImages,
+            String originalFileName,
+            byte[] fileBytes,
+            String password,
+            int lsbDepth,
+            StegoProgressListener listener
+    ) throws ShardSetInvalidException,
+            MessageTooLargeException,
+            InvalidLsbDepthException,
+            InvalidEncryptionKeyException,
+            LsbEncodingException,
+            AesOperationException,
+            MetadataEncodingException,
+            StorageException, ExecutionException, InterruptedException;
+
+    /**
+     * Decodes a payload split across several uploaded stego images, given in any order.
+     * The images are decoded and their shards extracted concurrently, then reassembled by shard index.
+     *
+     * @param stegoImagesBytes The uploaded images carrying the shards.
+     * @param password         The password used to decrypt the hidden data.
+     * @param listener         The listener receiving the pipeline stages.
+     * @return A DTO containing the decoded data.
+     * @throws ShardSetInvalidException    If the images are not exactly the shards of one payload.
+     * @throws InvalidImageFormatException If an image format is unsupported or the data is corrupted.
+     * @throws MetadataNotFoundException   If an image carries no metadata.
+     * @throws LsbDecodingException        If an error occurs during the decoding process.
+     * @throws AesOperationException       If an error occurs during AES decryption.
+     * @throws MetadataDecodingException   If an error occurs while decoding metadata.
+     */
+    StegoDecodeResponseDTO decodeSharded(
+            List<byte[]> stegoImagesBytes,
+            String password,
+            StegoProgressListener listener
+    ) throws ShardSetInvalidException,
+            InvalidImageFormatException,
+            MetadataNotFoundException,
+            LsbDecodingException,
+            AesOperationException,
+            MetadataDecodingException, ExecutionException, InterruptedException;
+
+    /**
+     * Splits a file across several cover images without blocking the caller.
+     *
+     * @param coverImages      The images to be used as covers, in shard order.
+     *                         Covers too small to carry a part of the file are left out of the shard set.
+     * @param originalFileName The original name of the file being encoded.
+     * @param fileBytes        The byte array of the file to encode.
+     * @param password         The password for encrypting the file.
+     * @param lsbDepth         The number of least significant bits per channel to use (1 or 2).
+     * @param listener         The listener receiving the pipeline stages.
+     * @return A future completed with the shard set ID and the details of every stored shard.
+     * @see #encodeFileSharded(List, String, byte[], String, int, StegoProgressListener)
+     */
+    CompletableFuture<StegoShardedEncodeResponseDTO> encodeFileShardedAsync(
+            List<BufferedImage> coverImages,
+            String originalFileName,
+            byte[] fileBytes,
+            String password,
+            int lsbDepth,
+            StegoProgressListener listener
+    );
+
+    /**
+     * Decodes a payload split across several uploaded stego images without blocking the caller.
+     *
+     * @param stegoImagesBytes The uploaded images carrying the shards, in any order.
+     * @param password         The password used to decrypt the hidden data.
+     * @param listener         The listener receiving the pipeline stages.
+     * @return A future completed with the decoded data.
+     * @see #decodeSharded(List, String, StegoProgressListener)
+     */
+    CompletableFuture<StegoDecodeResponseDTO> decodeShardedAsync(
+            List<byte[]> stegoImagesBytes,
+            String password,
+            StegoProgressListener listener
+    );
+
+    // ----- Multi-entry containers -----
+    // A container packs several named text or file entries into one image behind an encrypted directory.
+    // Every entry is encrypted on its own and starts on a pixel boundary, so listing reads only the directory
+    // and extracting one entry reads only the directory and that entry.
+
+    /**
+     * Encodes several named entries into a cover image as a container.
+     *
+     * @param coverImage The image to be used as the cover for encoding.
+     * @param entries    The entries to pack, in storage order; names must be unique.
+     * @param password   The password for encrypting the directory and every entry.
+     * @param lsbDepth   The number of least significant bits per channel to use (1 or 2).
+     * @param listener   The listener receiving the pipeline stages.
+     * @return A DTO containing details of the encoding process.
+     * @throws InvalidContainerException     If there are no entries, too many, or names are missing or repeated.
+     * @throws MessageTooLargeException      If the entries do not fit into the image.
+     * @throws InvalidLsbDepthException      If the specified LSB depth is invalid.
+     * @throws InvalidEncryptionKeyException If the encryption key is invalid.
+     * @throws LsbEncodingException          If an error occurs during the encoding process.
+     * @throws AesOperationException         If an error occurs during AES encryption.
+     * @throws MetadataEncodingException     If an error occurs while encoding metadata or the directory.
+     * @throws StorageException              If an error occurs while storing the encoded data.
+     */
+    StegoEncodeResponseDTO encodeContainer(
+            BufferedImage coverImage,
+            List<StegoContainerEntryDTO> entries,
+            String password,
+            int lsbDepth,
+            StegoProgressListener listener
+    ) throws InvalidContainerException,
+            MessageTooLargeException,
+            InvalidLsbDepthException,
+            InvalidEncryptionKeyException,
+            LsbEncodingException,
+            AesOperationException,
+            MetadataEncodingException,
+            StorageException, ExecutionException, InterruptedException;
+
+    /**
+     * Lists the entries of a container image by reading and decrypting only its directory.
+     *
+     * @param stegoImageBytes The uploaded container image.
+     * @param password        The password used to decrypt the directory.
+     * @return The directory entries, in storage order.
+     * @throws InvalidContainerException   If the image does not hold a container.
+     * @throws InvalidImageFormatException If the image format is unsupported or the data is corrupted.
+     * @throws MetadataNotFoundException   If no metadata is found in the image.
+     * @throws LsbDecodingException        If the directory cannot be read.
+     * @throws AesOperationException       If an error occurs during AES decryption.
+     * @throws MetadataDecodingException   If the metadata or the directory cannot be decoded.
+     */
+    List<StegoDirectoryEntryDTO> listContainerEntries(
+            byte[] stegoImageBytes,
+            String password
+    ) throws InvalidContainerException,
+            InvalidImageFormatException,
+            MetadataNotFoundException,
+            LsbDecodingException,
+            AesOperationException,
+            MetadataDecodingException, ExecutionException, InterruptedException;
+
+    /**
+     * Extracts one entry of a container image, reading and decrypting only the directory and that entry.
+     *
+     * @param stegoImageBytes The uploaded container image.
+     * @param password        The password used to decrypt the directory and the entry.
+     * @param entryName       The name of the entry to extract.
+     * @return The extracted entry.
+     * @throws StegoDataNotFoundException  If the container has no entry with that name.
+     * @throws InvalidContainerException   If the image does not hold a container.
+     * @throws InvalidImageFormatException If the image format is unsupported or the data is corrupted.
+     * @throws MetadataNotFoundException   If no metadata is found in the image.
+     * @throws LsbDecodingException        If the directory or the entry cannot be read.
+     * @throws AesOperationException       If an error occurs during AES decryption.
+     * @throws MetadataDecodingException   If the metadata or the directory cannot be decoded.
+     */
+    StegoContainerEntryDTO extractContainerEntry(
+            byte[] stegoImageBytes,
+            String password,
+            String entryName
+    ) throws StegoDataNotFoundException,
+            InvalidContainerException,
+            InvalidImageFormatException,
+            MetadataNotFoundException,
+            LsbDecodingException,
+            AesOperationException,
+            MetadataDecodingException, ExecutionException, InterruptedException;
+
+    /**
+     * Encodes several named entries into a cover image as a container without blocking the caller.
+     *
+     * @param coverImage The image to be used as the cover for encoding.
+     * @param entries    The entries to pack, in storage order; names must be unique.
+     * @param password   The password for encrypting the directory and every entry.
+     * @param lsbDepth   The number of least significant bits per channel to use (1 or 2).
+     * @param listener   The listener receiving the pipeline stages.
+     * @return A future completed with the details of the encoding process.
+     * @see #encodeContainer(BufferedImage, List, String, int, StegoProgressListener)
+     */
+    CompletableFuture<StegoEncodeResponseDTO> encodeContainerAsync(
+            BufferedImage coverImage,
+            List<StegoContainerEntryDTO> entries,
+            String password,
+            int lsbDepth,
+            StegoProgressListener listener
+    );
+
+    /**
+     * Lists the entries of a container image without blocking the caller.
+     *
+     * @param stegoImageBytes The uploaded container image.
+     * @param password        The password used to decrypt the directory.
+     * @return A future completed with the directory entries.
+     * @see #listContainerEntries(byte[], String)
+     */
+    CompletableFuture<List<StegoDirectoryEntryDTO>> listContainerEntriesAsync(
+            byte[] stegoImageBytes,
+            String password
+    );
+
+    /**
+     * Extracts one entry of a container image without blocking the caller.
+     *
+     * @param stegoImageBytes The uploaded container image.
+     * @param password        The password used to decrypt the directory and the entry.
+     * @param entryName       The name of the entry to extract.
+     * @return A future completed with the extracted entry.
+     * @see #extractContainerEntry(byte[], String, String)
+     */
+    CompletableFuture<StegoContainerEntryDTO> extractContainerEntryAsync(
+            byte[] stegoImageBytes,
+            String password,
+            String entryName
+    );
+
+    // ----- Chunked files -----
+    // A chunked file is encrypted as chunks of a fixed plain size under one derived key, each with its own IV.
+    // The chunk index in the metadata fixes where every chunk starts, so a byte range is served by reading and
+    // decrypting only the chunks it overlaps. Chunked files are also decoded as a whole by decodeProcess.
+
+    /**
+     * Encodes a file into a cover image as independently decryptable chunks.
+     *
+     * @param coverImage       The image to be used as the cover for encoding.
+     * @param originalFileName The original name of the file being encoded.
+     * @param fileBytes        The byte array of the file to encode.
+     * @param password         The password for encrypting the file.
+     * @param lsbDepth         The number of least significant bits per channel to use (1 or 2).
+     * @param listener         The listener receiving the pipeline stages.
+     * @return A DTO containing details of the encoding process.
+     * @throws MessageTooLargeException      If the chunks do not fit into the image.
+     * @throws InvalidLsbDepthException      If the specified LSB depth is invalid.
+     * @throws InvalidEncryptionKeyException If the encryption key is invalid.
+     * @throws LsbEncodingException          If an error occurs during the encoding process.
+     * @throws AesOperationException         If an error occurs during AES encryption.
+     * @throws MetadataEncodingException     If an error occurs while encoding metadata.
+     * @throws StorageException              If an error occurs while storing the encoded data.
+     */
+    StegoEncodeResponseDTO encodeFileChunked(
+            BufferedImage coverImage,
+            String originalFileName,
+            byte[] fileBytes,
+            String password,
+            int lsbDepth,
+            StegoProgressListener listener
+    ) throws MessageTooLargeException,
+            InvalidLsbDepthException,
+            InvalidEncryptionKeyException,
+            LsbEncodingException,
+            AesOperationException,
+            MetadataEncodingException,
+            StorageException, ExecutionException, InterruptedException;
+
+    /**
+     * Extracts a byte range of a chunked file, reading and decrypting only the chunks that overlap it.
+     * A range reaching beyond the end of the file is cut at the end.
+     *
+     * @param stegoImageBytes The uploaded stego image.
+     * @param password        The password used to decrypt the file.
+     * @param offset          The position of the first requested byte in the file, from 0.
+     * @param length          The number of requested bytes.
+     * @return The requested bytes with the file name and length.
+     * @throws InvalidRangeException       If the range is negative, starts beyond the end of the file, or the file is not chunked.
+     * @throws InvalidImageFormatException If the image format is unsupported or the data is corrupted.
+     * @throws MetadataNotFoundException   If no metadata is found in the image.
+     * @throws LsbDecodingException        If the chunks cannot be read.
+     * @throws AesOperationException       If an error occurs during AES decryption.
+     * @throws MetadataDecodingException   If the metadata cannot be decoded.
+     */
+    StegoRangeDTO extractRange(
+            byte[] stegoImageBytes,
+            String password,
+            long offset,
+            int length
+    ) throws InvalidRangeException,
+            InvalidImageFormatException,
+            MetadataNotFoundException,
+            LsbDecodingException,
+            AesOperationException,
+            MetadataDecodingException, ExecutionException, InterruptedException;
+
+    /**
+     * Encodes a file into a cover image as independently decryptable chunks without blocking the caller.
+     *
+     * @param coverImage       The image to be used as the cover for encoding.
+     * @param originalFileName The original name of the file being encoded.
+     * @param fileBytes        The byte array of the file to encode.
+     * @param password         The password for encrypting the file.
+     * @param lsbDepth         The number of least significant bits per channel to use (1 or 2).
+     * @param listener         The listener receiving the pipeline stages.
+     * @return A future completed with the details of the encoding process.
+     * @see #encodeFileChunked(BufferedImage, String, byte[], String, int, StegoProgressListener)
+     */
+    CompletableFuture<StegoEncodeResponseDTO> encodeFileChunkedAsync(
+            BufferedImage coverImage,
+            String originalFileName,
+            byte[] fileBytes,
+            String password,
+            int lsbDepth,
+            StegoProgressListener listener
+    );
+
+    /**
+     * Extracts a byte range of a chunked file without blocking the caller.
+     *
+     * @param stegoImageBytes The uploaded stego image.
+     * @param password        The password used to decrypt the file.
+     * @param offset          The position of the first requested byte in the file, from 0.
+     * @param length          The number of requested bytes.
+     * @return A future completed with the requested bytes.
+     * @see #extractRange(byte[], String, long, int)
+     */
+    CompletableFuture<StegoRangeDTO> extractRangeAsync(
+            byte[] stegoImageBytes,
+            String password,
+            long offset,
+            int length
+    );
+
+    // ----- Batch encoding -----
+    // A batch embeds many text messages into the same cover. The cover is converted to its working copy once;
+    // every message gets its own copy of that converted raster and is encrypted, embedded and PNG-encoded in parallel.
+
+    /**
+     * Encodes every message of a batch into its own copy of one cover image.
+     * The batch runs under the request timeout plus {@code stego.batch.item-timeout} per message.
+     *
+     * @param coverImage The image to be used as the cover for every message.
+     * @param items      The messages with their passwords, in output order.
+     * @param lsbDepth   The number of least significant bits per channel to use (1 or 2).
+     * @param listener   The listener receiving the pipeline stages.
+     * @return One DTO per message, in item order.
+     * @throws InvalidBatchException         If the batch is empty, too large, or an item lacks a message or password.
+     * @throws MessageTooLargeException      If a message does not fit into the image; nothing is stored.
+     * @throws InvalidLsbDepthException      If the specified LSB depth is invalid.
+     * @throws InvalidEncryptionKeyException If an encryption key is invalid.
+     * @throws LsbEncodingException          If an error occurs during the encoding process.
+     * @throws AesOperationException         If an error occurs during AES encryption.
+     * @throws MetadataEncodingException     If an error occurs while encoding metadata.
+     * @throws StorageException              If an error occurs while storing the encoded data.
+     */
+    List<StegoEncodeResponseDTO> encodeTextBatch(
+            BufferedImage coverImage,
+            List<StegoBatchItemDTO> items,
+            int lsbDepth,
+            StegoProgressListener listener
+    ) throws InvalidBatchException,
+            MessageTooLargeException,
+            InvalidLsbDepthException,
+            InvalidEncryptionKeyException,
+            LsbEncodingException,
+            AesOperationException,
+            MetadataEncodingException,
+            StorageException, ExecutionException, InterruptedException;
+
+    /**
+     * Encodes every message of a batch into its own copy of one cover image without blocking the caller.
+     *
+     * @param coverImage The image to be used as the cover for every message.
+     * @param items      The messages with their passwords, in output order.
+     * @param lsbDepth   The number of least significant bits per channel to use (1 or 2).
+     * @param listener   The listener receiving the pipeline stages.
+     * @return A future completed with one DTO per message.
+     * @see #encodeTextBatch(BufferedImage, List, int, StegoProgressListener)
+     */
+    CompletableFuture<List<StegoEncodeResponseDTO>> encodeTextBatchAsync(
+            BufferedImage coverImage,
+            List<StegoBatchItemDTO> items,
+            int lsbDepth,
+            StegoProgressListener listener
+    );
+
+    /**
+     * Encodes a text message into the smallest cover of the cover library that holds it.
+     *
+     * @param message  The text message to encode.
+     * @param password The password for encrypting the message.
+     * @param lsbDepth The number of least significant bits per channel to use (1 or 2).
+     * @param listener The listener receiving the pipeline stages.
+     * @return A DTO containing details of the encoding process.
+     * @throws InvalidLsbDepthException      If the specified LSB depth is invalid.
+     * @throws MessageTooLargeException      If no cover in the library is large enough for the message.
+     * @throws InvalidEncryptionKeyException If the encryption key is invalid.
+     * @throws LsbEncodingException          If an error occurs during the encoding process.
+     * @throws AesOperationException         If an error occurs during AES encryption.
+     * @throws MetadataEncodingException     If an error occurs while encoding metadata.
+     * @throws StorageException              If an error occurs while storing the encoded data.
+     */
+    StegoEncodeResponseDTO encodeTextWithLibraryCover(
+            String message,
+            String password,
+            int lsbDepth,
+            StegoProgressListener listener
+    ) throws InvalidLsbDepthException,
+            MessageTooLargeException,
+            InvalidEncryptionKeyException,
+            LsbEncodingException,
+            AesOperationException,
+            MetadataEncodingException,
+            StorageException, ExecutionException, InterruptedException;
+
+    /**
+     * Encodes a text message into a library cover without blocking the caller.
+     *
+     * @param message  The text message to encode.
+     * @param password The password for encrypting the message.
+     * @param lsbDepth The number of least significant bits per channel to use (1 or 2).
+     * @param listener The listener receiving the pipeline stages.
+     * @return A future completed with a DTO containing details of the encoding process.
+     * @see #encodeTextWithLibraryCover(String, String, int, StegoProgressListener)
+     */
+    CompletableFuture<StegoEncodeResponseDTO> encodeTextWithLibraryCoverAsync(
+            String message,
+            String password,
+            int lsbDepth,
+            StegoProgressListener listener
+    );
+
+    /**
+     * Encodes a file into the smallest cover of the cover library that holds it.
+     *
+     * @param originalFileName The original name of the file.
+     * @param fileBytes        The file content to encode.
+     * @param password         The password for encrypting the file.
+     * @param lsbDepth         The number of least significant bits per channel to use (1 or 2).
+     * @param listener         The listener receiving the pipeline stages.
+     * @return A DTO containing details of the encoding process.
+     * @throws InvalidLsbDepthException      If the specified LSB depth is invalid.
+     * @throws MessageTooLargeException      If no cover in the library is large enough for the file.
+     * @throws FileTooLargeException         If the file is too large to fit in the selected cover.
+     * @throws InvalidEncryptionKeyException If the encryption key is invalid.
+     * @throws LsbEncodingException          If an error occurs during the encoding process.
+     * @throws AesOperationException         If an error occurs during AES encryption.
+     * @throws MetadataEncodingException     If an error occurs while encoding metadata.
+     * @throws StorageException              If an error occurs while storing the encoded data.
+     */
+    StegoEncodeResponseDTO encodeFileWithLibraryCover(
+            String originalFileName,
+            byte[] fileBytes,
+            String password,
+            int lsbDepth,
+            StegoProgressListener listener
+    ) throws InvalidLsbDepthException,
+            MessageTooLargeException,
+            FileTooLargeException,
+            InvalidEncryptionKeyException,
+            LsbEncodingException,
+            AesOperationException,
+            MetadataEncodingException,
+            StorageException, ExecutionException, InterruptedException;
+
+    /**
+     * Encodes a file into a library cover without blocking the caller.
+     *
+     * @param originalFileName The original name of the file.
+     * @param fileBytes        The file content to encode.
+     * @param password         The password for encrypting the file.
+     * @param lsbDepth         The number of least significant bits per channel to use (1 or 2).
+     * @param listener         The listener receiving the pipeline stages.
+     * @return A future completed with a DTO containing details of the encoding process.
+     * @see #encodeFileWithLibraryCover(String, byte[], String, int, StegoProgressListener)
+     */
+    CompletableFuture<StegoEncodeResponseDTO> encodeFileWithLibraryCoverAsync(
+            String originalFileName,
+            byte[] fileBytes,
+            String password,
+            int lsbDepth,
+            StegoProgressListener listener
+    );
+
+    /**
+     * Encodes a file into an animated PNG, splitting the encrypted file across its frames.
+     * Every frame large enough for a shard header carries one shard; frames are embedded in parallel.
+     *
+     * @param animatedCoverBytes The animated PNG to be used as the cover.
+     * @param originalFileName   The original name of the file.
+     * @param fileBytes          The file content to encode.
+     * @param password           The password for encrypting the file.
+     * @param lsbDepth           The number of least significant bits per channel to use (1 or 2).
+     * @param listener           The listener receiving the pipeline stages.
+     * @return A DTO containing details of the encoding process.
+     * @throws InvalidImageFormatException   If the cover is not an animated PNG or has too many frames.
+     * @throws MessageTooLargeException      If the file does not fit into all frames together.
+     * @throws InvalidLsbDepthException      If the specified LSB depth is invalid.
+     * @throws InvalidEncryptionKeyException If the encryption key is invalid.
+     * @throws LsbEncodingException          If an error occurs during the encoding process.
+     * @throws AesOperationException         If an error occurs during AES encryption.
+     * @throws MetadataEncodingException     If an error occurs while encoding metadata.
+     * @throws StorageException              If an error occurs while storing the encoded data.
+     */
+    StegoEncodeResponseDTO encodeFileAnimated(
+            byte[] animatedCoverBytes,
+            String originalFileName,
+            byte[] fileBytes,
+            String password,
+            int lsbDepth,
+            StegoProgressListener listener
+    ) throws InvalidImageFormatException,
+            MessageTooLargeException,
+            InvalidLsbDepthException,
+            InvalidEncryptionKeyException,
+            LsbEncodingException,
+            AesOperationException,
+            MetadataEncodingException,
+            StorageException, ExecutionException, InterruptedException;
+
+    /**
+     * Encodes a file into an animated PNG without blocking the caller.
+     *
+     * @param animatedCoverBytes The animated PNG to be used as the cover.
+     * @param originalFileName   The original name of the file.
+     * @param fileBytes          The file content to encode.
+     * @param password           The password for encrypting the file.
+     * @param lsbDepth           The number of least significant bits per channel to use (1 or 2).
+     * @param listener           The listener receiving the pipeline stages.
+     * @return A future completed with a DTO containing details of the encoding process.
+     * @see #encodeFileAnimated(byte[], String, byte[], String, int, StegoProgressListener)
+     */
+    CompletableFuture<StegoEncodeResponseDTO> encodeFileAnimatedAsync(
+            byte[] animatedCoverBytes,
+            String originalFileName,
+            byte[] fileBytes,
+            String password,
+            int lsbDepth,
+            StegoProgressListener listener
+    );
+
+    /**
+     * Decodes a payload split across the frames of an animated PNG. Frames are decoded and extracted in
+     * parallel, one frame raster at a time per worker.
+     *
+     * @param stegoImageBytes The animated stego image.
+     * @param password        The password for decrypting the payload.
+     * @param listener        The listener receiving the pipeline stages.
+     * @return A DTO containing the decoded text or file.
+     * @throws InvalidImageFormatException   If the image is not an animated PNG or has too many frames.
+     * @throws ShardSetInvalidException      If the frames do not carry one complete payload.
+     * @throws InvalidEncryptionKeyException If the password does not match the encryption key.
+     * @throws MetadataNotFoundException     If no frame carries metadata.
+     * @throws LsbDecodingException          If an error occurs while extracting the payload.
+     * @throws AesOperationException         If an error occurs during AES decryption.
+     * @throws MetadataDecodingException     If an error occurs while decoding metadata.
+     */
+    StegoDecodeResponseDTO decodeAnimated(
+            byte[] stegoImageBytes,
+            String password,
+            StegoProgressListener listener
+    ) throws InvalidImageFormatException,
+            ShardSetInvalidException,
+            InvalidEncryptionKeyException,
+            MetadataNotFoundException,
+            LsbDecodingException,
+            AesOperationException,
+            MetadataDecodingException, ExecutionException, InterruptedException;
+
+    /**
+     * Decodes a payload split across the frames of an animated PNG without blocking the caller.
+     *
+     * @param stegoImageBytes The animated stego image.
+     * @param password        The password for decrypting the payload.
+     * @param listener        The listener receiving the pipeline stages.
+     * @return A future completed with a DTO containing the decoded text or file.
+     * @see #decodeAnimated(byte[], String, StegoProgressListener)
+     */
+    CompletableFuture<StegoDecodeResponseDTO> decodeAnimatedAsync(
+            byte[] stegoImageBytes,
+            String password,
+            StegoProgressListener listener
+    );
+
 //    /**
 //     * Encodes a text message into a byte array representation of the stego image.
 //     *
@@ -0,0 +1,162 @@
+package com.example.springprojectsteganographytool.services;
+
+import com.example.springprojectsteganographytool.exceptions.common.ServiceOverloadedException;
+import com.example.springprojectsteganographytool.exceptions.data.InvalidIdempotencyKeyException;
+import com.example.springprojectsteganographytool.exceptions.data.StegoJobNotCompletedException;
+import com.example.springprojectsteganographytool.exceptions.data.StegoJobNotFoundException;
+import com.example.springprojectsteganographytool.exceptions.file.FileTooLargeException;
+import com.example.springprojectsteganographytool.models.StegoJobResultDTO;
+import com.example.springprojectsteganographytool.models.StegoJobStatusDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+/**
+ * Service interface for running encode and decode operations as background jobs.
+ * Submitting a job returns immediately; progress is reported per pipeline stage and the result
+ * stays retrievable by job ID for a retention period after the job finishes.
+ */
+public interface StegoJobService {
+
+    /**
+     * Submits a background job that encodes a text message into a cover image.
+     *
+     * @param coverImageBytes The encoded cover image (any format supported by ImageIO).
+     * @param message         The text message to encode.
+     * @param password        The password for encrypting the message.
+     * @param lsbDepth        The number of least significant bits per channel to use (1 or 2).
+     * @param idempotencyKey  A client-chosen key identifying the request across retries, or null.
+     *                        A retry with the same key completes with the result of the original request.
+     * @return The initial status of the job.
+     * @throws ServiceOverloadedException     If too many jobs are already running.
+     * @throws InvalidIdempotencyKeyException If the key is malformed or was used for a different request.
+     * @throws FileTooLargeException          If the job is too large to be queued.
+     */
+    StegoJobStatusDTO submitEncodeText(
+            byte[] coverImageBytes,
+            String message,
+            String password,
+            int lsbDepth,
+            String idempotencyKey
+    ) throws ServiceOverloadedException, InvalidIdempotencyKeyException, FileTooLargeException;
+
+    /**
+     * Submits a background job that encodes a file into a cover image.
+     *
+     * @param coverImageBytes  The encoded cover image (any format supported by ImageIO).
+     * @param originalFileName The original name of the file being encoded.
+     * @param fileBytes        The byte array of the file to encode.
+     * @param password         The password for encrypting the file.
+     * @param lsbDepth         The number of least significant bits per channel to use (1 or 2).
+     * @param idempotencyKey   A client-chosen key identifying the request across retries, or null.
+     *                         A retry with the same key completes with the result of the original request.
+     * @return The initial status of the job.
+     * @throws ServiceOverloadedException     If too many jobs are already running.
+     * @throws InvalidIdempotencyKeyException If the key is malformed or was used for a different request.
+     * @throws FileTooLargeException          If the job is too large to be queued.
+     */
+    StegoJobStatusDTO submitEncodeFile(
+            byte[] coverImageBytes,
+            String originalFileName,
+            byte[] fileBytes,
+            String password,
+            int lsbDepth,
+            String idempotencyKey
+    ) throws ServiceOverloadedException, InvalidIdempotencyKeyException, FileTooLargeException;
+
+    /**
+     * Submits a background job that encodes a text message into the smallest cover of the cover library that
+     * holds it.
+     *
+     * @param message        The text message to encode.
+     * @param password       The password for encrypting the message.
+     * @param lsbDepth       The number of least significant bits per channel to use (1 or 2).
+     * @param idempotencyKey A client-chosen key identifying the request across retries, or null.
+     *                       A retry with the same key completes with the result of the original request.
+     * @return The initial status of the job.
+     * @throws ServiceOverloadedException     If too many jobs are already running.
+     * @throws InvalidIdempotencyKeyException If the key is malformed or was used for a different request.
+     * @throws FileTooLargeException          If the job is too large to be queued.
+     */
+    StegoJobStatusDTO submitEncodeTextWithLibraryCover(
+            String message,
+            String password,
+            int lsbDepth,
+            String idempotencyKey
+    ) throws ServiceOverloadedException, InvalidIdempotencyKeyException, FileTooLargeException;
+
+    /**
+     * Submits a background job that encodes a file into the smallest cover of the cover library that holds it.
+     *
+     * @param originalFileName The original name of the file being encoded.
+     * @param fileBytes        The byte array of the file to encode.
+     * @param password         The password for encrypting the file.
+     * @param lsbDepth         The number of least significant bits per channel to use (1 or 2).
+     * @param idempotencyKey   A client-chosen key identifying the request across retries, or null.
+     *                         A retry with the same key completes with the result of the original request.
+     * @return The initial status of the job.
+     * @throws ServiceOverloadedException     If too many jobs are already running.
+     * @throws InvalidIdempotencyKeyException If the key is malformed or was used for a different request.
+     * @throws FileTooLargeException          If the job is too large to be queued.
+     */
+    StegoJobStatusDTO submitEncodeFileWithLibraryCover(
+            String originalFileName,
+            byte[] fileBytes,
+            String password,
+            int lsbDepth,
+            String idempotencyKey
+    ) throws ServiceOverloadedException, InvalidIdempotencyKeyException, FileTooLargeException;
+
+    /**
+     * Submits a background job that decodes a stego image.
+     *
+     * @param stegoImageBytes The encoded stego image.
+     * @param password        The password used to decrypt the hidden data.
+     * @return The initial status of the job.
+     * @throws ServiceOverloadedException If too many jobs are already running.
+     * @throws FileTooLargeException      If the job is too large to be queued.
+     */
+    StegoJobStatusDTO submitDecode(
+            byte[] stegoImageBytes,
+            String password
+    ) throws ServiceOverloadedException, FileTooLargeException;
+
+    /**
+     * Retrieves the current status of a job.
+     *
+     * @param jobId The ID of the job.
+     * @return The current status of the job.
+     * @throws StegoJobNotFoundException If no job with the given ID exists or it has expired.
+     */
+    StegoJobStatusDTO getStatus(
+            UUID jobId
+    ) throws StegoJobNotFoundException;
+
+    /**
+     * Opens a Server-Sent Events stream of the job's progress.
+     * The current status is sent immediately, followed by one event per stage; the stream completes
+     * once the job has completed or failed.
+     *
+     * @param jobId The ID of the job.
+     * @return The emitter streaming the job's progress.
+     * @throws StegoJobNotFoundException If no job with the given ID exists or it has expired.
+     */
+    SseEmitter subscribe(
+            UUID jobId
+    ) throws StegoJobNotFoundException;
+
+    /**
+     * Retrieves the result of a completed job.
+     * With distributed jobs, the decoded payload of a decode job is handed out only once.
+     *
+     * @param jobId The ID of the job.
+     * @return The final status and the result of the job.
+     * @throws StegoJobNotFoundException     If no job with the given ID exists or it has expired, or a decoded
+     *                                       payload has already been retrieved.
+     * @throws StegoJobNotCompletedException If the job is still running or has failed.
+     */
+    StegoJobResultDTO getResult(
+            UUID jobId
+    ) throws StegoJobNotFoundException, StegoJobNotCompletedException;
+
+}
@@ -0,0 +1,25 @@
+package com.example.springprojectsteganographytool.services;
+
+import com.example.springprojectsteganographytool.models.StegoJobStage;
+
+/**
+ * Receives the pipeline stages of an encode or decode as they start.
+ * Stages may be reported from worker threads, so implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface StegoProgressListener {
+
+    /**
+     * A listener that ignores all progress.
+     */
+    StegoProgressListener NONE = _ -> {
+    };
+
+    /**
+     * Called when a stage starts.
+     *
+     * @param stage The stage that started.
+     */
+    void onStage(StegoJobStage stage);
+
+}
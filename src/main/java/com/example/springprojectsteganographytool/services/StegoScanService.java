@@ -0,0 +1,59 @@
+package com.example.springprojectsteganographytool.services;
+
+import com.example.springprojectsteganographytool.exceptions.data.StorageException;
+import com.example.springprojectsteganographytool.models.StegoScanReportDTO;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Service interface for sweeping large sets of images for stego headers without fully decoding them.
+ */
+public interface StegoScanService {
+
+    /**
+     * Scans every regular file below a directory, recursively, for a stego header.
+     *
+     * @param directory The directory to scan.
+     * @return A report of the hits with their metadata.
+     * @throws StorageException If the directory cannot be listed.
+     */
+    StegoScanReportDTO scanDirectory(
+            Path directory
+    ) throws StorageException, ExecutionException, InterruptedException;
+
+    /**
+     * Scans every regular file below a directory without blocking the caller.
+     *
+     * @param directory The directory to scan.
+     * @return A future completed with a report of the hits.
+     * @see #scanDirectory(Path)
+     */
+    CompletableFuture<StegoScanReportDTO> scanDirectoryAsync(
+            Path directory
+    );
+
+    /**
+     * Scans uploaded images for a stego header.
+     *
+     * @param images The encoded images keyed by a name used as their source in the report.
+     * @return A report of the hits with their metadata.
+     */
+    StegoScanReportDTO scanUploads(
+            Map<String, byte[]> images
+    ) throws ExecutionException, InterruptedException;
+
+    /**
+     * Scans uploaded images without blocking the caller.
+     *
+     * @param images The encoded images keyed by a name used as their source in the report.
+     * @return A future completed with a report of the hits.
+     * @see #scanUploads(Map)
+     */
+    CompletableFuture<StegoScanReportDTO> scanUploadsAsync(
+            Map<String, byte[]> images
+    );
+
+}
@@ -1,51 +1,94 @@
 package com.example.springprojectsteganographytool.services.impl;
 
+import com.example.springprojectsteganographytool.concurrency.AsyncTasks;
+import com.example.springprojectsteganographytool.concurrency.CpuWorkerPool;
+import com.example.springprojectsteganographytool.concurrency.Deadline;
+import com.example.springprojectsteganographytool.concurrency.PinningGuard;
+import com.example.springprojectsteganographytool.crypto.CipherSuite;
+import com.example.springprojectsteganographytool.crypto.CipherSuiteSelector;
+import com.example.springprojectsteganographytool.crypto.CryptoPrimitivePool;
+import com.example.springprojectsteganographytool.crypto.EncryptedChunks;
+import com.example.springprojectsteganographytool.crypto.Hkdf;
+import com.example.springprojectsteganographytool.crypto.KdfCalibrator;
+import com.example.springprojectsteganographytool.crypto.KdfScheme;
+import com.example.springprojectsteganographytool.crypto.MasterKeyCache;
 import com.example.springprojectsteganographytool.exceptions.encryption.AesKeyInvalidException;
 import com.example.springprojectsteganographytool.exceptions.encryption.AesOperationException;
+import com.example.springprojectsteganographytool.models.StegoCryptoDTO;
 import com.example.springprojectsteganographytool.services.AesUtilService;
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
-import javax.crypto.SecretKeyFactory;
-import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HexFormat;
+import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Implementation of the AesUtilService interface providing utility methods for AES encryption and decryption.
- * This service supports text and file encryption/decryption using AES in CBC mode with PKCS5 padding.
+ * This service supports text and file encryption/decryption with the cipher suites in {@link CipherSuite}
+ * (AES-256-CBC for legacy payloads, AES-256-GCM and ChaCha20-Poly1305); the suite for new payloads is
+ * chosen by the {@link CipherSuiteSelector}.
  * It also includes methods for generating encryption keys.
+ * <p>
+ * Keys are derived either with PBKDF2 per payload (the legacy scheme) or, when
+ * {@code stego.crypto.kdf-scheme} is set to {@link KdfScheme#PBKDF2_HKDF}, from a cached
+ * PBKDF2 master key with a cheap per-payload HKDF step. The PBKDF2 iteration count of new
+ * payloads comes from the {@link KdfCalibrator}; the count of existing payloads is read from
+ * their encryption parameters.
+ * <p>
+ * Ciphers, key factories, MACs, digests and random sources are borrowed from the
+ * {@link CryptoPrimitivePool} instead of being looked up on every call. Besides byte arrays,
+ * payloads can be passed as {@link ByteBuffer}s or {@link MemorySegment}s to avoid copies.
  */
 @Service
 public class AesUtilServiceImpl implements AesUtilService {
 
     // Constants for encryption configuration
     private static final String KDF_ALGORITHM = "PBKDF2WithHmacSHA256"; // Key derivation function algorithm
-    private static final String CIPHER_ALGORITHM = "AES/CBC/PKCS5Padding"; // AES with CBC mode and PKCS5 padding
-    private static final int ITERATION_COUNT = 65536; // Number of iterations for PBKDF2
     private static final int KEY_LENGTH = 256; // AES-256 key length in bits
     private static final int SALT_LENGTH = 16; // Length of the salt in bytes
-    private static final int IV_LENGTH = 16; // Length of the Initialization Vector (IV) in bytes
-
-    private static final SecureRandom RANDOM = new SecureRandom(); // Secure random generator for salt and IV
-    private final ExecutorService executorService;
-
-    public AesUtilServiceImpl(@Qualifier("virtualThreadExecutor") ExecutorService executorService) {
-        this.executorService = executorService;
+    private static final int MASTER_SALT_LENGTH = 16; // Length of the master salt in bytes (PBKDF2_HKDF only)
+    private static final int CRYPTO_CHUNK_SIZE = 256 * 1024; // Bytes processed between cancellation checkpoints
+
+    private final CryptoPrimitivePool cryptoPrimitivePool;
+    private final MasterKeyCache masterKeyCache;
+    private final KdfCalibrator kdfCalibrator;
+    private final CipherSuiteSelector cipherSuiteSelector;
+    private final KdfScheme kdfScheme;
+    private final PinningGuard pinningGuard;
+    private final CpuWorkerPool cpuWorkerPool;
+
+    public AesUtilServiceImpl(
+            CryptoPrimitivePool cryptoPrimitivePool,
+            MasterKeyCache masterKeyCache,
+            KdfCalibrator kdfCalibrator,
+            CipherSuiteSelector cipherSuiteSelector,
+            @Value("${stego.crypto.kdf-scheme:PBKDF2}") KdfScheme kdfScheme,
+            PinningGuard pinningGuard,
+            CpuWorkerPool cpuWorkerPool
+    ) {
+        this.cryptoPrimitivePool = cryptoPrimitivePool;
+        this.masterKeyCache = masterKeyCache;
+        this.kdfCalibrator = kdfCalibrator;
+        this.cipherSuiteSelector = cipherSuiteSelector;
+        this.kdfScheme = kdfScheme;
+        this.pinningGuard = pinningGuard;
+        this.cpuWorkerPool = cpuWorkerPool;
     }
 
     /**
      * Encrypts a plain text string using the provided key.
-     * This method validates the key, encrypts the plain text asynchronously using an executor service,
+     * This method validates the key, encrypts the plain text on the calling thread,
      * and returns the encrypted byte array.
      *
      * @param plainText The plain text to encrypt.
@@ -57,6 +100,22 @@ public class AesUtilServiceImpl implements AesUtilService {
     @Override
     public byte[] encryptText(String plainText, String key)
             throws AesKeyInvalidException, AesOperationException {
+        return encryptText(plainText, key, null);
+    }
+
+    /**
+     * Encrypts a plain text string using the provided key and encryption parameters.
+     *
+     * @param plainText The plain text to encrypt.
+     * @param key       The encryption key.
+     * @param crypto    The encryption parameters, or null for the legacy parameters.
+     * @return The encrypted text as a byte array.
+     * @throws AesKeyInvalidException If the key is null or blank.
+     * @throws AesOperationException  If an error occurs during encryption or task execution.
+     */
+    @Override
+    public byte[] encryptText(String plainText, String key, StegoCryptoDTO crypto)
+            throws AesKeyInvalidException, AesOperationException {
 
         // Validate the key
         if (key == null || key.isBlank()) {
@@ -65,27 +124,16 @@ public class AesUtilServiceImpl implements AesUtilService {
 
         // Create a callable task to perform the encryption
         Callable<byte[]> task = () -> encryptBytes(
-                plainText.getBytes(StandardCharsets.UTF_8), key
+                plainText.getBytes(StandardCharsets.UTF_8), key, crypto
         );
 
-        try {
-            // Submit the encryption task to the executor service and wait for the result
-            // The get() method blocks until the task is complete and retrieves the result
-            return executorService.submit(task).get();
-        } catch (InterruptedException interruptedException) {
-            // Restore the interrupted status and throw an exception
-            Thread.currentThread().interrupt();
-            throw new AesOperationException("AES encryption interrupted", interruptedException);
-        } catch (ExecutionException ee) {
-            // Handle the cause of the execution exception
-            handleExecutionCause(ee);
-            throw new AesOperationException("AES operation failed", ee);
-        }
+        // Run the task on the calling thread; scheduling is left to the caller
+        return runOperation(task, "AES operation failed");
     }
 
     /**
      * Decrypts an encrypted byte array using the provided key.
-     * This method validates the decryption key, processes the decryption asynchronously using an executor service,
+     * This method validates the decryption key, processes the decryption on the calling thread,
      * and converts the decrypted byte array back to a plain text string.
      *
      * @param cipherBytes The encrypted byte array to decrypt.
@@ -97,6 +145,22 @@ public class AesUtilServiceImpl implements AesUtilService {
     @Override
     public String decryptText(byte[] cipherBytes, String key)
             throws AesKeyInvalidException, AesOperationException {
+        return decryptText(cipherBytes, key, null);
+    }
+
+    /**
+     * Decrypts an encrypted byte array using the provided key and the parameters it was encrypted with.
+     *
+     * @param cipherBytes The encrypted byte array to decrypt.
+     * @param key         The decryption key to use for decryption.
+     * @param crypto      The encryption parameters recorded at encode time, or null for legacy payloads.
+     * @return The decrypted plain text as a string.
+     * @throws AesKeyInvalidException If the provided decryption key is null or blank.
+     * @throws AesOperationException  If an error occurs during decryption or task execution.
+     */
+    @Override
+    public String decryptText(byte[] cipherBytes, String key, StegoCryptoDTO crypto)
+            throws AesKeyInvalidException, AesOperationException {
 
         // Validate the key
         if (key == null || key.isBlank()) {
@@ -105,31 +169,18 @@ public class AesUtilServiceImpl implements AesUtilService {
 
         // Create a callable task to perform the decryption
         Callable<byte[]> task = () -> decryptBytes(
-                cipherBytes, key
+                cipherBytes, key, crypto
         );
 
-        try {
-
-            // Submit the decryption task to the executor service and wait for the result
-            // Convert the decrypted byte array back to a string using UTF-8 encoding
-            var plainTextBytes = executorService.submit(task).get();
-
-            return new String(plainTextBytes, StandardCharsets.UTF_8);
-
-        } catch (InterruptedException exception) {
-            // Restore the interrupted status and throw an exception
-            Thread.currentThread().interrupt();
-            throw new AesOperationException("AES decryption interrupted", exception);
-        } catch (ExecutionException ee) {
-            // Handle the cause of the execution exception
-            handleExecutionCause(ee);
-            throw new AesOperationException("AES decryption operation failed", ee);
-        }
+        // Run the task on the calling thread; scheduling is left to the caller
+        // Convert the decrypted byte array back to a string using UTF-8 encoding
+        var plainTextBytes = runOperation(task, "AES decryption operation failed");
+        return new String(plainTextBytes, StandardCharsets.UTF_8);
     }
 
     /**
      * Encrypts a file represented as a byte array using the provided key.
-     * This method validates the encryption key, processes the encryption asynchronously using an executor service,
+     * This method validates the encryption key, processes the encryption on the calling thread,
      * and returns the encrypted file content as a byte array.
      *
      * @param fileBytes The file content to encrypt, represented as a byte array.
@@ -141,6 +192,22 @@ public class AesUtilServiceImpl implements AesUtilService {
     @Override
     public byte[] encryptFile(byte[] fileBytes, String key)
             throws AesKeyInvalidException, AesOperationException {
+        return encryptFile(fileBytes, key, null);
+    }
+
+    /**
+     * Encrypts a file represented as a byte array using the provided key and encryption parameters.
+     *
+     * @param fileBytes The file content to encrypt, represented as a byte array.
+     * @param key       The encryption key to use for encrypting the file.
+     * @param crypto    The encryption parameters, or null for the legacy parameters.
+     * @return A byte array containing the encrypted file content.
+     * @throws AesKeyInvalidException If the provided encryption key is null or blank.
+     * @throws AesOperationException  If an error occurs during the encryption process or task execution.
+     */
+    @Override
+    public byte[] encryptFile(byte[] fileBytes, String key, StegoCryptoDTO crypto)
+            throws AesKeyInvalidException, AesOperationException {
 
         // Validate the key
         if (key == null || key.isBlank()) {
@@ -148,26 +215,16 @@ public class AesUtilServiceImpl implements AesUtilService {
         }
 
         // Create a callable task to perform the encryption
-        Callable<byte[]> task = () -> encryptBytes(fileBytes, key);
+        Callable<byte[]> task = () -> encryptBytes(fileBytes, key, crypto);
 
-        try {
-            // Submit the encryption task to the executor service and wait for the result
-            return executorService.submit(task).get();
-        } catch (InterruptedException interruptedException) {
-            // Restore the interrupted status and throw an exception
-            Thread.currentThread().interrupt();
-            throw new AesOperationException("AES file encryption interrupted", interruptedException);
-        } catch (ExecutionException ee) {
-            // Handle the cause of the execution exception
-            handleExecutionCause(ee);
-            throw new AesOperationException("AES file encryption operation failed", ee);
-        }
+        // Run the task on the calling thread; scheduling is left to the caller
+        return runOperation(task, "AES file encryption operation failed");
 
     }
 
     /**
      * Decrypts an encrypted file represented as a byte array using the provided key.
-     * This method validates the decryption key, processes the decryption asynchronously using an executor service,
+     * This method validates the decryption key, processes the decryption on the calling thread,
      * and returns the decrypted file content as a byte array.
      *
      * @param cipherBytes The encrypted file content as a byte array.
@@ -179,6 +236,23 @@ public class AesUtilServiceImpl implements AesUtilService {
     @Override
     public byte[] decryptFile(byte[] cipherBytes, String key)
             throws AesKeyInvalidException, AesOperationException {
+        return decryptFile(cipherBytes, key, null);
+    }
+
+    /**
+     * Decrypts an encrypted file represented as a byte array using the provided key
+     * and the parameters it was encrypted with.
+     *
+     * @param cipherBytes The encrypted file content as a byte array.
+     * @param key         The decryption key to use for decryption.
+     * @param crypto      The encryption parameters recorded at encode time, or null for legacy payloads.
+     * @return A byte array containing the decrypted file content.
+     * @throws AesKeyInvalidException If the provided decryption key is null or blank.
+     * @throws AesOperationException  If an error occurs during the decryption process or task execution.
+     */
+    @Override
+    public byte[] decryptFile(byte[] cipherBytes, String key, StegoCryptoDTO crypto)
+            throws AesKeyInvalidException, AesOperationException {
 
         // Validate the key
         if (key == null || key.isBlank()) {
@@ -186,26 +260,285 @@ public class AesUtilServiceImpl implements AesUtilService {
         }
 
         // Create a callable task to perform the decryption
-        Callable<byte[]> task = () -> decryptBytes(cipherBytes, key);
+        Callable<byte[]> task = () -> decryptBytes(cipherBytes, key, crypto);
 
-        try {
-            // Submit the decryption task to the executor service and wait for the result
-            return executorService.submit(task).get();
-        } catch (InterruptedException interruptedException) {
-            // Restore the interrupted status and throw an exception
-            Thread.currentThread().interrupt();
-            throw new AesOperationException("AES file decryption interrupted", interruptedException);
-        } catch (ExecutionException ee) {
-            // Handle the cause of the execution exception
-            handleExecutionCause(ee);
-            throw new AesOperationException("AES file decryption operation failed", ee);
+        // Run the task on the calling thread; scheduling is left to the caller
+        return runOperation(task, "AES file decryption operation failed");
+
+    }
+
+    /**
+     * Encrypts the remaining bytes of the source buffer into the destination buffer.
+     * Heap and direct buffers are supported; the plain text and cipher text are never copied.
+     *
+     * @param source      The plain text, from its position to its limit.
+     * @param destination The buffer receiving the salt(s), IV and cipher text.
+     * @param key         The encryption key.
+     * @param crypto      The encryption parameters, or null for the legacy parameters.
+     * @return The number of bytes written to the destination.
+     * @throws AesKeyInvalidException If the key is null or blank.
+     * @throws AesOperationException  If the destination is too small or an error occurs during encryption.
+     */
+    @Override
+    public int encrypt(ByteBuffer source, ByteBuffer destination, String key, StegoCryptoDTO crypto)
+            throws AesKeyInvalidException, AesOperationException {
+
+        // Validate the key
+        if (key == null || key.isBlank()) {
+            throw new AesKeyInvalidException("Encryption key is required and cannot be null or blank.");
         }
 
+        // Create a callable task to perform the encryption
+        Callable<Integer> task = () -> encryptBuffer(source, destination, key, crypto);
+
+        // Run the task on the calling thread; scheduling is left to the caller
+        return runOperation(task, "AES buffer encryption operation failed");
+    }
+
+    /**
+     * Decrypts the remaining bytes of the source buffer into the destination buffer.
+     * Heap and direct buffers are supported; the cipher text and plain text are never copied.
+     *
+     * @param source      The salt(s), IV and cipher text, from its position to its limit.
+     * @param destination The buffer receiving the plain text.
+     * @param key         The decryption key.
+     * @param crypto      The encryption parameters recorded at encode time, or null for legacy payloads.
+     * @return The number of plain text bytes written to the destination.
+     * @throws AesKeyInvalidException If the key is null or blank.
+     * @throws AesOperationException  If an error occurs during decryption.
+     */
+    @Override
+    public int decrypt(ByteBuffer source, ByteBuffer destination, String key, StegoCryptoDTO crypto)
+            throws AesKeyInvalidException, AesOperationException {
+
+        // Validate the key
+        if (key == null || key.isBlank()) {
+            throw new AesKeyInvalidException("Decryption key is required and cannot be null or blank.");
+        }
+
+        // Create a callable task to perform the decryption
+        Callable<Integer> task = () -> decryptBuffer(source, destination, key, crypto);
+
+        // Run the task on the calling thread; scheduling is left to the caller
+        return runOperation(task, "AES buffer decryption operation failed");
+    }
+
+    /**
+     * Encrypts the source memory segment into the destination memory segment.
+     * The segments are accessed through {@link MemorySegment#asByteBuffer()} views, without copies.
+     *
+     * @param source      The plain text segment.
+     * @param destination The segment receiving the salt(s), IV and cipher text.
+     * @param key         The encryption key.
+     * @param crypto      The encryption parameters, or null for the legacy parameters.
+     * @return The number of bytes written to the destination.
+     * @throws AesKeyInvalidException If the key is null or blank.
+     * @throws AesOperationException  If the destination is too small or an error occurs during encryption.
+     */
+    @Override
+    public long encrypt(MemorySegment source, MemorySegment destination, String key, StegoCryptoDTO crypto)
+            throws AesKeyInvalidException, AesOperationException {
+        return encrypt(source.asByteBuffer(), destination.asByteBuffer(), key, crypto);
+    }
+
+    /**
+     * Decrypts the source memory segment into the destination memory segment.
+     * The segments are accessed through {@link MemorySegment#asByteBuffer()} views, without copies.
+     *
+     * @param source      The salt(s), IV and cipher text segment.
+     * @param destination The segment receiving the plain text.
+     * @param key         The decryption key.
+     * @param crypto      The encryption parameters recorded at encode time, or null for legacy payloads.
+     * @return The number of plain text bytes written to the destination.
+     * @throws AesKeyInvalidException If the key is null or blank.
+     * @throws AesOperationException  If an error occurs during decryption.
+     */
+    @Override
+    public long decrypt(MemorySegment source, MemorySegment destination, String key, StegoCryptoDTO crypto)
+            throws AesKeyInvalidException, AesOperationException {
+        return decrypt(source.asByteBuffer(), destination.asByteBuffer(), key, crypto);
+    }
+
+    /**
+     * Returns the number of bytes an encrypted payload of the given plain text length occupies,
+     * including the salt(s) and IV: the header followed by the cipher text (padded for CBC,
+     * with the authentication tag for the AEAD suites).
+     *
+     * @param plainTextLength The plain text length in bytes.
+     * @param crypto          The encryption parameters, or null for the legacy parameters.
+     * @return The encrypted length in bytes.
+     */
+    @Override
+    public int encryptedLength(int plainTextLength, StegoCryptoDTO crypto) {
+        var suite = resolveCipherSuite(crypto);
+        var prefixLength = resolveKdfScheme(crypto) == KdfScheme.PBKDF2_HKDF ? MASTER_SALT_LENGTH : 0;
+        return prefixLength + SALT_LENGTH + suite.ivLength() + suite.cipherTextLength(plainTextLength);
+    }
+
+    /**
+     * Returns the length of the key header of a chunked file: the master salt (PBKDF2_HKDF only) and the salt.
+     *
+     * @param crypto The encryption parameters, or null for the legacy parameters.
+     * @return The key header length in bytes.
+     */
+    @Override
+    public int chunkHeaderLength(StegoCryptoDTO crypto) {
+        var prefixLength = resolveKdfScheme(crypto) == KdfScheme.PBKDF2_HKDF ? MASTER_SALT_LENGTH : 0;
+        return prefixLength + SALT_LENGTH;
+    }
+
+    /**
+     * Returns the stored length of one chunk: its IV followed by the cipher text.
+     *
+     * @param plainChunkLength The plain length of the chunk in bytes.
+     * @param crypto           The encryption parameters, or null for the legacy parameters.
+     * @return The stored chunk length in bytes.
+     */
+    @Override
+    public int encryptedChunkLength(int plainChunkLength, StegoCryptoDTO crypto) {
+        var suite = resolveCipherSuite(crypto);
+        return suite.ivLength() + suite.cipherTextLength(plainChunkLength);
+    }
+
+    /**
+     * Encrypts a file as independently decryptable chunks on the calling thread.
+     * The key is derived once from a fresh salt; every chunk is encrypted with its own random IV and authenticated
+     * together with its position (see {@link #bindChunkPosition}), so chunks cannot be reordered, dropped or cut off.
+     *
+     * @param fileBytes The file to encrypt.
+     * @param chunkSize The plain bytes per chunk.
+     * @param key       The encryption key.
+     * @param crypto    The encryption parameters, or null for the legacy parameters.
+     * @return The key header and the encrypted chunks.
+     * @throws AesKeyInvalidException If the key is null or blank.
+     * @throws AesOperationException  If the chunk size is not positive, the cipher suite is not authenticated or
+     *                                an error occurs during encryption.
+     */
+    @Override
+    public EncryptedChunks encryptChunks(byte[] fileBytes, int chunkSize, String key, StegoCryptoDTO crypto)
+            throws AesKeyInvalidException, AesOperationException {
+
+        if (key == null || key.isBlank()) {
+            throw new AesKeyInvalidException("Encryption key is required and cannot be null or blank.");
+        }
+        if (chunkSize <= 0) {
+            throw new AesOperationException("Chunk size must be positive.");
+        }
+        requireAuthenticatedChunks(crypto);
+
+        return runOperation(() -> {
+            var scheme = resolveKdfScheme(crypto);
+            var suite = resolveCipherSuite(crypto);
+            var iterations = resolveIterations(crypto);
+
+            var salt = new byte[SALT_LENGTH];
+            cryptoPrimitivePool.nextBytes(salt);
+            var masterSalt = scheme == KdfScheme.PBKDF2_HKDF ? masterKeyCache.currentMasterSalt() : null;
+            var keySpec = deriveChunkKey(scheme, key, masterSalt, salt, iterations, suite);
+
+            var header = ByteBuffer.allocate(chunkHeaderLength(crypto));
+            if (masterSalt != null) {
+                header.put(masterSalt);
+            }
+            header.put(salt);
+
+            // An empty file still gets one (empty) chunk, so every chunked file has a last chunk
+            var chunkCount = Math.max(1, (int) ((fileBytes.length + (long) chunkSize - 1) / chunkSize));
+            var chunks = new ArrayList<byte[]>(chunkCount);
+            for (var i = 0; i < chunkCount; i++) {
+                var offset = i * chunkSize;
+                var length = Math.min(chunkSize, fileBytes.length - offset);
+                var iv = new byte[suite.ivLength()];
+                cryptoPrimitivePool.nextBytes(iv);
+
+                var chunk = new byte[encryptedChunkLength(length, crypto)];
+                System.arraycopy(iv, 0, chunk, 0, iv.length);
+                var chunkNumber = i;
+                cryptoPrimitivePool.withCipher(suite.transformation(), cipher -> {
+                    cipher.init(Cipher.ENCRYPT_MODE, keySpec, suite.parameterSpec(iv));
+                    bindChunkPosition(cipher, chunkNumber, chunkCount);
+                    return doFinalInChunks(cipher, ByteBuffer.wrap(fileBytes, offset, length), ByteBuffer.wrap(chunk, iv.length, chunk.length - iv.length));
+                });
+                chunks.add(chunk);
+            }
+
+            return new EncryptedChunks(header.array(), chunks);
+        }, "AES operation failed");
+    }
+
+    /**
+     * Decrypts consecutive chunks of a chunked file on the calling thread, deriving the key once.
+     *
+     * @param header     The key header of the file.
+     * @param chunks     The stored chunks to decrypt, in file order.
+     * @param firstChunk The number of the first given chunk in the file.
+     * @param chunkCount The number of chunks in the whole file.
+     * @param key        The decryption key.
+     * @param crypto     The encryption parameters recorded at encode time, or null for legacy payloads.
+     * @return The plain bytes of every given chunk.
+     * @throws AesKeyInvalidException If the key is null or blank.
+     * @throws AesOperationException  If the header or a chunk is malformed, a chunk is not at its encrypted position,
+     *                                the cipher suite is not authenticated or an error occurs during decryption.
+     */
+    @Override
+    public List<byte[]> decryptChunks(byte[] header, List<byte[]> chunks, int firstChunk, int chunkCount, String key, StegoCryptoDTO crypto)
+            throws AesKeyInvalidException, AesOperationException {
+
+        if (key == null || key.isBlank()) {
+            throw new AesKeyInvalidException("Decryption key is required and cannot be null or blank.");
+        }
+        if (header == null || header.length != chunkHeaderLength(crypto)
+                || firstChunk < 0 || firstChunk > chunkCount - chunks.size()) {
+            throw new AesOperationException("Invalid input for decryption.");
+        }
+        requireAuthenticatedChunks(crypto);
+
+        return runOperation(() -> {
+            var scheme = resolveKdfScheme(crypto);
+            var suite = resolveCipherSuite(crypto);
+            var iterations = resolveIterations(crypto);
+
+            var prefixLength = scheme == KdfScheme.PBKDF2_HKDF ? MASTER_SALT_LENGTH : 0;
+            var masterSalt = prefixLength > 0 ? Arrays.copyOfRange(header, 0, prefixLength) : null;
+            var salt = Arrays.copyOfRange(header, prefixLength, prefixLength + SALT_LENGTH);
+            var keySpec = deriveChunkKey(scheme, key, masterSalt, salt, iterations, suite);
+
+            var plainChunks = new ArrayList<byte[]>(chunks.size());
+            for (var i = 0; i < chunks.size(); i++) {
+                var chunk = chunks.get(i);
+                if (chunk.length < suite.ivLength()) {
+                    throw new AesOperationException("Invalid input for decryption.");
+                }
+
+                var iv = Arrays.copyOf(chunk, suite.ivLength());
+                var plain = new byte[chunk.length - iv.length];
+                var chunkNumber = firstChunk + i;
+                int written = cryptoPrimitivePool.withCipher(suite.transformation(), cipher -> {
+                    cipher.init(Cipher.DECRYPT_MODE, keySpec, suite.parameterSpec(iv));
+                    bindChunkPosition(cipher, chunkNumber, chunkCount);
+                    return doFinalInChunks(cipher, ByteBuffer.wrap(chunk, iv.length, plain.length), ByteBuffer.wrap(plain));
+                });
+                plainChunks.add(written == plain.length ? plain : Arrays.copyOf(plain, written));
+            }
+
+            return plainChunks;
+        }, "AES operation failed");
+    }
+
+    /**
+     * Returns the encryption parameters new payloads are encrypted with,
+     * based on the configured key-derivation scheme, the calibrated iteration count and the selected cipher suite.
+     *
+     * @return The default encryption parameters.
+     */
+    @Override
+    public StegoCryptoDTO defaultCryptoSpec() {
+        return new StegoCryptoDTO(kdfScheme, kdfCalibrator.iterationCount(), cipherSuiteSelector.defaultSuite());
     }
 
     /**
      * Generates a SHA-256 hash of the provided key and returns it as a hex-encoded string.
-     * This method validates the input key, processes the hash generation asynchronously using an executor service,
+     * This method validates the input key, processes the hash generation on the calling thread,
      * and returns the resulting hash in a hex-encoded format.
      *
      * @param key The input key to be hashed.
@@ -221,142 +554,400 @@ public class AesUtilServiceImpl implements AesUtilService {
             throw new AesKeyInvalidException("Encryption key is required and cannot be null or blank.");
         }
 
-        Callable<String> task = () -> {
-            // Generate an SHA-256 hash of the key
-            var messageDigest = MessageDigest.getInstance("SHA-256");
-
+        // Generate an SHA-256 hash of the key with a pooled digest
+        Callable<String> task = () -> cryptoPrimitivePool.withMessageDigest("SHA-256", messageDigest -> {
             // Convert the key to bytes and compute the digest
             var digestKey = messageDigest.digest(key.getBytes(StandardCharsets.UTF_8));
 
             // Return the hex-encoded representation of the digest.
             // Hex-encoded SHA-256 hash of the key
             return HexFormat.of().formatHex(digestKey);
-        };
+        });
 
-        try {
-            // Submit the key generation task to the executor service and wait for the result
-            return executorService.submit(task).get();
-        } catch (InterruptedException interruptedException) {
-            // Restore the interrupted status and throw an exception
-            Thread.currentThread().interrupt();
-            throw new AesOperationException("Key generation interrupted", interruptedException);
-        } catch (ExecutionException ee) {
-            throw new AesOperationException("Key generation operation failed", ee);
-        }
+        // Run the task on the calling thread; scheduling is left to the caller
+        return runOperation(task, "Key generation operation failed");
+
+    }
+
+    // ----- Asynchronous variants: the blocking operations, scheduled on the CPU worker pool by payload size -----
+
+    @Override
+    public CompletableFuture<byte[]> encryptTextAsync(String plainText, String key) {
+        return AsyncTasks.supply(cpuWorkerPool.newJob(plainText.length()), () -> encryptText(plainText, key));
+    }
 
+    @Override
+    public CompletableFuture<String> decryptTextAsync(byte[] cipherBytes, String key) {
+        return AsyncTasks.supply(cpuWorkerPool.newJob(cipherBytes.length), () -> decryptText(cipherBytes, key));
+    }
+
+    @Override
+    public CompletableFuture<byte[]> encryptFileAsync(byte[] fileBytes, String key) {
+        return AsyncTasks.supply(cpuWorkerPool.newJob(fileBytes.length), () -> encryptFile(fileBytes, key));
+    }
+
+    @Override
+    public CompletableFuture<byte[]> decryptFileAsync(byte[] cipherBytes, String key) {
+        return AsyncTasks.supply(cpuWorkerPool.newJob(cipherBytes.length), () -> decryptFile(cipherBytes, key));
+    }
+
+    @Override
+    public CompletableFuture<String> generateKeyAsync(String key) {
+        return AsyncTasks.supply(cpuWorkerPool.newJob(0), () -> generateKey(key));
     }
 
 
     // ----- Private Helper Methods -----
 
     /**
-     * Encrypts a byte array using the provided key.
+     * Encrypts a byte array using the provided key and encryption parameters.
      *
      * @param bytesToEncrypt The byte array to encrypt.
      * @param key            The encryption key.
-     * @return The encrypted byte array.
+     * @param crypto         The encryption parameters, or null for the legacy parameters.
+     * @return The encrypted byte array, prefixed with the salt(s) and IV.
      * @throws Exception If an error occurs during encryption.
      */
-    private byte[] encryptBytes(byte[] bytesToEncrypt, String key) throws Exception {
-        var salt = new byte[SALT_LENGTH];
-        var iv = new byte[IV_LENGTH];
-        var cipher = Cipher.getInstance(CIPHER_ALGORITHM);
-        var cipherText = cipher.doFinal(bytesToEncrypt);
+    private byte[] encryptBytes(byte[] bytesToEncrypt, String key, StegoCryptoDTO crypto) throws Exception {
+        var outputBytes = new byte[encryptedLength(bytesToEncrypt.length, crypto)];
+        var written = encryptBuffer(ByteBuffer.wrap(bytesToEncrypt), ByteBuffer.wrap(outputBytes), key, crypto);
+        return written == outputBytes.length ? outputBytes : Arrays.copyOf(outputBytes, written);
+    }
 
-        // Generate random salt and IV
-        RANDOM.nextBytes(salt);
-        RANDOM.nextBytes(iv);
+    /**
+     * Decrypts a byte array using the provided key and the parameters it was encrypted with.
+     *
+     * @param bytesToDecrypt The byte array to decrypt.
+     * @param key            The decryption key.
+     * @param crypto         The encryption parameters recorded at encode time, or null for legacy payloads.
+     * @return The decrypted byte array.
+     * @throws Exception If an error occurs during decryption.
+     */
+    private byte[] decryptBytes(byte[] bytesToDecrypt, String key, StegoCryptoDTO crypto) throws Exception {
+        if (bytesToDecrypt == null) {
+            throw new AesOperationException("Invalid input for decryption.");
+        }
+
+        // The plain text is never longer than the input, so the input length bounds the output
+        var outputBytes = new byte[bytesToDecrypt.length];
+        var written = decryptBuffer(ByteBuffer.wrap(bytesToDecrypt), ByteBuffer.wrap(outputBytes), key, crypto);
+        return Arrays.copyOf(outputBytes, written);
+    }
 
-        // Derive the key using PBKDF2 with the provided key and generated salt
-        var keySpec = deriveKey(key, salt);
+    /**
+     * Encrypts the remaining bytes of the source buffer into the destination buffer.
+     * <p>
+     * Layout written at the destination position: [MASTER_SALT (PBKDF2_HKDF only)][SALT][IV][CIPHER_TEXT],
+     * where the IV length and cipher text format depend on the cipher suite.
+     * The cipher text is produced before the header is written, so the source may be a view over the
+     * destination starting right after the header space, in which case the plain text is encrypted in place.
+     *
+     * @param source      The plain text, from its position to its limit.
+     * @param destination The buffer receiving the header and cipher text.
+     * @param key         The encryption key.
+     * @param crypto      The encryption parameters, or null for the legacy parameters.
+     * @return The number of bytes written to the destination.
+     * @throws Exception If an error occurs during encryption.
+     */
+    private int encryptBuffer(ByteBuffer source, ByteBuffer destination, String key, StegoCryptoDTO crypto) throws Exception {
+        var scheme = resolveKdfScheme(crypto);
+        var suite = resolveCipherSuite(crypto);
+        var iterations = resolveIterations(crypto);
+        var prefixLength = scheme == KdfScheme.PBKDF2_HKDF ? MASTER_SALT_LENGTH : 0;
+        var headerLength = prefixLength + SALT_LENGTH + suite.ivLength();
+
+        if (destination.remaining() < encryptedLength(source.remaining(), crypto)) {
+            throw new AesOperationException("Destination buffer is too small for the encrypted output.");
+        }
 
-        // Initialize the cipher with the derived key and generated IV
-        cipher.init(
-                Cipher.ENCRYPT_MODE,
-                keySpec,
-                new IvParameterSpec(iv)
-        );
+        var salt = new byte[SALT_LENGTH];
+        var iv = new byte[suite.ivLength()];
 
-        // Combine salt, IV, and cipher text into a single byte array
-        var outputBytes = new byte[SALT_LENGTH + IV_LENGTH + cipherText.length];
+        // Generate random salt and IV
+        cryptoPrimitivePool.nextBytes(salt, iv);
+
+        // Derive the key with the requested scheme
+        byte[] masterSalt = null;
+        SecretKeySpec keySpec;
+        if (scheme == KdfScheme.PBKDF2_HKDF) {
+            masterSalt = masterKeyCache.currentMasterSalt();
+            keySpec = deriveSubkey(key, masterSalt, salt, iterations, suite);
+        } else {
+            keySpec = deriveKey(key, salt, iterations, suite);
+        }
 
-        // Copy salt, IV, and cipher text into the output byte array
-        System.arraycopy(salt, 0, outputBytes, 0, SALT_LENGTH); // Copy salt
-        System.arraycopy(iv, 0, outputBytes, SALT_LENGTH, IV_LENGTH); // Copy IV
-        System.arraycopy(cipherText, 0, outputBytes, SALT_LENGTH + IV_LENGTH, cipherText.length); // Copy cipher text
+        // Encrypt into the destination after the header space with a pooled cipher
+        var headerStart = destination.position();
+        destination.position(headerStart + headerLength);
+        int cipherTextLength = cryptoPrimitivePool.withCipher(suite.transformation(), cipher -> {
+            cipher.init(
+                    Cipher.ENCRYPT_MODE,
+                    keySpec,
+                    suite.parameterSpec(iv)
+            );
+            return doFinalInChunks(cipher, source, destination);
+        });
+
+        // Write [master salt], salt and IV in front of the cipher text
+        var header = destination.duplicate().position(headerStart);
+        if (masterSalt != null) {
+            header.put(masterSalt);
+        }
+        header.put(salt).put(iv);
 
-        return outputBytes;
+        return headerLength + cipherTextLength;
     }
 
     /**
-     * Decrypts a byte array using the provided key.
+     * Decrypts the remaining bytes of the source buffer into the destination buffer.
+     * <p>
+     * Salts and IV are read with absolute gets, without copying the cipher text. The destination may
+     * be a view over the source (for example starting at the same position), in which case the cipher
+     * text is decrypted in place; the JCE cipher implementations are copy-safe for overlapping buffers.
      *
-     * @param bytesToDecrypt The byte array to decrypt.
-     * @param key            The decryption key.
-     * @return The decrypted byte array.
+     * @param source      The header and cipher text, from its position to its limit.
+     * @param destination The buffer receiving the plain text; needs at least the cipher text length remaining.
+     * @param key         The decryption key.
+     * @param crypto      The encryption parameters recorded at encode time, or null for legacy payloads.
+     * @return The number of plain text bytes written to the destination.
      * @throws Exception If an error occurs during decryption.
      */
-    private byte[] decryptBytes(byte[] bytesToDecrypt, String key) throws Exception {
-        if (bytesToDecrypt == null || bytesToDecrypt.length < SALT_LENGTH + IV_LENGTH) {
+    private int decryptBuffer(ByteBuffer source, ByteBuffer destination, String key, StegoCryptoDTO crypto) throws Exception {
+        var scheme = resolveKdfScheme(crypto);
+        var suite = resolveCipherSuite(crypto);
+        var iterations = resolveIterations(crypto);
+        var prefixLength = scheme == KdfScheme.PBKDF2_HKDF ? MASTER_SALT_LENGTH : 0;
+        var headerLength = prefixLength + SALT_LENGTH + suite.ivLength();
+
+        if (source.remaining() < headerLength) {
             throw new AesOperationException("Invalid input for decryption.");
         }
 
-        // Extract salt and IV from the input byte array
-        var salt = Arrays.copyOfRange(bytesToDecrypt, 0, SALT_LENGTH);
-        var iv = Arrays.copyOfRange(bytesToDecrypt, SALT_LENGTH, SALT_LENGTH + IV_LENGTH);
-        var cipherText = Arrays.copyOfRange(bytesToDecrypt, SALT_LENGTH + IV_LENGTH, bytesToDecrypt.length);
-
+        // Read salt and IV from the header without consuming the source
+        var start = source.position();
+        var salt = new byte[SALT_LENGTH];
+        var iv = new byte[suite.ivLength()];
+        source.get(start + prefixLength, salt);
+        source.get(start + prefixLength + SALT_LENGTH, iv);
+
+        // Derive the key with the scheme the payload was encrypted with
+        SecretKeySpec keySpec;
+        if (scheme == KdfScheme.PBKDF2_HKDF) {
+            var masterSalt = new byte[MASTER_SALT_LENGTH];
+            source.get(start, masterSalt);
+            keySpec = deriveSubkey(key, masterSalt, salt, iterations, suite);
+        } else {
+            keySpec = deriveKey(key, salt, iterations, suite);
+        }
 
-        // Derive the key using PBKDF2 with the provided key and extracted salt
-        var keySpec = deriveKey(key, salt);
+        // Initialize a pooled cipher for decryption and decrypt the cipher text
+        source.position(start + headerLength);
+        return cryptoPrimitivePool.withCipher(suite.transformation(), cipher -> {
+            cipher.init(
+                    Cipher.DECRYPT_MODE,
+                    keySpec,
+                    suite.parameterSpec(iv)
+            );
+            return doFinalInChunks(cipher, source, destination);
+        });
+    }
 
-        // Initialize the cipher for decryption
-        var cipher = Cipher.getInstance(CIPHER_ALGORITHM);
-        cipher.init(
-                Cipher.DECRYPT_MODE,
-                keySpec,
-                new IvParameterSpec(iv)
-        );
+    /**
+     * Runs an initialized cipher over the remaining source bytes in chunks, with a cancellation
+     * checkpoint between chunks, so a cancelled request stops encrypting large payloads early.
+     *
+     * @param cipher      The initialized cipher.
+     * @param source      The input, from its position to its limit.
+     * @param destination The buffer receiving the output.
+     * @return The number of bytes written to the destination.
+     * @throws Exception If the cipher operation fails.
+     */
+    private static int doFinalInChunks(Cipher cipher, ByteBuffer source, ByteBuffer destination) throws Exception {
+        var limit = source.limit();
+        var written = 0;
+
+        while (limit - source.position() > CRYPTO_CHUNK_SIZE) {
+            Deadline.checkpoint();
+            source.limit(source.position() + CRYPTO_CHUNK_SIZE);
+            written += cipher.update(source, destination);
+            source.limit(limit);
+        }
 
-        // Decrypt the cipher text
-        return cipher.doFinal(cipherText);
+        Deadline.checkpoint();
+        return written + cipher.doFinal(source, destination);
     }
 
     /**
      * Derives a key using PBKDF2 with the provided password and salt.
      *
-     * @param password The password to derive the key from.
-     * @param salt     The salt to use in the key derivation.
+     * @param password   The password to derive the key from.
+     * @param salt       The salt to use in the key derivation.
+     * @param iterations The PBKDF2 iteration count.
+     * @param suite      The cipher suite the key is for.
+     * @return The derived key as a SecretKeySpec.
+     * @throws Exception If an error occurs during key derivation.
+     */
+    private SecretKeySpec deriveKey(String password, byte[] salt, int iterations, CipherSuite suite) throws Exception {
+        var keyBytes = deriveKeyBytes(password, salt, iterations);
+        try {
+            return new SecretKeySpec(keyBytes, suite.keyAlgorithm());
+        } finally {
+            Arrays.fill(keyBytes, (byte) 0);
+        }
+    }
+
+    /**
+     * Derives a per-payload key from the cached PBKDF2 master key using HKDF-SHA256.
+     * The master key is derived and cached on the first use of a password and master salt.
+     *
+     * @param password   The password the master key is derived from.
+     * @param masterSalt The master salt the master key is derived with.
+     * @param salt       The per-payload salt bound into the HKDF step.
+     * @param iterations The PBKDF2 iteration count of the master key.
+     * @param suite      The cipher suite the key is for; bound into the HKDF info.
+     * @return The derived per-payload key as a SecretKeySpec.
+     * @throws Exception If an error occurs during key derivation.
+     */
+    private SecretKeySpec deriveSubkey(String password, byte[] masterSalt, byte[] salt, int iterations, CipherSuite suite) throws Exception {
+        var masterKey = masterKeyCache.getOrDerive(
+                password, masterSalt, iterations, () -> deriveKeyBytes(password, masterSalt, iterations)
+        );
+        byte[] subkey = null;
+        try {
+            subkey = cryptoPrimitivePool.withMac(
+                    Hkdf.MAC_ALGORITHM, mac -> Hkdf.derive(mac, masterKey, salt, suite.hkdfInfo(), KEY_LENGTH / 8)
+            );
+            return new SecretKeySpec(subkey, suite.keyAlgorithm());
+        } finally {
+            Arrays.fill(masterKey, (byte) 0);
+            if (subkey != null) {
+                Arrays.fill(subkey, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * Derives the key shared by the chunks of a chunked file with the scheme it was encrypted with.
+     *
+     * @param scheme     The key-derivation scheme.
+     * @param password   The password to derive the key from.
+     * @param masterSalt The master salt, or null for PBKDF2.
+     * @param salt       The salt of the file.
+     * @param iterations The PBKDF2 iteration count.
+     * @param suite      The cipher suite the key is for.
      * @return The derived key as a SecretKeySpec.
      * @throws Exception If an error occurs during key derivation.
      */
-    private SecretKeySpec deriveKey(String password, byte[] salt) throws Exception {
-        var factory = SecretKeyFactory.getInstance(KDF_ALGORITHM);
-        var spec = new PBEKeySpec(password.toCharArray(), salt, ITERATION_COUNT, KEY_LENGTH);
-        var keyBytes = factory.generateSecret(spec).getEncoded();
-        return new SecretKeySpec(keyBytes, "AES");
+    private SecretKeySpec deriveChunkKey(KdfScheme scheme, String password, byte[] masterSalt, byte[] salt, int iterations, CipherSuite suite) throws Exception {
+        return scheme == KdfScheme.PBKDF2_HKDF
+                ? deriveSubkey(password, masterSalt, salt, iterations, suite)
+                : deriveKey(password, salt, iterations, suite);
     }
 
     /**
-     * Handles the cause of an ExecutionException by rethrowing it as a specific exception
-     * or wrapping it in a generic AesOperationException.
+     * Binds the position of a chunk to an AEAD cipher as associated data, as in the STREAM construction: the chunk
+     * number, the chunk count of the file and a flag marking the last chunk. A chunk then only decrypts at its own
+     * position in a file of its own length, so chunks cannot be swapped, and a file cut short after any chunk
+     * fails on its new last chunk.
      *
-     * @param ee The ExecutionException to handle.
-     * @throws AesKeyInvalidException If the cause is an AesKeyInvalidException.
-     * @throws AesOperationException  If the cause is an AesOperationException or any other exception.
+     * @param cipher      The initialized AEAD cipher.
+     * @param chunkNumber The number of the chunk in the file.
+     * @param chunkCount  The number of chunks in the file.
      */
-    private void handleExecutionCause(ExecutionException ee) throws AesKeyInvalidException, AesOperationException {
-        var cause = ee.getCause();
+    private static void bindChunkPosition(Cipher cipher, int chunkNumber, int chunkCount) {
+        cipher.updateAAD(ByteBuffer.allocate(2 * Integer.BYTES + 1)
+                .putInt(chunkNumber)
+                .putInt(chunkCount)
+                .put((byte) (chunkNumber == chunkCount - 1 ? 1 : 0))
+                .array());
+    }
 
-        if (cause instanceof AesKeyInvalidException) {
-            throw (AesKeyInvalidException) cause;
+    /**
+     * Rejects chunking with CBC, which has no associated data to bind chunks to their position.
+     *
+     * @param crypto The encryption parameters, or null for the legacy parameters.
+     * @throws AesOperationException If the cipher suite is not authenticated.
+     */
+    private static void requireAuthenticatedChunks(StegoCryptoDTO crypto) throws AesOperationException {
+        if (resolveCipherSuite(crypto) == CipherSuite.AES_256_CBC) {
+            throw new AesOperationException("Chunked files need an authenticated cipher suite; " + CipherSuite.AES_256_CBC + " is not supported.");
         }
+    }
 
-        if (cause instanceof AesOperationException) {
-            throw (AesOperationException) cause;
+    /**
+     * Runs PBKDF2 over the password and salt and returns the raw key bytes.
+     *
+     * @param password   The password to derive the key from.
+     * @param salt       The salt to use in the key derivation.
+     * @param iterations The PBKDF2 iteration count.
+     * @return The derived key bytes; the caller should zero them after use.
+     * @throws Exception If an error occurs during key derivation.
+     */
+    private byte[] deriveKeyBytes(String password, byte[] salt, int iterations) throws Exception {
+        var spec = new PBEKeySpec(password.toCharArray(), salt, iterations, KEY_LENGTH);
+        try {
+            return cryptoPrimitivePool.withSecretKeyFactory(
+                    KDF_ALGORITHM, factory -> factory.generateSecret(spec).getEncoded()
+            );
+        } finally {
+            spec.clearPassword();
         }
+    }
+
+    /**
+     * Resolves the key-derivation scheme of the given parameters, defaulting to PBKDF2 for legacy payloads.
+     *
+     * @param crypto The encryption parameters, possibly null.
+     * @return The key-derivation scheme to use.
+     */
+    private static KdfScheme resolveKdfScheme(StegoCryptoDTO crypto) {
+        return crypto == null || crypto.kdfScheme() == null ? KdfScheme.PBKDF2 : crypto.kdfScheme();
+    }
 
-        // Otherwise, wrap the cause in a generic AesOperationException
-        throw new AesOperationException("Unexpected error during AES operation", cause);
+    /**
+     * Resolves the cipher suite of the given parameters, defaulting to AES-256-CBC for legacy payloads.
+     *
+     * @param crypto The encryption parameters, possibly null.
+     * @return The cipher suite to use.
+     */
+    private static CipherSuite resolveCipherSuite(StegoCryptoDTO crypto) {
+        return crypto == null || crypto.cipherSuite() == null ? CipherSuite.AES_256_CBC : crypto.cipherSuite();
+    }
+
+    /**
+     * Resolves the PBKDF2 iteration count of the given parameters, defaulting to the legacy count.
+     *
+     * @param crypto The encryption parameters, possibly null.
+     * @return The iteration count to use.
+     * @throws AesOperationException If the recorded iteration count is outside the allowed range.
+     */
+    private int resolveIterations(StegoCryptoDTO crypto) throws AesOperationException {
+        try {
+            return kdfCalibrator.resolveIterations(crypto == null ? null : crypto.kdfIterations());
+        } catch (IllegalArgumentException e) {
+            throw new AesOperationException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Runs an AES task on the calling thread, rethrowing AES-specific exceptions as-is
+     * and wrapping any other failure in an AesOperationException.
+     * JCE providers may pin virtual threads, so the task goes through the {@link PinningGuard}.
+     *
+     * @param task           The task to run.
+     * @param failureMessage The message used when wrapping an unexpected failure.
+     * @return The result of the task.
+     * @throws AesKeyInvalidException If the task fails with an AesKeyInvalidException.
+     * @throws AesOperationException  If the task fails with an AesOperationException or any other exception.
+     */
+    private <T> T runOperation(Callable<T> task, String failureMessage) throws AesKeyInvalidException, AesOperationException {
+        try {
+            return pinningGuard.call("AesUtilServiceImpl.runOperation", task);
+        } catch (AesKeyInvalidException | AesOperationException | CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            // Otherwise, wrap the cause in a generic AesOperationException
+            throw new AesOperationException(failureMessage, e);
+        }
     }
 }
\ No newline at end of file
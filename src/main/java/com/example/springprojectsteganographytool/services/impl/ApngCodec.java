@@ -0,0 +1,312 @@
+package com.example.springprojectsteganographytool.services.impl;
+
+import com.example.springprojectsteganographytool.exceptions.file.InvalidImageFormatException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Splits animated PNGs (APNG) into standalone PNG frames and reassembles them, working on the chunk level only.
+ * <p>
+ * ImageIO cannot read or write APNG, but each APNG frame is an ordinary PNG image stream: the frame's
+ * {@code fcTL} dimensions with the shared {@code IHDR} settings, and the frame data from {@code IDAT} (first
+ * frame) or {@code fdAT} chunks. A frame is therefore decoded by wrapping its data into a standalone PNG, and
+ * frames written by ImageIO are turned back into an animation by moving their {@code IDAT} data into
+ * {@code fdAT} chunks. Frame timing, offsets, disposal and blending are kept from the original animation, and
+ * so are its colour space chunks ({@code gAMA}, {@code iCCP}, {@code sRGB}, {@code cHRM}).
+ */
+final class ApngCodec {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int IHDR_LENGTH = 13;
+    private static final int FCTL_LENGTH = 26;
+    private static final int SEQUENCE_LENGTH = 4;
+
+    // Colour space chunks that stay valid for the RGBA frames ImageIO writes; PLTE and tRNS do not
+    private static final Set<String> COLOUR_CHUNKS = Set.of("gAMA", "iCCP", "sRGB", "cHRM");
+
+    private ApngCodec() {
+    }
+
+    // An animated PNG split into its frames; header and decodingChunks are shared by every frame
+    record Animation(
+            byte[] header, // IHDR data of the canvas
+            int playCount, // acTL num_plays, 0 = infinite
+            List<byte[]> decodingChunks, // Complete chunks before the first frame that decoding needs, such as PLTE and tRNS
+            List<Frame> frames // In file order, including a default image that is not part of the animation
+    ) {
+    }
+
+    // One image of an animated PNG
+    record Frame(
+            byte[] frameControl, // fcTL data, or null for a default image that is not part of the animation
+            int width,
+            int height,
+            byte[] imageData // Concatenated zlib stream of the frame's IDAT or fdAT chunks
+    ) {
+    }
+
+    /**
+     * Parses the chunk structure of an animated PNG.
+     *
+     * @param bytes The APNG file.
+     * @return The animation with the compressed data of every frame.
+     * @throws InvalidImageFormatException If the file is not a well-formed animated PNG.
+     */
+    static Animation parse(byte[] bytes) throws InvalidImageFormatException {
+        if (bytes.length < PNG_SIGNATURE.length || !Arrays.equals(bytes, 0, PNG_SIGNATURE.length, PNG_SIGNATURE, 0, PNG_SIGNATURE.length)) {
+            throw new InvalidImageFormatException("Image is not a PNG");
+        }
+
+        byte[] header = null;
+        var playCount = -1;
+        var decodingChunks = new ArrayList<byte[]>();
+        var frames = new ArrayList<Frame>();
+        byte[] frameControl = null; // fcTL of the frame being read
+        var frameData = new ByteArrayOutputStream();
+        var inFrame = false;
+
+        var buffer = ByteBuffer.wrap(bytes);
+        buffer.position(PNG_SIGNATURE.length);
+        while (true) {
+            if (buffer.remaining() < 12) {
+                throw new InvalidImageFormatException("Truncated PNG chunk");
+            }
+            var chunkStart = buffer.position();
+            var length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining() - 8) {
+                throw new InvalidImageFormatException("Invalid PNG chunk length");
+            }
+            var type = new String(bytes, buffer.position(), 4, StandardCharsets.US_ASCII);
+            var dataStart = buffer.position() + 4;
+            buffer.position(dataStart + length + 4); // skip data and CRC
+
+            if ("IEND".equals(type)) {
+                if (inFrame) {
+                    frames.add(toFrame(header, frameControl, frameData));
+                }
+                break;
+            }
+
+            switch (type) {
+                case "IHDR" -> {
+                    if (length != IHDR_LENGTH) {
+                        throw new InvalidImageFormatException("Invalid IHDR chunk");
+                    }
+                    header = Arrays.copyOfRange(bytes, dataStart, dataStart + length);
+                }
+                case "acTL" -> {
+                    if (length != 8) {
+                        throw new InvalidImageFormatException("Invalid acTL chunk");
+                    }
+                    playCount = ByteBuffer.wrap(bytes, dataStart + 4, 4).getInt();
+                }
+                case "fcTL" -> {
+                    if (length != FCTL_LENGTH || header == null) {
+                        throw new InvalidImageFormatException("Invalid fcTL chunk");
+                    }
+                    if (inFrame) {
+                        frames.add(toFrame(header, frameControl, frameData));
+                    }
+                    frameControl = Arrays.copyOfRange(bytes, dataStart, dataStart + length);
+                    frameData.reset();
+                    inFrame = true;
+                }
+                case "IDAT" -> {
+                    // Only the first image is stored in IDAT chunks, with or without an fcTL before it
+                    if (header == null || !frames.isEmpty()) {
+                        throw new InvalidImageFormatException("Unexpected IDAT chunk");
+                    }
+                    frameData.write(bytes, dataStart, length);
+                    inFrame = true;
+                }
+                case "fdAT" -> {
+                    if (frames.isEmpty() || frameControl == null || length < SEQUENCE_LENGTH) {
+                        throw new InvalidImageFormatException("Unexpected fdAT chunk");
+                    }
+                    frameData.write(bytes, dataStart + SEQUENCE_LENGTH, length - SEQUENCE_LENGTH);
+                }
+                default -> {
+                    // Chunks before the first image (PLTE, tRNS, gAMA, ...) are needed to decode every frame
+                    if (!inFrame && frames.isEmpty()) {
+                        decodingChunks.add(Arrays.copyOfRange(bytes, chunkStart, buffer.position()));
+                    }
+                }
+            }
+        }
+
+        if (header == null || playCount < 0) {
+            throw new InvalidImageFormatException("Image is not an animated PNG");
+        }
+        if (frames.isEmpty()) {
+            throw new InvalidImageFormatException("Animated PNG has no frames");
+        }
+        return new Animation(header, playCount, List.copyOf(decodingChunks), List.copyOf(frames));
+    }
+
+    /**
+     * Wraps a frame into a standalone PNG that ImageIO can decode.
+     *
+     * @param animation The animation the frame belongs to.
+     * @param frame     The frame.
+     * @return The frame as a PNG file.
+     */
+    static byte[] toPng(Animation animation, Frame frame) {
+        var header = animation.header().clone();
+        ByteBuffer.wrap(header).putInt(frame.width()).putInt(frame.height());
+
+        var png = new ByteArrayOutputStream(frame.imageData().length + 256);
+        png.writeBytes(PNG_SIGNATURE);
+        writeChunk(png, "IHDR", header);
+        animation.decodingChunks().forEach(png::writeBytes);
+        writeChunk(png, "IDAT", frame.imageData());
+        writeChunk(png, "IEND", new byte[0]);
+        return png.toByteArray();
+    }
+
+    /**
+     * Builds an animated PNG from the frames of an animation replaced by new PNG images of the same size.
+     * The replacement frames must share bit depth and colour type, as ImageIO writes them for ARGB images.
+     *
+     * @param animation The original animation, providing canvas size, timing and frame order.
+     * @param framePngs One standalone, non-interlaced PNG per frame, in frame order.
+     * @return The animated PNG.
+     * @throws InvalidImageFormatException If a replacement frame does not match the animation.
+     */
+    static byte[] assemble(Animation animation, List<byte[]> framePngs) throws InvalidImageFormatException {
+        if (framePngs.size() != animation.frames().size()) {
+            throw new InvalidImageFormatException("Expected " + animation.frames().size() + " frames, got " + framePngs.size());
+        }
+
+        byte[] frameHeader = null;
+        var frameDataList = new ArrayList<byte[]>(framePngs.size());
+        for (var i = 0; i < framePngs.size(); i++) {
+            var still = parseStill(framePngs.get(i));
+            var frame = animation.frames().get(i);
+            var stillHeader = ByteBuffer.wrap(still.header());
+            if (stillHeader.getInt(0) != frame.width() || stillHeader.getInt(4) != frame.height()) {
+                throw new InvalidImageFormatException("Frame " + i + " does not match the size of the original frame");
+            }
+            if (frameHeader == null) {
+                frameHeader = still.header();
+            } else if (!Arrays.equals(frameHeader, 8, IHDR_LENGTH, still.header(), 8, IHDR_LENGTH)) {
+                throw new InvalidImageFormatException("Frames differ in bit depth, colour type or interlacing");
+            }
+            frameDataList.add(still.imageData());
+        }
+
+        var header = frameHeader.clone();
+        System.arraycopy(animation.header(), 0, header, 0, 8); // canvas width and height
+
+        var png = new ByteArrayOutputStream();
+        png.writeBytes(PNG_SIGNATURE);
+        writeChunk(png, "IHDR", header);
+        animation.decodingChunks().stream()
+                .filter(chunk -> COLOUR_CHUNKS.contains(new String(chunk, 4, 4, StandardCharsets.US_ASCII)))
+                .forEach(png::writeBytes);
+        var animationControl = ByteBuffer.allocate(8)
+                .putInt((int) animation.frames().stream().filter(frame -> frame.frameControl() != null).count())
+                .putInt(animation.playCount())
+                .array();
+        writeChunk(png, "acTL", animationControl);
+
+        var sequence = 0;
+        for (var i = 0; i < animation.frames().size(); i++) {
+            var frame = animation.frames().get(i);
+            var data = frameDataList.get(i);
+            if (frame.frameControl() != null) {
+                var frameControl = frame.frameControl().clone();
+                ByteBuffer.wrap(frameControl).putInt(0, sequence++);
+                writeChunk(png, "fcTL", frameControl);
+            }
+
+            if (i == 0) {
+                writeChunk(png, "IDAT", data);
+            } else {
+                var frameData = ByteBuffer.allocate(SEQUENCE_LENGTH + data.length).putInt(sequence++).put(data).array();
+                writeChunk(png, "fdAT", frameData);
+            }
+        }
+        writeChunk(png, "IEND", new byte[0]);
+        return png.toByteArray();
+    }
+
+    // ----- Private Helper Methods -----
+
+    // A standalone PNG reduced to its IHDR data and concatenated IDAT data
+    private record Still(byte[] header, byte[] imageData) {
+    }
+
+    private static Frame toFrame(byte[] header, byte[] frameControl, ByteArrayOutputStream frameData) throws InvalidImageFormatException {
+        if (frameData.size() == 0) {
+            throw new InvalidImageFormatException("Animated PNG frame has no image data");
+        }
+        if (frameControl == null) {
+            var canvas = ByteBuffer.wrap(header);
+            return new Frame(null, canvas.getInt(0), canvas.getInt(4), frameData.toByteArray());
+        }
+
+        var control = ByteBuffer.wrap(frameControl);
+        var width = control.getInt(4);
+        var height = control.getInt(8);
+        if (width <= 0 || height <= 0) {
+            throw new InvalidImageFormatException("Invalid fcTL frame size");
+        }
+        return new Frame(frameControl, width, height, frameData.toByteArray());
+    }
+
+    private static Still parseStill(byte[] png) throws InvalidImageFormatException {
+        if (png.length < PNG_SIGNATURE.length || !Arrays.equals(png, 0, PNG_SIGNATURE.length, PNG_SIGNATURE, 0, PNG_SIGNATURE.length)) {
+            throw new InvalidImageFormatException("Frame is not a PNG");
+        }
+
+        byte[] header = null;
+        var imageData = new ByteArrayOutputStream(png.length);
+        var buffer = ByteBuffer.wrap(png);
+        buffer.position(PNG_SIGNATURE.length);
+        while (buffer.remaining() >= 12) {
+            var length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining() - 8) {
+                throw new InvalidImageFormatException("Invalid PNG chunk length");
+            }
+            var type = new String(png, buffer.position(), 4, StandardCharsets.US_ASCII);
+            var dataStart = buffer.position() + 4;
+            buffer.position(dataStart + length + 4);
+
+            switch (type) {
+                case "IHDR" -> header = Arrays.copyOfRange(png, dataStart, dataStart + length);
+                case "IDAT" -> imageData.write(png, dataStart, length);
+                default -> {
+                    // Ancillary chunks written by the encoder are dropped
+                }
+            }
+        }
+
+        if (header == null || header.length != IHDR_LENGTH || imageData.size() == 0) {
+            throw new InvalidImageFormatException("Frame PNG has no image data");
+        }
+        if (header[12] != 0) {
+            throw new InvalidImageFormatException("Interlaced frames cannot be animated");
+        }
+        return new Still(header, imageData.toByteArray());
+    }
+
+    private static void writeChunk(ByteArrayOutputStream out, String type, byte[] data) {
+        var typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        var crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+
+        out.writeBytes(ByteBuffer.allocate(4).putInt(data.length).array());
+        out.writeBytes(typeBytes);
+        out.writeBytes(data);
+        out.writeBytes(ByteBuffer.allocate(4).putInt((int) crc.getValue()).array());
+    }
+
+}
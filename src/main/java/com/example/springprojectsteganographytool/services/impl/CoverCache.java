@@ -0,0 +1,176 @@
+package com.example.springprojectsteganographytool.services.impl;
+
+import com.example.springprojectsteganographytool.concurrency.MemoryBudget;
+import com.example.springprojectsteganographytool.concurrency.SingleFlight;
+import com.example.springprojectsteganographytool.crypto.CryptoPrimitivePool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.awt.image.BufferedImage;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process cache of decoded ARGB cover images, keyed by a SHA-256 hash of the uploaded bytes.
+ * <p>
+ * Decoding a cover (ImageIO plus the ARGB conversion) costs far more than hashing its bytes, and the same
+ * template covers are uploaded over and over. Cached images are shared between requests and must never be
+ * written to: encodes embed into a copy made by {@code LsbUtilService.prepareCover}, which copies the cached
+ * pixel array instead of decoding again.
+ * <p>
+ * Entries are weighted by their raster size and evicted in least-recently-used order once the total exceeds
+ * {@code stego.cover-cache.max-size}; a cover larger than the whole cache is never cached, and a size of 0
+ * disables the cache. Concurrent misses for the same bytes share one decode.
+ * <p>
+ * Cached rasters count against the {@link MemoryBudget}: a cover is cached only if the budget has room for it
+ * right away, and cached covers are evicted when an image operation needs the memory they hold.
+ * <p>
+ * Exposes the {@code stego.cover-cache.hits}, {@code stego.cover-cache.misses}, {@code stego.cover-cache.evictions}
+ * and {@code stego.cover-cache.size} metrics; the hit rate is hits / (hits + misses).
+ */
+@Component
+public class CoverCache {
+
+    private static final long ARGB_BYTES_PER_PIXEL = 4;
+
+    private final CryptoPrimitivePool cryptoPrimitivePool;
+    private final MemoryBudget memoryBudget;
+    private final long maxBytes;
+    private final Map<String, CachedCover> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final SingleFlight<String> loads;
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Counter evictionCounter;
+
+    public CoverCache(
+            CryptoPrimitivePool cryptoPrimitivePool,
+            MemoryBudget memoryBudget,
+            MeterRegistry meterRegistry,
+            @Value("${stego.cover-cache.max-size:256MB}") DataSize maxSize
+    ) {
+        this.cryptoPrimitivePool = cryptoPrimitivePool;
+        this.memoryBudget = memoryBudget;
+        this.maxBytes = maxSize.toBytes();
+        this.loads = new SingleFlight<>("cover-cache", meterRegistry);
+
+        FunctionCounter.builder("stego.cover-cache.hits", hits, AtomicLong::get)
+                .description("Cover decodes served from the cover cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("stego.cover-cache.misses", misses, AtomicLong::get)
+                .description("Cover decodes that missed the cover cache")
+                .register(meterRegistry);
+        Gauge.builder("stego.cover-cache.size", cachedBytes, AtomicLong::get)
+                .description("Raster memory held by cached covers")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.evictionCounter = Counter.builder("stego.cover-cache.evictions")
+                .description("Covers evicted from the cover cache to stay within its size")
+                .register(meterRegistry);
+
+        memoryBudget.addReclaimer(this::reclaim);
+    }
+
+    /**
+     * Returns the cached decoded cover for the given bytes, decoding and caching it on a miss.
+     * The returned image is shared and must not be modified.
+     *
+     * @param imageBytes The uploaded cover image.
+     * @param decoder    The decode to run on a miss; it must return a new ARGB image.
+     * @return The decoded cover.
+     * @throws Exception If hashing or the decode fails.
+     */
+    public BufferedImage getOrDecode(byte[] imageBytes, Callable<BufferedImage> decoder) throws Exception {
+        if (maxBytes <= 0) {
+            return decoder.call();
+        }
+
+        var cacheKey = contentHash(imageBytes);
+        synchronized (this) {
+            var cached = entries.get(cacheKey);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached.image();
+            }
+        }
+
+        misses.incrementAndGet();
+        return loads.execute(cacheKey, () -> {
+            var decoded = decoder.call();
+            put(cacheKey, decoded);
+            return decoded;
+        });
+    }
+
+    /**
+     * Removes every cached cover.
+     */
+    public synchronized void clear() {
+        entries.values().forEach(cached -> cached.reservation().close());
+        entries.clear();
+        cachedBytes.set(0);
+    }
+
+    // ----- Private Helper Methods -----
+
+    private synchronized void put(String cacheKey, BufferedImage image) {
+        var weight = weight(image);
+        if (weight > maxBytes || entries.containsKey(cacheKey)) {
+            return;
+        }
+
+        // Evict least recently used covers until the new one fits, then cache it only if the budget has room
+        evictEldest(cachedBytes.get() + weight - maxBytes);
+        var reservation = memoryBudget.tryReserve(weight);
+        if (reservation == null) {
+            return;
+        }
+
+        entries.put(cacheKey, new CachedCover(image, reservation));
+        cachedBytes.addAndGet(weight);
+    }
+
+    /**
+     * Gives memory back to the budget for an image operation that does not fit.
+     */
+    private synchronized void reclaim(long bytes) {
+        evictEldest(bytes);
+    }
+
+    /**
+     * Evicts least recently used covers until at least the given number of bytes has been freed.
+     */
+    private void evictEldest(long bytes) {
+        var freed = 0L;
+        var iterator = entries.values().iterator();
+        while (freed < bytes && iterator.hasNext()) {
+            var eldest = iterator.next();
+            iterator.remove();
+            eldest.reservation().close();
+            freed += weight(eldest.image());
+            cachedBytes.addAndGet(-weight(eldest.image()));
+            evictionCounter.increment();
+        }
+    }
+
+    private static long weight(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * ARGB_BYTES_PER_PIXEL;
+    }
+
+    private String contentHash(byte[] imageBytes) throws Exception {
+        return cryptoPrimitivePool.withMessageDigest("SHA-256", digest -> HexFormat.of().formatHex(digest.digest(imageBytes)));
+    }
+
+    // A cached cover with the budget reservation that covers its raster
+    private record CachedCover(BufferedImage image, MemoryBudget.Reservation reservation) {
+    }
+
+}
@@ -0,0 +1,403 @@
+package com.example.springprojectsteganographytool.services.impl;
+
+import com.example.springprojectsteganographytool.concurrency.CpuWorkerPool;
+import com.example.springprojectsteganographytool.concurrency.MemoryBudget;
+import com.example.springprojectsteganographytool.exceptions.data.CoverLibraryFullException;
+import com.example.springprojectsteganographytool.exceptions.data.CoverNotFoundException;
+import com.example.springprojectsteganographytool.exceptions.data.MessageTooLargeException;
+import com.example.springprojectsteganographytool.exceptions.data.StorageException;
+import com.example.springprojectsteganographytool.exceptions.file.InvalidImageFormatException;
+import com.example.springprojectsteganographytool.exceptions.lsb.InvalidLsbDepthException;
+import com.example.springprojectsteganographytool.models.StegoCoverDTO;
+import com.example.springprojectsteganographytool.services.CoverLibraryService;
+import com.example.springprojectsteganographytool.services.LsbUtilService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cover library backed by raw raster files that are memory-mapped for the lifetime of the cover.
+ * <p>
+ * Each cover is decoded once when it is added and written to {@code <id>.argb} in
+ * {@code stego.cover-library.directory} as [MAGIC(4)][WIDTH(4)][HEIGHT(4)][NAME_LEN(4)][NAME][ARGB pixels],
+ * little-endian. Working copies of a cover are copied from its mapped pixels straight into a new image,
+ * without ImageIO.
+ * <p>
+ * Covers are indexed in a tree sorted by pixel count. The capacity of a cover grows with its pixel count at
+ * every LSB depth, so one index answers "smallest cover that fits" for all depths with a single ceiling
+ * lookup. The payload is checked against the cover together with {@code stego.cover-library.metadata-reserve}
+ * bytes of metadata; the encode itself still checks the exact metadata size.
+ * <p>
+ * Uploads are decoded on the CPU worker pool under a reservation from the {@link MemoryBudget}, like any other
+ * image read. The raster files together may take up at most {@code stego.cover-library.max-size} bytes.
+ */
+@Slf4j
+@Service
+public class CoverLibraryServiceImpl implements CoverLibraryService, AutoCloseable {
+
+    private static final int MAGIC = 0x53435652; // "SCVR"
+    private static final int HEADER_BYTES = 16;
+    private static final int MAX_NAME_CHARS = 255; // longer names are cut
+    private static final int MAX_NAME_BYTES = MAX_NAME_CHARS * 4;
+    private static final String RASTER_SUFFIX = ".argb";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final ValueLayout.OfInt FILE_INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final UUID LOWEST_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    private final LsbUtilService lsbUtilService;
+    private final CpuWorkerPool cpuWorkerPool;
+    private final MemoryBudget memoryBudget;
+    private final Path directory;
+    private final int metadataReserve;
+    private final long maxSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, MappedCover> covers = new HashMap<>();
+    private final NavigableMap<IndexKey, MappedCover> capacityIndex = new TreeMap<>();
+    private long storedBytes; // pixel bytes of the mapped covers, guarded by the lock
+
+    public CoverLibraryServiceImpl(
+            LsbUtilService lsbUtilService,
+            CpuWorkerPool cpuWorkerPool,
+            MemoryBudget memoryBudget,
+            @Value("${stego.cover-library.directory:cover-library}") Path directory,
+            @Value("${stego.cover-library.metadata-reserve:1KB}") DataSize metadataReserve,
+            @Value("${stego.cover-library.max-size:2GB}") DataSize maxSize
+    ) throws IOException {
+        this.lsbUtilService = lsbUtilService;
+        this.cpuWorkerPool = cpuWorkerPool;
+        this.memoryBudget = memoryBudget;
+        this.directory = directory;
+        this.metadataReserve = Math.toIntExact(metadataReserve.toBytes());
+        this.maxSize = maxSize.toBytes();
+
+        Files.createDirectories(directory);
+        loadCovers();
+    }
+
+    /**
+     * Decodes the cover, writes its raster file and maps it into the index.
+     * A cover that would take the library over its size limit is rejected from its header dimensions, before it
+     * is decoded.
+     *
+     * @param name       A display name for the cover.
+     * @param imageBytes The encoded cover image.
+     * @return The stored cover.
+     * @throws InvalidImageFormatException If the image format is unsupported or the data is corrupted.
+     * @throws CoverLibraryFullException   If the library has no room left for the cover.
+     * @throws StorageException            If the raster cannot be written.
+     * @throws InterruptedException        If the calling thread is interrupted while the cover is decoded.
+     * @throws ExecutionException          If decoding the cover fails with a checked exception.
+     */
+    @Override
+    public StegoCoverDTO addCover(String name, byte[] imageBytes) throws InvalidImageFormatException, CoverLibraryFullException, StorageException, InterruptedException, ExecutionException {
+        var displayName = name == null ? "" : name.substring(0, Math.min(name.length(), MAX_NAME_CHARS));
+        var nameBytes = displayName.getBytes(StandardCharsets.UTF_8);
+
+        var size = lsbUtilService.readImageSize(imageBytes);
+        var pixelCount = (long) size.width * size.height;
+        lock.readLock().lock();
+        try {
+            requireRoom(pixelCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        try (var _ = memoryBudget.reserve(lsbUtilService.estimateReadMemory(size.width, size.height))) {
+            var image = cpuWorkerPool.newJob(pixelCount).call(() -> lsbUtilService.readImage(imageBytes));
+            return storeCover(nameBytes, image);
+        }
+    }
+
+    /**
+     * Lists the covers in index order.
+     *
+     * @return The stored covers, smallest first.
+     */
+    @Override
+    public List<StegoCoverDTO> listCovers() {
+        lock.readLock().lock();
+        try {
+            return capacityIndex.values().stream()
+                    .map(MappedCover::toDTO)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Unmaps a cover and deletes its raster file. Copies already being made from the cover finish first.
+     *
+     * @param id The identifier of the cover.
+     * @throws CoverNotFoundException If no cover with the identifier exists.
+     * @throws StorageException       If the raster cannot be deleted.
+     */
+    @Override
+    public void removeCover(UUID id) throws CoverNotFoundException, StorageException {
+        lock.writeLock().lock();
+        try {
+            var cover = covers.remove(id);
+            if (cover == null) {
+                throw new CoverNotFoundException("Cover not found with id: " + id);
+            }
+            capacityIndex.remove(cover.indexKey());
+            storedBytes -= cover.pixelCount() * Integer.BYTES;
+            cover.arena().close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            Files.deleteIfExists(directory.resolve(id + RASTER_SUFFIX));
+        } catch (IOException e) {
+            throw new StorageException("Failed to delete the cover raster.", e);
+        }
+    }
+
+    /**
+     * Looks up the smallest cover with enough pixels for the payload and the metadata reserve.
+     *
+     * @param payloadLength The length of the payload to embed in bytes.
+     * @param lsbDepth      The LSB depth the payload will be embedded with.
+     * @return The selected cover.
+     * @throws InvalidLsbDepthException If the LSB depth is not 1 or 2.
+     * @throws MessageTooLargeException If no cover in the library is large enough.
+     */
+    @Override
+    public StegoCoverDTO selectCover(long payloadLength, int lsbDepth) throws InvalidLsbDepthException, MessageTooLargeException {
+        var requiredPixels = lsbUtilService.requiredPixelCount(payloadLength, metadataReserve, lsbDepth);
+
+        lock.readLock().lock();
+        try {
+            var entry = capacityIndex.ceilingEntry(new IndexKey(requiredPixels, LOWEST_ID));
+            if (entry == null) {
+                throw new MessageTooLargeException("No cover in the library can hold " + payloadLength + " bytes at LSB depth " + lsbDepth);
+            }
+            return entry.getValue().toDTO();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the mapped raster of a cover into a new image, without ImageIO.
+     *
+     * @param id The identifier of the cover.
+     * @return A new ARGB image with the cover's pixels.
+     * @throws CoverNotFoundException If no cover with the identifier exists.
+     */
+    @Override
+    public BufferedImage copyCover(UUID id) throws CoverNotFoundException {
+        lock.readLock().lock();
+        try {
+            var cover = covers.get(id);
+            if (cover == null) {
+                throw new CoverNotFoundException("Cover not found with id: " + id);
+            }
+
+            var image = new BufferedImage(cover.width(), cover.height(), BufferedImage.TYPE_INT_ARGB);
+            var pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            MemorySegment.copy(cover.raster(), FILE_INT, cover.pixelOffset(), pixels, 0, pixels.length);
+            return image;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Unmaps every cover. The raster files stay on disk and are mapped again on the next start.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            covers.values().forEach(cover -> cover.arena().close());
+            covers.clear();
+            capacityIndex.clear();
+            storedBytes = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ----- Private Helper Methods -----
+
+    /**
+     * Writes the raster file of a decoded cover and maps it into the index, unless other covers added in the
+     * meantime used up the room left for it.
+     */
+    private StegoCoverDTO storeCover(byte[] nameBytes, BufferedImage image) throws CoverLibraryFullException, StorageException {
+        var pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+
+        var id = UUID.randomUUID();
+        var rasterFile = directory.resolve(id + RASTER_SUFFIX);
+        var tempFile = directory.resolve(id + RASTER_SUFFIX + TEMP_SUFFIX);
+        try {
+            writeRaster(tempFile, image.getWidth(), image.getHeight(), nameBytes, pixels);
+            Files.move(tempFile, rasterFile, StandardCopyOption.ATOMIC_MOVE);
+
+            var cover = mapRaster(id, rasterFile);
+            lock.writeLock().lock();
+            try {
+                requireRoom(cover.pixelCount());
+                covers.put(id, cover);
+                capacityIndex.put(cover.indexKey(), cover);
+                storedBytes += cover.pixelCount() * Integer.BYTES;
+            } catch (CoverLibraryFullException e) {
+                cover.arena().close();
+                Files.deleteIfExists(rasterFile);
+                throw e;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            log.info("Added cover {} ({}x{}) to the library", id, cover.width(), cover.height());
+            return cover.toDTO();
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(tempFile);
+                Files.deleteIfExists(rasterFile);
+            } catch (IOException cleanup) {
+                e.addSuppressed(cleanup);
+            }
+            throw new StorageException("Failed to store the cover raster.", e);
+        }
+    }
+
+    private void loadCovers() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (var file : files.toList()) {
+                var fileName = file.getFileName().toString();
+                if (fileName.endsWith(TEMP_SUFFIX)) {
+                    Files.deleteIfExists(file); // left behind by an interrupted add
+                    continue;
+                }
+                if (!fileName.endsWith(RASTER_SUFFIX)) {
+                    continue;
+                }
+
+                try {
+                    var id = UUID.fromString(fileName.substring(0, fileName.length() - RASTER_SUFFIX.length()));
+                    var cover = mapRaster(id, file);
+                    covers.put(id, cover);
+                    capacityIndex.put(cover.indexKey(), cover);
+                    storedBytes += cover.pixelCount() * Integer.BYTES;
+                } catch (IOException | IllegalArgumentException e) {
+                    log.warn("Skipping unreadable cover raster {}: {}", file, e.getMessage());
+                }
+            }
+        }
+
+        log.info("Cover library in {} holds {} covers ({} MB of {} MB)",
+                directory.toAbsolutePath(), covers.size(), storedBytes / (1024 * 1024), maxSize / (1024 * 1024));
+    }
+
+    // Called under the lock; covers loaded at startup are kept even if they exceed a lowered limit
+    private void requireRoom(long pixelCount) throws CoverLibraryFullException {
+        var rasterBytes = pixelCount * Integer.BYTES;
+        if (storedBytes + rasterBytes > maxSize) {
+            throw new CoverLibraryFullException("The cover library has no room for another "
+                    + rasterBytes / (1024 * 1024) + " MB cover; remove covers or raise its size limit.");
+        }
+    }
+
+    private static void writeRaster(Path file, int width, int height, byte[] nameBytes, int[] pixels) throws IOException {
+        var pixelOffset = HEADER_BYTES + nameBytes.length;
+        var fileLength = pixelOffset + (long) pixels.length * Integer.BYTES;
+
+        try (
+                var channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                var arena = Arena.ofConfined()
+        ) {
+            var raster = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileLength, arena);
+            raster.set(FILE_INT, 0, MAGIC);
+            raster.set(FILE_INT, 4, width);
+            raster.set(FILE_INT, 8, height);
+            raster.set(FILE_INT, 12, nameBytes.length);
+            MemorySegment.copy(nameBytes, 0, raster, ValueLayout.JAVA_BYTE, HEADER_BYTES, nameBytes.length);
+            MemorySegment.copy(pixels, 0, raster, FILE_INT, pixelOffset, pixels.length);
+            raster.force();
+        }
+    }
+
+    private static MappedCover mapRaster(UUID id, Path file) throws IOException {
+        var arena = Arena.ofShared();
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var fileLength = channel.size();
+            if (fileLength < HEADER_BYTES) {
+                throw new IOException("Truncated cover raster");
+            }
+
+            var raster = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileLength, arena);
+            var width = raster.get(FILE_INT, 4);
+            var height = raster.get(FILE_INT, 8);
+            var nameLength = raster.get(FILE_INT, 12);
+            if (raster.get(FILE_INT, 0) != MAGIC || width <= 0 || height <= 0 || nameLength < 0 || nameLength > MAX_NAME_BYTES) {
+                throw new IOException("Invalid cover raster header");
+            }
+
+            var pixelOffset = HEADER_BYTES + nameLength;
+            if (pixelOffset + (long) width * height * Integer.BYTES != fileLength) {
+                throw new IOException("Cover raster length does not match its dimensions");
+            }
+
+            var name = new String(raster.asSlice(HEADER_BYTES, nameLength).toArray(ValueLayout.JAVA_BYTE), StandardCharsets.UTF_8);
+            return new MappedCover(id, name, width, height, pixelOffset, raster, arena);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    // Sort key of the capacity index; the id separates covers of equal size
+    private record IndexKey(long pixelCount, UUID id) implements Comparable<IndexKey> {
+
+        @Override
+        public int compareTo(IndexKey other) {
+            var bySize = Long.compare(pixelCount, other.pixelCount);
+            return bySize != 0 ? bySize : id.compareTo(other.id);
+        }
+    }
+
+    // A raster file mapped into memory until the cover is removed or the library is closed
+    private record MappedCover(UUID id, String name, int width, int height, long pixelOffset, MemorySegment raster, Arena arena) {
+
+        long pixelCount() {
+            return (long) width * height;
+        }
+
+        IndexKey indexKey() {
+            return new IndexKey(pixelCount(), id);
+        }
+
+        StegoCoverDTO toDTO() {
+            return new StegoCoverDTO(id, name, width, height, pixelCount());
+        }
+    }
+
+}
@@ -0,0 +1,321 @@
+package com.example.springprojectsteganographytool.services.impl;
+
+import com.example.springprojectsteganographytool.documents.StegoWorkItem;
+import com.example.springprojectsteganographytool.exceptions.common.ServiceOverloadedException;
+import com.example.springprojectsteganographytool.exceptions.data.InvalidIdempotencyKeyException;
+import com.example.springprojectsteganographytool.exceptions.data.StegoJobNotCompletedException;
+import com.example.springprojectsteganographytool.exceptions.data.StegoJobNotFoundException;
+import com.example.springprojectsteganographytool.exceptions.file.FileTooLargeException;
+import com.example.springprojectsteganographytool.models.StegoJobResultDTO;
+import com.example.springprojectsteganographytool.models.StegoJobStage;
+import com.example.springprojectsteganographytool.models.StegoJobStatusDTO;
+import com.example.springprojectsteganographytool.models.StegoJobType;
+import com.example.springprojectsteganographytool.repos.StegoJobResultRepository;
+import com.example.springprojectsteganographytool.repos.StegoWorkItemRepository;
+import com.example.springprojectsteganographytool.services.IdempotencyService;
+import com.example.springprojectsteganographytool.services.StegoJobService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs background jobs through the shared Mongo work queue, so that any node with spare capacity
+ * (see {@link StegoWorkerNode}) can pick them up and any node can report on them.
+ * Progress streams are fed by polling the queue for the jobs that have subscribers on this node.
+ * <p>
+ * Passwords are queued sealed with the cluster secret (see {@link WorkQueueSealer}), and decoded payloads
+ * come back through a sealed {@link com.example.springprojectsteganographytool.documents.StegoJobResult}
+ * that is deleted when it is read.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "stego.distributed.enabled", havingValue = "true")
+public class DistributedStegoJobServiceImpl implements StegoJobService, AutoCloseable {
+
+    private static final List<StegoJobStage> FINISHED = List.of(StegoJobStage.COMPLETED, StegoJobStage.FAILED);
+
+    private final StegoWorkItemRepository workQueue;
+    private final StegoJobResultRepository resultRepository;
+    private final WorkQueueSealer workQueueSealer;
+    private final IdempotencyService idempotencyService;
+    private final Clock clock; // expiry of finished jobs and results, on the clock the work queue stamps them with
+    private final Duration retention;
+    private final int maxActive;
+    private final Duration retryAfter;
+    private final long sseTimeoutMillis;
+
+    private final Map<UUID, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService progressPoller;
+
+    public DistributedStegoJobServiceImpl(
+            StegoWorkItemRepository workQueue,
+            StegoJobResultRepository resultRepository,
+            WorkQueueSealer workQueueSealer,
+            IdempotencyService idempotencyService,
+            Clock clock,
+            @Value("${stego.jobs.retention:15m}") Duration retention,
+            @Value("${stego.jobs.max-active:32}") int maxActive,
+            @Value("${stego.jobs.retry-after:5s}") Duration retryAfter,
+            @Value("${stego.jobs.sse-timeout:10m}") Duration sseTimeout,
+            @Value("${stego.distributed.poll-interval:500ms}") Duration pollInterval
+    ) {
+        this.workQueue = workQueue;
+        this.resultRepository = resultRepository;
+        this.workQueueSealer = workQueueSealer;
+        this.idempotencyService = idempotencyService;
+        this.clock = clock;
+        this.retention = retention;
+        this.maxActive = maxActive;
+        this.retryAfter = retryAfter;
+        this.sseTimeoutMillis = sseTimeout.toMillis();
+
+        workQueue.ensureIndexes();
+
+        this.progressPoller = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("stego-progress").daemon(true).factory());
+        progressPoller.scheduleWithFixedDelay(this::pollProgress, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public StegoJobStatusDTO submitEncodeText(byte[] coverImageBytes, String message, String password, int lsbDepth, String idempotencyKey) throws ServiceOverloadedException, InvalidIdempotencyKeyException, FileTooLargeException {
+        return submit(StegoWorkItem.builder()
+                .type(StegoJobType.ENCODE_TEXT)
+                .imageBytes(coverImageBytes)
+                .message(message)
+                .lsbDepth(lsbDepth)
+                .idempotencyKey(idempotencyKey)
+                .requestHash(idempotencyService.checkRequest(idempotencyKey, StegoJobType.ENCODE_TEXT, coverImageBytes, message, null, null, password, lsbDepth))
+                .build(), password);
+    }
+
+    @Override
+    public StegoJobStatusDTO submitEncodeFile(byte[] coverImageBytes, String originalFileName, byte[] fileBytes, String password, int lsbDepth, String idempotencyKey) throws ServiceOverloadedException, InvalidIdempotencyKeyException, FileTooLargeException {
+        return submit(StegoWorkItem.builder()
+                .type(StegoJobType.ENCODE_FILE)
+                .imageBytes(coverImageBytes)
+                .originalFileName(originalFileName)
+                .fileBytes(fileBytes)
+                .lsbDepth(lsbDepth)
+                .idempotencyKey(idempotencyKey)
+                .requestHash(idempotencyService.checkRequest(idempotencyKey, StegoJobType.ENCODE_FILE, coverImageBytes, null, originalFileName, fileBytes, password, lsbDepth))
+                .build(), password);
+    }
+
+    // Library covers are not shared between nodes; the node that claims the job encodes into a cover of its own library
+    @Override
+    public StegoJobStatusDTO submitEncodeTextWithLibraryCover(String message, String password, int lsbDepth, String idempotencyKey) throws ServiceOverloadedException, InvalidIdempotencyKeyException, FileTooLargeException {
+        return submit(StegoWorkItem.builder()
+                .type(StegoJobType.ENCODE_TEXT_LIBRARY)
+                .message(message)
+                .lsbDepth(lsbDepth)
+                .idempotencyKey(idempotencyKey)
+                .requestHash(idempotencyService.checkRequest(idempotencyKey, StegoJobType.ENCODE_TEXT_LIBRARY, null, message, null, null, password, lsbDepth))
+                .build(), password);
+    }
+
+    @Override
+    public StegoJobStatusDTO submitEncodeFileWithLibraryCover(String originalFileName, byte[] fileBytes, String password, int lsbDepth, String idempotencyKey) throws ServiceOverloadedException, InvalidIdempotencyKeyException, FileTooLargeException {
+        return submit(StegoWorkItem.builder()
+                .type(StegoJobType.ENCODE_FILE_LIBRARY)
+                .originalFileName(originalFileName)
+                .fileBytes(fileBytes)
+                .lsbDepth(lsbDepth)
+                .idempotencyKey(idempotencyKey)
+                .requestHash(idempotencyService.checkRequest(idempotencyKey, StegoJobType.ENCODE_FILE_LIBRARY, null, null, originalFileName, fileBytes, password, lsbDepth))
+                .build(), password);
+    }
+
+    @Override
+    public StegoJobStatusDTO submitDecode(byte[] stegoImageBytes, String password) throws ServiceOverloadedException, FileTooLargeException {
+        return submit(StegoWorkItem.builder()
+                .type(StegoJobType.DECODE)
+                .imageBytes(stegoImageBytes)
+                .build(), password);
+    }
+
+    @Override
+    public StegoJobStatusDTO getStatus(UUID jobId) throws StegoJobNotFoundException {
+        return toStatus(findProgress(jobId));
+    }
+
+    @Override
+    public SseEmitter subscribe(UUID jobId) throws StegoJobNotFoundException {
+        var status = getStatus(jobId);
+        var emitter = new SseEmitter(sseTimeoutMillis);
+        var subscriber = new Subscriber(emitter);
+
+        if (!subscriber.send(status)) {
+            return emitter;
+        }
+        if (FINISHED.contains(status.stage())) {
+            emitter.complete();
+            return emitter;
+        }
+
+        Runnable unsubscribe = () -> subscribers.computeIfPresent(jobId, (_, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(_ -> unsubscribe.run());
+
+        subscribers.compute(jobId, (_, list) -> {
+            var updated = list != null ? list : new CopyOnWriteArrayList<Subscriber>();
+            updated.add(subscriber);
+            return updated;
+        });
+        return emitter;
+    }
+
+    @Override
+    public StegoJobResultDTO getResult(UUID jobId) throws StegoJobNotFoundException, StegoJobNotCompletedException {
+        var status = getStatus(jobId);
+
+        return switch (status.stage()) {
+            case COMPLETED -> {
+                var item = workQueue.findById(jobId)
+                        .orElseThrow(() -> new StegoJobNotFoundException("No background job found with ID: " + jobId));
+                if (item.getResultId() == null) {
+                    yield new StegoJobResultDTO(status, item.getEncodeResult(), null);
+                }
+
+                // Decoded payloads are handed out once and then deleted
+                var result = resultRepository.deleteByIdAndJobId(item.getResultId(), jobId);
+                if (result == null || result.getExpiresAt().isBefore(clock.instant())) {
+                    throw new StegoJobNotFoundException("The result of job " + jobId + " has already been retrieved or has expired.");
+                }
+                yield new StegoJobResultDTO(status, null, workQueueSealer.openResult(result));
+            }
+            case FAILED -> throw new StegoJobNotCompletedException("Job " + jobId + " failed: " + status.error());
+            default -> throw new StegoJobNotCompletedException("Job " + jobId + " is still running (" + status.stage() + ").");
+        };
+    }
+
+    /**
+     * Stops feeding progress streams.
+     */
+    @Override
+    public void close() {
+        progressPoller.shutdownNow();
+    }
+
+    private StegoJobStatusDTO submit(StegoWorkItem item, String password) {
+        if (payloadSize(item) > StegoWorkItem.MAX_PAYLOAD_BYTES) {
+            throw new FileTooLargeException("The job is too large to be queued; at most "
+                    + StegoWorkItem.MAX_PAYLOAD_BYTES / (1024 * 1024) + " MB of images, files and text are allowed.");
+        }
+        item.setSealedPassword(workQueueSealer.sealPassword(item.getId(), password));
+
+        if (workQueue.countByStageNotIn(FINISHED) >= maxActive) {
+            throw new ServiceOverloadedException("Too many background jobs are queued, try again later.", retryAfter);
+        }
+        return toStatus(workQueue.insert(item));
+    }
+
+    private static long payloadSize(StegoWorkItem item) {
+        var size = 0L;
+        if (item.getImageBytes() != null) {
+            size += item.getImageBytes().length;
+        }
+        if (item.getFileBytes() != null) {
+            size += item.getFileBytes().length;
+        }
+        if (item.getMessage() != null) {
+            size += item.getMessage().length() * 3L; // UTF-8 bytes per UTF-16 char, at most
+        }
+        return size;
+    }
+
+    private StegoWorkItem findProgress(UUID jobId) {
+        return workQueue.findProgress(List.of(jobId)).stream()
+                .filter(item -> !isExpired(item))
+                .findFirst()
+                .orElseThrow(() -> new StegoJobNotFoundException("No background job found with ID: " + jobId));
+    }
+
+    private boolean isExpired(StegoWorkItem item) {
+        return item.getFinishedDate() != null && item.getFinishedDate().isBefore(clock.instant().minus(retention));
+    }
+
+    /**
+     * Sends the current status of every subscribed job that has changed since it was last sent.
+     */
+    private void pollProgress() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            var items = workQueue.findProgress(List.copyOf(subscribers.keySet()));
+            for (var item : items) {
+                var status = toStatus(item);
+                var finished = FINISHED.contains(status.stage());
+                for (var subscriber : subscribers.getOrDefault(item.getId(), List.of())) {
+                    if (subscriber.send(status) && finished) {
+                        subscriber.emitter.complete();
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Polling job progress failed: {}", e.toString());
+        }
+    }
+
+    private static StegoJobStatusDTO toStatus(StegoWorkItem item) {
+        return new StegoJobStatusDTO(
+                item.getId(),
+                item.getType(),
+                item.getStage(),
+                item.getStageIndex(),
+                item.getType().stages().size(),
+                item.getError(),
+                item.getCreatedDate(),
+                item.getUpdatedDate()
+        );
+    }
+
+    /**
+     * A progress stream, remembering the last status sent so unchanged polls are not repeated.
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private StegoJobStatusDTO lastSent;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private synchronized boolean send(StegoJobStatusDTO status) {
+            if (lastSent != null && lastSent.stage() == status.stage()) {
+                return true;
+            }
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("progress")
+                        .id(Integer.toString(status.stageIndex()))
+                        .data(status));
+                lastSent = status;
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,250 @@
+package com.example.springprojectsteganographytool.services.impl;
+
+import com.example.springprojectsteganographytool.concurrency.SingleFlight;
+import com.example.springprojectsteganographytool.crypto.CryptoPrimitivePool;
+import com.example.springprojectsteganographytool.documents.StegoIdempotencyRecord;
+import com.example.springprojectsteganographytool.exceptions.data.InvalidIdempotencyKeyException;
+import com.example.springprojectsteganographytool.exceptions.data.StorageException;
+import com.example.springprojectsteganographytool.models.StegoEncodeResponseDTO;
+import com.example.springprojectsteganographytool.models.StegoJobType;
+import com.example.springprojectsteganographytool.repos.StegoDataRepository;
+import com.example.springprojectsteganographytool.repos.StegoIdempotencyRecordRepository;
+import com.example.springprojectsteganographytool.services.AesUtilService;
+import com.example.springprojectsteganographytool.services.IdempotencyService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+/**
+ * Runs encode requests at most once per idempotency key.
+ * <p>
+ * Results are stored in Mongo under their key, so a retry is answered by any node for {@code stego.idempotency.window},
+ * and kept in a short-lived, size-bounded in-memory front cache, so the retries that follow a dropped response do
+ * not reach Mongo. Concurrent retries on one node share a single encode. When two nodes run the same request at
+ * once (for example after a job was reclaimed from a stalled node), the first stored result wins and the other
+ * node deletes the stego data it saved, so retries leave no duplicate documents behind.
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String CREATED_DATE = "createdDate";
+
+    private final StegoIdempotencyRecordRepository idempotencyRepository;
+    private final StegoDataRepository stegoDataRepository;
+    private final CryptoPrimitivePool cryptoPrimitivePool;
+    private final AesUtilService aesUtilService;
+    private final Duration window;
+    private final long cacheTtlNanos;
+    private final int cacheMaxEntries;
+    private final Map<String, CachedResult> cache;
+    private final SingleFlight<FlightKey> flights;
+
+    public IdempotencyServiceImpl(
+            StegoIdempotencyRecordRepository idempotencyRepository,
+            StegoDataRepository stegoDataRepository,
+            CryptoPrimitivePool cryptoPrimitivePool,
+            AesUtilService aesUtilService,
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${stego.idempotency.window:1h}") Duration window,
+            @Value("${stego.idempotency.cache.ttl:1m}") Duration cacheTtl,
+            @Value("${stego.idempotency.cache.max-entries:1024}") int cacheMaxEntries
+    ) {
+        this.idempotencyRepository = idempotencyRepository;
+        this.stegoDataRepository = stegoDataRepository;
+        this.cryptoPrimitivePool = cryptoPrimitivePool;
+        this.aesUtilService = aesUtilService;
+        this.window = window;
+        this.cacheTtlNanos = cacheTtl.toNanos();
+        this.cacheMaxEntries = cacheMaxEntries;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > IdempotencyServiceImpl.this.cacheMaxEntries;
+            }
+        };
+        this.flights = new SingleFlight<>("idempotency", meterRegistry);
+
+        ensureExpiryIndex(mongoTemplate, window);
+    }
+
+    @Override
+    public String checkRequest(String idempotencyKey, StegoJobType type, byte[] coverImageBytes, String message, String originalFileName, byte[] fileBytes, String password, int lsbDepth) throws InvalidIdempotencyKeyException {
+        if (idempotencyKey == null) {
+            return null;
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException("Idempotency keys must be 1 to " + MAX_KEY_LENGTH + " characters long.");
+        }
+
+        // The stored result is only usable with the password it was encrypted with, so the password is part of the
+        // request. Its key hash is what stego data records already hold, so the request hash reveals nothing more.
+        var keyHash = aesUtilService.generateKey(password);
+
+        String requestHash;
+        try {
+            requestHash = cryptoPrimitivePool.withMessageDigest("SHA-256", digest -> {
+                update(digest, type.name().getBytes(StandardCharsets.UTF_8));
+                update(digest, ByteBuffer.allocate(Integer.BYTES).putInt(lsbDepth).array());
+                update(digest, coverImageBytes);
+                update(digest, message != null ? message.getBytes(StandardCharsets.UTF_8) : null);
+                update(digest, originalFileName != null ? originalFileName.getBytes(StandardCharsets.UTF_8) : null);
+                update(digest, fileBytes);
+                update(digest, keyHash.getBytes(StandardCharsets.US_ASCII));
+                return HexFormat.of().formatHex(digest.digest());
+            });
+        } catch (Exception e) {
+            throw new StorageException("Failed to hash the request.", e);
+        }
+
+        var stored = find(idempotencyKey);
+        if (stored != null) {
+            requireSameRequest(stored.requestHash(), requestHash);
+        }
+        return requestHash;
+    }
+
+    @Override
+    public StegoEncodeResponseDTO encodeOnce(String idempotencyKey, String requestHash, Callable<StegoEncodeResponseDTO> encode) throws Exception {
+        if (idempotencyKey == null) {
+            return encode.call();
+        }
+
+        return flights.execute(new FlightKey(idempotencyKey, requestHash), () -> {
+            var stored = find(idempotencyKey);
+            if (stored != null) {
+                requireSameRequest(stored.requestHash(), requestHash);
+                log.debug("Returning the stored result for idempotency key {}", idempotencyKey);
+                return stored.result();
+            }
+
+            return store(idempotencyKey, requestHash, encode.call());
+        });
+    }
+
+    // ----- Private Helper Methods -----
+
+    /**
+     * Looks up the result stored for a key, first in the front cache, then in Mongo.
+     *
+     * @return The stored result, or null if the key has none within the retry window.
+     */
+    private CachedResult find(String idempotencyKey) {
+        synchronized (this) {
+            var cached = cache.get(idempotencyKey);
+            if (cached != null && System.nanoTime() - cached.expiresAt() < 0) {
+                return cached;
+            }
+            cache.remove(idempotencyKey);
+        }
+
+        var stored = idempotencyRepository.findById(idempotencyKey)
+                .filter(this::withinWindow)
+                .orElse(null);
+        return stored == null ? null : cache(stored);
+    }
+
+    /**
+     * Stores the result of a finished encode under its key. If another node stored a result for the key first,
+     * the stego data saved by this encode is deleted and the other node's result is returned.
+     */
+    private StegoEncodeResponseDTO store(String idempotencyKey, String requestHash, StegoEncodeResponseDTO result) {
+        var record = StegoIdempotencyRecord.builder()
+                .key(idempotencyKey)
+                .requestHash(requestHash)
+                .result(result)
+                .build();
+
+        try {
+            idempotencyRepository.insert(record);
+            return cache(record).result();
+        } catch (DuplicateKeyException e) {
+            var existing = idempotencyRepository.findById(idempotencyKey).orElse(null);
+            if (existing == null || !withinWindow(existing)) {
+                // The previous record expired, or was dropped by its TTL index in the meantime
+                return cache(idempotencyRepository.save(record)).result();
+            }
+
+            log.info("Idempotency key {} was completed by another node, discarding the duplicate {}", idempotencyKey, result.id());
+            stegoDataRepository.deleteById(result.id());
+            requireSameRequest(existing.getRequestHash(), requestHash);
+            return cache(existing).result();
+        }
+    }
+
+    private boolean withinWindow(StegoIdempotencyRecord record) {
+        return record.getCreatedDate() != null && record.getCreatedDate().plus(window).isAfter(Instant.now());
+    }
+
+    private synchronized CachedResult cache(StegoIdempotencyRecord record) {
+        var cached = new CachedResult(record.getRequestHash(), record.getResult(), System.nanoTime() + cacheTtlNanos);
+        if (cacheMaxEntries > 0) {
+            cache.put(record.getKey(), cached);
+        }
+        return cached;
+    }
+
+    private static void requireSameRequest(String storedHash, String requestHash) throws InvalidIdempotencyKeyException {
+        if (!storedHash.equals(requestHash)) {
+            throw new InvalidIdempotencyKeyException("The idempotency key was already used for a different request.");
+        }
+    }
+
+    /**
+     * Has Mongo drop records once the retry window has passed. The index follows {@code stego.idempotency.window},
+     * so an index left by an earlier window is changed in place rather than failing the startup.
+     */
+    private static void ensureExpiryIndex(MongoTemplate mongoTemplate, Duration window) {
+        var indexOps = mongoTemplate.indexOps(StegoIdempotencyRecord.class);
+        var existing = indexOps.getIndexInfo().stream()
+                .filter(index -> index.isIndexForFields(List.of(CREATED_DATE)))
+                .findFirst();
+
+        if (existing.isEmpty()) {
+            indexOps.ensureIndex(new Index().on(CREATED_DATE, Sort.Direction.ASC).named(CREATED_DATE).expire(window));
+        } else if (!existing.get().getExpireAfter().equals(Optional.of(window.truncatedTo(ChronoUnit.SECONDS)))) {
+            mongoTemplate.executeCommand(new Document("collMod", mongoTemplate.getCollectionName(StegoIdempotencyRecord.class))
+                    .append("index", new Document("name", existing.get().getName())
+                            .append("expireAfterSeconds", window.toSeconds())));
+            log.info("Changed the expiry of idempotency records to {}", window);
+        }
+    }
+
+    // Length-prefixed, so that moving bytes between two fields changes the hash
+    private static void update(MessageDigest digest, byte[] field) {
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(field == null ? -1 : field.length).array());
+        if (field != null) {
+            digest.update(field);
+        }
+    }
+
+    // A result as held in the front cache, with its expiry time (in System.nanoTime() units)
+    private record CachedResult(String requestHash, StegoEncodeResponseDTO result, long expiresAt) {
+    }
+
+    // Concurrent retries share an encode only if they carry the same request
+    private record FlightKey(String idempotencyKey, String requestHash) {
+    }
+
+}
@@ -1,13 +1,21 @@
 package com.example.springprojectsteganographytool.services.impl;
 
+import com.example.springprojectsteganographytool.concurrency.AsyncTasks;
+import com.example.springprojectsteganographytool.concurrency.CancellingProgressListener;
+import com.example.springprojectsteganographytool.concurrency.CpuWorkerPool;
+import com.example.springprojectsteganographytool.concurrency.Deadline;
+import com.example.springprojectsteganographytool.concurrency.PinningGuard;
 import com.example.springprojectsteganographytool.exceptions.data.MessageTooLargeException;
 import com.example.springprojectsteganographytool.exceptions.data.StegoDataNotFoundException;
+import com.example.springprojectsteganographytool.exceptions.file.InvalidAudioFormatException;
 import com.example.springprojectsteganographytool.exceptions.file.InvalidImageFormatException;
 import com.example.springprojectsteganographytool.exceptions.lsb.InvalidLsbDepthException;
 import com.example.springprojectsteganographytool.exceptions.lsb.LsbDecodingException;
 import com.example.springprojectsteganographytool.exceptions.lsb.LsbEncodingException;
 import com.example.springprojectsteganographytool.exceptions.metadata.MetadataDecodingException;
+import com.example.springprojectsteganographytool.exceptions.metadata.MetadataEncodingException;
 import com.example.springprojectsteganographytool.exceptions.metadata.MetadataNotFoundException;
+import com.example.springprojectsteganographytool.models.StegoFrameDTO;
 import com.example.springprojectsteganographytool.models.StegoMetadataDTO;
 import com.example.springprojectsteganographytool.services.LsbUtilService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -15,14 +23,39 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.event.IIOReadUpdateListener;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Dimension;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * LSB steganography engine.
+ * <p>
+ * All operations run on the calling thread; the steganography service decides which stages
+ * run concurrently. Besides PNG-encoded byte arrays, covers and stego images can be passed as
+ * already decoded {@link BufferedImage}s to avoid a PNG round trip.
+ * <p>
+ * Pixel loops and PNG I/O check the current {@link Deadline} periodically and stop with a
+ * {@link CancellationException} once the request is cancelled or times out. Image decoding, PNG encoding and
+ * Java2D copies go through the {@link PinningGuard}, so they leave virtual threads when they are known to pin.
+ * <p>
+ * 16-bit PCM WAV audio is a streaming carrier: the same header, metadata and payload layout is written into
+ * sample LSBs through a fixed-size buffer, without a raster.
+ */
 @Service
 @Slf4j
 public class LsbUtilServiceImpl implements LsbUtilService {
@@ -37,17 +70,28 @@ public class LsbUtilServiceImpl implements LsbUtilService {
     private static final int META_LEN_BYTES = 4;
     private static final int PAYLOAD_LEN_BYTES = 8;
 
-    private final ObjectMapper mapper = new ObjectMapper();
-    private final ExecutorService executorService;
+    private static final int ARGB_BYTES_PER_PIXEL = 4;
+    private static final int MAX_LSB_DEPTH = 2;
+
+    private static final int PROBE_METADATA_BYTES = 2048; // metadata bytes covered by the first region read of a probe
 
-    public LsbUtilServiceImpl(ExecutorService executorService) {
-        this.executorService = executorService;
+    private static final int CHECKPOINT_PIXEL_MASK = (1 << 14) - 1; // check for cancellation every 16384 pixels
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final PinningGuard pinningGuard;
+    private final CpuWorkerPool cpuWorkerPool;
+    private final CoverCache coverCache;
+
+    public LsbUtilServiceImpl(PinningGuard pinningGuard, CpuWorkerPool cpuWorkerPool, CoverCache coverCache) {
+        this.pinningGuard = pinningGuard;
+        this.cpuWorkerPool = cpuWorkerPool;
+        this.coverCache = coverCache;
     }
 
     /**
      * Encodes a payload into an image using LSB steganography.
      * <p>
-     * This method delegates the encoding process to the `encodeWithMetadata` method,
+     * This method decodes the image and delegates the encoding process to the `encodeWithMetadata` method,
      * which embeds both metadata and payload data into the least significant bits
      * of the image's pixels.
      *
@@ -62,19 +106,489 @@ public class LsbUtilServiceImpl implements LsbUtilService {
      */
     @Override
     public byte[] encode(byte[] imageBytes, byte[] payloadBytes, StegoMetadataDTO metadata) throws InvalidLsbDepthException, MessageTooLargeException, LsbEncodingException, InvalidImageFormatException {
-        Callable<byte[]> task = () -> {
-            log.info("Encoding payload into image with metadata");
-            return encodeWithMetadata(imageBytes, payloadBytes, metadata);
-        };
+        log.info("Encoding payload into image with metadata");
 
         try {
-            return executorService.submit(task).get(); // Submit the encoding task to the executor service and wait for the result
+            // bytesToImage already returns a fresh ARGB image, so it can be written to directly
+            return encodeWithMetadata(bytesToImage(imageBytes), payloadBytes, metadata);
+        } catch (InvalidLsbDepthException | MessageTooLargeException | LsbEncodingException | MetadataNotFoundException | CancellationException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error during LSB encoding", e);
             throw new LsbEncodingException("Failed to encode payload into image", e);
         }
     }
 
+    /**
+     * Reads the dimensions of an uploaded image from its header, without decoding its pixels.
+     *
+     * @param imageBytes The encoded image.
+     * @return The width and height of the image in pixels.
+     * @throws InvalidImageFormatException If the image format is unsupported or the data is corrupted.
+     */
+    @Override
+    public Dimension readImageSize(byte[] imageBytes) throws InvalidImageFormatException {
+        try (var imageInputStream = ImageIO.createImageInputStream(new ByteArrayInputStream(imageBytes))) {
+            var readers = ImageIO.getImageReaders(imageInputStream);
+            if (!readers.hasNext()) {
+                throw new InvalidImageFormatException("Unsupported image format or corrupted image data.");
+            }
+
+            var reader = readers.next();
+            try {
+                reader.setInput(imageInputStream, true, true);
+                return new Dimension(reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        } catch (InvalidImageFormatException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new InvalidImageFormatException("Unsupported image format or corrupted image data.", e);
+        }
+    }
+
+    /**
+     * Decodes an uploaded image (any format supported by ImageIO) into the ARGB format used for LSB operations.
+     *
+     * @param imageBytes The encoded image.
+     * @return The decoded ARGB image.
+     * @throws InvalidImageFormatException If the image format is unsupported or the data is corrupted.
+     */
+    @Override
+    public BufferedImage readImage(byte[] imageBytes) throws InvalidImageFormatException {
+        try {
+            return bytesToImage(imageBytes);
+        } catch (CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new InvalidImageFormatException("Unsupported image format or corrupted image data.", e);
+        }
+    }
+
+    /**
+     * Decodes an uploaded cover image through the {@link CoverCache}.
+     *
+     * @param imageBytes The encoded cover image.
+     * @return The decoded ARGB cover image, possibly shared with other requests.
+     * @throws InvalidImageFormatException If the image format is unsupported or the data is corrupted.
+     */
+    @Override
+    public BufferedImage readCover(byte[] imageBytes) throws InvalidImageFormatException {
+        try {
+            return coverCache.getOrDecode(imageBytes, () -> readImage(imageBytes));
+        } catch (InvalidImageFormatException | CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new InvalidImageFormatException("Unsupported image format or corrupted image data.", e);
+        }
+    }
+
+    /**
+     * Creates the ARGB working copy of a decoded cover image that a payload can be embedded into.
+     * An ARGB cover (such as one returned by {@link #readCover(byte[])}) is copied as a plain pixel array;
+     * other image types are converted.
+     *
+     * @param coverImage The decoded cover image.
+     * @return A new ARGB image with the cover's pixels.
+     * @throws LsbEncodingException If the cover image cannot be copied.
+     */
+    @Override
+    public BufferedImage prepareCover(BufferedImage coverImage) throws LsbEncodingException {
+        try {
+            var copy = copyArgbPixels(coverImage);
+            return copy != null ? copy : deepCopy(coverImage);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new LsbEncodingException("Failed to copy the cover image", e);
+        }
+    }
+
+    /**
+     * Copies a working image by copying its ARGB pixel array; see {@link #prepareCover(BufferedImage)}.
+     *
+     * @param workingImage The ARGB working image to copy.
+     * @return A new ARGB working image with the same pixels.
+     * @throws LsbEncodingException If the image cannot be copied.
+     */
+    @Override
+    public BufferedImage copyWorkingImage(BufferedImage workingImage) throws LsbEncodingException {
+        return prepareCover(workingImage);
+    }
+
+    /**
+     * Embeds a payload and its metadata into a working image created by {@link #prepareCover(BufferedImage)}.
+     *
+     * @param workingImage The ARGB working image to write into; it is modified in place.
+     * @param payloadBytes The byte array representing the payload to encode.
+     * @param metadata     Metadata containing encoding details such as LSB depth.
+     * @return A byte array representing the stego image (PNG) with the encoded payload.
+     * @throws InvalidLsbDepthException If the specified LSB depth is invalid.
+     * @throws MessageTooLargeException If the payload is too large to fit in the image.
+     * @throws LsbEncodingException     If an error occurs during encoding.
+     */
+    @Override
+    public byte[] embed(BufferedImage workingImage, byte[] payloadBytes, StegoMetadataDTO metadata) throws InvalidLsbDepthException, MessageTooLargeException, LsbEncodingException {
+        log.info("Embedding payload into prepared cover image with metadata");
+        return encodeWithMetadata(workingImage, payloadBytes, metadata);
+    }
+
+    /**
+     * Checks that a payload of the given length fits into the cover image together with the metadata.
+     * Only the image dimensions and the metadata are needed, so this can run before the payload exists
+     * (for example while it is still being encrypted).
+     *
+     * @param coverImage    The decoded cover image.
+     * @param payloadLength The length of the payload in bytes.
+     * @param metadata      Metadata containing encoding details such as LSB depth.
+     * @throws InvalidLsbDepthException   If the specified LSB depth is invalid.
+     * @throws MessageTooLargeException   If the metadata or payload does not fit into the image.
+     * @throws MetadataEncodingException  If the metadata cannot be serialized.
+     */
+    @Override
+    public void ensureCapacity(BufferedImage coverImage, long payloadLength, StegoMetadataDTO metadata) throws InvalidLsbDepthException, MessageTooLargeException, MetadataEncodingException {
+        validateMetadata(metadata);
+
+        try {
+            var metaBlock = buildMetaBlock(metadata);
+            checkCapacity(coverImage, metaBlock.length, payloadLength, metadata.lsbDepth());
+        } catch (MessageTooLargeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MetadataEncodingException("Failed to serialize metadata", e);
+        }
+    }
+
+    /**
+     * Returns the largest payload that fits into the cover image together with the metadata.
+     * Like {@link #ensureCapacity(BufferedImage, long, StegoMetadataDTO)}, this only needs the image dimensions.
+     *
+     * @param coverImage The decoded cover image.
+     * @param metadata   Metadata containing encoding details such as LSB depth.
+     * @return The payload capacity in bytes, excluding the payload length prefix.
+     * @throws InvalidLsbDepthException  If the specified LSB depth is invalid.
+     * @throws MessageTooLargeException  If not even the metadata and an empty payload fit into the image.
+     * @throws MetadataEncodingException If the metadata cannot be serialized.
+     */
+    @Override
+    public long payloadCapacity(BufferedImage coverImage, StegoMetadataDTO metadata) throws InvalidLsbDepthException, MessageTooLargeException, MetadataEncodingException {
+        return payloadCapacity(coverImage.getWidth(), coverImage.getHeight(), metadata);
+    }
+
+    /**
+     * Returns the largest payload that fits into a cover of the given size together with the metadata.
+     *
+     * @param width    The cover width in pixels.
+     * @param height   The cover height in pixels.
+     * @param metadata Metadata containing encoding details such as LSB depth.
+     * @return The payload capacity in bytes, excluding the payload length prefix; 0 if only an empty payload fits.
+     * @throws InvalidLsbDepthException  If the specified LSB depth is invalid.
+     * @throws MessageTooLargeException  If not even the metadata and an empty payload fit into the cover.
+     * @throws MetadataEncodingException If the metadata cannot be serialized.
+     */
+    @Override
+    public long payloadCapacity(int width, int height, StegoMetadataDTO metadata) throws InvalidLsbDepthException, MessageTooLargeException, MetadataEncodingException {
+        validateMetadata(metadata);
+
+        try {
+            var metaBlock = buildMetaBlock(metadata);
+            var metaPixelCount = checkCapacity((long) width * height, metaBlock.length, 0, metadata.lsbDepth());
+
+            var remainingPixels = (long) width * height - metaPixelCount;
+            return Math.max(0L, (remainingPixels * 3L * metadata.lsbDepth()) / 8L - PAYLOAD_LEN_BYTES);
+        } catch (MessageTooLargeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MetadataEncodingException("Failed to serialize metadata", e);
+        }
+    }
+
+    /**
+     * Returns the smallest number of pixels that passes the capacity check of
+     * {@link #ensureCapacity(BufferedImage, long, StegoMetadataDTO)}: the metadata block at depth 1 followed by
+     * the length-prefixed payload at the given depth.
+     *
+     * @param payloadLength  The length of the payload in bytes.
+     * @param metadataLength The length of the serialized metadata block in bytes.
+     * @param lsbDepth       The LSB depth the payload is embedded with.
+     * @return The required pixel count.
+     * @throws InvalidLsbDepthException If the LSB depth is not 1 or 2.
+     */
+    @Override
+    public long requiredPixelCount(long payloadLength, int metadataLength, int lsbDepth) throws InvalidLsbDepthException {
+        if (lsbDepth != 1 && lsbDepth != 2) {
+            throw new InvalidLsbDepthException("LSB depth must be 1 or 2");
+        }
+
+        var payloadBits = (PAYLOAD_LEN_BYTES + payloadLength) * 8L;
+        var bitsPerPixel = 3L * lsbDepth;
+        return bytesToPixelCount(metadataLength, 1) + (payloadBits + bitsPerPixel - 1) / bitsPerPixel;
+    }
+
+    /**
+     * Checks that a container fits into the cover image. Like {@link #ensureCapacity(BufferedImage, long, StegoMetadataDTO)},
+     * this only needs the image dimensions and the stored lengths, so it can run while the entries are being encrypted.
+     *
+     * @param coverImage   The decoded cover image.
+     * @param entryLengths The stored length of every entry in bytes, in storage order.
+     * @param metadata     Metadata containing encoding details and the container header.
+     * @throws InvalidLsbDepthException  If the specified LSB depth is invalid.
+     * @throws MessageTooLargeException  If the container is too large to fit in the image.
+     * @throws MetadataNotFoundException If the metadata carries no container header.
+     * @throws MetadataEncodingException If the metadata cannot be serialized.
+     */
+    @Override
+    public void ensureContainerCapacity(BufferedImage coverImage, int[] entryLengths, StegoMetadataDTO metadata) throws InvalidLsbDepthException, MessageTooLargeException, MetadataNotFoundException, MetadataEncodingException {
+        validateContainerMetadata(metadata);
+
+        try {
+            var metaBlock = buildMetaBlock(metadata);
+            containerLayout(coverImage, bytesToPixelCount(metaBlock.length, 1), metadata, entryLengths);
+        } catch (MessageTooLargeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MetadataEncodingException("Failed to serialize metadata", e);
+        }
+    }
+
+    /**
+     * Embeds a container into a working image created by {@link #prepareCover(BufferedImage)}.
+     *
+     * @param workingImage The ARGB working image to write into; it is modified in place.
+     * @param directory    The stored directory; its length must match the container header.
+     * @param entries      The stored entries, in directory order.
+     * @param metadata     Metadata containing encoding details and the container header.
+     * @return A byte array representing the stego image (PNG) with the embedded container.
+     * @throws InvalidLsbDepthException If the specified LSB depth is invalid.
+     * @throws MessageTooLargeException If the container is too large to fit in the image.
+     * @throws LsbEncodingException     If an error occurs during encoding.
+     */
+    @Override
+    public byte[] embedContainer(BufferedImage workingImage, byte[] directory, List<byte[]> entries, StegoMetadataDTO metadata) throws InvalidLsbDepthException, MessageTooLargeException, LsbEncodingException {
+        log.info("Embedding container with {} entries into prepared cover image", entries.size());
+
+        // Writes: [MAGIC(4)][VERSION(1)][META_LEN(4)][META_JSON] at LSB=1,
+        // then [DIRECTORY] and every [ENTRY] at LSB=metadata.lsbDepth(), each starting on a pixel boundary
+
+        try {
+            validateContainerMetadata(metadata);
+            if (directory.length != metadata.container().directoryLength() || entries.size() != metadata.container().entryCount()) {
+                throw new LsbEncodingException("Container header does not match the directory and entries");
+            }
+
+            var metaBlock = buildMetaBlock(metadata);
+            var entryLengths = entries.stream().mapToInt(entry -> entry.length).toArray();
+            var layout = containerLayout(workingImage, bytesToPixelCount(metaBlock.length, 1), metadata, entryLengths);
+
+            writeBytesToImage(workingImage, 0, 1, metaBlock);
+            writeBytesToImage(workingImage, layout.directoryStartPixel(), metadata.lsbDepth(), directory);
+            for (var i = 0; i < entries.size(); i++) {
+                writeBytesToImage(workingImage, layout.entryStartPixels()[i], metadata.lsbDepth(), entries.get(i));
+            }
+
+            return imageToBytes(workingImage);
+
+        } catch (MessageTooLargeException | InvalidLsbDepthException | MetadataNotFoundException | LsbEncodingException | CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new LsbEncodingException("LSB container encoding failed", e);
+        }
+    }
+
+    /**
+     * Reads the stored directory of a container from the pixels right after the metadata.
+     *
+     * @param stegoImage The decoded stego image.
+     * @param metadata   The metadata extracted from the image.
+     * @return The stored directory.
+     * @throws InvalidLsbDepthException    If the LSB depth in the metadata is invalid.
+     * @throws MetadataNotFoundException   If the metadata carries no container header.
+     * @throws LsbDecodingException        If the directory cannot be read.
+     * @throws InvalidImageFormatException If the image does not contain a valid LSB header.
+     */
+    @Override
+    public byte[] readContainerDirectory(BufferedImage stegoImage, StegoMetadataDTO metadata) throws InvalidLsbDepthException, MetadataNotFoundException, LsbDecodingException, InvalidImageFormatException {
+        validateContainerMetadata(metadata);
+
+        try {
+            var layout = readContainerLayout(stegoImage, metadata, new int[0]);
+            return readBytesFromImage(stegoImage, layout.directoryStartPixel(), metadata.lsbDepth(), metadata.container().directoryLength());
+        } catch (InvalidImageFormatException | MetadataNotFoundException | LsbDecodingException | CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new LsbDecodingException("Failed to read the container directory", e);
+        }
+    }
+
+    /**
+     * Reads one stored entry of a container. Only the pixels of the header, the metadata length and the entry are read;
+     * the entry's position follows from the stored lengths of the entries before it.
+     *
+     * @param stegoImage   The decoded stego image.
+     * @param metadata     The metadata extracted from the image.
+     * @param entryLengths The stored length of every entry up to and including the requested one, from the directory.
+     * @param index        The position of the entry in the directory.
+     * @return The stored entry.
+     * @throws InvalidLsbDepthException    If the LSB depth in the metadata is invalid.
+     * @throws MetadataNotFoundException   If the metadata carries no container header.
+     * @throws LsbDecodingException        If the entry cannot be read.
+     * @throws InvalidImageFormatException If the image does not contain a valid LSB header.
+     */
+    @Override
+    public byte[] readContainerEntry(BufferedImage stegoImage, StegoMetadataDTO metadata, int[] entryLengths, int index) throws InvalidLsbDepthException, MetadataNotFoundException, LsbDecodingException, InvalidImageFormatException {
+        validateContainerMetadata(metadata);
+        if (index < 0 || index >= entryLengths.length || index >= metadata.container().entryCount()) {
+            throw new LsbDecodingException("Container entry index is out of range: " + index);
+        }
+
+        try {
+            var layout = readContainerLayout(stegoImage, metadata, Arrays.copyOf(entryLengths, index + 1));
+            return readBytesFromImage(stegoImage, layout.entryStartPixels()[index], metadata.lsbDepth(), entryLengths[index]);
+        } catch (InvalidImageFormatException | MetadataNotFoundException | LsbDecodingException | CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new LsbDecodingException("Failed to read the container entry", e);
+        }
+    }
+
+    /**
+     * Checks that a file stored as chunks fits into the cover image. Like {@link #ensureCapacity(BufferedImage, long, StegoMetadataDTO)},
+     * this only needs the image dimensions and the chunk index, so it can run while the chunks are being encrypted.
+     *
+     * @param coverImage The decoded cover image.
+     * @param metadata   Metadata containing encoding details and the chunk index.
+     * @throws InvalidLsbDepthException  If the specified LSB depth is invalid.
+     * @throws MessageTooLargeException  If the chunks are too large to fit in the image.
+     * @throws MetadataNotFoundException If the metadata carries no chunk index.
+     * @throws MetadataEncodingException If the metadata cannot be serialized.
+     */
+    @Override
+    public void ensureChunkedCapacity(BufferedImage coverImage, StegoMetadataDTO metadata) throws InvalidLsbDepthException, MessageTooLargeException, MetadataNotFoundException, MetadataEncodingException {
+        validateChunkedMetadata(metadata);
+
+        try {
+            var metaBlock = buildMetaBlock(metadata);
+            chunkLayout(coverImage, bytesToPixelCount(metaBlock.length, 1), metadata);
+        } catch (MessageTooLargeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MetadataEncodingException("Failed to serialize metadata", e);
+        }
+    }
+
+    /**
+     * Embeds a file stored as chunks into a working image created by {@link #prepareCover(BufferedImage)}.
+     *
+     * @param workingImage The ARGB working image to write into; it is modified in place.
+     * @param header       The key header; its length must match the chunk index.
+     * @param chunks       The stored chunks, in file order.
+     * @param metadata     Metadata containing encoding details and the chunk index.
+     * @return A byte array representing the stego image (PNG) with the embedded chunks.
+     * @throws InvalidLsbDepthException If the specified LSB depth is invalid.
+     * @throws MessageTooLargeException If the chunks are too large to fit in the image.
+     * @throws LsbEncodingException     If an error occurs during encoding.
+     */
+    @Override
+    public byte[] embedChunked(BufferedImage workingImage, byte[] header, List<byte[]> chunks, StegoMetadataDTO metadata) throws InvalidLsbDepthException, MessageTooLargeException, LsbEncodingException {
+        log.info("Embedding {} chunks into prepared cover image", chunks.size());
+
+        // Writes: [MAGIC(4)][VERSION(1)][META_LEN(4)][META_JSON] at LSB=1,
+        // then [KEY_HEADER] and every [CHUNK] at LSB=metadata.lsbDepth(), each starting on a pixel boundary
+
+        try {
+            validateChunkedMetadata(metadata);
+            var index = metadata.chunks();
+            if (header.length != index.headerLength() || chunks.size() != index.chunkCount()) {
+                throw new LsbEncodingException("Chunk index does not match the key header and chunks");
+            }
+            for (var i = 0; i < chunks.size(); i++) {
+                var expectedLength = i == chunks.size() - 1 ? index.lastStoredChunkLength() : index.storedChunkLength();
+                if (chunks.get(i).length != expectedLength) {
+                    throw new LsbEncodingException("Chunk index does not match the length of chunk " + i);
+                }
+            }
+
+            var metaBlock = buildMetaBlock(metadata);
+            var layout = chunkLayout(workingImage, bytesToPixelCount(metaBlock.length, 1), metadata);
+
+            writeBytesToImage(workingImage, 0, 1, metaBlock);
+            writeBytesToImage(workingImage, layout.headerStartPixel(), metadata.lsbDepth(), header);
+            for (var i = 0; i < chunks.size(); i++) {
+                writeBytesToImage(workingImage, layout.chunkStartPixel(i), metadata.lsbDepth(), chunks.get(i));
+            }
+
+            return imageToBytes(workingImage);
+
+        } catch (MessageTooLargeException | InvalidLsbDepthException | MetadataNotFoundException | LsbEncodingException | CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new LsbEncodingException("LSB chunked encoding failed", e);
+        }
+    }
+
+    /**
+     * Reads the key header of a file stored as chunks from the pixels right after the metadata.
+     *
+     * @param stegoImage The decoded stego image.
+     * @param metadata   The metadata extracted from the image.
+     * @return The key header.
+     * @throws InvalidLsbDepthException    If the LSB depth in the metadata is invalid.
+     * @throws MetadataNotFoundException   If the metadata carries no chunk index.
+     * @throws LsbDecodingException        If the key header cannot be read.
+     * @throws InvalidImageFormatException If the image does not contain a valid LSB header.
+     */
+    @Override
+    public byte[] readChunkHeader(BufferedImage stegoImage, StegoMetadataDTO metadata) throws InvalidLsbDepthException, MetadataNotFoundException, LsbDecodingException, InvalidImageFormatException {
+        validateChunkedMetadata(metadata);
+
+        try {
+            var layout = readChunkLayout(stegoImage, metadata);
+            return readBytesFromImage(stegoImage, layout.headerStartPixel(), metadata.lsbDepth(), metadata.chunks().headerLength());
+        } catch (InvalidImageFormatException | MetadataNotFoundException | LsbDecodingException | CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new LsbDecodingException("Failed to read the chunk key header", e);
+        }
+    }
+
+    /**
+     * Reads consecutive stored chunks. Only the pixels of the header, the metadata length and the requested chunks
+     * are read; the position of a chunk follows from its number and the chunk index.
+     *
+     * @param stegoImage The decoded stego image.
+     * @param metadata   The metadata extracted from the image.
+     * @param firstChunk The number of the first chunk to read.
+     * @param chunkCount The number of chunks to read.
+     * @return The stored chunks, in file order.
+     * @throws InvalidLsbDepthException    If the LSB depth in the metadata is invalid.
+     * @throws MetadataNotFoundException   If the metadata carries no chunk index.
+     * @throws LsbDecodingException        If the chunks cannot be read or are out of range.
+     * @throws InvalidImageFormatException If the image does not contain a valid LSB header.
+     */
+    @Override
+    public List<byte[]> readChunks(BufferedImage stegoImage, StegoMetadataDTO metadata, int firstChunk, int chunkCount) throws InvalidLsbDepthException, MetadataNotFoundException, LsbDecodingException, InvalidImageFormatException {
+        validateChunkedMetadata(metadata);
+        var index = metadata.chunks();
+        if (firstChunk < 0 || chunkCount < 0 || firstChunk > index.chunkCount() - chunkCount) {
+            throw new LsbDecodingException("Chunk range is out of range: " + firstChunk + " + " + chunkCount);
+        }
+
+        try {
+            var layout = readChunkLayout(stegoImage, metadata);
+            var chunks = new ArrayList<byte[]>(chunkCount);
+            for (var i = firstChunk; i < firstChunk + chunkCount; i++) {
+                var storedLength = i == index.chunkCount() - 1 ? index.lastStoredChunkLength() : index.storedChunkLength();
+                chunks.add(readBytesFromImage(stegoImage, layout.chunkStartPixel(i), metadata.lsbDepth(), storedLength));
+            }
+            return chunks;
+        } catch (InvalidImageFormatException | MetadataNotFoundException | LsbDecodingException | CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new LsbDecodingException("Failed to read the chunks", e);
+        }
+    }
+
     /**
      * Decodes a payload from a stego image using LSB steganography.
      * <p>
@@ -90,77 +604,386 @@ public class LsbUtilServiceImpl implements LsbUtilService {
      * @throws InvalidImageFormatException If the provided image format is invalid.
      */
     @Override
-    public byte[] decode(byte[] stegoImageBytes, Integer lsbDepth) throws InvalidLsbDepthException, LsbDecodingException, StegoDataNotFoundException, InvalidImageFormatException {
+    public byte[] decode(byte[] stegoImageBytes, Integer lsbDepth) throws InvalidLsbDepthException, LsbDecodingException, StegoDataNotFoundException, InvalidImageFormatException {
+        BufferedImage stegoImage;
+        try {
+            stegoImage = bytesToImage(stegoImageBytes);
+        } catch (CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new LsbDecodingException(e.getMessage());
+        }
+        return decode(stegoImage, lsbDepth);
+    }
+
+    /**
+     * Decodes a payload from an already decoded stego image using LSB steganography.
+     *
+     * @param stegoImage The decoded stego image.
+     * @param lsbDepth   The LSB depth used during encoding, or null to extract it from metadata.
+     * @return A byte array representing the decoded payload.
+     * @throws InvalidLsbDepthException    If the specified LSB depth is invalid.
+     * @throws LsbDecodingException        If an error occurs during decoding.
+     * @throws StegoDataNotFoundException  If no stego data is found in the image.
+     * @throws InvalidImageFormatException If the image does not contain a valid LSB header.
+     */
+    @Override
+    public byte[] decode(BufferedImage stegoImage, Integer lsbDepth) throws InvalidLsbDepthException, LsbDecodingException, StegoDataNotFoundException, InvalidImageFormatException {
+        try {
+            if (lsbDepth == null) {
+                log.warn("lsbDepth is null, extracting metadata from stego image");
+                var metadata = extractMetadata(stegoImage);
+                return extractPayloadUsingDepth(stegoImage, metadata.lsbDepth());
+            } else {
+                log.info("Using provided lsbDepth: {}", lsbDepth);
+                return extractPayloadUsingDepth(stegoImage, lsbDepth);
+            }
+        } catch (InvalidLsbDepthException | InvalidImageFormatException | LsbDecodingException | CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new LsbDecodingException(e.getMessage());
+        }
+    }
+
+    /**
+     * Extracts metadata from a stego image.
+     *
+     * @param stegoImageBytes The byte array representing the stego image.
+     * @return A `StegoMetadataDTO` object containing the extracted metadata.
+     * @throws MetadataNotFoundException   If the metadata length is invalid or zero.
+     * @throws MetadataDecodingException   If an error occurs during metadata deserialization.
+     * @throws InvalidImageFormatException If the image does not contain a valid LSB header.
+     */
+    @Override
+    public StegoMetadataDTO extractMetadata(byte[] stegoImageBytes) throws MetadataNotFoundException, MetadataDecodingException, InvalidImageFormatException {
+        BufferedImage stegoImage;
+        try {
+            stegoImage = bytesToImage(stegoImageBytes);
+        } catch (CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MetadataDecodingException("Failed to decode metadata from image", e);
+        }
+        return extractMetadata(stegoImage);
+    }
+
+    /**
+     * Extracts metadata from an already decoded stego image.
+     * <p>
+     * This method reads the header and metadata length from the provided stego image.
+     * It then extracts the metadata JSON from the image and deserializes it into a `StegoMetadataDTO` object.
+     * If the header is invalid, the metadata is not found, or an error occurs during deserialization,
+     * appropriate exceptions are thrown.
+     *
+     * @param stegoImage The decoded stego image.
+     * @return A `StegoMetadataDTO` object containing the extracted metadata.
+     * @throws MetadataNotFoundException   If the metadata length is invalid or zero.
+     * @throws MetadataDecodingException   If an error occurs during metadata deserialization.
+     * @throws InvalidImageFormatException If the image does not contain a valid LSB header.
+     */
+    @Override
+    public StegoMetadataDTO extractMetadata(BufferedImage stegoImage) throws MetadataNotFoundException, MetadataDecodingException, InvalidImageFormatException {
+
+        log.info("Extracting metadata from stego image");
+
+        try {
+            // Read header and metadata length
+            var info = readHeaderAndMetaLength(stegoImage);
+
+            // 3) Read metadata JSON: [META_JSON] at LSB=1
+            var metaJsonStartPixel = bytesToPixelCount(HEADER_TOTAL_LEN + META_LEN_BYTES, 1);
+            var metaJsonBytes = readBytesFromImage(info.image(), metaJsonStartPixel, 1, info.metaLength());
+
+            // 4) Deserialize metadata JSON and return
+            return mapper.readValue(metaJsonBytes, StegoMetadataDTO.class);
+
+            // Note: We intentionally do not validate fields such as lsbDepth here,
+            // because extraction/decoding paths validate them when needed.
+        } catch (InvalidImageFormatException | MetadataNotFoundException | CancellationException e) {
+            throw e; // Re-throw specific exceptions
+        } catch (Exception e) {
+            throw new MetadataDecodingException("Failed to decode metadata from image", e);
+        }
+
+    }
+
+    /**
+     * Extracts metadata by decoding only the leading rows of an image.
+     * <p>
+     * The first read covers the header, the metadata length and {@link #PROBE_METADATA_BYTES} bytes of metadata,
+     * which holds typical metadata. Longer metadata is read with a second, taller region read from the
+     * in-memory copy of the consumed stream.
+     *
+     * @param imageStream The encoded image; it is not closed.
+     * @return The embedded metadata.
+     * @throws MetadataNotFoundException   If the metadata length is invalid, zero or beyond the image.
+     * @throws MetadataDecodingException   If the image or the metadata cannot be decoded.
+     * @throws InvalidImageFormatException If the format is unsupported or the image has no valid LSB header.
+     */
+    @Override
+    public StegoMetadataDTO probeMetadata(InputStream imageStream) throws MetadataNotFoundException, MetadataDecodingException, InvalidImageFormatException {
+        try {
+            return pinningGuard.call("LsbUtilServiceImpl.probeMetadata", () -> {
+                try (var imageInputStream = new MemoryCacheImageInputStream(imageStream)) {
+                    var readers = ImageIO.getImageReaders(imageInputStream);
+                    if (!readers.hasNext()) {
+                        throw new InvalidImageFormatException("Unsupported image format or corrupted image data.");
+                    }
+
+                    var reader = readers.next();
+                    try {
+                        // Not seek-forward-only, so a second region read can start over from the first row
+                        reader.setInput(imageInputStream, false, true);
+                        reader.addIIOReadProgressListener(CancellingProgressListener.INSTANCE);
+                        var width = reader.getWidth(0);
+                        var totalPixels = (long) width * reader.getHeight(0);
+
+                        var metaJsonStartPixel = bytesToPixelCount(HEADER_TOTAL_LEN + META_LEN_BYTES, 1);
+                        var rows = readLeadingRows(reader, metaJsonStartPixel + bytesToPixelCount(PROBE_METADATA_BYTES, 1));
+                        var info = readHeaderAndMetaLength(rows);
+
+                        var metaPixelCount = metaJsonStartPixel + (info.metaLength() * 8L + 2) / 3; // LSB=1: 3 bits per pixel
+                        if (metaPixelCount > totalPixels) {
+                            throw new MetadataNotFoundException("Metadata length exceeds the image");
+                        }
+                        if (metaPixelCount > (long) width * rows.getHeight()) {
+                            rows = readLeadingRows(reader, metaPixelCount);
+                        }
+
+                        var metaJsonBytes = readBytesFromImage(rows, metaJsonStartPixel, 1, info.metaLength());
+                        return mapper.readValue(metaJsonBytes, StegoMetadataDTO.class);
+                    } finally {
+                        reader.dispose();
+                    }
+                }
+            });
+        } catch (InvalidImageFormatException | MetadataNotFoundException | CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MetadataDecodingException("Failed to decode metadata from image", e);
+        }
+    }
+
+    /**
+     * Splits an animated PNG into standalone PNG frames on the chunk level; see {@link ApngCodec}.
+     *
+     * @param animatedImageBytes The animated PNG.
+     * @return The frames in animation order.
+     * @throws InvalidImageFormatException If the image is not a well-formed animated PNG.
+     */
+    @Override
+    public List<StegoFrameDTO> splitFrames(byte[] animatedImageBytes) throws InvalidImageFormatException {
+        var animation = ApngCodec.parse(animatedImageBytes);
+
+        var frames = new ArrayList<StegoFrameDTO>(animation.frames().size());
+        for (var frame : animation.frames()) {
+            frames.add(new StegoFrameDTO(frames.size(), frame.width(), frame.height(), ApngCodec.toPng(animation, frame)));
+        }
+        return frames;
+    }
+
+    /**
+     * Replaces the frames of an animated PNG with stego frames; see {@link ApngCodec}.
+     * A null entry keeps the original frame, which is re-encoded like the stego frames because all frames of
+     * an animated PNG share one pixel format.
+     *
+     * @param animatedImageBytes The original animated PNG.
+     * @param framePngs          One PNG (or null) per frame, in animation order.
+     * @return The animated stego image.
+     * @throws InvalidImageFormatException If the original is not an animated PNG or a frame does not match it.
+     * @throws LsbEncodingException        If an original frame cannot be re-encoded.
+     */
+    @Override
+    public byte[] assembleFrames(byte[] animatedImageBytes, List<byte[]> framePngs) throws InvalidImageFormatException, LsbEncodingException {
+        var animation = ApngCodec.parse(animatedImageBytes);
+        if (framePngs.size() != animation.frames().size()) {
+            throw new InvalidImageFormatException("Expected " + animation.frames().size() + " frames, got " + framePngs.size());
+        }
+
+        try {
+            var frames = new ArrayList<byte[]>(framePngs.size());
+            for (var i = 0; i < framePngs.size(); i++) {
+                var framePng = framePngs.get(i);
+                frames.add(framePng != null ? framePng : imageToBytes(bytesToImage(ApngCodec.toPng(animation, animation.frames().get(i)))));
+            }
+            return ApngCodec.assemble(animation, frames);
+        } catch (InvalidImageFormatException | CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new LsbEncodingException("Failed to re-encode an animation frame", e);
+        }
+    }
+
+    /**
+     * Streams a cover WAV to the output while writing the metadata block at one bit per sample and the length
+     * prefixed payload at the metadata's LSB depth; see {@link WavCarrier}.
+     */
+    @Override
+    public void embedAudio(InputStream coverAudio, OutputStream stegoAudio, byte[] payloadBytes, StegoMetadataDTO metadata) throws InvalidLsbDepthException, MessageTooLargeException, InvalidAudioFormatException, LsbEncodingException {
+        try {
+            validateMetadata(metadata);
+            var metaBlock = buildMetaBlock(metadata);
+            var lsbDepth = metadata.lsbDepth();
+
+            var samples = new WavCarrier.SampleWriter(coverAudio, stegoAudio);
+            var requiredSamples = metaBlock.length * 8L + (PAYLOAD_LEN_BYTES + (long) payloadBytes.length) * 8L / lsbDepth;
+            if (requiredSamples > samples.sampleCount()) {
+                throw new MessageTooLargeException("Payload is too large for the audio with the given LSB depth");
+            }
+
+            samples.write(metaBlock, 1);
+            samples.write(ByteBuffer.allocate(PAYLOAD_LEN_BYTES).order(ByteOrder.BIG_ENDIAN).putLong(payloadBytes.length).array(), lsbDepth);
+            samples.write(payloadBytes, lsbDepth);
+            samples.finish();
+        } catch (MessageTooLargeException | InvalidLsbDepthException | MetadataNotFoundException | InvalidAudioFormatException | CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new LsbEncodingException("LSB audio encoding failed", e);
+        }
+    }
+
+    @Override
+    public StegoMetadataDTO extractAudioMetadata(InputStream stegoAudio) throws MetadataNotFoundException, MetadataDecodingException, InvalidAudioFormatException {
+        try {
+            return readAudioMetadata(new WavCarrier.SampleReader(stegoAudio));
+        } catch (MetadataNotFoundException | InvalidAudioFormatException | CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MetadataDecodingException("Failed to decode metadata from audio", e);
+        }
+    }
 
-        Callable<byte[]> task = () -> {
-            if (lsbDepth == null) {
-                log.warn("lsbDepth is null, extracting metadata from stego image");
-                var metadata = extractMetadata(stegoImageBytes);
-                return extractPayloadUsingDepth(stegoImageBytes, metadata.lsbDepth());
-            } else {
-                log.info("Using provided lsbDepth: {}", lsbDepth);
-                return extractPayloadUsingDepth(stegoImageBytes, lsbDepth);
-            }
-        };
+    @Override
+    public byte[] decodeAudio(InputStream stegoAudio) throws MetadataNotFoundException, MetadataDecodingException, InvalidLsbDepthException, LsbDecodingException, InvalidAudioFormatException {
+        WavCarrier.SampleReader samples;
+        StegoMetadataDTO metadata;
+        try {
+            samples = new WavCarrier.SampleReader(stegoAudio);
+            metadata = readAudioMetadata(samples);
+        } catch (MetadataNotFoundException | InvalidAudioFormatException | CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MetadataDecodingException("Failed to decode metadata from audio", e);
+        }
+        validateMetadata(metadata);
 
         try {
-            return executorService.submit(task).get();
-        } catch (InvalidLsbDepthException | InvalidImageFormatException e) {
+            var lsbDepth = metadata.lsbDepth();
+            var payloadLength = ByteBuffer.wrap(samples.read(PAYLOAD_LEN_BYTES, lsbDepth)).order(ByteOrder.BIG_ENDIAN).getLong();
+            if (payloadLength < 0 || payloadLength > Integer.MAX_VALUE || payloadLength * 8L / lsbDepth > samples.remainingSamples()) {
+                throw new LsbDecodingException("Payload length exceeds the maximum allowed size for the audio");
+            }
+            return samples.read((int) payloadLength, lsbDepth);
+        } catch (LsbDecodingException | InvalidAudioFormatException | CancellationException e) {
             throw e;
         } catch (Exception e) {
             throw new LsbDecodingException(e.getMessage());
         }
+    }
 
+    /**
+     * Estimates the peak working memory of {@link #embed(BufferedImage, byte[], StegoMetadataDTO)} for a cover image.
+     * <p>
+     * Counts the ARGB working copy (4 bytes per pixel), the PNG output stream and its final copy (bounded by
+     * twice the raw raster size), and the encrypted payload together with its length-prefixed block.
+     *
+     * @param coverImage    The decoded cover image.
+     * @param payloadLength The length of the payload in bytes.
+     * @return The estimated peak memory in bytes.
+     */
+    @Override
+    public long estimateEncodeMemory(BufferedImage coverImage, long payloadLength) {
+        return estimateEncodeMemory(coverImage.getWidth(), coverImage.getHeight(), payloadLength);
     }
 
+    /**
+     * Estimates the peak working memory of {@link #embed(BufferedImage, byte[], StegoMetadataDTO)} for a cover of
+     * the given size; see {@link #estimateEncodeMemory(BufferedImage, long)}.
+     *
+     * @param width         The cover width in pixels.
+     * @param height        The cover height in pixels.
+     * @param payloadLength The length of the payload in bytes.
+     * @return The estimated peak memory in bytes.
+     */
+    @Override
+    public long estimateEncodeMemory(int width, int height, long payloadLength) {
+        var rasterBytes = (long) width * height * ARGB_BYTES_PER_PIXEL;
 
-    // ----- Private High-Level Helper Methods -----
+        return rasterBytes * 3L + (payloadLength + PAYLOAD_LEN_BYTES) * 2L;
+    }
 
     /**
-     * Extracts metadata from a stego image.
+     * Estimates the peak working memory of {@link #decode(BufferedImage, Integer)} followed by decryption.
      * <p>
-     * This method reads the header and metadata length from the provided stego image byte array.
-     * It then extracts the metadata JSON from the image and deserializes it into a `StegoMetadataDTO` object.
-     * If the header is invalid, the metadata is not found, or an error occurs during deserialization,
-     * appropriate exceptions are thrown.
+     * The payload length is only known after the header is read, so this assumes the largest payload the
+     * image can hold at the maximum LSB depth, counted twice (extracted and decrypted copies).
      *
-     * @param stegoImageBytes The byte array representing the stego image.
-     * @return A `StegoMetadataDTO` object containing the extracted metadata.
-     * @throws MetadataNotFoundException   If the metadata length is invalid or zero.
-     * @throws MetadataDecodingException   If an error occurs during metadata deserialization.
-     * @throws InvalidImageFormatException If the image does not contain a valid LSB header.
+     * @param stegoImage The decoded stego image.
+     * @return The estimated peak memory in bytes.
      */
+    @Override
+    public long estimateDecodeMemory(BufferedImage stegoImage) {
+        var totalPixels = (long) stegoImage.getWidth() * stegoImage.getHeight();
+        var maxPayloadBytes = (totalPixels * 3L * MAX_LSB_DEPTH) / 8L;
 
+        return maxPayloadBytes * 2L;
+    }
+
+    /**
+     * Estimates the peak working memory of {@link #readImage(byte[])}: the image as read plus its ARGB conversion.
+     *
+     * @param width  The image width in pixels.
+     * @param height The image height in pixels.
+     * @return The estimated peak memory in bytes.
+     */
     @Override
-    public StegoMetadataDTO extractMetadata(byte[] stegoImageBytes) throws MetadataNotFoundException, MetadataDecodingException, InvalidImageFormatException {
+    public long estimateReadMemory(int width, int height) {
+        return (long) width * height * ARGB_BYTES_PER_PIXEL * 2L;
+    }
 
-        log.info("Extracting metadata from stego image");
+    /**
+     * Estimates the peak working memory of {@link #readImage(byte[])} followed by {@link #decode(BufferedImage, Integer)}
+     * and decryption: {@link #estimateReadMemory(int, int)} plus the payload copies counted by
+     * {@link #estimateDecodeMemory(BufferedImage)}.
+     *
+     * @param width  The image width in pixels.
+     * @param height The image height in pixels.
+     * @return The estimated peak memory in bytes.
+     */
+    @Override
+    public long estimateDecodeMemory(int width, int height) {
+        var maxPayloadBytes = ((long) width * height * 3L * MAX_LSB_DEPTH) / 8L;
 
-        Callable<StegoMetadataDTO> task = () -> {
-            // Read header and metadata length
-            var info = readHeaderAndMetaLength(stegoImageBytes);
+        return estimateReadMemory(width, height) + maxPayloadBytes * 2L;
+    }
 
-            // 3) Read metadata JSON: [META_JSON] at LSB=1
-            var metaJsonStartPixel = bytesToPixelCount(HEADER_TOTAL_LEN + META_LEN_BYTES, 1);
-            var metaJsonBytes = readBytesFromImage(info.image(), metaJsonStartPixel, 1, info.metaLength());
+    // ----- Asynchronous variants: the blocking operations, scheduled on the CPU worker pool by image size -----
 
-            // 4) Deserialize metadata JSON and return
-            return mapper.readValue(metaJsonBytes, StegoMetadataDTO.class);
+    @Override
+    public CompletableFuture<byte[]> encodeAsync(byte[] imageBytes, byte[] payloadBytes, StegoMetadataDTO metadata) {
+        return AsyncTasks.supply(
+                cpuWorkerPool.newJob((long) imageBytes.length + payloadBytes.length),
+                () -> encode(imageBytes, payloadBytes, metadata)
+        );
+    }
 
-            // Note: We intentionally do not validate fields such as lsbDepth here,
-            // because extraction/decoding paths validate them when needed.
-        };
+    @Override
+    public CompletableFuture<byte[]> decodeAsync(byte[] stegoImageBytes, Integer lsbDepth) {
+        return AsyncTasks.supply(cpuWorkerPool.newJob(stegoImageBytes.length), () -> decode(stegoImageBytes, lsbDepth));
+    }
 
-        try {
-            return executorService.submit(task).get();
-        } catch (InvalidImageFormatException | MetadataNotFoundException e) {
-            throw e; // Re-throw specific exceptions
-        } catch (Exception e) {
-            throw new MetadataDecodingException("Failed to decode metadata from image", e);
-        }
+    @Override
+    public CompletableFuture<BufferedImage> readImageAsync(byte[] imageBytes) {
+        return AsyncTasks.supply(cpuWorkerPool.newJob(imageBytes.length), () -> readImage(imageBytes));
+    }
 
+    @Override
+    public CompletableFuture<StegoMetadataDTO> extractMetadataAsync(byte[] stegoImageBytes) {
+        return AsyncTasks.supply(cpuWorkerPool.newJob(stegoImageBytes.length), () -> extractMetadata(stegoImageBytes));
     }
 
+    // ----- Private High-Level Helper Methods -----
+
     /**
      * Encodes a payload and metadata into an image using LSB steganography.
      * <p>
@@ -174,7 +997,7 @@ public class LsbUtilServiceImpl implements LsbUtilService {
      * - Calculating the capacity of the image to store metadata and payload.
      * - Writing the metadata and payload into the image.
      *
-     * @param imageBytes       The byte array representing the original image.
+     * @param working          The ARGB image to write into; it is modified in place.
      * @param payloadDataBytes The byte array representing the payload to encode.
      * @param metadata         Metadata containing encoding details such as LSB depth.
      * @return A byte array representing the stego image with the encoded payload and metadata.
@@ -184,7 +1007,7 @@ public class LsbUtilServiceImpl implements LsbUtilService {
      * @throws LsbEncodingException      If an error occurs during the encoding process.
      */
     private byte[] encodeWithMetadata(
-            byte[] imageBytes,
+            BufferedImage working,
             byte[] payloadDataBytes,
             StegoMetadataDTO metadata
     ) throws InvalidLsbDepthException, MetadataNotFoundException, MessageTooLargeException, LsbEncodingException {
@@ -194,49 +1017,13 @@ public class LsbUtilServiceImpl implements LsbUtilService {
 
         try {
 
-            if (metadata == null) {
-                throw new MetadataNotFoundException("Metadata cannot be null");
-            }
-
-            // Validate the LSB depth in the metadata
-            if (metadata.lsbDepth() != 1 && metadata.lsbDepth() != 2) {
-                throw new InvalidLsbDepthException("LSB depth must be 1 or 2");
-            }
-
-            var working = deepCopy(bytesToImage(imageBytes)); // Create a deep copy of the image to avoid modifying the original
+            validateMetadata(metadata);
 
             // Serialize the metadata to JSON and prepare the metadata block
-            var metaJson = mapper.writeValueAsBytes(metadata); // Convert metadata to JSON bytes
-            var metaLength = metaJson.length; // Get the length of the metadata in bytes
-            var metaLengthBytes = ByteBuffer
-                    .allocate(META_LEN_BYTES)
-                    .order(ByteOrder.BIG_ENDIAN)
-                    .putInt(metaLength)
-                    .array(); // Convert the length to a 4-byte array
-
-            var metaBlockLength = HEADER_TOTAL_LEN + META_LEN_BYTES + metaLength; // Calculate the total length of the metadata block
-            var metaBlock = new byte[metaBlockLength]; // Create a byte array for the metadata block
-
-            // [MAGIC(4)]
-            System.arraycopy(STEGO_MAGIC, 0, metaBlock, 0, HEADER_MAGIC_LEN); // Copy the magic bytes to the metadata block
-            // [VERSION(1)]
-            metaBlock[HEADER_MAGIC_LEN] = STEGO_VERSION; // Set the version byte in the metadata block
-            // [META_LENGTH(4)]
-            System.arraycopy(metaLengthBytes, 0, metaBlock, HEADER_TOTAL_LEN, META_LEN_BYTES); // Copy the metadata length bytes to the metadata block
-            // [META_JSON]
-            System.arraycopy(metaJson, 0, metaBlock, (HEADER_TOTAL_LEN + META_LEN_BYTES), metaLength); // Copy the metadata JSON bytes to the metadata block
-
-            // Check if the image has enough capacity to store the metadata
-            var totalPixels = (long) working.getWidth() * working.getHeight();
-            var metaPixelCount = bytesToPixelCount(metaBlock.length, 1);
-            if (metaPixelCount > totalPixels) {
-                throw new MessageTooLargeException("Metadata is too large for the image with the given LSB depth");
-            }
+            var metaBlock = buildMetaBlock(metadata);
 
-            // Calculate the payload capacity in pixels and bytes
-            var remainingPixels = totalPixels - metaPixelCount;
-            var payloadCapacityBits = remainingPixels * 3L * metadata.lsbDepth();
-            var payloadCapacityBytes = payloadCapacityBits / 8L;
+            // Check if the image has enough capacity to store the metadata and the payload
+            var metaPixelCount = checkCapacity(working, metaBlock.length, payloadDataBytes.length, metadata.lsbDepth());
 
             var payloadLengthBytes = ByteBuffer
                     .allocate(PAYLOAD_LEN_BYTES)
@@ -248,23 +1035,101 @@ public class LsbUtilServiceImpl implements LsbUtilService {
             System.arraycopy(payloadLengthBytes, 0, payloadBlock, 0, PAYLOAD_LEN_BYTES); // Copy the payload length bytes to the payload block
             System.arraycopy(payloadDataBytes, 0, payloadBlock, PAYLOAD_LEN_BYTES, payloadDataBytes.length); // Copy the actual payload data to the payload block
 
-            // Check if the payload fits within the image capacity
-            if ((long) payloadBlock.length > payloadCapacityBytes) {
-                throw new MessageTooLargeException("Payload is too large for the image with the given LSB depth");
-            }
-
             writeBytesToImage(working, 0, 1, metaBlock); // Write the metadata block to the image using LSB depth of 1
             writeBytesToImage(working, metaPixelCount, metadata.lsbDepth(), payloadBlock); // Write the payload block to the image using the specified LSB depth
 
             return imageToBytes(working); // Convert the modified image back to a byte array in lossless PNG format
 
-        } catch (MessageTooLargeException | InvalidLsbDepthException | MetadataNotFoundException e) {
+        } catch (MessageTooLargeException | InvalidLsbDepthException | MetadataNotFoundException | CancellationException e) {
             throw e; // Re-throw specific exceptions
         } catch (Exception e) {
             throw new LsbEncodingException("LSB encoding failed", e);
         }
     }
 
+    /**
+     * Validates that metadata is present and carries a supported LSB depth.
+     *
+     * @param metadata The metadata to validate.
+     * @throws MetadataNotFoundException If the metadata is null.
+     * @throws InvalidLsbDepthException  If the LSB depth is not 1 or 2.
+     */
+    private void validateMetadata(StegoMetadataDTO metadata) throws MetadataNotFoundException, InvalidLsbDepthException {
+        if (metadata == null) {
+            throw new MetadataNotFoundException("Metadata cannot be null");
+        }
+
+        // Validate the LSB depth in the metadata
+        if (metadata.lsbDepth() != 1 && metadata.lsbDepth() != 2) {
+            throw new InvalidLsbDepthException("LSB depth must be 1 or 2");
+        }
+    }
+
+    /**
+     * Serializes the metadata and builds the metadata block [MAGIC(4)][VERSION(1)][META_LEN(4)][META_JSON].
+     *
+     * @param metadata The metadata to serialize.
+     * @return The metadata block.
+     * @throws Exception If the metadata cannot be serialized.
+     */
+    private byte[] buildMetaBlock(StegoMetadataDTO metadata) throws Exception {
+        var metaJson = mapper.writeValueAsBytes(metadata); // Convert metadata to JSON bytes
+        var metaLength = metaJson.length; // Get the length of the metadata in bytes
+        var metaLengthBytes = ByteBuffer
+                .allocate(META_LEN_BYTES)
+                .order(ByteOrder.BIG_ENDIAN)
+                .putInt(metaLength)
+                .array(); // Convert the length to a 4-byte array
+
+        var metaBlockLength = HEADER_TOTAL_LEN + META_LEN_BYTES + metaLength; // Calculate the total length of the metadata block
+        var metaBlock = new byte[metaBlockLength]; // Create a byte array for the metadata block
+
+        // [MAGIC(4)]
+        System.arraycopy(STEGO_MAGIC, 0, metaBlock, 0, HEADER_MAGIC_LEN); // Copy the magic bytes to the metadata block
+        // [VERSION(1)]
+        metaBlock[HEADER_MAGIC_LEN] = STEGO_VERSION; // Set the version byte in the metadata block
+        // [META_LENGTH(4)]
+        System.arraycopy(metaLengthBytes, 0, metaBlock, HEADER_TOTAL_LEN, META_LEN_BYTES); // Copy the metadata length bytes to the metadata block
+        // [META_JSON]
+        System.arraycopy(metaJson, 0, metaBlock, (HEADER_TOTAL_LEN + META_LEN_BYTES), metaLength); // Copy the metadata JSON bytes to the metadata block
+
+        return metaBlock;
+    }
+
+    /**
+     * Checks that the metadata block and a payload of the given length fit into the image.
+     *
+     * @param image           The cover image.
+     * @param metaBlockLength The length of the metadata block in bytes.
+     * @param payloadLength   The length of the payload in bytes (without its length prefix).
+     * @param lsbDepth        The LSB depth used for the payload.
+     * @return The number of pixels used by the metadata block.
+     * @throws MessageTooLargeException If the metadata or the payload does not fit into the image.
+     */
+    private int checkCapacity(BufferedImage image, int metaBlockLength, long payloadLength, int lsbDepth) throws MessageTooLargeException {
+        return checkCapacity((long) image.getWidth() * image.getHeight(), metaBlockLength, payloadLength, lsbDepth);
+    }
+
+    private int checkCapacity(long totalPixels, int metaBlockLength, long payloadLength, int lsbDepth) throws MessageTooLargeException {
+        // Check if the image has enough capacity to store the metadata
+        var metaPixelCount = bytesToPixelCount(metaBlockLength, 1);
+        if (metaPixelCount > totalPixels) {
+            throw new MessageTooLargeException("Metadata is too large for the image with the given LSB depth");
+        }
+
+        // Calculate the payload capacity in pixels and bytes
+        var remainingPixels = totalPixels - metaPixelCount;
+        var payloadCapacityBits = remainingPixels * 3L * lsbDepth;
+        var payloadCapacityBytes = payloadCapacityBits / 8L;
+
+        // Check if the payload block fits within the image capacity
+        if (PAYLOAD_LEN_BYTES + payloadLength > payloadCapacityBytes) {
+            throw new MessageTooLargeException("Payload is too large for the image with the given LSB depth");
+        }
+
+        return metaPixelCount;
+    }
+
     /**
      * Extracts the payload from a stego image using the specified LSB depth.
      * <p>
@@ -272,20 +1137,20 @@ public class LsbUtilServiceImpl implements LsbUtilService {
      * calculates the number of pixels used for metadata, and extracts the payload length.
      * It then performs capacity checks and reads the payload bytes from the image.
      *
-     * @param stegoImageBytes The byte array representing the stego image.
-     * @param lsbDepth        The LSB depth used during encoding (must be 1 or 2).
+     * @param stegoImage The decoded stego image.
+     * @param lsbDepth   The LSB depth used during encoding (must be 1 or 2).
      * @return A byte array containing the extracted payload.
      * @throws InvalidLsbDepthException If the specified LSB depth is invalid.
      * @throws LsbDecodingException     If the payload length is invalid or exceeds capacity.
      * @throws Exception                If an error occurs during the extraction process.
      */
-    private byte[] extractPayloadUsingDepth(byte[] stegoImageBytes, int lsbDepth) throws Exception {
+    private byte[] extractPayloadUsingDepth(BufferedImage stegoImage, int lsbDepth) throws Exception {
         if (lsbDepth != 1 && lsbDepth != 2) {
             throw new InvalidLsbDepthException("Invalid LSB depth: " + lsbDepth);
         }
 
         // 1) Read and validate header + metadata length (both at LSB=1)
-        var info = readHeaderAndMetaLength(stegoImageBytes);
+        var info = readHeaderAndMetaLength(stegoImage);
 
         // 2) Compute how many pixels were used by [MAGIC|VERSION|META_LEN|META_JSON] (all at LSB=1)
         var metaTotalBytes = HEADER_TOTAL_LEN + META_LEN_BYTES + info.metaLength();
@@ -307,29 +1172,24 @@ public class LsbUtilServiceImpl implements LsbUtilService {
             throw new LsbDecodingException("Payload length exceeds the maximum allowed size for the image");
         }
 
-        // 5) Read payload bytes (at caller-provided LSB depth)
-        var payloadHeaderPixels = bytesToPixelCount(PAYLOAD_LEN_BYTES, lsbDepth);
-        var payloadStartPixel = metaPixelCount + payloadHeaderPixels;
-
-        return readBytesFromImage(info.image(), payloadStartPixel, lsbDepth, (int) payloadLength);
+        // 5) Read payload bytes (at caller-provided LSB depth), written straight after the payload length bits
+        return readBytesFromImage(info.image(), metaPixelCount, PAYLOAD_LEN_BYTES, lsbDepth, (int) payloadLength);
     }
 
     /**
      * Reads and validates the header and metadata length from a stego image.
      * <p>
-     * This method extracts the header and metadata length from the provided stego image byte array.
+     * This method extracts the header and metadata length from the provided stego image.
      * It validates the header to ensure it contains the correct magic bytes and version.
      * It also validates the metadata length to ensure it is greater than zero.
      *
-     * @param stegoImageBytes The byte array representing the stego image.
+     * @param image The decoded stego image.
      * @return A `HeaderInfo` object containing the image, header pixel count, and metadata length.
      * @throws InvalidImageFormatException If the image does not contain a valid LSB header.
      * @throws MetadataNotFoundException   If the metadata length is invalid or zero.
      * @throws Exception                   If an error occurs during the header reading process.
      */
-    private HeaderInfo readHeaderAndMetaLength(byte[] stegoImageBytes) throws Exception {
-
-        var image = bytesToImage(stegoImageBytes);
+    private HeaderInfo readHeaderAndMetaLength(BufferedImage image) throws Exception {
 
         // 1) Validate header: [MAGIC(4)][VERSION(1)] at LSB=1
         var header = readBytesFromImage(image, 0, 1, HEADER_TOTAL_LEN);
@@ -344,9 +1204,10 @@ public class LsbUtilServiceImpl implements LsbUtilService {
             throw new InvalidImageFormatException("Image does not contain valid LSB header");
         }
 
-        // 2) Read metadata length: [META_LEN(4)] at LSB=1
+        // 2) Read metadata length: [META_LEN(4)] at LSB=1, written straight after the header bits; the header
+        //    does not end on a pixel boundary, so the length is read together with it
         var headerPixels = bytesToPixelCount(HEADER_TOTAL_LEN, 1);
-        var metaLengthBytes = readBytesFromImage(image, headerPixels, 1, META_LEN_BYTES);
+        var metaLengthBytes = readBytesFromImage(image, 0, HEADER_TOTAL_LEN, 1, META_LEN_BYTES);
         var metaLength = ByteBuffer
                 .wrap(metaLengthBytes)
                 .order(ByteOrder.BIG_ENDIAN)
@@ -358,6 +1219,189 @@ public class LsbUtilServiceImpl implements LsbUtilService {
         return new HeaderInfo(image, headerPixels, metaLength);
     }
 
+    /**
+     * Reads and validates the header and the metadata block from the first samples of stego audio.
+     *
+     * @param samples The samples of the stego audio, positioned at the first sample.
+     * @return The embedded metadata; the samples are positioned right after the metadata block.
+     * @throws InvalidAudioFormatException If the audio does not contain a valid LSB header.
+     * @throws MetadataNotFoundException   If the metadata length is invalid, zero or beyond the audio.
+     * @throws Exception                   If the samples or the metadata cannot be read.
+     */
+    private StegoMetadataDTO readAudioMetadata(WavCarrier.SampleReader samples) throws Exception {
+        var header = samples.read(HEADER_TOTAL_LEN + META_LEN_BYTES, 1);
+        if (!Arrays.equals(header, 0, HEADER_MAGIC_LEN, STEGO_MAGIC, 0, HEADER_MAGIC_LEN) || header[HEADER_MAGIC_LEN] != STEGO_VERSION) {
+            throw new InvalidAudioFormatException("Audio does not contain valid LSB header");
+        }
+
+        var metaLength = ByteBuffer.wrap(header, HEADER_TOTAL_LEN, META_LEN_BYTES).order(ByteOrder.BIG_ENDIAN).getInt();
+        if (metaLength <= 0 || metaLength * 8L > samples.remainingSamples()) {
+            throw new MetadataNotFoundException("Metadata length is invalid or zero");
+        }
+
+        return mapper.readValue(samples.read(metaLength, 1), StegoMetadataDTO.class);
+    }
+
+    /**
+     * Validates that metadata is present, carries a supported LSB depth and describes a container.
+     *
+     * @param metadata The metadata to validate.
+     * @throws MetadataNotFoundException If the metadata is null or carries no container header.
+     * @throws InvalidLsbDepthException  If the LSB depth is not 1 or 2.
+     */
+    private void validateContainerMetadata(StegoMetadataDTO metadata) throws MetadataNotFoundException, InvalidLsbDepthException {
+        validateMetadata(metadata);
+
+        if (metadata.container() == null) {
+            throw new MetadataNotFoundException("Metadata does not describe a container");
+        }
+    }
+
+    /**
+     * Computes where the directory and the entries of a container start.
+     * The directory follows the metadata block; every entry starts on the first pixel after the previous one.
+     *
+     * @param image          The cover or stego image.
+     * @param metaPixelCount The number of pixels used by the metadata block.
+     * @param metadata       Metadata containing the LSB depth and the container header.
+     * @param entryLengths   The stored length of every entry to place, in storage order.
+     * @return The start pixels of the directory and of each entry.
+     * @throws MessageTooLargeException If the directory or the entries do not fit into the image.
+     */
+    private ContainerLayout containerLayout(BufferedImage image, int metaPixelCount, StegoMetadataDTO metadata, int[] entryLengths) throws MessageTooLargeException {
+        var totalPixels = (long) image.getWidth() * image.getHeight();
+        var lsbDepth = metadata.lsbDepth();
+
+        var nextPixel = (long) metaPixelCount + bytesToPixelCount(metadata.container().directoryLength(), lsbDepth);
+        var entryStartPixels = new int[entryLengths.length];
+        for (var i = 0; i < entryLengths.length && nextPixel <= totalPixels; i++) {
+            entryStartPixels[i] = (int) nextPixel;
+            nextPixel += bytesToPixelCount(entryLengths[i], lsbDepth);
+        }
+        if (nextPixel > totalPixels) {
+            throw new MessageTooLargeException("Container is too large for the image with the given LSB depth");
+        }
+
+        return new ContainerLayout(metaPixelCount, entryStartPixels);
+    }
+
+    /**
+     * Computes the container layout of a stego image from its header, reading only the header and metadata length.
+     *
+     * @param stegoImage   The decoded stego image.
+     * @param metadata     The metadata extracted from the image.
+     * @param entryLengths The stored length of every entry to place, in storage order.
+     * @return The start pixels of the directory and of each entry.
+     * @throws LsbDecodingException If the directory or the entries reach beyond the image.
+     * @throws Exception            If the header cannot be read.
+     */
+    private ContainerLayout readContainerLayout(BufferedImage stegoImage, StegoMetadataDTO metadata, int[] entryLengths) throws Exception {
+        var info = readHeaderAndMetaLength(stegoImage);
+        var metaPixelCount = bytesToPixelCount(HEADER_TOTAL_LEN + META_LEN_BYTES + info.metaLength(), 1);
+
+        try {
+            return containerLayout(stegoImage, metaPixelCount, metadata, entryLengths);
+        } catch (MessageTooLargeException e) {
+            throw new LsbDecodingException("Container directory describes more data than the image holds");
+        }
+    }
+
+    /**
+     * Where the parts of a container start, in pixels.
+     *
+     * @param directoryStartPixel The first pixel of the directory, right after the metadata block.
+     * @param entryStartPixels    The first pixel of every entry, in storage order.
+     */
+    private record ContainerLayout(
+            int directoryStartPixel,
+            int[] entryStartPixels
+    ) {
+    }
+
+    /**
+     * Validates that metadata is present, carries a supported LSB depth and a consistent chunk index.
+     *
+     * @param metadata The metadata to validate.
+     * @throws MetadataNotFoundException If the metadata is null or carries no usable chunk index.
+     * @throws InvalidLsbDepthException  If the LSB depth is not 1 or 2.
+     */
+    private void validateChunkedMetadata(StegoMetadataDTO metadata) throws MetadataNotFoundException, InvalidLsbDepthException {
+        validateMetadata(metadata);
+
+        var index = metadata.chunks();
+        if (index == null) {
+            throw new MetadataNotFoundException("Metadata does not describe a chunked file");
+        }
+        if (index.chunkCount() < 1 || index.headerLength() < 0 || index.storedChunkLength() < 0 || index.lastStoredChunkLength() < 0) {
+            throw new MetadataNotFoundException("Chunk index is invalid");
+        }
+    }
+
+    /**
+     * Computes where the key header and the chunks of a chunked file start.
+     * The key header follows the metadata block; the chunks follow at a fixed stride of whole pixels.
+     *
+     * @param image          The cover or stego image.
+     * @param metaPixelCount The number of pixels used by the metadata block.
+     * @param metadata       Metadata containing the LSB depth and the chunk index.
+     * @return The start pixel of the key header and the chunk stride.
+     * @throws MessageTooLargeException If the key header or the chunks do not fit into the image.
+     */
+    private ChunkLayout chunkLayout(BufferedImage image, int metaPixelCount, StegoMetadataDTO metadata) throws MessageTooLargeException {
+        var totalPixels = (long) image.getWidth() * image.getHeight();
+        var lsbDepth = metadata.lsbDepth();
+        var index = metadata.chunks();
+
+        var firstChunkPixel = (long) metaPixelCount + bytesToPixelCount(index.headerLength(), lsbDepth);
+        var chunkStride = bytesToPixelCount(index.storedChunkLength(), lsbDepth);
+        var endPixel = firstChunkPixel
+                + (long) (index.chunkCount() - 1) * chunkStride
+                + bytesToPixelCount(index.lastStoredChunkLength(), lsbDepth);
+        if (endPixel > totalPixels) {
+            throw new MessageTooLargeException("File is too large for the image with the given LSB depth");
+        }
+
+        return new ChunkLayout(metaPixelCount, (int) firstChunkPixel, chunkStride);
+    }
+
+    /**
+     * Computes the chunk layout of a stego image from its header, reading only the header and metadata length.
+     *
+     * @param stegoImage The decoded stego image.
+     * @param metadata   The metadata extracted from the image.
+     * @return The start pixel of the key header and the chunk stride.
+     * @throws LsbDecodingException If the chunk index describes more data than the image holds.
+     * @throws Exception            If the header cannot be read.
+     */
+    private ChunkLayout readChunkLayout(BufferedImage stegoImage, StegoMetadataDTO metadata) throws Exception {
+        var info = readHeaderAndMetaLength(stegoImage);
+        var metaPixelCount = bytesToPixelCount(HEADER_TOTAL_LEN + META_LEN_BYTES + info.metaLength(), 1);
+
+        try {
+            return chunkLayout(stegoImage, metaPixelCount, metadata);
+        } catch (MessageTooLargeException e) {
+            throw new LsbDecodingException("Chunk index describes more data than the image holds");
+        }
+    }
+
+    /**
+     * Where the parts of a chunked file start, in pixels.
+     *
+     * @param headerStartPixel The first pixel of the key header, right after the metadata block.
+     * @param firstChunkPixel  The first pixel of chunk 0.
+     * @param chunkStride      The pixels taken by every chunk but the last.
+     */
+    private record ChunkLayout(
+            int headerStartPixel,
+            int firstChunkPixel,
+            int chunkStride
+    ) {
+
+        int chunkStartPixel(int chunk) {
+            return firstChunkPixel + chunk * chunkStride;
+        }
+    }
+
     /**
      * A record that encapsulates header information extracted from a stego image.
      * <p>
@@ -376,6 +1420,61 @@ public class LsbUtilServiceImpl implements LsbUtilService {
     ) {
     }
 
+    /**
+     * Aborts a region read once every row of the region has been decoded.
+     * <p>
+     * Readers such as the PNG reader keep inflating the rest of the image after the last row of a source region.
+     * Only rows reported in order at full resolution count, so interlaced and bottom-up images are still read
+     * to the end instead of being cut short.
+     */
+    private static final class LeadingRowsListener implements IIOReadUpdateListener {
+
+        private final int rows;
+        private int nextRow;
+
+        LeadingRowsListener(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public void imageUpdate(ImageReader source, BufferedImage theImage, int minX, int minY, int width, int height,
+                                int periodX, int periodY, int[] bands) {
+            if (periodX != 1 || periodY != 1 || minX != 0 || width != theImage.getWidth() || minY != nextRow) {
+                return;
+            }
+
+            nextRow += height;
+            if (nextRow >= rows) {
+                source.abort();
+            }
+        }
+
+        // ----- Unused callbacks -----
+
+        @Override
+        public void passStarted(ImageReader source, BufferedImage theImage, int pass, int minPass, int maxPass,
+                                int minX, int minY, int periodX, int periodY, int[] bands) {
+        }
+
+        @Override
+        public void passComplete(ImageReader source, BufferedImage theImage) {
+        }
+
+        @Override
+        public void thumbnailPassStarted(ImageReader source, BufferedImage theThumbnail, int pass, int minPass,
+                                         int maxPass, int minX, int minY, int periodX, int periodY, int[] bands) {
+        }
+
+        @Override
+        public void thumbnailUpdate(ImageReader source, BufferedImage theThumbnail, int minX, int minY, int width,
+                                    int height, int periodX, int periodY, int[] bands) {
+        }
+
+        @Override
+        public void thumbnailPassComplete(ImageReader source, BufferedImage theThumbnail) {
+        }
+    }
+
     // ----- Private Low-Level Helper Methods -----
 
     /**
@@ -393,30 +1492,72 @@ public class LsbUtilServiceImpl implements LsbUtilService {
     private BufferedImage bytesToImage(
             byte[] imageBytes
     ) throws Exception {
+        return pinningGuard.call("LsbUtilServiceImpl.bytesToImage", () -> {
+            try (
+                    // Create an image input stream from the byte array
+                    var imageInputStream = ImageIO.createImageInputStream(new ByteArrayInputStream(imageBytes))
+            ) {
+                // Find a reader for the image format; none indicates an unsupported format or corrupted data
+                var readers = ImageIO.getImageReaders(imageInputStream);
+                if (!readers.hasNext()) {
+                    throw new LsbEncodingException("Unsupported image format or corrupted image data.");
+                }
 
-        try (
-                // Create an input stream from the byte array
-                var byteArrayInputStream = new ByteArrayInputStream(imageBytes)
-        ) {
-            // Convert byte array to BufferedImage
-            var image = ImageIO.read(byteArrayInputStream);
+                // Convert byte array to BufferedImage, aborting the read if the request is cancelled
+                var reader = readers.next();
+                BufferedImage image;
+                try {
+                    reader.setInput(imageInputStream, true, true);
+                    reader.addIIOReadProgressListener(CancellingProgressListener.INSTANCE);
+                    image = reader.read(0);
+                } finally {
+                    reader.dispose();
+                }
+                Deadline.checkpoint();
 
-            // Check if the image is null, which indicates an unsupported format or corrupted data
-            if (image == null) {
-                throw new LsbEncodingException("Unsupported image format or corrupted image data.");
+                return toArgb(image);
             }
+        });
+    }
+
+    /**
+     * Decodes the full-width leading rows of an image that hold at least the given number of pixels.
+     * The read stops after the last of those rows, so the rest of the stream is not consumed.
+     *
+     * @param reader     An image reader with its input set.
+     * @param pixelCount The number of leading pixels, in row-major order, to decode.
+     * @return An ARGB image of the leading rows; pixel indexes match those of the full image.
+     * @throws Exception If the rows cannot be decoded.
+     */
+    private static BufferedImage readLeadingRows(ImageReader reader, long pixelCount) throws Exception {
+        var width = reader.getWidth(0);
+        var rows = (int) Math.min(reader.getHeight(0), (pixelCount + width - 1) / width);
+
+        var param = reader.getDefaultReadParam();
+        param.setSourceRegion(new Rectangle(0, 0, width, rows));
+        var leadingRowsListener = new LeadingRowsListener(rows);
+        reader.addIIOReadUpdateListener(leadingRowsListener);
+        BufferedImage region;
+        try {
+            region = reader.read(0, param);
+        } finally {
+            reader.removeIIOReadUpdateListener(leadingRowsListener);
+        }
+        Deadline.checkpoint();
 
-            // Convert the image to a format suitable for LSB encoding
-            // Convert to TYPE_INT_ARGB to ensure consistent pixel operations
-            var convertedImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        return toArgb(region);
+    }
 
-            // Draw the original image onto the converted image
-            convertedImage.getGraphics().drawImage(image, 0, 0, null);
+    private static BufferedImage toArgb(BufferedImage image) {
+        // Convert the image to a format suitable for LSB encoding
+        // Convert to TYPE_INT_ARGB to ensure consistent pixel operations
+        var convertedImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
 
-            // Return the converted image
-            return convertedImage;
-        }
+        // Draw the original image onto the converted image
+        convertedImage.getGraphics().drawImage(image, 0, 0, null);
 
+        // Return the converted image
+        return convertedImage;
     }
 
     /**
@@ -434,18 +1575,28 @@ public class LsbUtilServiceImpl implements LsbUtilService {
     private byte[] imageToBytes(
             BufferedImage image
     ) throws Exception {
+        return pinningGuard.call("LsbUtilServiceImpl.imageToBytes", () -> {
+            var writer = ImageIO.getImageWritersByFormatName("png").next();
+
+            try (
+                    var byteArrayOutputStream = new ByteArrayOutputStream()
+            ) {
+
+                // Write the image to the output stream in PNG format, aborting the write if the request is cancelled
+                try (var imageOutputStream = ImageIO.createImageOutputStream(byteArrayOutputStream)) {
+                    writer.setOutput(imageOutputStream);
+                    writer.addIIOWriteProgressListener(CancellingProgressListener.INSTANCE);
+                    writer.write(image);
+                }
+                Deadline.checkpoint();
 
-        try (
-                var byteArrayOutputStream = new ByteArrayOutputStream()
-        ) {
-
-            // Write the image to the output stream in the specified format
-            ImageIO.write(image, "png", byteArrayOutputStream);
-
-            // Convert the output stream to a byte array
-            return byteArrayOutputStream.toByteArray();
+                // Convert the output stream to a byte array
+                return byteArrayOutputStream.toByteArray();
 
-        }
+            } finally {
+                writer.dispose();
+            }
+        });
     }
 
     /**
@@ -457,23 +1608,40 @@ public class LsbUtilServiceImpl implements LsbUtilService {
      *
      * @param source The BufferedImage to be copied.
      * @return A new BufferedImage that is a deep copy of the source image.
+     * @throws Exception If the copy fails.
      */
-    private BufferedImage deepCopy(BufferedImage source) {
-
-        // Create a new BufferedImage with the same dimensions and type as the source
-        var copy = new BufferedImage(
-                source.getWidth(),
-                source.getHeight(),
-                BufferedImage.TYPE_INT_ARGB
-        );
-
-        // Draw the source image onto the new BufferedImage
-        copy.getGraphics().drawImage(source, 0, 0, null);
+    private static BufferedImage copyArgbPixels(BufferedImage source) {
+        if (source.getType() != BufferedImage.TYPE_INT_ARGB) {
+            return null;
+        }
 
-        // Return the deep copy of the image
+        var copy = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        var sourcePixels = ((DataBufferInt) source.getRaster().getDataBuffer()).getData();
+        var copyPixels = ((DataBufferInt) copy.getRaster().getDataBuffer()).getData();
+        if (sourcePixels.length != copyPixels.length) {
+            return null; // a sub-image shares a larger pixel array
+        }
+        System.arraycopy(sourcePixels, 0, copyPixels, 0, sourcePixels.length);
         return copy;
     }
 
+    private BufferedImage deepCopy(BufferedImage source) throws Exception {
+        return pinningGuard.call("LsbUtilServiceImpl.deepCopy", () -> {
+            // Create a new BufferedImage with the same dimensions and type as the source
+            var copy = new BufferedImage(
+                    source.getWidth(),
+                    source.getHeight(),
+                    BufferedImage.TYPE_INT_ARGB
+            );
+
+            // Draw the source image onto the new BufferedImage
+            copy.getGraphics().drawImage(source, 0, 0, null);
+
+            // Return the deep copy of the image
+            return copy;
+        });
+    }
+
     /**
      * Calculates the number of pixels required to store a given number of bytes using LSB encoding.
      * <p>
@@ -539,6 +1707,10 @@ public class LsbUtilServiceImpl implements LsbUtilService {
                 throw new MessageTooLargeException("Not enough image capacity while writing payload");
             }
 
+            if ((pixelIndex & CHECKPOINT_PIXEL_MASK) == 0) {
+                Deadline.checkpoint(); // stop promptly if the request was cancelled
+            }
+
             var x = pixelIndex % width; // calculate x coordinate of the pixel
             var y = pixelIndex / width; // calculate y coordinate of the pixel
             var rgb = image.getRGB(x, y); // get the RGB value of the pixel
@@ -616,6 +1788,28 @@ public class LsbUtilServiceImpl implements LsbUtilService {
             int startPixel,
             int lsbDepth,
             int numberOfBytes
+    ) throws LsbDecodingException {
+        return readBytesFromImage(image, startPixel, 0, lsbDepth, numberOfBytes);
+    }
+
+    /**
+     * Reads a byte array that was written after other data starting at the same pixel, skipping the bits of
+     * that data. Data written with {@link #writeBytesToImage} is only aligned to a pixel at its start.
+     *
+     * @param image         The BufferedImage from which the data bytes will be decoded.
+     * @param startPixel    The index of the pixel the preceding data starts at.
+     * @param skipBytes     The number of bytes of preceding data to skip.
+     * @param lsbDepth      The number of least significant bits used per color channel for decoding.
+     * @param numberOfBytes The number of bytes to be decoded from the image.
+     * @return A byte array containing the decoded data.
+     * @throws LsbDecodingException If the image does not have enough pixels to extract the required data.
+     */
+    private byte[] readBytesFromImage(
+            BufferedImage image,
+            int startPixel,
+            int skipBytes,
+            int lsbDepth,
+            int numberOfBytes
     ) throws LsbDecodingException {
         int width = image.getWidth(); // get image width
         int height = image.getHeight(); // get image height
@@ -626,6 +1820,7 @@ public class LsbUtilServiceImpl implements LsbUtilService {
         int pixelIndex = startPixel; // start pixel index to begin reading data
         int filledBits = 0; // filled bits to track how many bits have been read
         int currentByte = 0; // current byte to hold the bits being read
+        long skipBits = skipBytes * 8L; // bits of preceding data still to skip
 
         byte[] outputBytes = new byte[numberOfBytes]; // create an output byte array to hold the read data
 
@@ -636,6 +1831,10 @@ public class LsbUtilServiceImpl implements LsbUtilService {
                 throw new LsbDecodingException("Not enough pixels while reading payload");
             }
 
+            if ((pixelIndex & CHECKPOINT_PIXEL_MASK) == 0) {
+                Deadline.checkpoint(); // stop promptly if the request was cancelled
+            }
+
             var x = pixelIndex % width; // calculate x coordinate of the pixel
             var y = pixelIndex / width; // calculate y coordinate of the pixel
             var rgb = image.getRGB(x, y); // get the RGB value of the pixel
@@ -651,6 +1850,11 @@ public class LsbUtilServiceImpl implements LsbUtilService {
                 // append bits to the currentByte from left
                 for (var bit = lsbDepth - 1; bit >= 0; bit--) { // iterate over the bits in reverse order
 
+                    if (skipBits > 0) { // still inside the preceding data
+                        skipBits--;
+                        continue;
+                    }
+
                     var bitValue = (bits >> bit) & 0x01; // extract the bit value from the channel
                     currentByte = (currentByte << 1) | bitValue; // shift the currentByte left by 1 and add the bit value
                     bitPointer++; // increment the bit pointer
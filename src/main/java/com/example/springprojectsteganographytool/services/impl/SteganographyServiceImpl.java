@@ -1,13 +1,27 @@
 package com.example.springprojectsteganographytool.services.impl;
 
+import com.example.springprojectsteganographytool.concurrency.AsyncTasks;
+import com.example.springprojectsteganographytool.concurrency.CpuJob;
+import com.example.springprojectsteganographytool.concurrency.CpuWorkerPool;
+import com.example.springprojectsteganographytool.concurrency.Deadline;
+import com.example.springprojectsteganographytool.concurrency.MemoryBudget;
+import com.example.springprojectsteganographytool.concurrency.SingleFlight;
+import com.example.springprojectsteganographytool.concurrency.TaskScope;
+import com.example.springprojectsteganographytool.crypto.CryptoPrimitivePool;
 import com.example.springprojectsteganographytool.documents.StegoData;
+import com.example.springprojectsteganographytool.exceptions.common.ServiceOverloadedException;
+import com.example.springprojectsteganographytool.exceptions.data.InvalidBatchException;
+import com.example.springprojectsteganographytool.exceptions.data.InvalidContainerException;
+import com.example.springprojectsteganographytool.exceptions.data.InvalidRangeException;
 import com.example.springprojectsteganographytool.exceptions.data.MessageTooLargeException;
+import com.example.springprojectsteganographytool.exceptions.data.ShardSetInvalidException;
 import com.example.springprojectsteganographytool.exceptions.data.StegoDataNotFoundException;
 import com.example.springprojectsteganographytool.exceptions.data.StorageException;
 import com.example.springprojectsteganographytool.exceptions.encryption.AesKeyInvalidException;
 import com.example.springprojectsteganographytool.exceptions.encryption.AesOperationException;
 import com.example.springprojectsteganographytool.exceptions.encryption.InvalidEncryptionKeyException;
 import com.example.springprojectsteganographytool.exceptions.file.FileTooLargeException;
+import com.example.springprojectsteganographytool.exceptions.file.InvalidImageFormatException;
 import com.example.springprojectsteganographytool.exceptions.lsb.InvalidLsbDepthException;
 import com.example.springprojectsteganographytool.exceptions.lsb.LsbDecodingException;
 import com.example.springprojectsteganographytool.exceptions.lsb.LsbEncodingException;
@@ -15,121 +29,1227 @@ import com.example.springprojectsteganographytool.exceptions.metadata.MetadataDe
 import com.example.springprojectsteganographytool.exceptions.metadata.MetadataEncodingException;
 import com.example.springprojectsteganographytool.exceptions.metadata.MetadataNotFoundException;
 import com.example.springprojectsteganographytool.mappers.StegoDataMapper;
+import com.example.springprojectsteganographytool.models.StegoBatchItemDTO;
+import com.example.springprojectsteganographytool.models.StegoChunkIndexDTO;
+import com.example.springprojectsteganographytool.models.StegoContainerDTO;
+import com.example.springprojectsteganographytool.models.StegoContainerEntryDTO;
+import com.example.springprojectsteganographytool.models.StegoCoverDTO;
 import com.example.springprojectsteganographytool.models.StegoDecodeResponseDTO;
+import com.example.springprojectsteganographytool.models.StegoDirectoryEntryDTO;
 import com.example.springprojectsteganographytool.models.StegoEncodeResponseDTO;
+import com.example.springprojectsteganographytool.models.StegoFrameDTO;
+import com.example.springprojectsteganographytool.models.StegoJobStage;
 import com.example.springprojectsteganographytool.models.StegoMetadataDTO;
+import com.example.springprojectsteganographytool.models.StegoRangeDTO;
+import com.example.springprojectsteganographytool.models.StegoSchedulingDTO;
+import com.example.springprojectsteganographytool.models.StegoShardDTO;
+import com.example.springprojectsteganographytool.models.StegoShardedEncodeResponseDTO;
 import com.example.springprojectsteganographytool.repos.StegoDataRepository;
 import com.example.springprojectsteganographytool.services.AesUtilService;
+import com.example.springprojectsteganographytool.services.CoverLibraryService;
 import com.example.springprojectsteganographytool.services.LsbUtilService;
 import com.example.springprojectsteganographytool.services.SteganographyService;
+import com.example.springprojectsteganographytool.services.StegoProgressListener;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 public class SteganographyServiceImpl implements SteganographyService {
 
     private final AesUtilService aesUtilService;
     private final LsbUtilService lsbUtilService;
+    private final CoverLibraryService coverLibraryService;
     private final StegoDataRepository stegoDataRepository;
     private final StegoDataMapper stegoDataMapper;
-    private final ExecutorService executorService;
+    private final CpuWorkerPool cpuWorkerPool;
+    private final MemoryBudget memoryBudget;
+    private final ExecutorService virtualThreadExecutor;
+    private final CryptoPrimitivePool cryptoPrimitivePool;
+    private final SingleFlight<DecodeFlight> decodeFlights;
+    private final Duration requestTimeout;
+    private final int maxShards;
+    private final int maxContainerEntries;
+    private final int chunkSize;
+    private final int maxBatchItems;
+    private final int batchParallelism;
+    private final Duration batchItemTimeout;
+    private final int maxFrames;
+    private final int frameParallelism;
+    private final ObjectMapper mapper = new ObjectMapper();
 
     public SteganographyServiceImpl(
             AesUtilService aesUtilService,
             LsbUtilService lsbUtilService,
+            CoverLibraryService coverLibraryService,
             StegoDataRepository stegoDataRepository,
             StegoDataMapper stegoDataMapper,
-            ExecutorService executorService
+            CpuWorkerPool cpuWorkerPool,
+            MemoryBudget memoryBudget,
+            ExecutorService virtualThreadExecutor,
+            CryptoPrimitivePool cryptoPrimitivePool,
+            MeterRegistry meterRegistry,
+            @Value("${stego.request-timeout:30s}") Duration requestTimeout,
+            @Value("${stego.sharding.max-shards:16}") int maxShards,
+            @Value("${stego.container.max-entries:64}") int maxContainerEntries,
+            @Value("${stego.chunking.chunk-size:64KB}") DataSize chunkSize,
+            @Value("${stego.batch.max-items:500}") int maxBatchItems,
+            @Value("${stego.batch.parallelism:4}") int batchParallelism,
+            @Value("${stego.batch.item-timeout:1s}") Duration batchItemTimeout,
+            @Value("${stego.animation.max-frames:256}") int maxFrames,
+            @Value("${stego.animation.parallelism:4}") int frameParallelism
     ) {
         this.aesUtilService = aesUtilService;
         this.lsbUtilService = lsbUtilService;
+        this.coverLibraryService = coverLibraryService;
         this.stegoDataRepository = stegoDataRepository;
         this.stegoDataMapper = stegoDataMapper;
-        this.executorService = executorService;
+        this.cpuWorkerPool = cpuWorkerPool;
+        this.memoryBudget = memoryBudget;
+        this.virtualThreadExecutor = virtualThreadExecutor;
+        this.cryptoPrimitivePool = cryptoPrimitivePool;
+        this.decodeFlights = new SingleFlight<>("decode", meterRegistry);
+        this.requestTimeout = requestTimeout;
+        this.maxShards = maxShards;
+        this.maxContainerEntries = maxContainerEntries;
+        this.chunkSize = Math.toIntExact(chunkSize.toBytes());
+        this.maxBatchItems = maxBatchItems;
+        this.batchParallelism = Math.max(1, batchParallelism);
+        this.batchItemTimeout = batchItemTimeout;
+        this.maxFrames = maxFrames;
+        this.frameParallelism = Math.max(1, frameParallelism);
     }
 
     @Override
     public StegoEncodeResponseDTO encodeText(BufferedImage coverImage, String message, String password, int lsbDepth) throws InvalidLsbDepthException, MessageTooLargeException, InvalidEncryptionKeyException, LsbEncodingException, AesOperationException, MetadataEncodingException, StorageException, ExecutionException, InterruptedException {
+        return encodeText(coverImage, message, password, lsbDepth, StegoProgressListener.NONE);
+    }
+
+    @Override
+    public StegoEncodeResponseDTO encodeText(BufferedImage coverImage, String message, String password, int lsbDepth, StegoProgressListener listener) throws InvalidLsbDepthException, MessageTooLargeException, InvalidEncryptionKeyException, LsbEncodingException, AesOperationException, MetadataEncodingException, StorageException, ExecutionException, InterruptedException {
+        return AsyncTasks.await(encodeTextAsync(coverImage, message, password, lsbDepth, listener));
+    }
+
+    @Override
+    public CompletableFuture<StegoEncodeResponseDTO> encodeTextAsync(BufferedImage coverImage, String message, String password, int lsbDepth) {
+        return encodeTextAsync(coverImage, message, password, lsbDepth, StegoProgressListener.NONE);
+    }
+
+    @Override
+    public CompletableFuture<StegoEncodeResponseDTO> encodeTextAsync(BufferedImage coverImage, String message, String password, int lsbDepth, StegoProgressListener listener) {
+        return AsyncTasks.supply(virtualThreadExecutor, () -> runEncodeText(
+                coverImage.getWidth(), coverImage.getHeight(), uploadedCover(coverImage), message, password, lsbDepth, listener
+        ));
+    }
+
+    private StegoEncodeResponseDTO runEncodeText(int width, int height, WorkingCopy workingCopy, String message, String password, int lsbDepth, StegoProgressListener listener) throws InvalidLsbDepthException, MessageTooLargeException, InvalidEncryptionKeyException, LsbEncodingException, AesOperationException, MetadataEncodingException, StorageException, ExecutionException, InterruptedException {
         validateLsbDepth(lsbDepth);
 
-        try {
-            var keyHash = aesUtilService.generateKey(password);
+        try (var _ = Deadline.withDefault(requestTimeout)) {
+            var messageLength = message.getBytes(StandardCharsets.UTF_8).length;
+            var job = cpuWorkerPool.newJob((long) width * height + messageLength);
+
+            listener.onStage(StegoJobStage.DERIVING_KEY);
+            var keyHash = job.call(() -> aesUtilService.generateKey(password));
+            var crypto = aesUtilService.defaultCryptoSpec();
             var metadata = new StegoMetadataDTO(
                     lsbDepth,
                     true,
                     false,
                     keyHash,
+                    null,
+                    crypto,
+                    null,
+                    null,
                     null
             );
 
-            var encodedBytes = executorService.submit(
-                    () -> aesUtilService.encryptText(message, password)
-            ).get();
+            var encryptedLength = aesUtilService.encryptedLength(messageLength, crypto);
+            var stegoBytes = embedPayload(
+                    job,
+                    listener,
+                    width,
+                    height,
+                    workingCopy,
+                    metadata,
+                    encryptedLength,
+                    () -> aesUtilService.encryptText(message, password, crypto)
+            );
+
+            listener.onStage(StegoJobStage.STORING);
+            var savedData = stegoDataRepository.save(
+                    StegoData.builder()
+                            .originalFileName(null)
+                            .embeddedFileName(null)
+                            .message(null) // No message in StegoData, as we store the encoded bytes
+                            .stegoImageBytes(stegoBytes)
+                            .embeddedFileBytes(null)
+                            .encryptionKeyHash(keyHash)
+                            .hasText(true)
+                            .hasFile(false)
+                            .build()
+            );
+
+            return stegoDataMapper.StegoDataToEncodeResponseDTO(savedData, toSchedulingDTO(job));
+        } catch (Exception e) {
+            switch (e) {
+                case InvalidLsbDepthException _, MessageTooLargeException _, InvalidEncryptionKeyException _,
+                     LsbEncodingException _, AesOperationException _, MetadataEncodingException _,
+                     ServiceOverloadedException _, FileTooLargeException _, CancellationException _ -> throw e;
+                case InterruptedException _ -> {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                default -> throw new StorageException("Error during text encoding.", e);
+            }
+        }
+    }
+
+    @Override
+    public StegoEncodeResponseDTO encodeFile(BufferedImage coverImage, String originalFileName, byte[] fileBytes, String password, int lsbDepth) throws InvalidLsbDepthException, FileTooLargeException, InvalidEncryptionKeyException, LsbEncodingException, AesOperationException, MetadataEncodingException, StorageException, ExecutionException, InterruptedException {
+        return encodeFile(coverImage, originalFileName, fileBytes, password, lsbDepth, StegoProgressListener.NONE);
+    }
+
+    @Override
+    public StegoEncodeResponseDTO encodeFile(BufferedImage coverImage, String originalFileName, byte[] fileBytes, String password, int lsbDepth, StegoProgressListener listener) throws InvalidLsbDepthException, FileTooLargeException, InvalidEncryptionKeyException, LsbEncodingException, AesOperationException, MetadataEncodingException, StorageException, ExecutionException, InterruptedException {
+        return AsyncTasks.await(encodeFileAsync(coverImage, originalFileName, fileBytes, password, lsbDepth, listener));
+    }
+
+    @Override
+    public CompletableFuture<StegoEncodeResponseDTO> encodeFileAsync(BufferedImage coverImage, String originalFileName, byte[] fileBytes, String password, int lsbDepth) {
+        return encodeFileAsync(coverImage, originalFileName, fileBytes, password, lsbDepth, StegoProgressListener.NONE);
+    }
+
+    @Override
+    public CompletableFuture<StegoEncodeResponseDTO> encodeFileAsync(BufferedImage coverImage, String originalFileName, byte[] fileBytes, String password, int lsbDepth, StegoProgressListener listener) {
+        return AsyncTasks.supply(virtualThreadExecutor, () -> runEncodeFile(
+                coverImage.getWidth(), coverImage.getHeight(), uploadedCover(coverImage), originalFileName, fileBytes, password, lsbDepth, listener
+        ));
+    }
+
+    private StegoEncodeResponseDTO runEncodeFile(int width, int height, WorkingCopy workingCopy, String originalFileName, byte[] fileBytes, String password, int lsbDepth, StegoProgressListener listener) throws InvalidLsbDepthException, FileTooLargeException, InvalidEncryptionKeyException, LsbEncodingException, AesOperationException, MetadataEncodingException, StorageException, ExecutionException, InterruptedException {
+        validateLsbDepth(lsbDepth);
+
+        try (var _ = Deadline.withDefault(requestTimeout)) {
+            var job = cpuWorkerPool.newJob((long) width * height + fileBytes.length);
+
+            listener.onStage(StegoJobStage.DERIVING_KEY);
+            var keyHash = job.call(() -> aesUtilService.generateKey(password));
+            var crypto = aesUtilService.defaultCryptoSpec();
+            var metadata = new StegoMetadataDTO(
+                    lsbDepth,
+                    false,
+                    true,
+                    keyHash,
+                    originalFileName,
+                    crypto,
+                    null,
+                    null,
+                    null
+            );
+
+            var stegoBytes = embedPayload(
+                    job,
+                    listener,
+                    width,
+                    height,
+                    workingCopy,
+                    metadata,
+                    aesUtilService.encryptedLength(fileBytes.length, crypto),
+                    () -> aesUtilService.encryptFile(fileBytes, password, crypto)
+            );
+
+            listener.onStage(StegoJobStage.STORING);
+            var savedData = stegoDataRepository.save(
+                    StegoData.builder()
+                            .originalFileName(originalFileName)
+                            .embeddedFileName(originalFileName)
+                            .message(null) // No message in StegoData, as we store the encoded bytes
+                            .stegoImageBytes(stegoBytes)
+                            .embeddedFileBytes(null)
+                            .encryptionKeyHash(keyHash)
+                            .hasText(false)
+                            .hasFile(true)
+                            .build()
+            );
+
+            return stegoDataMapper.StegoDataToEncodeResponseDTO(savedData, toSchedulingDTO(job));
+        } catch (Exception e) {
+            switch (e) {
+                case InvalidLsbDepthException _, MessageTooLargeException _, InvalidEncryptionKeyException _,
+                     LsbEncodingException _, AesOperationException _, MetadataEncodingException _,
+                     ServiceOverloadedException _, FileTooLargeException _, CancellationException _ -> throw e;
+                case InterruptedException _ -> {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                default -> throw new StorageException("Error during file encoding.", e);
+            }
+        }
+    }
+
+    @Override
+    public StegoDecodeResponseDTO decodeProcess(BufferedImage stegoImage, String password) throws InvalidEncryptionKeyException, MetadataNotFoundException, StegoDataNotFoundException, LsbDecodingException, AesOperationException, MetadataDecodingException, ExecutionException, InterruptedException {
+        return decodeProcess(stegoImage, password, StegoProgressListener.NONE);
+    }
+
+    @Override
+    public StegoDecodeResponseDTO decodeProcess(BufferedImage stegoImage, String password, StegoProgressListener listener) throws InvalidEncryptionKeyException, MetadataNotFoundException, StegoDataNotFoundException, LsbDecodingException, AesOperationException, MetadataDecodingException, ExecutionException, InterruptedException {
+        return AsyncTasks.await(decodeProcessAsync(stegoImage, password, listener));
+    }
+
+    @Override
+    public CompletableFuture<StegoDecodeResponseDTO> decodeProcessAsync(BufferedImage stegoImage, String password) {
+        return decodeProcessAsync(stegoImage, password, StegoProgressListener.NONE);
+    }
+
+    @Override
+    public CompletableFuture<StegoDecodeResponseDTO> decodeProcessAsync(BufferedImage stegoImage, String password, StegoProgressListener listener) {
+        return AsyncTasks.supply(virtualThreadExecutor, () -> runDecodeProcess(stegoImage, password, listener));
+    }
+
+    @Override
+    public StegoDecodeResponseDTO decodeProcess(byte[] stegoImageBytes, String password, StegoProgressListener listener) throws InvalidEncryptionKeyException, MetadataNotFoundException, StegoDataNotFoundException, LsbDecodingException, AesOperationException, MetadataDecodingException, ExecutionException, InterruptedException {
+        return AsyncTasks.await(decodeProcessAsync(stegoImageBytes, password, listener));
+    }
+
+    @Override
+    public CompletableFuture<StegoDecodeResponseDTO> decodeProcessAsync(byte[] stegoImageBytes, String password, StegoProgressListener listener) {
+        return AsyncTasks.supply(virtualThreadExecutor, () -> runDecodeBytes(stegoImageBytes, password, listener));
+    }
+
+    private StegoDecodeResponseDTO runDecodeBytes(byte[] stegoImageBytes, String password, StegoProgressListener listener) throws InvalidEncryptionKeyException, MetadataNotFoundException, StegoDataNotFoundException, LsbDecodingException, AesOperationException, MetadataDecodingException, ExecutionException, InterruptedException {
+
+        try (var _ = Deadline.withDefault(requestTimeout)) {
+
+            // The decoded image is held from reading its metadata until its payload is extracted, so it is
+            // reserved and costed by its header dimensions before it is decoded
+            var size = lsbUtilService.readImageSize(stegoImageBytes);
+            var job = cpuWorkerPool.newJob((long) size.width * size.height);
+
+            try (var _ = memoryBudget.reserve(lsbUtilService.estimateDecodeMemory(size.width, size.height))) {
+                var contentHash = job.call(() -> contentHash(stegoImageBytes));
+
+                // Stage 1: decode the image and read its metadata, shared with identical requests in flight
+                listener.onStage(StegoJobStage.READING_METADATA);
+                ProbedImage probed = decodeFlights.execute(
+                        new DecodeFlight(contentHash, "metadata"),
+                        () -> probeImage(job, stegoImageBytes)
+                );
+                var metadata = probed.metadata();
+
+                // Every caller is checked against its own password before anything derived from the payload is returned
+                var providedKeyHash = job.call(() -> aesUtilService.generateKey(password));
+                if (!providedKeyHash.equals(metadata.encryptionKeyHash())) {
+                    throw new AesKeyInvalidException("Provided password does not match the encryption key.");
+                }
+
+                // Stage 2: extract the payload (shared by content) and decrypt it (shared only with callers holding the same password)
+                listener.onStage(StegoJobStage.EXTRACTING);
+                if (metadata.chunks() != null) {
+                    byte[] fileBytes = decodeFlights.execute(
+                            new DecodeFlight(contentHash, "decrypt:" + providedKeyHash),
+                            () -> readRange(job, probed, password, 0, metadata.chunks().fileLength())
+                    );
+
+                    return new StegoDecodeResponseDTO(
+                            null, metadata.originalFileName(), fileBytes, false, true, toSchedulingDTO(job)
+                    );
+                }
+                byte[] encryptedPayload = decodeFlights.execute(
+                        new DecodeFlight(contentHash, "payload"),
+                        () -> extractPayload(job, probed)
+                );
+                var decryptFlight = new DecodeFlight(contentHash, "decrypt:" + providedKeyHash);
+
+                if (metadata.hasText()) {
+                    String text = decodeFlights.execute(decryptFlight, () -> job.call(
+                            () -> aesUtilService.decryptText(encryptedPayload, password, metadata.crypto())
+                    ));
+
+                    return new StegoDecodeResponseDTO(
+                            text, null, null, true, false, toSchedulingDTO(job)
+                    );
+                } else {
+                    byte[] fileBytes = decodeFlights.execute(decryptFlight, () -> job.call(
+                            () -> aesUtilService.decryptFile(encryptedPayload, password, metadata.crypto())
+                    ));
+
+                    return new StegoDecodeResponseDTO(
+                            null, metadata.originalFileName(), fileBytes, false, true, toSchedulingDTO(job)
+                    );
+                }
+            }
+
+        } catch (Exception e) {
+            switch (e) {
+                case InvalidEncryptionKeyException _, AesKeyInvalidException _, MetadataNotFoundException _,
+                     StegoDataNotFoundException _, LsbDecodingException _, AesOperationException _,
+                     MetadataDecodingException _, InvalidImageFormatException _, ShardSetInvalidException _,
+                     InvalidContainerException _, ServiceOverloadedException _, FileTooLargeException _,
+                     CancellationException _ -> throw e;
+                case InterruptedException _ -> {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                default -> throw new StorageException("Error during decoding process.", e);
+            }
+        }
+
+    }
+
+    private StegoDecodeResponseDTO runDecodeProcess(BufferedImage stegoImage, String password, StegoProgressListener listener) throws InvalidEncryptionKeyException, MetadataNotFoundException, StegoDataNotFoundException, LsbDecodingException, AesOperationException, MetadataDecodingException, ExecutionException, InterruptedException {
+
+        try (
+                var _ = Deadline.withDefault(requestTimeout);
+                var _ = memoryBudget.reserve(lsbUtilService.estimateDecodeMemory(stegoImage))
+        ) {
+
+            var job = cpuWorkerPool.newJob(estimateCost(stegoImage, 0));
+
+            // Stage 1 (concurrent): read the metadata from the image while hashing the provided password
+            listener.onStage(StegoJobStage.READING_METADATA);
+            StegoMetadataDTO metadata;
+            String providedKeyHash;
+            try (var scope = new TaskScope(job)) {
+                var metadataTask = scope.fork(() -> lsbUtilService.extractMetadata(stegoImage));
+                var keyHashTask = scope.fork(() -> aesUtilService.generateKey(password));
+                scope.join();
+
+                metadata = metadataTask.resultNow();
+                providedKeyHash = keyHashTask.resultNow();
+            }
+
+            if (metadata == null) {
+                throw new MetadataNotFoundException("No metadata found in the provided image.");
+            }
+            rejectMultiPartLayout(metadata);
+
+            if (!providedKeyHash.equals(metadata.encryptionKeyHash())) {
+                throw new AesKeyInvalidException("Provided password does not match the encryption key.");
+            }
+
+            // Stage 2 (sequential): extract and decrypt the payload; each step depends on the previous one
+            listener.onStage(StegoJobStage.EXTRACTING);
+            if (metadata.hasText()) {
+                var text = job.call(() -> {
+                    var encodedText = lsbUtilService.decode(stegoImage, metadata.lsbDepth()); // Decode the text from the stego image
+                    return aesUtilService.decryptText(encodedText, password, metadata.crypto()); // Decrypt the encoded text using the provided password
+                });
+
+                return new StegoDecodeResponseDTO(
+                        text, null, null, true, false, toSchedulingDTO(job)
+                );
+            } else if (metadata.hasFile() && metadata.chunks() != null) {
+                var fileBytes = readRange(job, new ProbedImage(stegoImage, metadata), password, 0, metadata.chunks().fileLength());
+
+                return new StegoDecodeResponseDTO(
+                        null, metadata.originalFileName(), fileBytes, false, true, toSchedulingDTO(job)
+                );
+            } else if (metadata.hasFile()) {
+                var fileBytes = job.call(() -> {
+                    var encodedFile = lsbUtilService.decode(stegoImage, metadata.lsbDepth());
+                    return aesUtilService.decryptFile(encodedFile, password, metadata.crypto()); // Decrypt the encoded file using the provided password
+                });
+
+                return new StegoDecodeResponseDTO(
+                        null, metadata.originalFileName(), fileBytes, false, true, toSchedulingDTO(job)
+                );
+            } else {
+                throw new MetadataDecodingException("No text or file data found in the provided image.");
+            }
+
+        } catch (Exception e) {
+            switch (e) {
+                case InvalidEncryptionKeyException _, AesKeyInvalidException _, MetadataNotFoundException _,
+                     StegoDataNotFoundException _, LsbDecodingException _, AesOperationException _,
+                     MetadataDecodingException _, ShardSetInvalidException _, InvalidContainerException _,
+                     ServiceOverloadedException _, FileTooLargeException _, CancellationException _ -> throw e;
+                case InterruptedException _ -> {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                default -> throw new StorageException("Error during decoding process.", e);
+            }
+        }
+
+    }
+
+    // ----- Sharded payloads -----
+
+    @Override
+    public StegoShardedEncodeResponseDTO encodeFileSharded(List<BufferedImage> coverImages, String originalFileName, byte[] fileBytes, String password, int lsbDepth, StegoProgressListener listener) throws ShardSetInvalidException, MessageTooLargeException, InvalidLsbDepthException, InvalidEncryptionKeyException, LsbEncodingException, AesOperationException, MetadataEncodingException, StorageException, ExecutionException, InterruptedException {
+        return AsyncTasks.await(encodeFileShardedAsync(coverImages, originalFileName, fileBytes, password, lsbDepth, listener));
+    }
+
+    @Override
+    public CompletableFuture<StegoShardedEncodeResponseDTO> encodeFileShardedAsync(List<BufferedImage> coverImages, String originalFileName, byte[] fileBytes, String password, int lsbDepth, StegoProgressListener listener) {
+        return AsyncTasks.supply(virtualThreadExecutor, () -> runEncodeFileSharded(coverImages, originalFileName, fileBytes, password, lsbDepth, listener));
+    }
+
+    @Override
+    public StegoDecodeResponseDTO decodeSharded(List<byte[]> stegoImagesBytes, String password, StegoProgressListener listener) throws ShardSetInvalidException, InvalidImageFormatException, MetadataNotFoundException, LsbDecodingException, AesOperationException, MetadataDecodingException, ExecutionException, InterruptedException {
+        return AsyncTasks.await(decodeShardedAsync(stegoImagesBytes, password, listener));
+    }
+
+    @Override
+    public CompletableFuture<StegoDecodeResponseDTO> decodeShardedAsync(List<byte[]> stegoImagesBytes, String password, StegoProgressListener listener) {
+        return AsyncTasks.supply(virtualThreadExecutor, () -> runDecodeSharded(stegoImagesBytes, password, listener));
+    }
+
+    private StegoShardedEncodeResponseDTO runEncodeFileSharded(List<BufferedImage> coverImages, String originalFileName, byte[] fileBytes, String password, int lsbDepth, StegoProgressListener listener) throws ShardSetInvalidException, MessageTooLargeException, InvalidLsbDepthException, InvalidEncryptionKeyException, LsbEncodingException, AesOperationException, MetadataEncodingException, StorageException, ExecutionException, InterruptedException {
+        validateLsbDepth(lsbDepth);
+        validateShardCount(coverImages.size());
+
+        try (var _ = Deadline.withDefault(requestTimeout)) {
+            var coverCost = coverImages.stream().mapToLong(cover -> estimateCost(cover, 0)).sum();
+            var job = cpuWorkerPool.newJob(coverCost + fileBytes.length);
+
+            listener.onStage(StegoJobStage.DERIVING_KEY);
+            var keyHash = job.call(() -> aesUtilService.generateKey(password));
+            var crypto = aesUtilService.defaultCryptoSpec();
+            var encryptedLength = aesUtilService.encryptedLength(fileBytes.length, crypto);
+
+            // Covers too small to carry a byte of the payload next to the shard header are left out of the set.
+            // The largest index and count are assumed here, so a cover that passes also fits its final header.
+            var shardSetId = UUID.randomUUID();
+            var headerProbe = new StegoMetadataDTO(
+                    lsbDepth, false, true, keyHash, originalFileName, crypto,
+                    new StegoShardDTO(shardSetId, coverImages.size(), coverImages.size(), encryptedLength), null, null
+            );
+            var carriers = coverImages.stream()
+                    .filter(cover -> canCarry(cover.getWidth(), cover.getHeight(), headerProbe))
+                    .toList();
+            if (carriers.isEmpty()) {
+                throw new MessageTooLargeException("No cover image is large enough to carry a part of the payload");
+            }
+
+            // The shards differ only in their index, so the split is known before anything is encrypted
+            var shardCount = carriers.size();
+            var metadata = new StegoMetadataDTO[shardCount];
+            var capacities = new long[shardCount];
+            for (var i = 0; i < shardCount; i++) {
+                metadata[i] = new StegoMetadataDTO(
+                        lsbDepth,
+                        false,
+                        true,
+                        keyHash,
+                        originalFileName,
+                        crypto,
+                        new StegoShardDTO(shardSetId, i, shardCount, encryptedLength),
+                        null,
+                        null
+                );
+                capacities[i] = lsbUtilService.payloadCapacity(carriers.get(i), metadata[i]);
+            }
+            var shardLengths = splitByCapacity(encryptedLength, capacities);
+
+            var stegoImages = embedShards(
+                    job,
+                    listener,
+                    carriers,
+                    metadata,
+                    shardLengths,
+                    () -> aesUtilService.encryptFile(fileBytes, password, crypto)
+            );
+
+            listener.onStage(StegoJobStage.STORING);
+            var shards = new ArrayList<StegoData>(shardCount);
+            for (var stegoBytes : stegoImages) {
+                shards.add(
+                        StegoData.builder()
+                                .originalFileName(originalFileName)
+                                .embeddedFileName(originalFileName)
+                                .message(null)
+                                .stegoImageBytes(stegoBytes)
+                                .embeddedFileBytes(null)
+                                .encryptionKeyHash(keyHash)
+                                .hasText(false)
+                                .hasFile(true)
+                                .build()
+                );
+            }
+            var savedShards = stegoDataRepository.saveAll(shards);
+
+            return new StegoShardedEncodeResponseDTO(
+                    shardSetId,
+                    savedShards.stream().map(stegoDataMapper::StegoDataToEncodeResponseDTO).toList(),
+                    toSchedulingDTO(job)
+            );
+        } catch (Exception e) {
+            switch (e) {
+                case InvalidLsbDepthException _, MessageTooLargeException _, InvalidEncryptionKeyException _,
+                     LsbEncodingException _, AesOperationException _, MetadataEncodingException _,
+                     ShardSetInvalidException _, ServiceOverloadedException _, FileTooLargeException _,
+                     CancellationException _ -> throw e;
+                case InterruptedException _ -> {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                default -> throw new StorageException("Error during sharded file encoding.", e);
+            }
+        }
+    }
+
+    private StegoDecodeResponseDTO runDecodeSharded(List<byte[]> stegoImagesBytes, String password, StegoProgressListener listener) throws ShardSetInvalidException, InvalidImageFormatException, MetadataNotFoundException, LsbDecodingException, AesOperationException, MetadataDecodingException, ExecutionException, InterruptedException {
+        validateShardCount(stegoImagesBytes.size());
+
+        try (var _ = Deadline.withDefault(requestTimeout)) {
+            // The decoded images are held until their shards are extracted, so all of them are reserved and
+            // costed by their header dimensions before the first one is decoded
+            var pixels = 0L;
+            var decodeMemory = 0L;
+            for (var bytes : stegoImagesBytes) {
+                var size = lsbUtilService.readImageSize(bytes);
+                pixels += (long) size.width * size.height;
+                decodeMemory += lsbUtilService.estimateDecodeMemory(size.width, size.height);
+            }
+            var job = cpuWorkerPool.newJob(pixels);
+
+            try (var _ = memoryBudget.reserve(decodeMemory)) {
+                return decodeShards(job, stegoImagesBytes, password, listener);
+            }
+
+        } catch (Exception e) {
+            switch (e) {
+                case InvalidEncryptionKeyException _, AesKeyInvalidException _, MetadataNotFoundException _,
+                     LsbDecodingException _, AesOperationException _, MetadataDecodingException _,
+                     InvalidImageFormatException _, ShardSetInvalidException _, ServiceOverloadedException _,
+                     FileTooLargeException _, CancellationException _ -> throw e;
+                case InterruptedException _ -> {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                default -> throw new StorageException("Error during sharded decoding process.", e);
+            }
+        }
+    }
+
+    /**
+     * Decodes the shards of a split payload within the memory reserved for them by the caller.
+     */
+    private StegoDecodeResponseDTO decodeShards(CpuJob job, List<byte[]> stegoImagesBytes, String password, StegoProgressListener listener) throws Exception {
+        // Stage 1 (concurrent): decode every image and read its shard header while hashing the provided password
+        listener.onStage(StegoJobStage.READING_METADATA);
+        List<ProbedImage> shards;
+        String providedKeyHash;
+        try (var scope = new TaskScope(job)) {
+            var shardTasks = stegoImagesBytes.stream()
+                    .map(bytes -> scope.fork(() -> probeShard(bytes)))
+                    .toList();
+            var keyHashTask = scope.fork(() -> aesUtilService.generateKey(password));
+            scope.join();
+
+            shards = orderShards(shardTasks.stream().map(Future::resultNow).toList(), ProbedImage::metadata);
+            providedKeyHash = keyHashTask.resultNow();
+        }
+        var metadata = shards.getFirst().metadata();
+
+        if (!providedKeyHash.equals(metadata.encryptionKeyHash())) {
+            throw new AesKeyInvalidException("Provided password does not match the encryption key.");
+        }
+
+        // Stage 2: extract the shards concurrently, reassemble them by index and decrypt the payload
+        listener.onStage(StegoJobStage.EXTRACTING);
+        var payloadLength = metadata.shard().payloadLength();
+        if (payloadLength < 0 || payloadLength > Integer.MAX_VALUE) {
+            throw new LsbDecodingException("Payload length is invalid or too large");
+        }
+
+        // The extracted shards, the reassembled payload and its decrypted copy fit in the caller's reservation
+        var encryptedPayload = extractShards(job, shards, (int) payloadLength);
+
+        if (metadata.hasText()) {
+            var text = job.call(() -> aesUtilService.decryptText(encryptedPayload, password, metadata.crypto()));
+
+            return new StegoDecodeResponseDTO(
+                    text, null, null, true, false, toSchedulingDTO(job)
+            );
+        } else {
+            var fileBytes = job.call(() -> aesUtilService.decryptFile(encryptedPayload, password, metadata.crypto()));
+
+            return new StegoDecodeResponseDTO(
+                    null, metadata.originalFileName(), fileBytes, false, true, toSchedulingDTO(job)
+            );
+        }
+    }
+
+    // ----- Multi-entry containers -----
+
+    @Override
+    public StegoEncodeResponseDTO encodeContainer(BufferedImage coverImage, List<StegoContainerEntryDTO> entries, String password, int lsbDepth, StegoProgressListener listener) throws InvalidContainerException, MessageTooLargeException, InvalidLsbDepthException, InvalidEncryptionKeyException, LsbEncodingException, AesOperationException, MetadataEncodingException, StorageException, ExecutionException, InterruptedException {
+        return AsyncTasks.await(encodeContainerAsync(coverImage, entries, password, lsbDepth, listener));
+    }
+
+    @Override
+    public CompletableFuture<StegoEncodeResponseDTO> encodeContainerAsync(BufferedImage coverImage, List<StegoContainerEntryDTO> entries, String password, int lsbDepth, StegoProgressListener listener) {
+        return AsyncTasks.supply(virtualThreadExecutor, () -> runEncodeContainer(coverImage, entries, password, lsbDepth, listener));
+    }
+
+    @Override
+    public List<StegoDirectoryEntryDTO> listContainerEntries(byte[] stegoImageBytes, String password) throws InvalidContainerException, InvalidImageFormatException, MetadataNotFoundException, LsbDecodingException, AesOperationException, MetadataDecodingException, ExecutionException, InterruptedException {
+        return AsyncTasks.await(listContainerEntriesAsync(stegoImageBytes, password));
+    }
+
+    @Override
+    public CompletableFuture<List<StegoDirectoryEntryDTO>> listContainerEntriesAsync(byte[] stegoImageBytes, String password) {
+        return AsyncTasks.supply(virtualThreadExecutor, () -> runReadContainer(stegoImageBytes, password, null).directory());
+    }
+
+    @Override
+    public StegoContainerEntryDTO extractContainerEntry(byte[] stegoImageBytes, String password, String entryName) throws StegoDataNotFoundException, InvalidContainerException, InvalidImageFormatException, MetadataNotFoundException, LsbDecodingException, AesOperationException, MetadataDecodingException, ExecutionException, InterruptedException {
+        return AsyncTasks.await(extractContainerEntryAsync(stegoImageBytes, password, entryName));
+    }
+
+    @Override
+    public CompletableFuture<StegoContainerEntryDTO> extractContainerEntryAsync(byte[] stegoImageBytes, String password, String entryName) {
+        return AsyncTasks.supply(virtualThreadExecutor, () -> runReadContainer(stegoImageBytes, password, entryName).entry());
+    }
+
+    private StegoEncodeResponseDTO runEncodeContainer(BufferedImage coverImage, List<StegoContainerEntryDTO> entries, String password, int lsbDepth, StegoProgressListener listener) throws InvalidContainerException, MessageTooLargeException, InvalidLsbDepthException, InvalidEncryptionKeyException, LsbEncodingException, AesOperationException, MetadataEncodingException, StorageException, ExecutionException, InterruptedException {
+        validateLsbDepth(lsbDepth);
+        validateContainerEntries(entries);
+
+        try (var _ = Deadline.withDefault(requestTimeout)) {
+            var contentLength = entries.stream().mapToLong(entry -> entry.content().length).sum();
+            var job = cpuWorkerPool.newJob(estimateCost(coverImage, contentLength));
+
+            listener.onStage(StegoJobStage.DERIVING_KEY);
+            var keyHash = job.call(() -> aesUtilService.generateKey(password));
+            var crypto = aesUtilService.defaultCryptoSpec();
+
+            // The directory only needs the entry lengths, so the layout is fixed before anything is encrypted
+            var directory = entries.stream()
+                    .map(entry -> new StegoDirectoryEntryDTO(
+                            entry.name(),
+                            entry.hasText(),
+                            entry.content().length,
+                            aesUtilService.encryptedLength(entry.content().length, crypto)
+                    ))
+                    .toList();
+            byte[] directoryBytes;
+            try {
+                directoryBytes = mapper.writeValueAsBytes(directory);
+            } catch (JsonProcessingException e) {
+                throw new MetadataEncodingException("Failed to serialize the container directory", e);
+            }
+            var metadata = new StegoMetadataDTO(
+                    lsbDepth,
+                    false,
+                    false,
+                    keyHash,
+                    null,
+                    crypto,
+                    null,
+                    new StegoContainerDTO(entries.size(), aesUtilService.encryptedLength(directoryBytes.length, crypto)),
+                    null
+            );
+
+            var stegoBytes = embedContainer(job, listener, coverImage, metadata, entries, directory, directoryBytes, password);
+
+            listener.onStage(StegoJobStage.STORING);
+            var savedData = stegoDataRepository.save(
+                    StegoData.builder()
+                            .originalFileName(null)
+                            .embeddedFileName(null)
+                            .message(null)
+                            .stegoImageBytes(stegoBytes)
+                            .embeddedFileBytes(null)
+                            .encryptionKeyHash(keyHash)
+                            .hasText(false)
+                            .hasFile(false)
+                            .build()
+            );
+
+            return stegoDataMapper.StegoDataToEncodeResponseDTO(savedData, toSchedulingDTO(job));
+        } catch (Exception e) {
+            switch (e) {
+                case InvalidLsbDepthException _, MessageTooLargeException _, InvalidEncryptionKeyException _,
+                     LsbEncodingException _, AesOperationException _, MetadataEncodingException _,
+                     MetadataNotFoundException _, InvalidContainerException _, ServiceOverloadedException _,
+                     FileTooLargeException _, CancellationException _ -> throw e;
+                case InterruptedException _ -> {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                default -> throw new StorageException("Error during container encoding.", e);
+            }
+        }
+    }
+
+    /**
+     * Opens a container image and, if an entry name is given, extracts that entry.
+     *
+     * @param stegoImageBytes The uploaded container image.
+     * @param password        The password used to decrypt the directory and the entry.
+     * @param entryName       The name of the entry to extract, or null to only read the directory.
+     * @return The directory, with the extracted entry if one was requested.
+     */
+    private ContainerRead runReadContainer(byte[] stegoImageBytes, String password, String entryName) throws StegoDataNotFoundException, InvalidContainerException, InvalidImageFormatException, MetadataNotFoundException, LsbDecodingException, AesOperationException, MetadataDecodingException, ExecutionException, InterruptedException {
+
+        try (var _ = Deadline.withDefault(requestTimeout)) {
+            // The decoded image is held until the entry is read, so it is reserved and costed by its header
+            // dimensions before it is decoded; the reservation also covers the entry and its decrypted copy
+            var size = lsbUtilService.readImageSize(stegoImageBytes);
+            var job = cpuWorkerPool.newJob((long) size.width * size.height);
+
+            try (var _ = memoryBudget.reserve(lsbUtilService.estimateDecodeMemory(size.width, size.height))) {
+                // Decode the image and read its metadata while hashing the provided password
+                ProbedImage probed;
+                String providedKeyHash;
+                try (var scope = new TaskScope(job)) {
+                    var probedTask = scope.fork(() -> {
+                        var stegoImage = lsbUtilService.readImage(stegoImageBytes);
+                        return new ProbedImage(stegoImage, lsbUtilService.extractMetadata(stegoImage));
+                    });
+                    var keyHashTask = scope.fork(() -> aesUtilService.generateKey(password));
+                    scope.join();
+
+                    probed = probedTask.resultNow();
+                    providedKeyHash = keyHashTask.resultNow();
+                }
+                var metadata = probed.metadata();
+
+                if (metadata == null) {
+                    throw new MetadataNotFoundException("No metadata found in the provided image.");
+                }
+                if (metadata.container() == null) {
+                    throw new InvalidContainerException("The image does not hold a multi-entry container.");
+                }
+                if (!providedKeyHash.equals(metadata.encryptionKeyHash())) {
+                    throw new AesKeyInvalidException("Provided password does not match the encryption key.");
+                }
+
+                var directory = job.call(() -> readDirectory(probed, password));
+                if (entryName == null) {
+                    return new ContainerRead(directory, null);
+                }
+
+                var index = IntStream.range(0, directory.size())
+                        .filter(i -> directory.get(i).name().equals(entryName))
+                        .findFirst()
+                        .orElseThrow(() -> new StegoDataNotFoundException("The container has no entry named: " + entryName));
+                var entry = directory.get(index);
+                var entryLengths = directory.stream()
+                        .limit(index + 1L)
+                        .mapToInt(StegoDirectoryEntryDTO::encryptedLength)
+                        .toArray();
+
+                var content = job.call(() -> aesUtilService.decryptFile(
+                        lsbUtilService.readContainerEntry(probed.image(), metadata, entryLengths, index),
+                        password,
+                        metadata.crypto()
+                ));
+                return new ContainerRead(directory, new StegoContainerEntryDTO(entry.name(), entry.hasText(), content));
+            }
+
+        } catch (Exception e) {
+            switch (e) {
+                case StegoDataNotFoundException _, InvalidContainerException _, InvalidImageFormatException _,
+                     AesKeyInvalidException _, MetadataNotFoundException _, LsbDecodingException _,
+                     InvalidLsbDepthException _, AesOperationException _, MetadataDecodingException _,
+                     ServiceOverloadedException _, FileTooLargeException _, CancellationException _ -> throw e;
+                case InterruptedException _ -> {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                default -> throw new StorageException("Error while reading the container.", e);
+            }
+        }
+    }
+
+    // ----- Chunked files -----
+
+    @Override
+    public StegoEncodeResponseDTO encodeFileChunked(BufferedImage coverImage, String originalFileName, byte[] fileBytes, String password, int lsbDepth, StegoProgressListener listener) throws MessageTooLargeException, InvalidLsbDepthException, InvalidEncryptionKeyException, LsbEncodingException, AesOperationException, MetadataEncodingException, StorageException, ExecutionException, InterruptedException {
+        return AsyncTasks.await(encodeFileChunkedAsync(coverImage, originalFileName, fileBytes, password, lsbDepth, listener));
+    }
+
+    @Override
+    public CompletableFuture<StegoEncodeResponseDTO> encodeFileChunkedAsync(BufferedImage coverImage, String originalFileName, byte[] fileBytes, String password, int lsbDepth, StegoProgressListener listener) {
+        return AsyncTasks.supply(virtualThreadExecutor, () -> runEncodeFileChunked(coverImage, originalFileName, fileBytes, password, lsbDepth, listener));
+    }
+
+    @Override
+    public StegoRangeDTO extractRange(byte[] stegoImageBytes, String password, long offset, int length) throws InvalidRangeException, InvalidImageFormatException, MetadataNotFoundException, LsbDecodingException, AesOperationException, MetadataDecodingException, ExecutionException, InterruptedException {
+        return AsyncTasks.await(extractRangeAsync(stegoImageBytes, password, offset, length));
+    }
+
+    @Override
+    public CompletableFuture<StegoRangeDTO> extractRangeAsync(byte[] stegoImageBytes, String password, long offset, int length) {
+        return AsyncTasks.supply(virtualThreadExecutor, () -> runExtractRange(stegoImageBytes, password, offset, length));
+    }
+
+    private StegoEncodeResponseDTO runEncodeFileChunked(BufferedImage coverImage, String originalFileName, byte[] fileBytes, String password, int lsbDepth, StegoProgressListener listener) throws MessageTooLargeException, InvalidLsbDepthException, InvalidEncryptionKeyException, LsbEncodingException, AesOperationException, MetadataEncodingException, StorageException, ExecutionException, InterruptedException {
+        validateLsbDepth(lsbDepth);
+
+        try (var _ = Deadline.withDefault(requestTimeout)) {
+            var job = cpuWorkerPool.newJob(estimateCost(coverImage, fileBytes.length));
+
+            listener.onStage(StegoJobStage.DERIVING_KEY);
+            var keyHash = job.call(() -> aesUtilService.generateKey(password));
+            var crypto = aesUtilService.defaultCryptoSpec();
+
+            // Every chunk but the last has the same stored length, so the index is fixed before anything is encrypted
+            var chunkCount = Math.max(1, (fileBytes.length + chunkSize - 1) / chunkSize);
+            var lastChunkLength = fileBytes.length - (chunkCount - 1) * chunkSize;
+            var metadata = new StegoMetadataDTO(
+                    lsbDepth,
+                    false,
+                    true,
+                    keyHash,
+                    originalFileName,
+                    crypto,
+                    null,
+                    null,
+                    new StegoChunkIndexDTO(
+                            chunkSize,
+                            chunkCount,
+                            fileBytes.length,
+                            aesUtilService.chunkHeaderLength(crypto),
+                            aesUtilService.encryptedChunkLength(chunkSize, crypto),
+                            aesUtilService.encryptedChunkLength(lastChunkLength, crypto)
+                    )
+            );
+
+            var stegoBytes = embedChunked(job, listener, coverImage, metadata, fileBytes, password);
+
+            listener.onStage(StegoJobStage.STORING);
+            var savedData = stegoDataRepository.save(
+                    StegoData.builder()
+                            .originalFileName(originalFileName)
+                            .embeddedFileName(originalFileName)
+                            .message(null)
+                            .stegoImageBytes(stegoBytes)
+                            .embeddedFileBytes(null)
+                            .encryptionKeyHash(keyHash)
+                            .hasText(false)
+                            .hasFile(true)
+                            .build()
+            );
+
+            return stegoDataMapper.StegoDataToEncodeResponseDTO(savedData, toSchedulingDTO(job));
+        } catch (Exception e) {
+            switch (e) {
+                case InvalidLsbDepthException _, MessageTooLargeException _, InvalidEncryptionKeyException _,
+                     LsbEncodingException _, AesOperationException _, MetadataEncodingException _,
+                     MetadataNotFoundException _, ServiceOverloadedException _, FileTooLargeException _,
+                     CancellationException _ -> throw e;
+                case InterruptedException _ -> {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                default -> throw new StorageException("Error during chunked file encoding.", e);
+            }
+        }
+    }
+
+    private StegoRangeDTO runExtractRange(byte[] stegoImageBytes, String password, long offset, int length) throws InvalidRangeException, InvalidImageFormatException, MetadataNotFoundException, LsbDecodingException, AesOperationException, MetadataDecodingException, ExecutionException, InterruptedException {
+        if (offset < 0 || length < 0) {
+            throw new InvalidRangeException("Range offset and length must not be negative.");
+        }
+
+        try (var _ = Deadline.withDefault(requestTimeout)) {
+            // The decoded image is held while the range is read, so it is reserved and costed by its header
+            // dimensions before it is decoded; readRange reserves only the chunks the range overlaps
+            var size = lsbUtilService.readImageSize(stegoImageBytes);
+            var job = cpuWorkerPool.newJob((long) size.width * size.height);
+
+            try (var _ = memoryBudget.reserve(lsbUtilService.estimateReadMemory(size.width, size.height))) {
+                // Decode the image and read its metadata while hashing the provided password
+                ProbedImage probed;
+                String providedKeyHash;
+                try (var scope = new TaskScope(job)) {
+                    var probedTask = scope.fork(() -> {
+                        var stegoImage = lsbUtilService.readImage(stegoImageBytes);
+                        return new ProbedImage(stegoImage, lsbUtilService.extractMetadata(stegoImage));
+                    });
+                    var keyHashTask = scope.fork(() -> aesUtilService.generateKey(password));
+                    scope.join();
+
+                    probed = probedTask.resultNow();
+                    providedKeyHash = keyHashTask.resultNow();
+                }
+                var metadata = probed.metadata();
+
+                if (metadata == null) {
+                    throw new MetadataNotFoundException("No metadata found in the provided image.");
+                }
+                if (metadata.chunks() == null) {
+                    throw new InvalidRangeException("The embedded data was not stored with a chunk index; decode it as a whole instead.");
+                }
+                if (!providedKeyHash.equals(metadata.encryptionKeyHash())) {
+                    throw new AesKeyInvalidException("Provided password does not match the encryption key.");
+                }
+
+                var fileLength = metadata.chunks().fileLength();
+                if (offset > fileLength || (offset == fileLength && length > 0)) {
+                    throw new InvalidRangeException("Range starts at " + offset + ", beyond the end of the " + fileLength + " byte file.");
+                }
+                var end = Math.min(fileLength, offset + length);
+
+                var content = readRange(job, probed, password, offset, end);
+                return new StegoRangeDTO(metadata.originalFileName(), offset, content, fileLength);
+            }
+
+        } catch (Exception e) {
+            switch (e) {
+                case InvalidRangeException _, InvalidImageFormatException _, AesKeyInvalidException _,
+                     MetadataNotFoundException _, LsbDecodingException _, InvalidLsbDepthException _,
+                     AesOperationException _, MetadataDecodingException _, ServiceOverloadedException _,
+                     FileTooLargeException _, CancellationException _ -> throw e;
+                case InterruptedException _ -> {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                default -> throw new StorageException("Error while extracting a byte range.", e);
+            }
+        }
+    }
+
+    // ----- Batch encoding -----
+
+    @Override
+    public List<StegoEncodeResponseDTO> encodeTextBatch(BufferedImage coverImage, List<StegoBatchItemDTO> items, int lsbDepth, StegoProgressListener listener) throws InvalidBatchException, MessageTooLargeException, InvalidLsbDepthException, InvalidEncryptionKeyException, LsbEncodingException, AesOperationException, MetadataEncodingException, StorageException, ExecutionException, InterruptedException {
+        return AsyncTasks.await(encodeTextBatchAsync(coverImage, items, lsbDepth, listener));
+    }
+
+    @Override
+    public CompletableFuture<List<StegoEncodeResponseDTO>> encodeTextBatchAsync(BufferedImage coverImage, List<StegoBatchItemDTO> items, int lsbDepth, StegoProgressListener listener) {
+        return AsyncTasks.supply(virtualThreadExecutor, () -> runEncodeTextBatch(coverImage, items, lsbDepth, listener));
+    }
+
+    private List<StegoEncodeResponseDTO> runEncodeTextBatch(BufferedImage coverImage, List<StegoBatchItemDTO> items, int lsbDepth, StegoProgressListener listener) throws InvalidBatchException, MessageTooLargeException, InvalidLsbDepthException, InvalidEncryptionKeyException, LsbEncodingException, AesOperationException, MetadataEncodingException, StorageException, ExecutionException, InterruptedException {
+        validateLsbDepth(lsbDepth);
+        validateBatchItems(items);
 
-            var coverBytes = bufferedImageToPngBytes(coverImage);
-            var stegoBytes = executorService.submit(
-                    () -> lsbUtilService.encode(coverBytes, encodedBytes, metadata)
-            ).get();
+        // A batch does the work of many requests, so its deadline grows with the number of messages
+        try (var _ = Deadline.withDefault(requestTimeout.plus(batchItemTimeout.multipliedBy(items.size())))) {
+            var messageLengths = items.stream()
+                    .mapToInt(item -> item.message().getBytes(StandardCharsets.UTF_8).length)
+                    .toArray();
+            var pixels = estimateCost(coverImage, 0);
+            var job = cpuWorkerPool.newJob(pixels * items.size() + Arrays.stream(messageLengths).asLongStream().sum());
+            var crypto = aesUtilService.defaultCryptoSpec();
 
-            var savedData = stegoDataRepository.save(
-                    StegoData.builder()
-                            .originalFileName(null)
-                            .embeddedFileName(null)
-                            .message(null) // No message in StegoData, as we store the encoded bytes
-                            .stegoImageBytes(stegoBytes)
-                            .embeddedFileBytes(null)
-                            .encryptionKeyHash(keyHash)
-                            .hasText(true)
-                            .hasFile(false)
-                            .build()
-            );
+            // Hash every password and check that every message fits before any work is spent on the batch
+            listener.onStage(StegoJobStage.DERIVING_KEY);
+            var metadata = job.call(() -> {
+                var batchMetadata = new StegoMetadataDTO[items.size()];
+                for (var i = 0; i < items.size(); i++) {
+                    batchMetadata[i] = new StegoMetadataDTO(
+                            lsbDepth,
+                            true,
+                            false,
+                            aesUtilService.generateKey(items.get(i).password()),
+                            null,
+                            crypto,
+                            null,
+                            null,
+                            null
+                    );
+                    lsbUtilService.ensureCapacity(coverImage, aesUtilService.encryptedLength(messageLengths[i], crypto), batchMetadata[i]);
+                }
+                return batchMetadata;
+            });
+
+            listener.onStage(StegoJobStage.EMBEDDING);
+            var stegoBytes = embedBatch(job, coverImage, items, metadata, Arrays.stream(messageLengths).max().orElse(0));
 
-            return stegoDataMapper.StegoDataToEncodeResponseDTO(savedData);
+            listener.onStage(StegoJobStage.STORING);
+            var stegoData = new ArrayList<StegoData>(items.size());
+            for (var i = 0; i < items.size(); i++) {
+                stegoData.add(
+                        StegoData.builder()
+                                .originalFileName(null)
+                                .embeddedFileName(null)
+                                .message(null)
+                                .stegoImageBytes(stegoBytes[i])
+                                .embeddedFileBytes(null)
+                                .encryptionKeyHash(metadata[i].encryptionKeyHash())
+                                .hasText(true)
+                                .hasFile(false)
+                                .build()
+                );
+            }
+            var scheduling = toSchedulingDTO(job);
+
+            return stegoDataRepository.saveAll(stegoData).stream()
+                    .map(savedData -> stegoDataMapper.StegoDataToEncodeResponseDTO(savedData, scheduling))
+                    .toList();
         } catch (Exception e) {
             switch (e) {
                 case InvalidLsbDepthException _, MessageTooLargeException _, InvalidEncryptionKeyException _,
-                     LsbEncodingException _, AesOperationException _, MetadataEncodingException _ -> throw e;
-                default -> throw new StorageException("Error during text encoding.", e);
+                     LsbEncodingException _, AesOperationException _, MetadataEncodingException _,
+                     InvalidBatchException _, ServiceOverloadedException _, FileTooLargeException _,
+                     CancellationException _ -> throw e;
+                case InterruptedException _ -> {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                default -> throw new StorageException("Error during batch text encoding.", e);
             }
         }
     }
 
+    // ----- Encoding into library covers -----
+
     @Override
-    public StegoEncodeResponseDTO encodeFile(BufferedImage coverImage, String originalFileName, byte[] fileBytes, String password, int lsbDepth) throws InvalidLsbDepthException, FileTooLargeException, InvalidEncryptionKeyException, LsbEncodingException, AesOperationException, MetadataEncodingException, StorageException, ExecutionException, InterruptedException {
+    public StegoEncodeResponseDTO encodeTextWithLibraryCover(String message, String password, int lsbDepth, StegoProgressListener listener) throws InvalidLsbDepthException, MessageTooLargeException, InvalidEncryptionKeyException, LsbEncodingException, AesOperationException, MetadataEncodingException, StorageException, ExecutionException, InterruptedException {
+        return AsyncTasks.await(encodeTextWithLibraryCoverAsync(message, password, lsbDepth, listener));
+    }
+
+    @Override
+    public CompletableFuture<StegoEncodeResponseDTO> encodeTextWithLibraryCoverAsync(String message, String password, int lsbDepth, StegoProgressListener listener) {
+        return AsyncTasks.supply(virtualThreadExecutor, () -> {
+            try (var _ = Deadline.withDefault(requestTimeout)) {
+                var messageLength = message.getBytes(StandardCharsets.UTF_8).length;
+                var cover = coverLibraryService.selectCover(aesUtilService.encryptedLength(messageLength, aesUtilService.defaultCryptoSpec()), lsbDepth);
+                return runEncodeText(cover.width(), cover.height(), libraryCover(cover), message, password, lsbDepth, listener);
+            }
+        });
+    }
+
+    @Override
+    public StegoEncodeResponseDTO encodeFileWithLibraryCover(String originalFileName, byte[] fileBytes, String password, int lsbDepth, StegoProgressListener listener) throws InvalidLsbDepthException, MessageTooLargeException, FileTooLargeException, InvalidEncryptionKeyException, LsbEncodingException, AesOperationException, MetadataEncodingException, StorageException, ExecutionException, InterruptedException {
+        return AsyncTasks.await(encodeFileWithLibraryCoverAsync(originalFileName, fileBytes, password, lsbDepth, listener));
+    }
+
+    @Override
+    public CompletableFuture<StegoEncodeResponseDTO> encodeFileWithLibraryCoverAsync(String originalFileName, byte[] fileBytes, String password, int lsbDepth, StegoProgressListener listener) {
+        return AsyncTasks.supply(virtualThreadExecutor, () -> {
+            try (var _ = Deadline.withDefault(requestTimeout)) {
+                // The file name is stored in the metadata, so it is counted on top of the metadata reserve
+                var fileNameLength = originalFileName == null ? 0 : originalFileName.getBytes(StandardCharsets.UTF_8).length;
+                var payloadLength = aesUtilService.encryptedLength(fileBytes.length, aesUtilService.defaultCryptoSpec());
+                var cover = coverLibraryService.selectCover(payloadLength + fileNameLength, lsbDepth);
+                return runEncodeFile(cover.width(), cover.height(), libraryCover(cover), originalFileName, fileBytes, password, lsbDepth, listener);
+            }
+        });
+    }
+
+    /**
+     * The working image of a library cover is copied straight from its mapped raster, so it needs no second copy
+     * by {@code prepareCover}; the copy is made under the encode's memory reservation.
+     */
+    private WorkingCopy libraryCover(StegoCoverDTO cover) {
+        return (payloadLength, metadata) -> {
+            var workingImage = coverLibraryService.copyCover(cover.id());
+            lsbUtilService.ensureCapacity(workingImage, payloadLength, metadata);
+            return workingImage;
+        };
+    }
+
+    // ----- Animated covers -----
+
+    @Override
+    public StegoEncodeResponseDTO encodeFileAnimated(byte[] animatedCoverBytes, String originalFileName, byte[] fileBytes, String password, int lsbDepth, StegoProgressListener listener) throws InvalidImageFormatException, MessageTooLargeException, InvalidLsbDepthException, InvalidEncryptionKeyException, LsbEncodingException, AesOperationException, MetadataEncodingException, StorageException, ExecutionException, InterruptedException {
+        return AsyncTasks.await(encodeFileAnimatedAsync(animatedCoverBytes, originalFileName, fileBytes, password, lsbDepth, listener));
+    }
+
+    @Override
+    public CompletableFuture<StegoEncodeResponseDTO> encodeFileAnimatedAsync(byte[] animatedCoverBytes, String originalFileName, byte[] fileBytes, String password, int lsbDepth, StegoProgressListener listener) {
+        return AsyncTasks.supply(virtualThreadExecutor, () -> runEncodeFileAnimated(animatedCoverBytes, originalFileName, fileBytes, password, lsbDepth, listener));
+    }
+
+    @Override
+    public StegoDecodeResponseDTO decodeAnimated(byte[] stegoImageBytes, String password, StegoProgressListener listener) throws InvalidImageFormatException, ShardSetInvalidException, InvalidEncryptionKeyException, MetadataNotFoundException, LsbDecodingException, AesOperationException, MetadataDecodingException, ExecutionException, InterruptedException {
+        return AsyncTasks.await(decodeAnimatedAsync(stegoImageBytes, password, listener));
+    }
+
+    @Override
+    public CompletableFuture<StegoDecodeResponseDTO> decodeAnimatedAsync(byte[] stegoImageBytes, String password, StegoProgressListener listener) {
+        return AsyncTasks.supply(virtualThreadExecutor, () -> runDecodeAnimated(stegoImageBytes, password, listener));
+    }
+
+    private StegoEncodeResponseDTO runEncodeFileAnimated(byte[] animatedCoverBytes, String originalFileName, byte[] fileBytes, String password, int lsbDepth, StegoProgressListener listener) throws InvalidImageFormatException, MessageTooLargeException, InvalidLsbDepthException, InvalidEncryptionKeyException, LsbEncodingException, AesOperationException, MetadataEncodingException, StorageException, ExecutionException, InterruptedException {
         validateLsbDepth(lsbDepth);
 
-        try {
-            var keyHash = aesUtilService.generateKey(password);
-            var metadata = new StegoMetadataDTO(
-                    lsbDepth,
-                    false,
-                    true,
-                    keyHash,
-                    originalFileName
+        try (var _ = Deadline.withDefault(requestTimeout)) {
+            listener.onStage(StegoJobStage.READING_IMAGE);
+            var frames = lsbUtilService.splitFrames(animatedCoverBytes);
+            validateFrameCount(frames.size());
+            var job = cpuWorkerPool.newJob(framePixels(frames) + fileBytes.length);
+
+            listener.onStage(StegoJobStage.DERIVING_KEY);
+            var keyHash = job.call(() -> aesUtilService.generateKey(password));
+            var crypto = aesUtilService.defaultCryptoSpec();
+            var encryptedLength = aesUtilService.encryptedLength(fileBytes.length, crypto);
+
+            // Each frame carries one shard with the header of a split payload. Frames too small for the header and
+            // a byte of the payload, such as the update regions of optimized animations, are kept unchanged. The
+            // largest index and count are assumed here, so a frame that passes also fits its final header.
+            var shardSetId = UUID.randomUUID();
+            var headerProbe = new StegoMetadataDTO(
+                    lsbDepth, false, true, keyHash, originalFileName, crypto,
+                    new StegoShardDTO(shardSetId, frames.size(), frames.size(), encryptedLength), null, null
             );
+            var carriers = frames.stream()
+                    .filter(frame -> canCarry(frame.width(), frame.height(), headerProbe))
+                    .toList();
+            if (carriers.isEmpty()) {
+                throw new MessageTooLargeException("No frame of the animation is large enough to carry a payload");
+            }
 
-            var encodedBytes = executorService.submit(
-                    () -> aesUtilService.encryptFile(fileBytes, password)
-            ).get();
+            var metadata = new StegoMetadataDTO[frames.size()]; // null for frames kept unchanged
+            var capacities = new long[carriers.size()];
+            for (var i = 0; i < carriers.size(); i++) {
+                var frame = carriers.get(i);
+                metadata[frame.index()] = new StegoMetadataDTO(
+                        lsbDepth,
+                        false,
+                        true,
+                        keyHash,
+                        originalFileName,
+                        crypto,
+                        new StegoShardDTO(shardSetId, i, carriers.size(), encryptedLength),
+                        null,
+                        null
+                );
+                capacities[i] = lsbUtilService.payloadCapacity(frame.width(), frame.height(), metadata[frame.index()]);
+            }
+            var shardLengths = splitByCapacity(encryptedLength, capacities);
 
-            var coverBytes = bufferedImageToPngBytes(coverImage);
-            var stegoBytes = executorService.submit(
-                    () -> lsbUtilService.encode(coverBytes, encodedBytes, metadata)
-            ).get();
+            listener.onStage(StegoJobStage.ENCRYPTING);
+            var encrypted = job.call(() -> aesUtilService.encryptFile(fileBytes, password, crypto));
 
+            listener.onStage(StegoJobStage.EMBEDDING);
+            var stegoFrames = embedFrames(job, frames, metadata, shardLengths, encrypted);
+            var stegoBytes = job.call(() -> lsbUtilService.assembleFrames(animatedCoverBytes, stegoFrames));
+
+            listener.onStage(StegoJobStage.STORING);
             var savedData = stegoDataRepository.save(
                     StegoData.builder()
                             .originalFileName(originalFileName)
                             .embeddedFileName(originalFileName)
-                            .message(null) // No message in StegoData, as we store the encoded bytes
+                            .message(null)
                             .stegoImageBytes(stegoBytes)
                             .embeddedFileBytes(null)
                             .encryptionKeyHash(keyHash)
@@ -138,71 +1258,83 @@ public class SteganographyServiceImpl implements SteganographyService {
                             .build()
             );
 
-            return stegoDataMapper.StegoDataToEncodeResponseDTO(savedData);
+            return stegoDataMapper.StegoDataToEncodeResponseDTO(savedData, toSchedulingDTO(job));
         } catch (Exception e) {
             switch (e) {
                 case InvalidLsbDepthException _, MessageTooLargeException _, InvalidEncryptionKeyException _,
-                     LsbEncodingException _, AesOperationException _, MetadataEncodingException _ -> throw e;
-                default -> throw new StorageException("Error during text encoding.", e);
+                     LsbEncodingException _, AesOperationException _, MetadataEncodingException _,
+                     InvalidImageFormatException _, ServiceOverloadedException _, FileTooLargeException _,
+                     CancellationException _ -> throw e;
+                case InterruptedException _ -> {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                default -> throw new StorageException("Error during animated file encoding.", e);
             }
         }
     }
 
-    @Override
-    public StegoDecodeResponseDTO decodeProcess(BufferedImage stegoImage, String password) throws InvalidEncryptionKeyException, MetadataNotFoundException, StegoDataNotFoundException, LsbDecodingException, AesOperationException, MetadataDecodingException, ExecutionException, InterruptedException {
-
-        try {
-
-            var stegoBytes = bufferedImageToPngBytes(stegoImage); // Convert BufferedImage to byte array in PNG format
+    private StegoDecodeResponseDTO runDecodeAnimated(byte[] stegoImageBytes, String password, StegoProgressListener listener) throws InvalidImageFormatException, ShardSetInvalidException, InvalidEncryptionKeyException, MetadataNotFoundException, LsbDecodingException, AesOperationException, MetadataDecodingException, ExecutionException, InterruptedException {
+        try (var _ = Deadline.withDefault(requestTimeout)) {
+            listener.onStage(StegoJobStage.READING_IMAGE);
+            var frames = lsbUtilService.splitFrames(stegoImageBytes);
+            validateFrameCount(frames.size());
+            var job = cpuWorkerPool.newJob(framePixels(frames));
 
-            var metadata = executorService.submit(
-                    () -> lsbUtilService.extractMetadata(stegoBytes)
-            ).get(); // Extract metadata from the stego image bytes
-            if (metadata == null) {
-                throw new MetadataNotFoundException("No metadata found in the provided image.");
+            // Stage 1 (concurrent): extract the shard of every frame while hashing the provided password
+            listener.onStage(StegoJobStage.EXTRACTING);
+            List<FrameShard> shards;
+            String providedKeyHash;
+            try (var scope = new TaskScope(job)) {
+                var keyHashTask = scope.fork(() -> aesUtilService.generateKey(password));
+                shards = orderShards(extractFrames(job, frames), FrameShard::metadata);
+                scope.join();
+                providedKeyHash = keyHashTask.resultNow();
             }
+            var metadata = shards.getFirst().metadata();
 
-            var providedKeyHash = aesUtilService.generateKey(password); // Generate the key hash from the provided password
             if (!providedKeyHash.equals(metadata.encryptionKeyHash())) {
                 throw new AesKeyInvalidException("Provided password does not match the encryption key.");
             }
 
-            if (metadata.hasText()) {
-                var encodedText = executorService.submit(
-                        () -> lsbUtilService.decode(stegoBytes, metadata.lsbDepth())
-                ).get(); // Decode the text from the stego image bytes
+            // Stage 2: reassemble the shards by index and decrypt the payload
+            var payloadLength = metadata.shard().payloadLength();
+            if (payloadLength < 0 || payloadLength > Integer.MAX_VALUE) {
+                throw new LsbDecodingException("Payload length is invalid or too large");
+            }
 
-                var text = executorService.submit(
-                        () -> aesUtilService.decryptText(encodedText, password)
-                ).get(); // Decrypt the encoded text using the provided password
+            // The reassembled payload and its decrypted copy
+            try (var _ = memoryBudget.reserve(payloadLength * 2L)) {
+                var encryptedPayload = concatShards(shards.stream().map(FrameShard::bytes).toList(), (int) payloadLength);
 
-                return new StegoDecodeResponseDTO(
-                        text, null, null, true, false
-                );
-            } else if (metadata.hasFile()) {
-                var encodedFile = executorService.submit(
-                        () -> lsbUtilService.decode(stegoBytes, metadata.lsbDepth())
-                ).get();
+                if (metadata.hasText()) {
+                    var text = job.call(() -> aesUtilService.decryptText(encryptedPayload, password, metadata.crypto()));
 
-                var fileBytes = executorService.submit(
-                        () -> aesUtilService.decryptFile(encodedFile, password)
-                ).get(); // Decrypt the encoded file using the provided password
+                    return new StegoDecodeResponseDTO(
+                            text, null, null, true, false, toSchedulingDTO(job)
+                    );
+                } else {
+                    var fileBytes = job.call(() -> aesUtilService.decryptFile(encryptedPayload, password, metadata.crypto()));
 
-                return new StegoDecodeResponseDTO(
-                        null, metadata.originalFileName(), fileBytes, false, true
-                );
-            } else {
-                throw new MetadataDecodingException("No text or file data found in the provided image.");
+                    return new StegoDecodeResponseDTO(
+                            null, metadata.originalFileName(), fileBytes, false, true, toSchedulingDTO(job)
+                    );
+                }
             }
 
         } catch (Exception e) {
             switch (e) {
-                case InvalidEncryptionKeyException _, MetadataNotFoundException _, StegoDataNotFoundException _,
-                     LsbDecodingException _, AesOperationException _, MetadataDecodingException _ -> throw e;
-                default -> throw new StorageException("Error during decoding process.", e);
+                case InvalidEncryptionKeyException _, AesKeyInvalidException _, MetadataNotFoundException _,
+                     LsbDecodingException _, AesOperationException _, MetadataDecodingException _,
+                     InvalidImageFormatException _, ShardSetInvalidException _, ServiceOverloadedException _,
+                     FileTooLargeException _, CancellationException _ -> throw e;
+                case InterruptedException _ -> {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                default -> throw new StorageException("Error during animated decoding process.", e);
             }
         }
-
     }
 
     /*
@@ -311,6 +1443,795 @@ public class SteganographyServiceImpl implements SteganographyService {
         }
     }
 
+    /**
+     * Runs the encode pipeline for one payload.
+     * <p>
+     * Encryption runs concurrently with preparing the ARGB working copy of the cover and checking its
+     * capacity (the encrypted length is known up front). If either stage fails, the other one is
+     * cancelled. Embedding and PNG encoding then run as one more task, since they need both results.
+     * All stages run on the CPU worker pool, holding a reservation of their estimated peak memory.
+     *
+     * @param job             The CPU job of the request.
+     * @param listener        The listener receiving the pipeline stages.
+     * @param width           The cover width in pixels.
+     * @param height          The cover height in pixels.
+     * @param workingCopy     Checks the capacity of the cover and makes its working copy.
+     * @param metadata        The metadata to embed.
+     * @param encryptedLength The length of the encrypted payload in bytes.
+     * @param encryption      The encryption stage producing the payload to embed.
+     * @return The stego image as PNG bytes.
+     * @throws FileTooLargeException      If the cover image needs more working memory than the whole budget.
+     * @throws ServiceOverloadedException If the memory budget or the CPU worker pool is exhausted.
+     * @throws InterruptedException       If the calling thread is interrupted; all running stages are cancelled.
+     * @throws ExecutionException         If a stage fails with a checked exception.
+     */
+    private byte[] embedPayload(
+            CpuJob job,
+            StegoProgressListener listener,
+            int width,
+            int height,
+            WorkingCopy workingCopy,
+            StegoMetadataDTO metadata,
+            int encryptedLength,
+            Callable<byte[]> encryption
+    ) throws InterruptedException, ExecutionException {
+
+        try (
+                var _ = memoryBudget.reserve(lsbUtilService.estimateEncodeMemory(width, height, encryptedLength));
+                var scope = new TaskScope(job)
+        ) {
+            listener.onStage(StegoJobStage.ENCRYPTING);
+            var encryptedTask = scope.fork(encryption);
+            var workingTask = scope.fork(() -> workingCopy.create(encryptedLength, metadata));
+            scope.join();
+
+            listener.onStage(StegoJobStage.EMBEDDING);
+            return job.call(
+                    () -> lsbUtilService.embed(workingTask.resultNow(), encryptedTask.resultNow(), metadata)
+            );
+        }
+    }
+
+    /**
+     * Estimates the CPU cost of an operation in pixel-equivalent work units, from the image dimensions and the
+     * payload length: every pixel is copied, scanned or PNG-encoded, and every payload byte is encrypted and
+     * spread over the pixels. The estimate orders work on the CPU worker pool.
+     *
+     * @param image         The decoded cover or stego image.
+     * @param payloadLength The payload length in bytes, or 0 if it is not known yet.
+     * @return The estimated cost.
+     */
+    private static long estimateCost(BufferedImage image, long payloadLength) {
+        return (long) image.getWidth() * image.getHeight() + payloadLength;
+    }
+
+    /**
+     * The working image of an uploaded cover is a copy made by {@code prepareCover}, after its capacity is checked.
+     */
+    private WorkingCopy uploadedCover(BufferedImage coverImage) {
+        return (payloadLength, metadata) -> {
+            lsbUtilService.ensureCapacity(coverImage, payloadLength, metadata);
+            return lsbUtilService.prepareCover(coverImage);
+        };
+    }
+
+    private void validateShardCount(int shardCount) throws ShardSetInvalidException {
+        if (shardCount < 1 || shardCount > maxShards) {
+            throw new ShardSetInvalidException("Between 1 and " + maxShards + " images are needed for a sharded payload, got " + shardCount + ".");
+        }
+    }
+
+    /**
+     * Rejects an image that does not carry a single text or file: one shard of a split payload, which can only be
+     * decoded together with the others, or a multi-entry container, whose entries are extracted by name.
+     */
+    private static void rejectMultiPartLayout(StegoMetadataDTO metadata) throws ShardSetInvalidException, InvalidContainerException {
+        var shard = metadata.shard();
+        if (shard != null) {
+            throw new ShardSetInvalidException(
+                    "The image holds shard " + (shard.index() + 1) + " of " + shard.count() + "; decode it together with the other shards."
+            );
+        }
+        if (metadata.container() != null) {
+            throw new InvalidContainerException(
+                    "The image holds a container with " + metadata.container().entryCount() + " entries; list or extract its entries instead."
+            );
+        }
+    }
+
+    // A carrier holds its metadata and at least one byte of the payload
+    private boolean canCarry(int width, int height, StegoMetadataDTO headerProbe) throws InvalidLsbDepthException, MetadataEncodingException {
+        try {
+            return lsbUtilService.payloadCapacity(width, height, headerProbe) > 0;
+        } catch (MessageTooLargeException _) {
+            return false;
+        }
+    }
+
+    /**
+     * Splits a payload across covers in proportion to their capacity, so that the shards take about as long
+     * to embed and extract as each other. Rounding leftovers go to the first covers with room to spare.
+     *
+     * @param payloadLength The length of the payload in bytes.
+     * @param capacities    The payload capacity of every cover in bytes.
+     * @return The length of every shard, in cover order.
+     * @throws MessageTooLargeException If the payload does not fit into all covers together.
+     */
+    private static int[] splitByCapacity(int payloadLength, long[] capacities) throws MessageTooLargeException {
+        var totalCapacity = 0L;
+        for (var capacity : capacities) {
+            totalCapacity += capacity;
+        }
+        if (payloadLength > totalCapacity) {
+            throw new MessageTooLargeException("Payload is too large for the cover images with the given LSB depth");
+        }
+
+        var shardLengths = new int[capacities.length];
+        var assigned = 0L;
+        for (var i = 0; i < capacities.length; i++) {
+            var share = (long) ((double) payloadLength * capacities[i] / totalCapacity);
+            shardLengths[i] = (int) Math.min(share, capacities[i]);
+            assigned += shardLengths[i];
+        }
+        for (var i = 0; assigned < payloadLength; i++) {
+            var extra = (int) Math.min(capacities[i] - shardLengths[i], payloadLength - assigned);
+            if (extra > 0) {
+                shardLengths[i] += extra;
+                assigned += extra;
+            }
+        }
+        return shardLengths;
+    }
+
+    /**
+     * Runs the encode pipeline for a payload split across several covers.
+     * <p>
+     * Encryption runs concurrently with preparing the working copies of all covers; the shards are then
+     * embedded and PNG-encoded concurrently, one task per cover. The pipeline holds a reservation of the
+     * summed peak memory of all covers.
+     *
+     * @param job          The CPU job of the request.
+     * @param listener     The listener receiving the pipeline stages.
+     * @param coverImages  The decoded cover images, in shard order.
+     * @param metadata     The metadata to embed into each cover.
+     * @param shardLengths The length of the shard embedded into each cover.
+     * @param encryption   The encryption stage producing the payload to split.
+     * @return The stego images as PNG bytes, in shard order.
+     * @throws FileTooLargeException      If the covers need more working memory than the whole budget.
+     * @throws ServiceOverloadedException If the memory budget or the CPU worker pool is exhausted.
+     * @throws InterruptedException       If the calling thread is interrupted; all running stages are cancelled.
+     * @throws ExecutionException         If a stage fails with a checked exception.
+     */
+    private List<byte[]> embedShards(
+            CpuJob job,
+            StegoProgressListener listener,
+            List<BufferedImage> coverImages,
+            StegoMetadataDTO[] metadata,
+            int[] shardLengths,
+            Callable<byte[]> encryption
+    ) throws InterruptedException, ExecutionException {
+
+        var peakMemory = 0L;
+        for (var i = 0; i < coverImages.size(); i++) {
+            peakMemory += lsbUtilService.estimateEncodeMemory(coverImages.get(i), shardLengths[i]);
+        }
+
+        try (
+                var _ = memoryBudget.reserve(peakMemory);
+                var scope = new TaskScope(job)
+        ) {
+            listener.onStage(StegoJobStage.ENCRYPTING);
+            var encryptedTask = scope.fork(encryption);
+            var workingTasks = coverImages.stream()
+                    .map(cover -> scope.fork(() -> lsbUtilService.prepareCover(cover)))
+                    .toList();
+            scope.join();
+
+            listener.onStage(StegoJobStage.EMBEDDING);
+            var encrypted = encryptedTask.resultNow();
+            var stegoTasks = new ArrayList<Future<byte[]>>(coverImages.size());
+            var offset = 0;
+            for (var i = 0; i < coverImages.size(); i++) {
+                var from = offset;
+                var to = offset + shardLengths[i];
+                var working = workingTasks.get(i).resultNow();
+                var shardMetadata = metadata[i];
+                stegoTasks.add(scope.fork(
+                        () -> lsbUtilService.embed(working, Arrays.copyOfRange(encrypted, from, to), shardMetadata)
+                ));
+                offset = to;
+            }
+            scope.join();
+
+            return stegoTasks.stream().map(Future::resultNow).toList();
+        }
+    }
+
+    /**
+     * Decodes an uploaded stego image and reads its metadata, which must carry a shard header.
+     *
+     * @param stegoImageBytes The uploaded stego image.
+     * @return The decoded image with its metadata.
+     */
+    private ProbedImage probeShard(byte[] stegoImageBytes) throws Exception {
+        var stegoImage = lsbUtilService.readImage(stegoImageBytes);
+        var metadata = lsbUtilService.extractMetadata(stegoImage);
+
+        if (metadata == null) {
+            throw new MetadataNotFoundException("No metadata found in the provided image.");
+        }
+        if (metadata.shard() == null) {
+            throw new ShardSetInvalidException("An image does not carry a shard header; decode it on its own.");
+        }
+        return new ProbedImage(stegoImage, metadata);
+    }
+
+    /**
+     * Orders the shards of one payload by index, checking that together they form exactly one complete set.
+     *
+     * @param probed     The shards, in upload order.
+     * @param metadataOf Reads the metadata of a shard.
+     * @return The shards in index order.
+     * @throws ShardSetInvalidException If shards are missing, duplicated or belong to different payloads.
+     */
+    private static <T> List<T> orderShards(List<T> probed, Function<T, StegoMetadataDTO> metadataOf) throws ShardSetInvalidException {
+        if (probed.isEmpty()) {
+            throw new MetadataNotFoundException("No image carries a shard header.");
+        }
+        var first = metadataOf.apply(probed.getFirst());
+        var count = first.shard().count();
+        if (probed.size() != count) {
+            throw new ShardSetInvalidException("The payload was split into " + count + " shards, but " + probed.size() + " images were given.");
+        }
+
+        var ordered = new ArrayList<T>(Collections.nCopies(count, null));
+        for (var image : probed) {
+            var metadata = metadataOf.apply(image);
+            var shard = metadata.shard();
+            if (
+                    !shard.setId().equals(first.shard().setId())
+                            || shard.count() != count
+                            || shard.payloadLength() != first.shard().payloadLength()
+                            || !Objects.equals(metadata.encryptionKeyHash(), first.encryptionKeyHash())
+            ) {
+                throw new ShardSetInvalidException("The images belong to different shard sets.");
+            }
+            if (shard.index() < 0 || shard.index() >= count || ordered.get(shard.index()) != null) {
+                throw new ShardSetInvalidException("Shard " + (shard.index() + 1) + " is invalid or was given more than once.");
+            }
+            ordered.set(shard.index(), image);
+        }
+        return ordered;
+    }
+
+    /**
+     * Extracts the shards concurrently, one task per image, and concatenates them in index order.
+     *
+     * @param job           The CPU job of the request.
+     * @param shards        The decoded shards, in index order.
+     * @param payloadLength The length of the whole payload recorded in the shard headers.
+     * @return The reassembled encrypted payload.
+     * @throws LsbDecodingException If the shards do not add up to the recorded payload length.
+     */
+    private byte[] extractShards(CpuJob job, List<ProbedImage> shards, int payloadLength) throws InterruptedException, ExecutionException {
+        try (var scope = new TaskScope(job)) {
+            var shardTasks = shards.stream()
+                    .map(shard -> scope.fork(() -> lsbUtilService.decode(shard.image(), shard.metadata().lsbDepth())))
+                    .toList();
+            scope.join();
+
+            return concatShards(shardTasks.stream().map(Future::resultNow).toList(), payloadLength);
+        }
+    }
+
+    /**
+     * Concatenates extracted shards in index order, checking them against the recorded payload length.
+     *
+     * @param shards        The extracted shard bytes, in index order.
+     * @param payloadLength The length of the whole payload recorded in the shard headers.
+     * @return The reassembled encrypted payload.
+     * @throws LsbDecodingException If the shards do not add up to the recorded payload length.
+     */
+    private static byte[] concatShards(List<byte[]> shards, int payloadLength) throws LsbDecodingException {
+        var payload = new byte[payloadLength];
+        var offset = 0;
+        for (var shardBytes : shards) {
+            if (shardBytes.length > payloadLength - offset) {
+                throw new LsbDecodingException("The shards are longer than the payload recorded in their headers");
+            }
+            System.arraycopy(shardBytes, 0, payload, offset, shardBytes.length);
+            offset += shardBytes.length;
+        }
+        if (offset != payloadLength) {
+            throw new LsbDecodingException("The shards are shorter than the payload recorded in their headers");
+        }
+        return payload;
+    }
+
+    private void validateFrameCount(int frameCount) throws InvalidImageFormatException {
+        if (frameCount > maxFrames) {
+            throw new InvalidImageFormatException("Animations with up to " + maxFrames + " frames are supported, got " + frameCount + ".");
+        }
+    }
+
+    private static long framePixels(List<StegoFrameDTO> frames) {
+        return frames.stream().mapToLong(frame -> (long) frame.width() * frame.height()).sum();
+    }
+
+    /**
+     * Embeds the shards of a payload into the frames of an animation, {@code frameParallelism} frames at a time.
+     * Each task decodes its frame, embeds the shard and encodes the frame PNG, so only the frames of one wave are
+     * held as rasters.
+     *
+     * @param job          The CPU job of the request.
+     * @param frames       The frames of the animation.
+     * @param metadata     The metadata to embed into each frame, or null for frames kept unchanged.
+     * @param shardLengths The length of each shard, in shard order.
+     * @param encrypted    The encrypted payload.
+     * @return One stego PNG per frame, or null for frames kept unchanged.
+     */
+    private List<byte[]> embedFrames(CpuJob job, List<StegoFrameDTO> frames, StegoMetadataDTO[] metadata, int[] shardLengths, byte[] encrypted) throws InterruptedException, ExecutionException {
+        var shardStarts = new int[frames.size()];
+        var offset = 0;
+        for (var i = 0; i < frames.size(); i++) {
+            shardStarts[i] = offset;
+            if (metadata[i] != null) {
+                offset += shardLengths[metadata[i].shard().index()];
+            }
+        }
+
+        var largestFrameMemory = frames.stream()
+                .mapToLong(frame -> lsbUtilService.estimateEncodeMemory(frame.width(), frame.height(), encrypted.length))
+                .max()
+                .orElse(0);
+        var stegoFrames = new ArrayList<byte[]>(Collections.nCopies(frames.size(), null));
+        try (
+                var _ = memoryBudget.reserve(Math.min(frameParallelism, frames.size()) * largestFrameMemory);
+                var scope = new TaskScope(job)
+        ) {
+            for (var start = 0; start < frames.size(); start += frameParallelism) {
+                var end = Math.min(frames.size(), start + frameParallelism);
+                var tasks = new ArrayList<Future<byte[]>>(end - start);
+                for (var i = start; i < end; i++) {
+                    var frame = frames.get(i);
+                    var frameMetadata = metadata[i];
+                    if (frameMetadata == null) {
+                        tasks.add(null);
+                        continue;
+                    }
+                    var from = shardStarts[i];
+                    var to = from + shardLengths[frameMetadata.shard().index()];
+                    tasks.add(scope.fork(() -> lsbUtilService.embed(
+                            lsbUtilService.readImage(frame.png()),
+                            Arrays.copyOfRange(encrypted, from, to),
+                            frameMetadata
+                    )));
+                }
+                scope.join();
+
+                for (var i = start; i < end; i++) {
+                    var task = tasks.get(i - start);
+                    stegoFrames.set(i, task == null ? null : task.resultNow());
+                }
+            }
+
+            return stegoFrames;
+        }
+    }
+
+    /**
+     * Extracts the shards of a payload from the frames of an animation, {@code frameParallelism} frames at a time.
+     * Each task decodes its frame, reads the header and the shard and drops the raster. Frames without a stego
+     * header were kept unchanged during encoding and are skipped.
+     *
+     * @param job    The CPU job of the request.
+     * @param frames The frames of the animation.
+     * @return The shards found, in frame order.
+     * @throws ShardSetInvalidException If a frame carries a header that is not a shard header.
+     */
+    private List<FrameShard> extractFrames(CpuJob job, List<StegoFrameDTO> frames) throws InterruptedException, ExecutionException {
+        var largestFrameMemory = frames.stream()
+                .mapToLong(frame -> 4L * frame.width() * frame.height()) // the ARGB raster of a frame
+                .max()
+                .orElse(0);
+        var shards = new ArrayList<FrameShard>();
+        try (
+                var _ = memoryBudget.reserve(Math.min(frameParallelism, frames.size()) * largestFrameMemory);
+                var scope = new TaskScope(job)
+        ) {
+            for (var start = 0; start < frames.size(); start += frameParallelism) {
+                var end = Math.min(frames.size(), start + frameParallelism);
+                var tasks = frames.subList(start, end).stream()
+                        .map(frame -> scope.fork(() -> extractFrame(frame)))
+                        .toList();
+                scope.join();
+
+                tasks.stream()
+                        .map(Future::resultNow)
+                        .filter(Objects::nonNull)
+                        .forEach(shards::add);
+            }
+
+            return shards;
+        }
+    }
+
+    private FrameShard extractFrame(StegoFrameDTO frame) throws Exception {
+        var frameImage = lsbUtilService.readImage(frame.png());
+
+        StegoMetadataDTO metadata;
+        try {
+            metadata = lsbUtilService.extractMetadata(frameImage);
+        } catch (InvalidImageFormatException | MetadataNotFoundException | MetadataDecodingException _) {
+            // No stego header: the frame was too small to carry a shard. A damaged carrier surfaces as a missing shard.
+            return null;
+        }
+        if (metadata == null || metadata.shard() == null) {
+            throw new ShardSetInvalidException("Frame " + (frame.index() + 1) + " does not carry a shard header.");
+        }
+        return new FrameShard(metadata, lsbUtilService.decode(frameImage, metadata.lsbDepth()));
+    }
+
+    /**
+     * Decodes an uploaded stego image and reads its metadata, within the caller's memory reservation.
+     *
+     * @param job             The CPU job of the request leading the flight.
+     * @param stegoImageBytes The uploaded stego image.
+     * @return The decoded image with its metadata.
+     */
+    private ProbedImage probeImage(CpuJob job, byte[] stegoImageBytes) throws Exception {
+        return job.call(() -> {
+            var stegoImage = lsbUtilService.readImage(stegoImageBytes);
+            var metadata = lsbUtilService.extractMetadata(stegoImage);
+
+            if (metadata == null) {
+                throw new MetadataNotFoundException("No metadata found in the provided image.");
+            }
+            rejectMultiPartLayout(metadata);
+            if (!metadata.hasText() && !metadata.hasFile()) {
+                throw new MetadataDecodingException("No text or file data found in the provided image.");
+            }
+            return new ProbedImage(stegoImage, metadata);
+        });
+    }
+
+    /**
+     * Extracts the encrypted payload from a probed stego image, within the caller's memory reservation.
+     *
+     * @param job    The CPU job of the request leading the flight.
+     * @param probed The decoded image with its metadata.
+     * @return The encrypted payload.
+     */
+    private byte[] extractPayload(CpuJob job, ProbedImage probed) throws Exception {
+        return job.call(() -> lsbUtilService.decode(probed.image(), probed.metadata().lsbDepth()));
+    }
+
+    private void validateContainerEntries(List<StegoContainerEntryDTO> entries) throws InvalidContainerException {
+        if (entries.isEmpty() || entries.size() > maxContainerEntries) {
+            throw new InvalidContainerException("A container holds between 1 and " + maxContainerEntries + " entries, got " + entries.size() + ".");
+        }
+
+        var names = new HashSet<String>();
+        for (var entry : entries) {
+            if (entry.name() == null || entry.name().isBlank() || entry.content() == null) {
+                throw new InvalidContainerException("Every container entry needs a name and content.");
+            }
+            if (!names.add(entry.name())) {
+                throw new InvalidContainerException("Container entry names must be unique: " + entry.name());
+            }
+        }
+    }
+
+    /**
+     * Runs the encode pipeline for a container.
+     * <p>
+     * The directory and every entry are encrypted on their own and concurrently, while the working copy of the
+     * cover is prepared and its capacity checked. Embedding and PNG encoding then run as one more task.
+     *
+     * @param job            The CPU job of the request.
+     * @param listener       The listener receiving the pipeline stages.
+     * @param coverImage     The decoded cover image.
+     * @param metadata       The metadata to embed, with the container header.
+     * @param entries        The entries to pack, in directory order.
+     * @param directory      The directory describing the entries.
+     * @param directoryBytes The serialized directory.
+     * @param password       The password for encrypting the directory and every entry.
+     * @return The stego image as PNG bytes.
+     * @throws FileTooLargeException      If the cover image needs more working memory than the whole budget.
+     * @throws ServiceOverloadedException If the memory budget or the CPU worker pool is exhausted.
+     * @throws InterruptedException       If the calling thread is interrupted; all running stages are cancelled.
+     * @throws ExecutionException         If a stage fails with a checked exception.
+     */
+    private byte[] embedContainer(
+            CpuJob job,
+            StegoProgressListener listener,
+            BufferedImage coverImage,
+            StegoMetadataDTO metadata,
+            List<StegoContainerEntryDTO> entries,
+            List<StegoDirectoryEntryDTO> directory,
+            byte[] directoryBytes,
+            String password
+    ) throws InterruptedException, ExecutionException {
+
+        var entryLengths = directory.stream().mapToInt(StegoDirectoryEntryDTO::encryptedLength).toArray();
+        var storedLength = metadata.container().directoryLength() + Arrays.stream(entryLengths).asLongStream().sum();
+
+        try (
+                var _ = memoryBudget.reserve(lsbUtilService.estimateEncodeMemory(coverImage, storedLength));
+                var scope = new TaskScope(job)
+        ) {
+            listener.onStage(StegoJobStage.ENCRYPTING);
+            var directoryTask = scope.fork(() -> aesUtilService.encryptFile(directoryBytes, password, metadata.crypto()));
+            var entryTasks = entries.stream()
+                    .map(entry -> scope.fork(() -> aesUtilService.encryptFile(entry.content(), password, metadata.crypto())))
+                    .toList();
+            var workingTask = scope.fork(() -> {
+                lsbUtilService.ensureContainerCapacity(coverImage, entryLengths, metadata);
+                return lsbUtilService.prepareCover(coverImage);
+            });
+            scope.join();
+
+            listener.onStage(StegoJobStage.EMBEDDING);
+            var encryptedEntries = entryTasks.stream().map(Future::resultNow).toList();
+            return job.call(
+                    () -> lsbUtilService.embedContainer(workingTask.resultNow(), directoryTask.resultNow(), encryptedEntries, metadata)
+            );
+        }
+    }
+
+    /**
+     * Reads and decrypts the directory of a container image.
+     *
+     * @param probed   The decoded image with its metadata.
+     * @param password The password used to decrypt the directory.
+     * @return The directory entries, in storage order.
+     * @throws MetadataDecodingException If the directory cannot be parsed or does not match the container header.
+     */
+    private List<StegoDirectoryEntryDTO> readDirectory(ProbedImage probed, String password) throws Exception {
+        var metadata = probed.metadata();
+        var directoryBytes = aesUtilService.decryptFile(
+                lsbUtilService.readContainerDirectory(probed.image(), metadata),
+                password,
+                metadata.crypto()
+        );
+
+        List<StegoDirectoryEntryDTO> directory;
+        try {
+            directory = List.of(mapper.readValue(directoryBytes, StegoDirectoryEntryDTO[].class));
+        } catch (IOException e) {
+            throw new MetadataDecodingException("Failed to decode the container directory", e);
+        }
+        if (directory.size() != metadata.container().entryCount()) {
+            throw new MetadataDecodingException("Container directory does not match the container header");
+        }
+        return directory;
+    }
+
+    private void validateBatchItems(List<StegoBatchItemDTO> items) throws InvalidBatchException {
+        if (items.isEmpty() || items.size() > maxBatchItems) {
+            throw new InvalidBatchException("A batch holds between 1 and " + maxBatchItems + " messages, got " + items.size() + ".");
+        }
+
+        for (var item : items) {
+            if (item == null || item.message() == null || item.password() == null || item.password().isBlank()) {
+                throw new InvalidBatchException("Every batch item needs a message and a password.");
+            }
+        }
+    }
+
+    /**
+     * Runs the encode pipeline for a batch of messages sharing one cover.
+     * <p>
+     * The cover is converted to its ARGB working copy once. The messages are then processed in waves of
+     * {@code stego.batch.parallelism}: every message of a wave is encrypted, embedded into its own copy of the
+     * converted pixels and PNG-encoded as one task, and the wave's tasks run concurrently. Waves bound both the
+     * working memory held at once and the number of tasks queued on the CPU worker pool.
+     *
+     * @param job              The CPU job of the request.
+     * @param coverImage       The decoded cover image.
+     * @param items            The messages with their passwords.
+     * @param metadata         The metadata to embed with every message, in item order.
+     * @param maxMessageLength The length of the longest message in bytes.
+     * @return The stego images as PNG bytes, in item order.
+     * @throws FileTooLargeException      If the cover image needs more working memory than the whole budget.
+     * @throws ServiceOverloadedException If the memory budget or the CPU worker pool is exhausted.
+     * @throws InterruptedException       If the calling thread is interrupted; all running stages are cancelled.
+     * @throws ExecutionException         If a stage fails with a checked exception.
+     */
+    private byte[][] embedBatch(
+            CpuJob job,
+            BufferedImage coverImage,
+            List<StegoBatchItemDTO> items,
+            StegoMetadataDTO[] metadata,
+            int maxMessageLength
+    ) throws InterruptedException, ExecutionException {
+
+        var wave = Math.min(batchParallelism, items.size());
+        var encryptedLength = aesUtilService.encryptedLength(maxMessageLength, metadata[0].crypto());
+        var stegoBytes = new byte[items.size()][];
+
+        // The shared ARGB working copy, plus the working memory of one encode per message in a wave
+        var sharedCopyBytes = 4L * coverImage.getWidth() * coverImage.getHeight();
+        try (
+                var _ = memoryBudget.reserve(sharedCopyBytes + wave * lsbUtilService.estimateEncodeMemory(coverImage, encryptedLength));
+                var scope = new TaskScope(job)
+        ) {
+            var working = job.call(() -> lsbUtilService.prepareCover(coverImage));
+
+            for (var start = 0; start < items.size(); start += wave) {
+                var end = Math.min(items.size(), start + wave);
+                var tasks = new ArrayList<Future<byte[]>>(end - start);
+                for (var i = start; i < end; i++) {
+                    var item = items.get(i);
+                    var itemMetadata = metadata[i];
+                    tasks.add(scope.fork(() -> lsbUtilService.embed(
+                            lsbUtilService.copyWorkingImage(working),
+                            aesUtilService.encryptText(item.message(), item.password(), itemMetadata.crypto()),
+                            itemMetadata
+                    )));
+                }
+                scope.join();
+
+                for (var i = start; i < end; i++) {
+                    stegoBytes[i] = tasks.get(i - start).resultNow();
+                }
+            }
+
+            return stegoBytes;
+        }
+    }
+
+    /**
+     * Runs the encode pipeline for a chunked file.
+     * <p>
+     * The chunks are encrypted under one derived key while the working copy of the cover is prepared and its
+     * capacity checked against the chunk index. Embedding and PNG encoding then run as one more task.
+     *
+     * @param job        The CPU job of the request.
+     * @param listener   The listener receiving the pipeline stages.
+     * @param coverImage The decoded cover image.
+     * @param metadata   The metadata to embed, with the chunk index.
+     * @param fileBytes  The file to encrypt and embed.
+     * @param password   The password for encrypting the chunks.
+     * @return The stego image as PNG bytes.
+     * @throws FileTooLargeException      If the cover image needs more working memory than the whole budget.
+     * @throws ServiceOverloadedException If the memory budget or the CPU worker pool is exhausted.
+     * @throws InterruptedException       If the calling thread is interrupted; all running stages are cancelled.
+     * @throws ExecutionException         If a stage fails with a checked exception.
+     */
+    private byte[] embedChunked(
+            CpuJob job,
+            StegoProgressListener listener,
+            BufferedImage coverImage,
+            StegoMetadataDTO metadata,
+            byte[] fileBytes,
+            String password
+    ) throws InterruptedException, ExecutionException {
+
+        var index = metadata.chunks();
+        var storedLength = index.headerLength()
+                + (long) (index.chunkCount() - 1) * index.storedChunkLength()
+                + index.lastStoredChunkLength();
+
+        try (
+                var _ = memoryBudget.reserve(lsbUtilService.estimateEncodeMemory(coverImage, storedLength));
+                var scope = new TaskScope(job)
+        ) {
+            listener.onStage(StegoJobStage.ENCRYPTING);
+            var encryptedTask = scope.fork(() -> aesUtilService.encryptChunks(fileBytes, index.chunkSize(), password, metadata.crypto()));
+            var workingTask = scope.fork(() -> {
+                lsbUtilService.ensureChunkedCapacity(coverImage, metadata);
+                return lsbUtilService.prepareCover(coverImage);
+            });
+            scope.join();
+
+            listener.onStage(StegoJobStage.EMBEDDING);
+            var encrypted = encryptedTask.resultNow();
+            return job.call(
+                    () -> lsbUtilService.embedChunked(workingTask.resultNow(), encrypted.header(), encrypted.chunks(), metadata)
+            );
+        }
+    }
+
+    /**
+     * Reads and decrypts the bytes [start, end) of a chunked file. Only the key header and the chunks overlapping
+     * the range are read from the image, and the key is derived once for all of them.
+     *
+     * @param job      The CPU job of the request.
+     * @param probed   The decoded image with its metadata.
+     * @param password The password used to decrypt the chunks.
+     * @param start    The position of the first byte to return.
+     * @param end      The position after the last byte to return; at most the file length.
+     * @return The requested bytes.
+     * @throws MetadataDecodingException If the chunk index is inconsistent.
+     * @throws LsbDecodingException      If the chunks hold fewer bytes than the chunk index describes.
+     */
+    private byte[] readRange(CpuJob job, ProbedImage probed, String password, long start, long end) throws Exception {
+        var metadata = probed.metadata();
+        var index = metadata.chunks();
+        if (index.chunkSize() <= 0 || index.fileLength() < 0 || end - start > Integer.MAX_VALUE) {
+            throw new MetadataDecodingException("Chunk index is invalid or describes too large a file");
+        }
+        if (start >= end) {
+            return new byte[0];
+        }
+
+        var firstChunk = (int) (start / index.chunkSize());
+        var chunkCount = (int) ((end - 1) / index.chunkSize()) - firstChunk + 1;
+
+        // The stored chunks, their decrypted copies and the returned range
+        try (var _ = memoryBudget.reserve(2L * chunkCount * index.storedChunkLength() + (end - start))) {
+            var plainChunks = job.call(() -> aesUtilService.decryptChunks(
+                    lsbUtilService.readChunkHeader(probed.image(), metadata),
+                    lsbUtilService.readChunks(probed.image(), metadata, firstChunk, chunkCount),
+                    firstChunk,
+                    index.chunkCount(),
+                    password,
+                    metadata.crypto()
+            ));
+
+            var range = new byte[(int) (end - start)];
+            var written = 0;
+            for (var i = 0; i < plainChunks.size(); i++) {
+                var chunk = plainChunks.get(i);
+                var chunkOffset = (long) (firstChunk + i) * index.chunkSize();
+                var from = (int) Math.max(0, start - chunkOffset);
+                var to = (int) Math.min(chunk.length, end - chunkOffset);
+                if (to > from) {
+                    System.arraycopy(chunk, from, range, written, to - from);
+                    written += to - from;
+                }
+            }
+            if (written != range.length) {
+                throw new LsbDecodingException("Chunks hold fewer bytes than the chunk index describes");
+            }
+            return range;
+        }
+    }
+
+    /**
+     * @return The hex-encoded SHA-256 hash of the uploaded image, identifying identical requests.
+     */
+    private String contentHash(byte[] imageBytes) throws Exception {
+        return cryptoPrimitivePool.withMessageDigest("SHA-256", digest -> HexFormat.of().formatHex(digest.digest(imageBytes)));
+    }
+
+    /**
+     * Identifies one step of decoding an uploaded image; identical concurrent steps share one computation.
+     *
+     * @param contentHash The SHA-256 hash of the uploaded image.
+     * @param operation   The step, qualified by the password hash for steps whose result depends on the password.
+     */
+    private record DecodeFlight(String contentHash, String operation) {
+    }
+
+    /**
+     * Makes the working image an encode embeds into, once the length of the payload and its metadata are known.
+     */
+    @FunctionalInterface
+    private interface WorkingCopy {
+        BufferedImage create(long payloadLength, StegoMetadataDTO metadata) throws Exception;
+    }
+
+    private record ProbedImage(BufferedImage image, StegoMetadataDTO metadata) {
+    }
+
+    /**
+     * The shard extracted from one frame of an animation; the frame raster is not kept.
+     */
+    private record FrameShard(StegoMetadataDTO metadata, byte[] bytes) {
+    }
+
+    /**
+     * The directory of a container, and the entry extracted from it if one was requested.
+     */
+    private record ContainerRead(List<StegoDirectoryEntryDTO> directory, StegoContainerEntryDTO entry) {
+    }
+
+    private static StegoSchedulingDTO toSchedulingDTO(CpuJob job) {
+        return new StegoSchedulingDTO(job.estimatedCost(), job.queueWait().toMillis());
+    }
+
     private static byte[] bufferedImageToPngBytes(BufferedImage bufferedImage) {
 
         try (var baos = new ByteArrayOutputStream()) {
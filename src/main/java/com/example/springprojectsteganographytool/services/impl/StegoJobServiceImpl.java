@@ -0,0 +1,340 @@
+package com.example.springprojectsteganographytool.services.impl;
+
+import com.example.springprojectsteganographytool.concurrency.CpuWorkerPool;
+import com.example.springprojectsteganographytool.concurrency.Deadline;
+import com.example.springprojectsteganographytool.exceptions.common.DeadlineExceededException;
+import com.example.springprojectsteganographytool.exceptions.common.ServiceOverloadedException;
+import com.example.springprojectsteganographytool.exceptions.data.InvalidIdempotencyKeyException;
+import com.example.springprojectsteganographytool.exceptions.data.StegoJobNotCompletedException;
+import com.example.springprojectsteganographytool.exceptions.data.StegoJobNotFoundException;
+import com.example.springprojectsteganographytool.models.StegoDecodeResponseDTO;
+import com.example.springprojectsteganographytool.models.StegoEncodeResponseDTO;
+import com.example.springprojectsteganographytool.models.StegoJobResultDTO;
+import com.example.springprojectsteganographytool.models.StegoJobStage;
+import com.example.springprojectsteganographytool.models.StegoJobStatusDTO;
+import com.example.springprojectsteganographytool.models.StegoJobType;
+import com.example.springprojectsteganographytool.services.IdempotencyService;
+import com.example.springprojectsteganographytool.services.LsbUtilService;
+import com.example.springprojectsteganographytool.services.SteganographyService;
+import com.example.springprojectsteganographytool.services.StegoJobService;
+import com.example.springprojectsteganographytool.services.StegoProgressListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs encode and decode pipelines as background jobs on virtual threads of this node.
+ * Jobs are held in memory: encode results are persisted by the pipeline as usual, while decode results
+ * are only kept until the job's retention period ends.
+ * Replaced by {@link DistributedStegoJobServiceImpl} when the shared work queue is enabled.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "stego.distributed.enabled", havingValue = "false", matchIfMissing = true)
+public class StegoJobServiceImpl implements StegoJobService {
+
+    private final SteganographyService steganographyService;
+    private final IdempotencyService idempotencyService;
+    private final LsbUtilService lsbUtilService;
+    private final CpuWorkerPool cpuWorkerPool;
+    private final ExecutorService virtualThreadExecutor;
+    private final Duration jobTimeout;
+    private final Duration retention;
+    private final int maxActive;
+    private final Duration retryAfter;
+    private final long sseTimeoutMillis;
+
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger activeJobs = new AtomicInteger();
+
+    public StegoJobServiceImpl(
+            SteganographyService steganographyService,
+            IdempotencyService idempotencyService,
+            LsbUtilService lsbUtilService,
+            CpuWorkerPool cpuWorkerPool,
+            ExecutorService virtualThreadExecutor,
+            @Value("${stego.jobs.timeout:10m}") Duration jobTimeout,
+            @Value("${stego.jobs.retention:15m}") Duration retention,
+            @Value("${stego.jobs.max-active:32}") int maxActive,
+            @Value("${stego.jobs.retry-after:5s}") Duration retryAfter,
+            @Value("${stego.jobs.sse-timeout:10m}") Duration sseTimeout
+    ) {
+        this.steganographyService = steganographyService;
+        this.idempotencyService = idempotencyService;
+        this.lsbUtilService = lsbUtilService;
+        this.cpuWorkerPool = cpuWorkerPool;
+        this.virtualThreadExecutor = virtualThreadExecutor;
+        this.jobTimeout = jobTimeout;
+        this.retention = retention;
+        this.maxActive = maxActive;
+        this.retryAfter = retryAfter;
+        this.sseTimeoutMillis = sseTimeout.toMillis();
+    }
+
+    @Override
+    public StegoJobStatusDTO submitEncodeText(byte[] coverImageBytes, String message, String password, int lsbDepth, String idempotencyKey) throws ServiceOverloadedException, InvalidIdempotencyKeyException {
+        var requestHash = idempotencyService.checkRequest(idempotencyKey, StegoJobType.ENCODE_TEXT, coverImageBytes, message, null, null, password, lsbDepth);
+        return submit(StegoJobType.ENCODE_TEXT, listener -> idempotencyService.encodeOnce(idempotencyKey, requestHash, () ->
+                steganographyService.encodeText(readImage(coverImageBytes), message, password, lsbDepth, listener)));
+    }
+
+    @Override
+    public StegoJobStatusDTO submitEncodeFile(byte[] coverImageBytes, String originalFileName, byte[] fileBytes, String password, int lsbDepth, String idempotencyKey) throws ServiceOverloadedException, InvalidIdempotencyKeyException {
+        var requestHash = idempotencyService.checkRequest(idempotencyKey, StegoJobType.ENCODE_FILE, coverImageBytes, null, originalFileName, fileBytes, password, lsbDepth);
+        return submit(StegoJobType.ENCODE_FILE, listener -> idempotencyService.encodeOnce(idempotencyKey, requestHash, () ->
+                steganographyService.encodeFile(readImage(coverImageBytes), originalFileName, fileBytes, password, lsbDepth, listener)));
+    }
+
+    @Override
+    public StegoJobStatusDTO submitEncodeTextWithLibraryCover(String message, String password, int lsbDepth, String idempotencyKey) throws ServiceOverloadedException, InvalidIdempotencyKeyException {
+        var requestHash = idempotencyService.checkRequest(idempotencyKey, StegoJobType.ENCODE_TEXT_LIBRARY, null, message, null, null, password, lsbDepth);
+        return submit(StegoJobType.ENCODE_TEXT_LIBRARY, listener -> idempotencyService.encodeOnce(idempotencyKey, requestHash, () ->
+                steganographyService.encodeTextWithLibraryCover(message, password, lsbDepth, listener)));
+    }
+
+    @Override
+    public StegoJobStatusDTO submitEncodeFileWithLibraryCover(String originalFileName, byte[] fileBytes, String password, int lsbDepth, String idempotencyKey) throws ServiceOverloadedException, InvalidIdempotencyKeyException {
+        var requestHash = idempotencyService.checkRequest(idempotencyKey, StegoJobType.ENCODE_FILE_LIBRARY, null, null, originalFileName, fileBytes, password, lsbDepth);
+        return submit(StegoJobType.ENCODE_FILE_LIBRARY, listener -> idempotencyService.encodeOnce(idempotencyKey, requestHash, () ->
+                steganographyService.encodeFileWithLibraryCover(originalFileName, fileBytes, password, lsbDepth, listener)));
+    }
+
+    @Override
+    public StegoJobStatusDTO submitDecode(byte[] stegoImageBytes, String password) throws ServiceOverloadedException {
+        return submit(StegoJobType.DECODE, listener ->
+                steganographyService.decodeProcess(stegoImageBytes, password, listener));
+    }
+
+    @Override
+    public StegoJobStatusDTO getStatus(UUID jobId) throws StegoJobNotFoundException {
+        return findJob(jobId).status();
+    }
+
+    @Override
+    public SseEmitter subscribe(UUID jobId) throws StegoJobNotFoundException {
+        var job = findJob(jobId);
+        var emitter = new SseEmitter(sseTimeoutMillis);
+
+        emitter.onCompletion(() -> job.emitters.remove(emitter));
+        emitter.onTimeout(() -> job.emitters.remove(emitter));
+        emitter.onError(_ -> job.emitters.remove(emitter));
+
+        // Sent under the job's lock, so no later stage can reach the emitter ahead of this snapshot
+        synchronized (job) {
+            var status = job.status;
+            if (!send(emitter, status)) {
+                return emitter;
+            }
+            if (isTerminal(status.stage())) {
+                emitter.complete();
+            } else {
+                job.emitters.add(emitter);
+            }
+        }
+        return emitter;
+    }
+
+    @Override
+    public StegoJobResultDTO getResult(UUID jobId) throws StegoJobNotFoundException, StegoJobNotCompletedException {
+        var job = findJob(jobId);
+        var status = job.status();
+
+        return switch (status.stage()) {
+            case COMPLETED -> switch (job.result) {
+                case StegoEncodeResponseDTO encoded -> new StegoJobResultDTO(status, encoded, null);
+                case StegoDecodeResponseDTO decoded -> new StegoJobResultDTO(status, null, decoded);
+                default -> throw new IllegalStateException("Job " + jobId + " completed without a result.");
+            };
+            case FAILED -> throw new StegoJobNotCompletedException("Job " + jobId + " failed: " + status.error());
+            default -> throw new StegoJobNotCompletedException("Job " + jobId + " is still running (" + status.stage() + ").");
+        };
+    }
+
+    /**
+     * Registers a job and starts its pipeline on a virtual thread.
+     *
+     * @param type     The type of the job.
+     * @param pipeline The encode or decode operation to run.
+     * @return The initial status of the job.
+     * @throws ServiceOverloadedException If too many jobs are already running.
+     */
+    private StegoJobStatusDTO submit(StegoJobType type, Pipeline pipeline) {
+        evictExpired();
+
+        if (activeJobs.incrementAndGet() > maxActive) {
+            activeJobs.decrementAndGet();
+            throw new ServiceOverloadedException("Too many background jobs are running, try again later.", retryAfter);
+        }
+
+        var job = new Job(UUID.randomUUID(), type, Instant.now());
+        jobs.put(job.id, job);
+        try {
+            virtualThreadExecutor.execute(() -> run(job, pipeline));
+        } catch (RuntimeException e) {
+            jobs.remove(job.id);
+            activeJobs.decrementAndGet();
+            throw new ServiceOverloadedException("Background jobs are not accepted at the moment.", retryAfter);
+        }
+        return job.status();
+    }
+
+    /**
+     * Runs a job's pipeline under the job deadline and records its outcome.
+     *
+     * @param job      The job to run.
+     * @param pipeline The encode or decode operation to run.
+     */
+    private void run(Job job, Pipeline pipeline) {
+        try (var _ = Deadline.within(jobTimeout)) {
+            job.advance(StegoJobStage.READING_IMAGE, null);
+            job.result = pipeline.run(stage -> job.advance(stage, null));
+            job.advance(StegoJobStage.COMPLETED, null);
+        } catch (Exception e) {
+            var cause = unwrap(e);
+            log.warn("Background job {} failed: {}", job.id, cause.toString());
+            job.advance(StegoJobStage.FAILED, describe(cause));
+        } finally {
+            activeJobs.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the failure behind a pipeline exception, restoring the interrupt flag if the job was interrupted.
+     */
+    static Throwable unwrap(Exception e) {
+        var cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        return cause;
+    }
+
+    private BufferedImage readImage(byte[] imageBytes) throws Exception {
+        return cpuWorkerPool.newJob(imageBytes.length).call(() -> lsbUtilService.readCover(imageBytes));
+    }
+
+    /**
+     * Returns the error message reported for a failed job.
+     */
+    static String describe(Throwable failure) {
+        if (failure instanceof DeadlineExceededException) {
+            return "The job did not finish in time.";
+        }
+        return failure.getMessage() != null ? failure.getMessage() : failure.getClass().getSimpleName();
+    }
+
+    private Job findJob(UUID jobId) {
+        evictExpired();
+
+        var job = jobs.get(jobId);
+        if (job == null) {
+            throw new StegoJobNotFoundException("No background job found with ID: " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Removes finished jobs whose retention period has passed.
+     */
+    private void evictExpired() {
+        var cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedDate != null && job.finishedDate.isBefore(cutoff));
+    }
+
+    private static boolean isTerminal(StegoJobStage stage) {
+        return stage == StegoJobStage.COMPLETED || stage == StegoJobStage.FAILED;
+    }
+
+    /**
+     * Sends a progress event, dropping the emitter if the client has gone away.
+     *
+     * @return true if the event was sent.
+     */
+    private static boolean send(SseEmitter emitter, StegoJobStatusDTO status) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("progress")
+                    .id(Integer.toString(status.stageIndex()))
+                    .data(status));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    /**
+     * An encode or decode operation run by a job.
+     */
+    @FunctionalInterface
+    private interface Pipeline {
+        Object run(StegoProgressListener listener) throws Exception;
+    }
+
+    /**
+     * State of a single background job.
+     * Status changes, subscriber registration and the events sent to subscribers are synchronized on the job,
+     * so a subscriber receives the status at subscription first and then every later stage in order.
+     */
+    private static final class Job {
+
+        private final UUID id;
+        private final StegoJobType type;
+        private final Instant createdDate;
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+        private volatile StegoJobStatusDTO status;
+        private volatile Object result;
+        private volatile Instant finishedDate;
+
+        private Job(UUID id, StegoJobType type, Instant createdDate) {
+            this.id = id;
+            this.type = type;
+            this.createdDate = createdDate;
+            this.status = statusOf(StegoJobStage.QUEUED, 0, null, createdDate);
+        }
+
+        private StegoJobStatusDTO status() {
+            return status;
+        }
+
+        private synchronized void advance(StegoJobStage stage, String error) {
+            if (isTerminal(status.stage())) {
+                return;
+            }
+            var index = type.stages().indexOf(stage);
+            var next = statusOf(stage, index >= 0 ? index : status.stageIndex(), error, Instant.now());
+            status = next;
+
+            for (var emitter : emitters) {
+                if (send(emitter, next) && isTerminal(stage)) {
+                    emitter.complete();
+                }
+            }
+            if (isTerminal(stage)) {
+                finishedDate = next.updatedDate();
+                emitters.clear();
+            }
+        }
+
+        private StegoJobStatusDTO statusOf(StegoJobStage stage, int stageIndex, String error, Instant updatedDate) {
+            return new StegoJobStatusDTO(id, type, stage, stageIndex, type.stages().size(), error, createdDate, updatedDate);
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.example.springprojectsteganographytool.services.impl;
+
+import com.example.springprojectsteganographytool.concurrency.AsyncTasks;
+import com.example.springprojectsteganographytool.concurrency.Deadline;
+import com.example.springprojectsteganographytool.concurrency.TaskScope;
+import com.example.springprojectsteganographytool.exceptions.data.StorageException;
+import com.example.springprojectsteganographytool.exceptions.file.InvalidImageFormatException;
+import com.example.springprojectsteganographytool.exceptions.metadata.MetadataNotFoundException;
+import com.example.springprojectsteganographytool.models.StegoScanHitDTO;
+import com.example.springprojectsteganographytool.models.StegoScanReportDTO;
+import com.example.springprojectsteganographytool.services.LsbUtilService;
+import com.example.springprojectsteganographytool.services.StegoScanService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scans image sets for stego headers with {@link LsbUtilService#probeMetadata(InputStream)}, which decodes only
+ * the leading rows of each image, so a scan is bound by reading the files rather than by decoding them.
+ * <p>
+ * At most {@code stego.scan.parallelism} images are probed at once, each on its own virtual thread; the source
+ * listing is consumed lazily and probes are joined in batches, so neither threads, open files nor the tasks
+ * held for joining grow with the size of the set.
+ * <p>
+ * Probes do not go through the {@link com.example.springprojectsteganographytool.concurrency.CpuWorkerPool}:
+ * they mostly wait on file reads, which would hold its platform threads idle, and a full admission queue would
+ * fail them with 429 halfway through a scan. Their decoding is bounded instead by the leading rows each probe
+ * reads and by {@code stego.scan.parallelism}, which should stay near the core count on nodes that also encode.
+ */
+@Slf4j
+@Service
+public class StegoScanServiceImpl implements StegoScanService {
+
+    private static final int BATCH_PER_PROBE = 64; // images forked per scope for each probe that may run at once
+
+    private final LsbUtilService lsbUtilService;
+    private final ExecutorService virtualThreadExecutor;
+    private final int parallelism;
+    private final Duration scanTimeout;
+
+    public StegoScanServiceImpl(
+            LsbUtilService lsbUtilService,
+            ExecutorService virtualThreadExecutor,
+            @Value("${stego.scan.parallelism:16}") int parallelism,
+            @Value("${stego.scan.timeout:30m}") Duration scanTimeout
+    ) {
+        this.lsbUtilService = lsbUtilService;
+        this.virtualThreadExecutor = virtualThreadExecutor;
+        this.parallelism = Math.max(1, parallelism);
+        this.scanTimeout = scanTimeout;
+    }
+
+    @Override
+    public StegoScanReportDTO scanDirectory(Path directory) throws StorageException, ExecutionException, InterruptedException {
+        return AsyncTasks.await(scanDirectoryAsync(directory));
+    }
+
+    @Override
+    public CompletableFuture<StegoScanReportDTO> scanDirectoryAsync(Path directory) {
+        return AsyncTasks.supply(virtualThreadExecutor, () -> runScanDirectory(directory));
+    }
+
+    @Override
+    public StegoScanReportDTO scanUploads(Map<String, byte[]> images) throws ExecutionException, InterruptedException {
+        return AsyncTasks.await(scanUploadsAsync(images));
+    }
+
+    @Override
+    public CompletableFuture<StegoScanReportDTO> scanUploadsAsync(Map<String, byte[]> images) {
+        return AsyncTasks.supply(virtualThreadExecutor, () -> scan(
+                images.entrySet().stream()
+                        .map(image -> new ScanSource(image.getKey(), () -> new ByteArrayInputStream(image.getValue())))
+                        .iterator()
+        ));
+    }
+
+    // ----- Private Helper Methods -----
+
+    private StegoScanReportDTO runScanDirectory(Path directory) throws StorageException, ExecutionException, InterruptedException {
+        if (!Files.isDirectory(directory)) {
+            throw new StorageException("Scan directory not found: " + directory);
+        }
+
+        try (var files = Files.walk(directory)) {
+            var report = scan(
+                    files.filter(Files::isRegularFile)
+                            .map(file -> new ScanSource(file.toString(), () -> Files.newInputStream(file)))
+                            .iterator()
+            );
+            log.info("Scanned {} files in {}: {} hits, {} failed, {} ms",
+                    report.scanned(), directory, report.hits().size(), report.failed().size(), report.elapsedMillis());
+            return report;
+        } catch (IOException | UncheckedIOException e) {
+            throw new StorageException("Failed to list the scan directory.", e);
+        }
+    }
+
+    private StegoScanReportDTO scan(Iterator<ScanSource> sources) throws ExecutionException, InterruptedException {
+        var startNanos = System.nanoTime();
+        var hits = new ConcurrentLinkedQueue<StegoScanHitDTO>();
+        var failed = new ConcurrentLinkedQueue<String>();
+        var scanned = new AtomicLong();
+        var misses = new AtomicLong();
+
+        try (var _ = Deadline.withDefault(scanTimeout)) {
+            var permits = new Semaphore(parallelism);
+            while (sources.hasNext()) {
+                // A scope holds every task it forked until it is closed, so each batch gets its own
+                try (var scope = new TaskScope(virtualThreadExecutor)) {
+                    for (var forked = 0; forked < parallelism * BATCH_PER_PROBE && sources.hasNext(); forked++) {
+                        var source = sources.next();
+                        permits.acquire(); // bounds the images in flight; the listing is not read ahead
+                        Deadline.checkpoint();
+
+                        scope.fork(() -> {
+                            try (var imageStream = source.open().call()) {
+                                hits.add(new StegoScanHitDTO(source.name(), lsbUtilService.probeMetadata(imageStream)));
+                            } catch (InvalidImageFormatException | MetadataNotFoundException _) {
+                                misses.incrementAndGet(); // not an image, or an image without a stego header
+                            } catch (CancellationException e) {
+                                throw e;
+                            } catch (Exception e) {
+                                log.debug("Failed to scan {}: {}", source.name(), e.getMessage());
+                                failed.add(source.name());
+                            } finally {
+                                scanned.incrementAndGet();
+                                permits.release();
+                            }
+                            return null;
+                        });
+                    }
+                    scope.join();
+                }
+            }
+        }
+
+        return new StegoScanReportDTO(
+                scanned.get(),
+                misses.get(),
+                hits.stream().sorted(Comparator.comparing(StegoScanHitDTO::source)).toList(),
+                failed.stream().sorted().toList(),
+                Duration.ofNanos(System.nanoTime() - startNanos).toMillis()
+        );
+    }
+
+    // An image to scan, opened only once a worker picks it up
+    private record ScanSource(String name, Callable<InputStream> open) {
+    }
+
+}
@@ -0,0 +1,266 @@
+package com.example.springprojectsteganographytool.services.impl;
+
+import com.example.springprojectsteganographytool.concurrency.CpuWorkerPool;
+import com.example.springprojectsteganographytool.concurrency.Deadline;
+import com.example.springprojectsteganographytool.documents.StegoJobResult;
+import com.example.springprojectsteganographytool.documents.StegoWorkItem;
+import com.example.springprojectsteganographytool.exceptions.common.ServiceOverloadedException;
+import com.example.springprojectsteganographytool.exceptions.file.FileTooLargeException;
+import com.example.springprojectsteganographytool.models.StegoDecodeResponseDTO;
+import com.example.springprojectsteganographytool.models.StegoEncodeResponseDTO;
+import com.example.springprojectsteganographytool.repos.StegoJobResultRepository;
+import com.example.springprojectsteganographytool.repos.StegoWorkItemRepository;
+import com.example.springprojectsteganographytool.services.IdempotencyService;
+import com.example.springprojectsteganographytool.services.LsbUtilService;
+import com.example.springprojectsteganographytool.services.SteganographyService;
+import com.example.springprojectsteganographytool.services.StegoProgressListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pulls background jobs from the shared work queue and runs them on this node.
+ * Jobs are only claimed while the node has idle CPU workers and is below its in-flight limit, so busy nodes
+ * leave work to idle ones. Claimed jobs are kept alive with heartbeats; a job whose lease is lost (because the
+ * node stalled and another node reclaimed it) is cancelled locally.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("${stego.distributed.enabled:false} and ${stego.distributed.worker-enabled:true}")
+public class StegoWorkerNode implements AutoCloseable {
+
+    private final StegoWorkItemRepository workQueue;
+    private final StegoJobResultRepository resultRepository;
+    private final WorkQueueSealer workQueueSealer;
+    private final SteganographyService steganographyService;
+    private final IdempotencyService idempotencyService;
+    private final LsbUtilService lsbUtilService;
+    private final CpuWorkerPool cpuWorkerPool;
+    private final ExecutorService virtualThreadExecutor;
+    private final Clock clock; // result expiry, on the clock the work queue leases jobs with
+    private final String nodeId;
+    private final Duration lease;
+    private final int maxInFlight;
+    private final int maxAttempts;
+    private final Duration jobTimeout;
+    private final Duration retention;
+
+    private final Map<UUID, Claim> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    public StegoWorkerNode(
+            StegoWorkItemRepository workQueue,
+            StegoJobResultRepository resultRepository,
+            WorkQueueSealer workQueueSealer,
+            SteganographyService steganographyService,
+            IdempotencyService idempotencyService,
+            LsbUtilService lsbUtilService,
+            CpuWorkerPool cpuWorkerPool,
+            ExecutorService virtualThreadExecutor,
+            Clock clock,
+            @Value("${stego.distributed.node-id:}") String nodeId,
+            @Value("${stego.distributed.lease:30s}") Duration lease,
+            @Value("${stego.distributed.heartbeat-interval:10s}") Duration heartbeatInterval,
+            @Value("${stego.distributed.poll-interval:500ms}") Duration pollInterval,
+            @Value("${stego.distributed.max-in-flight:4}") int maxInFlight,
+            @Value("${stego.distributed.max-attempts:3}") int maxAttempts,
+            @Value("${stego.jobs.timeout:10m}") Duration jobTimeout,
+            @Value("${stego.jobs.retention:15m}") Duration retention
+    ) {
+        this.workQueue = workQueue;
+        this.resultRepository = resultRepository;
+        this.workQueueSealer = workQueueSealer;
+        this.steganographyService = steganographyService;
+        this.idempotencyService = idempotencyService;
+        this.lsbUtilService = lsbUtilService;
+        this.cpuWorkerPool = cpuWorkerPool;
+        this.virtualThreadExecutor = virtualThreadExecutor;
+        this.clock = clock;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.lease = lease;
+        this.maxInFlight = maxInFlight;
+        this.maxAttempts = maxAttempts;
+        this.jobTimeout = jobTimeout;
+        this.retention = retention;
+
+        workQueue.ensureIndexes();
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("stego-lease").daemon(true).factory());
+        scheduler.scheduleWithFixedDelay(this::poll, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+        log.info("Worker node {} pulling up to {} jobs with a {} lease", this.nodeId, maxInFlight, lease);
+    }
+
+    /**
+     * Stops pulling work, cancels running jobs and puts them back in the queue for other nodes.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        inFlight.forEach((id, claim) -> {
+            if (inFlight.remove(id, claim)) {
+                claim.task().cancel(true);
+                workQueue.release(id, claim.leaseToken());
+            }
+        });
+    }
+
+    /**
+     * Claims as many jobs as the node currently has capacity for.
+     */
+    private void poll() {
+        try {
+            workQueue.failAbandoned(maxAttempts);
+
+            var slots = Math.min(maxInFlight - inFlight.size(), cpuWorkerPool.idleCapacity());
+            for (var i = 0; i < slots; i++) {
+                var item = workQueue.claimNext(nodeId, lease, maxAttempts);
+                if (item.isEmpty()) {
+                    break;
+                }
+                start(item.get());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Polling the work queue failed: {}", e.toString());
+        }
+    }
+
+    /**
+     * Renews the leases of running jobs, cancelling those whose lease has been lost.
+     */
+    private void heartbeat() {
+        inFlight.forEach((id, claim) -> {
+            try {
+                if (!workQueue.renewLease(id, claim.leaseToken(), lease)) {
+                    log.warn("Lost the lease on job {}, cancelling it", id);
+                    inFlight.remove(id, claim);
+                    claim.task().cancel(true);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Renewing the lease on job {} failed: {}", id, e.toString());
+            }
+        });
+    }
+
+    private void start(StegoWorkItem item) {
+        var task = new FutureTask<Void>(() -> {
+            process(item);
+            return null;
+        });
+        var claim = new Claim(item.getLeaseToken(), task);
+        inFlight.put(item.getId(), claim);
+        try {
+            virtualThreadExecutor.execute(task);
+        } catch (RuntimeException e) {
+            inFlight.remove(item.getId(), claim);
+            workQueue.release(item.getId(), item.getLeaseToken());
+        }
+    }
+
+    /**
+     * Runs a claimed job and records its outcome, as long as the lease is still held.
+     */
+    private void process(StegoWorkItem item) {
+        var id = item.getId();
+        var leaseToken = item.getLeaseToken();
+        var stages = item.getType().stages();
+        StegoProgressListener listener = stage -> workQueue.advance(id, leaseToken, stage, stages.indexOf(stage));
+
+        try (var _ = Deadline.within(jobTimeout)) {
+            var imageBytes = item.getImageBytes();
+            var password = workQueueSealer.openPassword(id, item.getSealedPassword());
+
+            switch (item.getType()) {
+                case ENCODE_TEXT -> complete(item, idempotencyService.encodeOnce(item.getIdempotencyKey(), item.getRequestHash(), () -> steganographyService.encodeText(
+                        readImage(imageBytes), item.getMessage(), password, item.getLsbDepth(), listener)));
+                case ENCODE_FILE -> complete(item, idempotencyService.encodeOnce(item.getIdempotencyKey(), item.getRequestHash(), () -> steganographyService.encodeFile(
+                        readImage(imageBytes), item.getOriginalFileName(), item.getFileBytes(), password, item.getLsbDepth(), listener)));
+                case ENCODE_TEXT_LIBRARY -> complete(item, idempotencyService.encodeOnce(item.getIdempotencyKey(), item.getRequestHash(), () -> steganographyService.encodeTextWithLibraryCover(
+                        item.getMessage(), password, item.getLsbDepth(), listener)));
+                case ENCODE_FILE_LIBRARY -> complete(item, idempotencyService.encodeOnce(item.getIdempotencyKey(), item.getRequestHash(), () -> steganographyService.encodeFileWithLibraryCover(
+                        item.getOriginalFileName(), item.getFileBytes(), password, item.getLsbDepth(), listener)));
+                case DECODE -> complete(item, steganographyService.decodeProcess(imageBytes, password, listener));
+            }
+        } catch (Exception e) {
+            var cause = StegoJobServiceImpl.unwrap(e);
+            if (cause instanceof ServiceOverloadedException) {
+                // Capacity was taken by local requests in the meantime; let another node have the job
+                workQueue.release(id, leaseToken);
+            } else if (!holds(id, leaseToken)) {
+                log.debug("Job {} stopped after its lease was lost or the node shut down", id);
+            } else {
+                log.warn("Background job {} failed: {}", id, cause.toString());
+                workQueue.fail(id, leaseToken, StegoJobServiceImpl.describe(cause));
+            }
+        } finally {
+            inFlight.computeIfPresent(id, (_, claim) -> claim.leaseToken().equals(leaseToken) ? null : claim);
+        }
+    }
+
+    private boolean holds(UUID id, UUID leaseToken) {
+        var claim = inFlight.get(id);
+        return claim != null && claim.leaseToken().equals(leaseToken);
+    }
+
+    private BufferedImage readImage(byte[] imageBytes) throws Exception {
+        return cpuWorkerPool.newJob(imageBytes.length).call(() -> lsbUtilService.readCover(imageBytes));
+    }
+
+    private void complete(StegoWorkItem item, StegoEncodeResponseDTO encodeResult) {
+        if (!workQueue.complete(item.getId(), item.getLeaseToken(), encodeResult, null)) {
+            log.warn("Job {} finished after its lease was lost; the result was discarded", item.getId());
+        }
+    }
+
+    /**
+     * Hands a decode result off through a sealed result record, identified by this node's lease so that a
+     * stale worker never touches the record of the worker that took over.
+     */
+    private void complete(StegoWorkItem item, StegoDecodeResponseDTO decodeResult) {
+        var result = workQueueSealer.sealResult(item.getLeaseToken(), item.getId(), decodeResult, clock.instant().plus(retention));
+        if (sealedSize(result) > StegoWorkItem.MAX_PAYLOAD_BYTES) {
+            throw new FileTooLargeException("The decoded payload is too large to be handed back through the work queue.");
+        }
+
+        resultRepository.save(result);
+        if (!workQueue.complete(item.getId(), item.getLeaseToken(), null, result.getId())) {
+            resultRepository.deleteById(result.getId());
+            log.warn("Job {} finished after its lease was lost; the result was discarded", item.getId());
+        }
+    }
+
+    private static long sealedSize(StegoJobResult result) {
+        var size = 0L;
+        for (var field : new byte[][]{result.getMessage(), result.getEmbeddedFileName(), result.getEmbeddedFileContent()}) {
+            size += field != null ? field.length : 0;
+        }
+        return size;
+    }
+
+    private static String defaultNodeId() {
+        var host = System.getenv().getOrDefault("HOSTNAME", "node");
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * A job running on this node under the lease it was claimed with.
+     */
+    private record Claim(UUID leaseToken, FutureTask<Void> task) {
+    }
+
+}
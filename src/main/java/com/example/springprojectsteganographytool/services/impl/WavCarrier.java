@@ -0,0 +1,274 @@
+package com.example.springprojectsteganographytool.services.impl;
+
+import com.example.springprojectsteganographytool.concurrency.Deadline;
+import com.example.springprojectsteganographytool.exceptions.data.MessageTooLargeException;
+import com.example.springprojectsteganographytool.exceptions.file.InvalidAudioFormatException;
+import com.example.springprojectsteganographytool.exceptions.lsb.LsbDecodingException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams data through the sample LSBs of 16-bit PCM WAV audio.
+ * <p>
+ * Every 16-bit sample, of any channel, carries {@code lsbDepth} bits in the low bits of its little-endian low
+ * byte; data bytes are spread MSB first, like over the colour channels of an image. Samples go through a
+ * fixed-size buffer in file order, so memory does not grow with the length of the audio, and only as many
+ * samples are read as the data needs. All other bytes and chunks are copied unchanged.
+ */
+final class WavCarrier {
+
+    private static final int BUFFER_BYTES = 64 * 1024; // even, so a sample never straddles two reads
+    private static final int BYTES_PER_SAMPLE = 2;
+    private static final int MAX_FORMAT_CHUNK_LENGTH = 1024;
+
+    private static final int FORMAT_PCM = 1;
+    private static final int FORMAT_EXTENSIBLE = 0xFFFE;
+
+    private WavCarrier() {
+    }
+
+    /**
+     * Reads data from the sample LSBs of a WAV stream.
+     */
+    static final class SampleReader {
+
+        private final InputStream in;
+        private final byte[] buffer = new byte[BUFFER_BYTES];
+        private long remainingBytes; // sample bytes of the data chunk not read yet
+
+        /**
+         * Reads the chunks before the sample data.
+         *
+         * @param in The WAV stream; it is not closed.
+         * @throws InvalidAudioFormatException If the stream is not 16-bit PCM WAV audio.
+         * @throws IOException                 If the stream cannot be read.
+         */
+        SampleReader(InputStream in) throws InvalidAudioFormatException, IOException {
+            this.in = in;
+            this.remainingBytes = readToSamples(in, null, buffer);
+        }
+
+        long remainingSamples() {
+            return remainingBytes / BYTES_PER_SAMPLE;
+        }
+
+        /**
+         * Reads bytes from the next samples.
+         *
+         * @param length   The number of bytes to read.
+         * @param lsbDepth The bits per sample the bytes were written with (1 or 2).
+         * @return The bytes read.
+         * @throws LsbDecodingException        If the audio has fewer samples left than the bytes need.
+         * @throws InvalidAudioFormatException If the sample data ends before the length of its chunk.
+         * @throws IOException                 If the stream cannot be read.
+         */
+        byte[] read(int length, int lsbDepth) throws LsbDecodingException, InvalidAudioFormatException, IOException {
+            var sampleBytes = samplesFor(length, lsbDepth) * BYTES_PER_SAMPLE;
+            if (sampleBytes > remainingBytes) {
+                throw new LsbDecodingException("Not enough audio samples while reading payload");
+            }
+
+            var data = new byte[length];
+            var mask = (1 << lsbDepth) - 1;
+            var bitIndex = 0L;
+            for (var pending = sampleBytes; pending > 0; ) {
+                var chunk = (int) Math.min(buffer.length, pending);
+                fill(in, buffer, chunk);
+                for (var offset = 0; offset < chunk; offset += BYTES_PER_SAMPLE) {
+                    var bits = buffer[offset] & mask;
+                    for (var bit = lsbDepth - 1; bit >= 0; bit--, bitIndex++) {
+                        data[(int) (bitIndex >>> 3)] |= (byte) (((bits >> bit) & 1) << (7 - (bitIndex & 7)));
+                    }
+                }
+                pending -= chunk;
+                remainingBytes -= chunk;
+            }
+            return data;
+        }
+    }
+
+    /**
+     * Writes data into the sample LSBs of a WAV stream while copying it to an output stream.
+     */
+    static final class SampleWriter {
+
+        private final InputStream in;
+        private final OutputStream out;
+        private final byte[] buffer = new byte[BUFFER_BYTES];
+        private final long sampleCount;
+        private long remainingBytes; // sample bytes of the data chunk not copied yet
+
+        /**
+         * Copies the chunks before the sample data.
+         *
+         * @param in  The cover WAV stream; it is not closed.
+         * @param out The stream the stego WAV is written to; it is not closed.
+         * @throws InvalidAudioFormatException If the cover is not 16-bit PCM WAV audio.
+         * @throws IOException                 If a stream cannot be read or written.
+         */
+        SampleWriter(InputStream in, OutputStream out) throws InvalidAudioFormatException, IOException {
+            this.in = in;
+            this.out = out;
+            this.remainingBytes = readToSamples(in, out, buffer);
+            this.sampleCount = remainingBytes / BYTES_PER_SAMPLE;
+        }
+
+        long sampleCount() {
+            return sampleCount;
+        }
+
+        /**
+         * Writes bytes into the next samples.
+         *
+         * @param data     The bytes to write.
+         * @param lsbDepth The bits per sample to use (1 or 2).
+         * @throws MessageTooLargeException    If the audio has fewer samples left than the bytes need.
+         * @throws InvalidAudioFormatException If the sample data ends before the length of its chunk.
+         * @throws IOException                 If a stream cannot be read or written.
+         */
+        void write(byte[] data, int lsbDepth) throws MessageTooLargeException, InvalidAudioFormatException, IOException {
+            var sampleBytes = samplesFor(data.length, lsbDepth) * BYTES_PER_SAMPLE;
+            if (sampleBytes > remainingBytes) {
+                throw new MessageTooLargeException("Not enough audio samples while writing payload");
+            }
+
+            var mask = (1 << lsbDepth) - 1;
+            var bitIndex = 0L;
+            for (var pending = sampleBytes; pending > 0; ) {
+                var chunk = (int) Math.min(buffer.length, pending);
+                fill(in, buffer, chunk);
+                for (var offset = 0; offset < chunk; offset += BYTES_PER_SAMPLE) {
+                    var bits = 0;
+                    for (var bit = 0; bit < lsbDepth; bit++, bitIndex++) {
+                        bits = (bits << 1) | ((data[(int) (bitIndex >>> 3)] >> (7 - (bitIndex & 7))) & 1);
+                    }
+                    buffer[offset] = (byte) ((buffer[offset] & ~mask) | bits);
+                }
+                out.write(buffer, 0, chunk);
+                pending -= chunk;
+                remainingBytes -= chunk;
+            }
+        }
+
+        /**
+         * Copies the remaining samples and the chunks after the sample data unchanged.
+         *
+         * @throws InvalidAudioFormatException If the sample data ends before the length of its chunk.
+         * @throws IOException                 If a stream cannot be read or written.
+         */
+        void finish() throws InvalidAudioFormatException, IOException {
+            transfer(in, out, remainingBytes, buffer);
+            remainingBytes = 0;
+
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+                Deadline.checkpoint();
+            }
+        }
+    }
+
+    // ----- Private Helper Methods -----
+
+    /**
+     * Reads the RIFF header and the chunks up to the sample data, copying them if an output is given.
+     *
+     * @return The length of the sample data in bytes.
+     */
+    private static long readToSamples(InputStream in, OutputStream out, byte[] buffer) throws InvalidAudioFormatException, IOException {
+        var riff = in.readNBytes(12);
+        if (riff.length < 12 || !"RIFF".equals(ascii(riff, 0)) || !"WAVE".equals(ascii(riff, 8))) {
+            throw new InvalidAudioFormatException("Audio is not a WAV file");
+        }
+        write(out, riff);
+
+        var hasFormat = false;
+        while (true) {
+            var chunkHeader = in.readNBytes(8);
+            if (chunkHeader.length < 8) {
+                throw new InvalidAudioFormatException("WAV file has no data chunk");
+            }
+            write(out, chunkHeader);
+            var type = ascii(chunkHeader, 0);
+            var length = Integer.toUnsignedLong(ByteBuffer.wrap(chunkHeader, 4, 4).order(ByteOrder.LITTLE_ENDIAN).getInt());
+
+            switch (type) {
+                case "data" -> {
+                    if (!hasFormat) {
+                        throw new InvalidAudioFormatException("WAV data chunk precedes its format chunk");
+                    }
+                    return length - length % BYTES_PER_SAMPLE; // an odd trailing byte is copied with the rest
+                }
+                case "fmt " -> {
+                    if (length < 16 || length > MAX_FORMAT_CHUNK_LENGTH) {
+                        throw new InvalidAudioFormatException("Invalid WAV format chunk");
+                    }
+                    var format = in.readNBytes((int) (length + (length & 1)));
+                    if (format.length < length + (length & 1)) {
+                        throw new InvalidAudioFormatException("WAV format chunk is truncated");
+                    }
+                    validateFormat(ByteBuffer.wrap(format, 0, (int) length).order(ByteOrder.LITTLE_ENDIAN));
+                    write(out, format);
+                    hasFormat = true;
+                }
+                default -> transfer(in, out, length + (length & 1), buffer); // chunks are padded to even lengths
+            }
+        }
+    }
+
+    private static void validateFormat(ByteBuffer format) throws InvalidAudioFormatException {
+        var audioFormat = Short.toUnsignedInt(format.getShort(0));
+        if (audioFormat == FORMAT_EXTENSIBLE && format.limit() >= 26) {
+            audioFormat = Short.toUnsignedInt(format.getShort(24)); // the sub-format GUID starts with the format code
+        }
+        var channels = Short.toUnsignedInt(format.getShort(2));
+        var blockAlign = Short.toUnsignedInt(format.getShort(12));
+        var bitsPerSample = Short.toUnsignedInt(format.getShort(14));
+
+        if (audioFormat != FORMAT_PCM || bitsPerSample != 16 || channels == 0 || blockAlign != channels * BYTES_PER_SAMPLE) {
+            throw new InvalidAudioFormatException("Only 16-bit PCM WAV audio is supported");
+        }
+    }
+
+    // Bytes written at lsbDepth 1 or 2 always fill whole samples
+    private static long samplesFor(int length, int lsbDepth) {
+        return length * 8L / lsbDepth;
+    }
+
+    private static void fill(InputStream in, byte[] buffer, int length) throws InvalidAudioFormatException, IOException {
+        if (in.readNBytes(buffer, 0, length) != length) {
+            throw new InvalidAudioFormatException("WAV sample data is truncated");
+        }
+        Deadline.checkpoint(); // stop promptly if the request was cancelled
+    }
+
+    // Copies a number of bytes, or skips them if there is no output
+    private static void transfer(InputStream in, OutputStream out, long length, byte[] buffer) throws InvalidAudioFormatException, IOException {
+        for (var pending = length; pending > 0; ) {
+            var chunk = (int) Math.min(buffer.length, pending);
+            fill(in, buffer, chunk);
+            write(out, buffer, chunk);
+            pending -= chunk;
+        }
+    }
+
+    private static void write(OutputStream out, byte[] bytes) throws IOException {
+        write(out, bytes, bytes.length);
+    }
+
+    private static void write(OutputStream out, byte[] bytes, int length) throws IOException {
+        if (out != null) {
+            out.write(bytes, 0, length);
+        }
+    }
+
+    private static String ascii(byte[] bytes, int offset) {
+        return new String(bytes, offset, 4, StandardCharsets.US_ASCII);
+    }
+
+}
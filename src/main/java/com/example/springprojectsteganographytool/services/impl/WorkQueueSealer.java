@@ -0,0 +1,187 @@
+package com.example.springprojectsteganographytool.services.impl;
+
+import com.example.springprojectsteganographytool.crypto.CryptoPrimitivePool;
+import com.example.springprojectsteganographytool.documents.StegoJobResult;
+import com.example.springprojectsteganographytool.exceptions.encryption.AesOperationException;
+import com.example.springprojectsteganographytool.models.StegoDecodeResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Seals secrets stored in the shared work queue (job passwords and decode results) with AES-256-GCM under
+ * the key every node is configured with ({@code stego.distributed.secret}), so the database never holds them
+ * in plain text.
+ * <p>
+ * Each value is bound to its job and field as associated data, so a sealed value copied into another job or
+ * field fails to open.
+ */
+@Component
+@ConditionalOnProperty(name = "stego.distributed.enabled", havingValue = "true")
+public class WorkQueueSealer {
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int KEY_LENGTH = 32; // AES-256 key length in bytes
+    private static final int NONCE_LENGTH = 12; // Length of the GCM nonce in bytes
+    private static final int TAG_LENGTH = 128; // GCM authentication tag length in bits
+
+    private final CryptoPrimitivePool cryptoPrimitivePool;
+    private final SecretKeySpec key;
+
+    public WorkQueueSealer(
+            CryptoPrimitivePool cryptoPrimitivePool,
+            @Value("${stego.distributed.secret:}") String secret
+    ) {
+        this.cryptoPrimitivePool = cryptoPrimitivePool;
+
+        byte[] keyBytes;
+        try {
+            keyBytes = Base64.getDecoder().decode(secret.strip());
+        } catch (IllegalArgumentException e) {
+            keyBytes = new byte[0];
+        }
+        if (keyBytes.length != KEY_LENGTH) {
+            throw new IllegalArgumentException("stego.distributed.secret must be a Base64-encoded 256-bit key shared by all nodes.");
+        }
+        this.key = new SecretKeySpec(keyBytes, "AES");
+        Arrays.fill(keyBytes, (byte) 0);
+    }
+
+    /**
+     * Seals a value of a job.
+     *
+     * @param jobId The ID of the job the value belongs to.
+     * @param field The name of the field the value is stored in.
+     * @param plain The value, or null.
+     * @return The nonce followed by the ciphertext and tag, or null if the value is null.
+     * @throws AesOperationException If the value cannot be encrypted.
+     */
+    private byte[] seal(UUID jobId, String field, byte[] plain) throws AesOperationException {
+        if (plain == null) {
+            return null;
+        }
+        try {
+            var nonce = new byte[NONCE_LENGTH];
+            cryptoPrimitivePool.nextBytes(nonce);
+
+            return cryptoPrimitivePool.withCipher(TRANSFORMATION, cipher -> {
+                cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, nonce));
+                cipher.updateAAD(associatedData(jobId, field));
+                var sealed = Arrays.copyOf(nonce, NONCE_LENGTH + cipher.getOutputSize(plain.length));
+                cipher.doFinal(plain, 0, plain.length, sealed, NONCE_LENGTH);
+                return sealed;
+            });
+        } catch (Exception e) {
+            throw new AesOperationException("Failed to seal a work queue value.", e);
+        }
+    }
+
+    /**
+     * Opens a value sealed with {@link #seal(UUID, String, byte[])}.
+     *
+     * @param jobId  The ID of the job the value belongs to.
+     * @param field  The name of the field the value is stored in.
+     * @param sealed The sealed value, or null.
+     * @return The value, or null if the sealed value is null.
+     * @throws AesOperationException If the value was not sealed for this job and field, or with another key.
+     */
+    private byte[] open(UUID jobId, String field, byte[] sealed) throws AesOperationException {
+        if (sealed == null) {
+            return null;
+        }
+        try {
+            return cryptoPrimitivePool.withCipher(TRANSFORMATION, cipher -> {
+                cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, sealed, 0, NONCE_LENGTH));
+                cipher.updateAAD(associatedData(jobId, field));
+                return cipher.doFinal(sealed, NONCE_LENGTH, sealed.length - NONCE_LENGTH);
+            });
+        } catch (Exception e) {
+            throw new AesOperationException("Failed to open a work queue value; are all nodes configured with the same secret?", e);
+        }
+    }
+
+    /**
+     * Seals the password of a queued job.
+     */
+    public byte[] sealPassword(UUID jobId, String password) throws AesOperationException {
+        return seal(jobId, "password", utf8(password));
+    }
+
+    /**
+     * Opens the password of a claimed job.
+     */
+    public String openPassword(UUID jobId, byte[] sealedPassword) throws AesOperationException {
+        return string(open(jobId, "password", sealedPassword));
+    }
+
+    /**
+     * Seals a decode result into the record that hands it to the node serving it.
+     *
+     * @param resultId  The ID of the record.
+     * @param jobId     The ID of the job that decoded it.
+     * @param result    The decode result.
+     * @param expiresAt When the record is dropped if it has not been read.
+     * @return The record.
+     * @throws AesOperationException If the result cannot be encrypted.
+     */
+    public StegoJobResult sealResult(UUID resultId, UUID jobId, StegoDecodeResponseDTO result, Instant expiresAt) throws AesOperationException {
+        return StegoJobResult.builder()
+                .id(resultId)
+                .jobId(jobId)
+                .message(seal(jobId, "message", utf8(result.message())))
+                .embeddedFileName(seal(jobId, "embeddedFileName", utf8(result.embeddedFileName())))
+                .embeddedFileContent(seal(jobId, "embeddedFileContent", result.embeddedFileContent()))
+                .hasText(result.hasText())
+                .hasFile(result.hasFile())
+                .scheduling(result.scheduling())
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    /**
+     * Opens a decode result record.
+     *
+     * @param record The record.
+     * @return The decode result.
+     * @throws AesOperationException If the record was not sealed for its job, or with another key.
+     */
+    public StegoDecodeResponseDTO openResult(StegoJobResult record) throws AesOperationException {
+        var jobId = record.getJobId();
+        return new StegoDecodeResponseDTO(
+                string(open(jobId, "message", record.getMessage())),
+                string(open(jobId, "embeddedFileName", record.getEmbeddedFileName())),
+                open(jobId, "embeddedFileContent", record.getEmbeddedFileContent()),
+                record.isHasText(),
+                record.isHasFile(),
+                record.getScheduling()
+        );
+    }
+
+    private static byte[] associatedData(UUID jobId, String field) {
+        var fieldBytes = field.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(16 + fieldBytes.length)
+                .putLong(jobId.getMostSignificantBits())
+                .putLong(jobId.getLeastSignificantBits())
+                .put(fieldBytes)
+                .array();
+    }
+
+    private static byte[] utf8(String text) {
+        return text != null ? text.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static String string(byte[] bytes) {
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+
+}
@@ -0,0 +1,224 @@
+package com.example.springprojectsteganographytool.repos;
+
+import com.example.springprojectsteganographytool.documents.StegoWorkItem;
+import com.example.springprojectsteganographytool.models.StegoJobStage;
+import com.example.springprojectsteganographytool.models.StegoJobType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Claiming semantics of the shared work queue, with several simulated worker nodes in one process.
+ */
+@DataMongoTest
+@Testcontainers
+class StegoWorkQueueTests {
+
+	private static final Duration LONG_LEASE = Duration.ofMinutes(1);
+	private static final Duration SHORT_LEASE = Duration.ofMillis(300);
+	private static final int MAX_ATTEMPTS = 3;
+
+	@Container
+	@ServiceConnection
+	static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+	@Autowired
+	private StegoWorkItemRepository workQueue;
+
+	@Autowired
+	private TestClock clock;
+
+	@BeforeEach
+	void setUp() {
+		workQueue.deleteAll();
+		workQueue.ensureIndexes();
+	}
+
+	@Test
+	void concurrentWorkersClaimEachJobExactlyOnce() throws Exception {
+		var jobCount = 60;
+		var workerCount = 8;
+		for (var i = 0; i < jobCount; i++) {
+			workQueue.insert(newItem());
+		}
+
+		var claimed = Collections.synchronizedList(new ArrayList<UUID>());
+		var start = new CountDownLatch(1);
+		try (var workers = Executors.newFixedThreadPool(workerCount)) {
+			for (var w = 0; w < workerCount; w++) {
+				var owner = "worker-" + w;
+				workers.submit(() -> {
+					start.await();
+					while (true) {
+						var item = workQueue.claimNext(owner, LONG_LEASE, MAX_ATTEMPTS);
+						if (item.isEmpty()) {
+							return null;
+						}
+						claimed.add(item.get().getId());
+					}
+				});
+			}
+			start.countDown();
+		}
+
+		assertThat(claimed).hasSize(jobCount);
+		assertThat(new HashSet<>(claimed)).hasSize(jobCount);
+		assertThat(workQueue.claimNext("late-worker", LONG_LEASE, MAX_ATTEMPTS)).isEmpty();
+	}
+
+	@Test
+	void jobsAreClaimedOldestFirst() {
+		var first = workQueue.insert(newItem());
+		var later = newItem();
+		later.setCreatedDate(first.getCreatedDate().plusMillis(1)); // creation dates are stored with millisecond precision
+		var second = workQueue.insert(later);
+
+		assertThat(workQueue.claimNext("a", LONG_LEASE, MAX_ATTEMPTS).orElseThrow().getId()).isEqualTo(first.getId());
+		assertThat(workQueue.claimNext("b", LONG_LEASE, MAX_ATTEMPTS).orElseThrow().getId()).isEqualTo(second.getId());
+	}
+
+	@Test
+	void expiredLeaseIsReclaimedAndFencesTheStaleOwner() {
+		var id = workQueue.insert(newItem()).getId();
+
+		var first = workQueue.claimNext("a", SHORT_LEASE, MAX_ATTEMPTS).orElseThrow();
+		assertThat(workQueue.claimNext("b", SHORT_LEASE, MAX_ATTEMPTS)).isEmpty();
+
+		clock.advance(SHORT_LEASE.plusMillis(1));
+
+		var second = workQueue.claimNext("b", LONG_LEASE, MAX_ATTEMPTS).orElseThrow();
+		assertThat(second.getId()).isEqualTo(id);
+		assertThat(second.getOwner()).isEqualTo("b");
+		assertThat(second.getAttempts()).isEqualTo(2);
+		assertThat(second.getLeaseToken()).isNotEqualTo(first.getLeaseToken());
+
+		assertThat(workQueue.renewLease(id, first.getLeaseToken(), LONG_LEASE)).isFalse();
+		assertThat(workQueue.advance(id, first.getLeaseToken(), StegoJobStage.EXTRACTING, 3)).isFalse();
+		assertThat(workQueue.fail(id, first.getLeaseToken(), "stale")).isFalse();
+
+		var resultId = second.getLeaseToken();
+		assertThat(workQueue.complete(id, second.getLeaseToken(), null, resultId)).isTrue();
+
+		var finished = workQueue.findById(id).orElseThrow();
+		assertThat(finished.getStage()).isEqualTo(StegoJobStage.COMPLETED);
+		assertThat(finished.getResultId()).isEqualTo(resultId);
+		assertThat(finished.getImageBytes()).isNull();
+		assertThat(finished.getSealedPassword()).isNull();
+	}
+
+	@Test
+	void heartbeatsKeepTheLease() {
+		var id = workQueue.insert(newItem()).getId();
+		var claim = workQueue.claimNext("a", SHORT_LEASE, MAX_ATTEMPTS).orElseThrow();
+
+		for (var i = 0; i < 4; i++) {
+			clock.advance(SHORT_LEASE.dividedBy(2));
+			assertThat(workQueue.renewLease(id, claim.getLeaseToken(), SHORT_LEASE)).isTrue();
+			assertThat(workQueue.claimNext("b", SHORT_LEASE, MAX_ATTEMPTS)).isEmpty();
+		}
+
+		// Four half-leases have passed since the claim, so without the heartbeats the lease would be gone
+		clock.advance(SHORT_LEASE.plusMillis(1));
+		assertThat(workQueue.claimNext("b", SHORT_LEASE, MAX_ATTEMPTS)).isPresent();
+	}
+
+	@Test
+	void releasedJobIsClaimableAgainWithoutUsingAnAttempt() {
+		var id = workQueue.insert(newItem()).getId();
+		var claim = workQueue.claimNext("a", LONG_LEASE, MAX_ATTEMPTS).orElseThrow();
+
+		assertThat(workQueue.release(id, claim.getLeaseToken())).isTrue();
+
+		var reclaimed = workQueue.claimNext("b", LONG_LEASE, MAX_ATTEMPTS).orElseThrow();
+		assertThat(reclaimed.getId()).isEqualTo(id);
+		assertThat(reclaimed.getAttempts()).isEqualTo(1);
+	}
+
+	@Test
+	void jobAbandonedOnItsLastAttemptIsFailed() {
+		var id = workQueue.insert(newItem()).getId();
+		workQueue.claimNext("a", SHORT_LEASE, 1).orElseThrow();
+
+		clock.advance(SHORT_LEASE.plusMillis(1));
+
+		assertThat(workQueue.claimNext("b", SHORT_LEASE, 1)).isEmpty();
+		assertThat(workQueue.failAbandoned(1)).isEqualTo(1);
+
+		var progress = workQueue.findProgress(List.of(id));
+		assertThat(progress).singleElement().satisfies(item -> {
+			assertThat(item.getStage()).isEqualTo(StegoJobStage.FAILED);
+			assertThat(item.getError()).isNotBlank();
+			assertThat(item.getFinishedDate()).isNotNull();
+		});
+	}
+
+	private static StegoWorkItem newItem() {
+		var item = StegoWorkItem.builder()
+				.type(StegoJobType.DECODE)
+				.imageBytes(new byte[]{1, 2, 3})
+				.build();
+		item.setSealedPassword(new byte[]{4, 5, 6});
+		return item;
+	}
+
+	@TestConfiguration
+	static class ClockConfiguration {
+
+		@Bean
+		@Primary
+		TestClock testClock() {
+			return new TestClock();
+		}
+	}
+
+	/**
+	 * A clock that only moves when a test advances it, so lease expiry does not depend on real time.
+	 */
+	static class TestClock extends Clock {
+
+		private volatile Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+}
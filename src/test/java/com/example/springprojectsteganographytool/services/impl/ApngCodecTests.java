@@ -0,0 +1,218 @@
+package com.example.springprojectsteganographytool.services.impl;
+
+import com.example.springprojectsteganographytool.concurrency.CpuWorkerPool;
+import com.example.springprojectsteganographytool.concurrency.MemoryBudget;
+import com.example.springprojectsteganographytool.concurrency.PinningGuard;
+import com.example.springprojectsteganographytool.crypto.CryptoPrimitivePool;
+import com.example.springprojectsteganographytool.exceptions.file.InvalidImageFormatException;
+import com.example.springprojectsteganographytool.models.StegoFrameDTO;
+import com.example.springprojectsteganographytool.models.StegoMetadataDTO;
+import com.example.springprojectsteganographytool.models.StegoShardDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+import static com.example.springprojectsteganographytool.services.impl.StegoFixtures.png;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Splitting animated PNGs into standalone frames and reassembling them around stego frames.
+ */
+class ApngCodecTests {
+
+	private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final PinningGuard pinningGuard = new PinningGuard(meterRegistry, false, Duration.ofMillis(20), 3, List.of(), 1);
+	private final CpuWorkerPool cpuWorkerPool = new CpuWorkerPool(meterRegistry, 2, 16, Duration.ofSeconds(1), 20);
+	private final MemoryBudget memoryBudget = new MemoryBudget(meterRegistry, DataSize.ofMegabytes(64), Duration.ofSeconds(1), Duration.ofSeconds(1));
+	private final CoverCache coverCache = new CoverCache(new CryptoPrimitivePool(4), memoryBudget, meterRegistry, DataSize.ofMegabytes(16));
+	private final LsbUtilServiceImpl lsbUtilService = new LsbUtilServiceImpl(pinningGuard, cpuWorkerPool, coverCache);
+
+	private final StegoFixtures fixtures = new StegoFixtures();
+
+	@AfterEach
+	void tearDown() {
+		cpuWorkerPool.close();
+		pinningGuard.close();
+	}
+
+	@Test
+	void framesAreSplitInAnimationOrderAndDecodeToTheirPixels() throws Exception {
+		var images = List.of(fixtures.cover(90, 70), fixtures.cover(40, 30), fixtures.cover(90, 70));
+		var animation = apng(images, List.of());
+
+		var frames = lsbUtilService.splitFrames(animation);
+
+		assertThat(frames.stream().map(frame -> frame.width() + "x" + frame.height()).toList())
+				.containsExactly("90x70", "40x30", "90x70");
+		for (var i = 0; i < frames.size(); i++) {
+			var frame = frames.get(i);
+			assertThat(frame.index()).isEqualTo(i);
+			var decoded = lsbUtilService.readImage(frame.png());
+			var original = images.get(i);
+			assertThat(decoded.getRGB(frame.width() - 1, frame.height() - 1))
+					.isEqualTo(original.getRGB(frame.width() - 1, frame.height() - 1));
+		}
+	}
+
+	@Test
+	void stegoFramesRoundTripThroughTheAssembledAnimation() throws Exception {
+		var animation = apng(List.of(fixtures.cover(90, 70), fixtures.cover(3, 2), fixtures.cover(90, 70)), List.of());
+		var frames = lsbUtilService.splitFrames(animation);
+		var shardSet = UUID.randomUUID();
+		var payloads = List.of(fixtures.randomBytes(700), fixtures.randomBytes(500));
+
+		// The tiny middle frame is kept as it is
+		var framePngs = new ArrayList<byte[]>();
+		framePngs.add(embed(frames.get(0), payloads.get(0), new StegoShardDTO(shardSet, 0, 2, 1200)));
+		framePngs.add(null);
+		framePngs.add(embed(frames.get(2), payloads.get(1), new StegoShardDTO(shardSet, 1, 2, 1200)));
+
+		var stegoAnimation = lsbUtilService.assembleFrames(animation, framePngs);
+		var stegoFrames = lsbUtilService.splitFrames(stegoAnimation);
+
+		assertThat(stegoFrames).hasSize(3);
+		for (var i = 0; i < 2; i++) {
+			var stegoImage = lsbUtilService.readImage(stegoFrames.get(i * 2).png());
+			var metadata = lsbUtilService.extractMetadata(stegoImage);
+			assertThat(metadata.shard().index()).isEqualTo(i);
+			assertThat(lsbUtilService.decode(stegoImage, metadata.lsbDepth())).isEqualTo(payloads.get(i));
+		}
+
+		// Players without APNG support show the first frame
+		assertThat(ImageIO.read(new ByteArrayInputStream(stegoAnimation))).isNotNull();
+	}
+
+	@Test
+	void colourSpaceChunksAndTimingAreKept() throws Exception {
+		var gamma = ByteBuffer.allocate(4).putInt(45455).array();
+		var animation = apng(
+				List.of(fixtures.cover(20, 10), fixtures.cover(20, 10)),
+				List.of(chunk("gAMA", gamma), chunk("sRGB", new byte[]{0}), chunk("tEXt", "Comment\0frames".getBytes(StandardCharsets.ISO_8859_1)))
+		);
+		var original = chunks(animation);
+
+		var assembled = lsbUtilService.assembleFrames(animation, Arrays.asList(null, null));
+		var chunks = chunks(assembled);
+
+		assertThat(chunks.stream().map(Chunk::type).toList())
+				.containsExactly("IHDR", "gAMA", "sRGB", "acTL", "fcTL", "IDAT", "fcTL", "fdAT", "IEND");
+		assertThat(chunks.get(1).data()).isEqualTo(gamma);
+		assertThat(frameControls(chunks)).isEqualTo(frameControls(original));
+	}
+
+	@Test
+	void replacementFrameMustMatchTheOriginalSize() throws Exception {
+		var animation = apng(List.of(fixtures.cover(20, 10), fixtures.cover(20, 10)), List.of());
+
+		assertThatThrownBy(() -> lsbUtilService.assembleFrames(animation, Arrays.asList(null, png(fixtures.cover(10, 20)))))
+				.isInstanceOf(InvalidImageFormatException.class);
+		assertThatThrownBy(() -> lsbUtilService.assembleFrames(animation, Arrays.asList((byte[]) null)))
+				.isInstanceOf(InvalidImageFormatException.class);
+	}
+
+	@Test
+	void stillAndBrokenImagesAreNotAnimations() throws Exception {
+		var animation = apng(List.of(fixtures.cover(20, 10), fixtures.cover(20, 10)), List.of());
+
+		assertThatThrownBy(() -> lsbUtilService.splitFrames(png(fixtures.cover(20, 10))))
+				.isInstanceOf(InvalidImageFormatException.class);
+		assertThatThrownBy(() -> lsbUtilService.splitFrames(Arrays.copyOf(animation, animation.length - 20)))
+				.isInstanceOf(InvalidImageFormatException.class);
+		assertThatThrownBy(() -> lsbUtilService.splitFrames(fixtures.randomBytes(100)))
+				.isInstanceOf(InvalidImageFormatException.class);
+	}
+
+	// ----- Helpers -----
+
+	private record Chunk(String type, byte[] data) {
+	}
+
+	private byte[] embed(StegoFrameDTO frame, byte[] payload, StegoShardDTO shard) throws Exception {
+		var metadata = new StegoMetadataDTO(1, false, true, "key-hash", "payload.bin", null, shard, null, null);
+		return lsbUtilService.embed(lsbUtilService.readImage(frame.png()), payload, metadata);
+	}
+
+	// An APNG whose default image is its first frame, with the given chunks between IHDR and acTL
+	private static byte[] apng(List<BufferedImage> images, List<byte[]> extraChunks) throws Exception {
+		var out = new ByteArrayOutputStream();
+		out.writeBytes(PNG_SIGNATURE);
+
+		var sequence = 0;
+		for (var i = 0; i < images.size(); i++) {
+			var image = images.get(i);
+			var chunks = chunks(png(image));
+			if (i == 0) {
+				out.writeBytes(chunk("IHDR", chunks.getFirst().data()));
+				extraChunks.forEach(out::writeBytes);
+				out.writeBytes(chunk("acTL", ByteBuffer.allocate(8).putInt(images.size()).putInt(0).array()));
+			}
+
+			var frameControl = ByteBuffer.allocate(26)
+					.putInt(sequence++).putInt(image.getWidth()).putInt(image.getHeight()).putInt(0).putInt(0)
+					.putShort((short) (i + 1)).putShort((short) 25).put((byte) 0).put((byte) 0)
+					.array();
+			out.writeBytes(chunk("fcTL", frameControl));
+
+			for (var chunk : chunks) {
+				if (!"IDAT".equals(chunk.type())) {
+					continue;
+				}
+				if (i == 0) {
+					out.writeBytes(chunk("IDAT", chunk.data()));
+				} else {
+					out.writeBytes(chunk("fdAT", ByteBuffer.allocate(4 + chunk.data().length).putInt(sequence++).put(chunk.data()).array()));
+				}
+			}
+		}
+		out.writeBytes(chunk("IEND", new byte[0]));
+		return out.toByteArray();
+	}
+
+	// The fcTL data without the sequence number
+	private static List<String> frameControls(List<Chunk> chunks) {
+		return chunks.stream()
+				.filter(chunk -> "fcTL".equals(chunk.type()))
+				.map(chunk -> Arrays.toString(Arrays.copyOfRange(chunk.data(), 4, chunk.data().length)))
+				.toList();
+	}
+
+	private static List<Chunk> chunks(byte[] png) {
+		var chunks = new ArrayList<Chunk>();
+		var buffer = ByteBuffer.wrap(png, PNG_SIGNATURE.length, png.length - PNG_SIGNATURE.length);
+		while (buffer.remaining() >= 12) {
+			var data = new byte[buffer.getInt()];
+			var type = new byte[4];
+			buffer.get(type).get(data).getInt();
+			chunks.add(new Chunk(new String(type, StandardCharsets.US_ASCII), data));
+		}
+		return chunks;
+	}
+
+	private static byte[] chunk(String type, byte[] data) {
+		var typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+		var crc = new CRC32();
+		crc.update(typeBytes);
+		crc.update(data);
+		return ByteBuffer.allocate(12 + data.length)
+				.putInt(data.length).put(typeBytes).put(data).putInt((int) crc.getValue())
+				.array();
+	}
+
+}
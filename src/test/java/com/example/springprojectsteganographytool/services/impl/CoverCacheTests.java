@@ -0,0 +1,166 @@
+package com.example.springprojectsteganographytool.services.impl;
+
+import com.example.springprojectsteganographytool.concurrency.MemoryBudget;
+import com.example.springprojectsteganographytool.crypto.CryptoPrimitivePool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.awt.image.BufferedImage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hits, weighted LRU eviction, memory budget accounting and shared decodes of the decoded cover cache.
+ */
+class CoverCacheTests {
+
+	// One 10x10 ARGB cover weighs 400 bytes
+	private static final int SIDE = 10;
+	private static final long COVER_BYTES = 4L * SIDE * SIDE;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final MemoryBudget memoryBudget = new MemoryBudget(meterRegistry, DataSize.ofKilobytes(4), Duration.ofMillis(100), Duration.ofSeconds(1));
+	private final AtomicInteger decodes = new AtomicInteger();
+
+	@Test
+	void hitReturnsTheCachedImageWithoutDecodingAgain() throws Exception {
+		var coverCache = coverCache(DataSize.ofMegabytes(1));
+
+		var first = coverCache.getOrDecode(bytes(1), this::decode);
+		var second = coverCache.getOrDecode(bytes(1), this::decode);
+
+		assertThat(second).isSameAs(first);
+		assertThat(decodes).hasValue(1);
+	}
+
+	@Test
+	void leastRecentlyUsedCoverIsEvictedOnceTheCacheIsFull() throws Exception {
+		var coverCache = coverCache(DataSize.ofBytes(2 * COVER_BYTES));
+
+		coverCache.getOrDecode(bytes(1), this::decode);
+		coverCache.getOrDecode(bytes(2), this::decode);
+		coverCache.getOrDecode(bytes(1), this::decode); // 2 is now the least recently used
+		coverCache.getOrDecode(bytes(3), this::decode);
+		assertThat(decodes).hasValue(3);
+
+		coverCache.getOrDecode(bytes(1), this::decode);
+		coverCache.getOrDecode(bytes(3), this::decode);
+		assertThat(decodes).hasValue(3);
+
+		coverCache.getOrDecode(bytes(2), this::decode);
+		assertThat(decodes).hasValue(4);
+	}
+
+	@Test
+	void coverLargerThanTheCacheIsNotCached() throws Exception {
+		var coverCache = coverCache(DataSize.ofBytes(COVER_BYTES - 1));
+
+		coverCache.getOrDecode(bytes(1), this::decode);
+		coverCache.getOrDecode(bytes(1), this::decode);
+
+		assertThat(decodes).hasValue(2);
+	}
+
+	@Test
+	void sizeZeroDisablesTheCache() throws Exception {
+		var coverCache = coverCache(DataSize.ofBytes(0));
+
+		var first = coverCache.getOrDecode(bytes(1), this::decode);
+		var second = coverCache.getOrDecode(bytes(1), this::decode);
+
+		assertThat(second).isNotSameAs(first);
+		assertThat(decodes).hasValue(2);
+	}
+
+	@Test
+	void clearDropsEveryCover() throws Exception {
+		var coverCache = coverCache(DataSize.ofMegabytes(1));
+
+		coverCache.getOrDecode(bytes(1), this::decode);
+		coverCache.clear();
+		coverCache.getOrDecode(bytes(1), this::decode);
+
+		assertThat(decodes).hasValue(2);
+	}
+
+	@Test
+	void coverIsNotCachedWhileTheBudgetIsFull() throws Exception {
+		var coverCache = coverCache(DataSize.ofMegabytes(1));
+
+		try (var _ = memoryBudget.reserve(DataSize.ofKilobytes(4).toBytes())) {
+			coverCache.getOrDecode(bytes(1), this::decode);
+			coverCache.getOrDecode(bytes(1), this::decode);
+		}
+
+		assertThat(decodes).hasValue(2);
+	}
+
+	@Test
+	void cachedCoversAreEvictedWhenAnOperationNeedsTheirMemory() throws Exception {
+		var coverCache = coverCache(DataSize.ofMegabytes(1));
+		for (var cover = 1; cover <= 4; cover++) {
+			coverCache.getOrDecode(bytes(cover), this::decode);
+		}
+
+		// Each cover holds one KiB of the four KiB budget, so this reservation only fits once they are evicted
+		try (var _ = memoryBudget.reserve(DataSize.ofKilobytes(2).toBytes())) {
+			coverCache.getOrDecode(bytes(1), this::decode);
+		}
+		assertThat(decodes).hasValue(5);
+
+		coverCache.clear();
+		assertThat(memoryBudget.tryReserve(DataSize.ofKilobytes(4).toBytes())).isNotNull();
+	}
+
+	@Test
+	void concurrentMissesShareOneDecode() throws Exception {
+		var coverCache = coverCache(DataSize.ofMegabytes(1));
+		var callers = 8;
+		var decodeStarted = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+
+		try (var executor = Executors.newFixedThreadPool(callers)) {
+			var results = new ArrayList<Future<BufferedImage>>();
+			results.add(executor.submit(() -> coverCache.getOrDecode(bytes(1), () -> {
+				decodeStarted.countDown();
+				release.await();
+				return decode();
+			})));
+			decodeStarted.await();
+			for (var i = 1; i < callers; i++) {
+				results.add(executor.submit(() -> coverCache.getOrDecode(bytes(1), this::decode)));
+			}
+			Thread.sleep(100);
+			release.countDown();
+
+			var first = results.getFirst().get();
+			for (var result : results) {
+				assertThat(result.get()).isSameAs(first);
+			}
+		}
+		assertThat(decodes).hasValue(1);
+	}
+
+	// ----- Helpers -----
+
+	private CoverCache coverCache(DataSize maxSize) {
+		return new CoverCache(new CryptoPrimitivePool(4), memoryBudget, meterRegistry, maxSize);
+	}
+
+	private BufferedImage decode() {
+		decodes.incrementAndGet();
+		return new BufferedImage(SIDE, SIDE, BufferedImage.TYPE_INT_ARGB);
+	}
+
+	private static byte[] bytes(int cover) {
+		return ("cover-" + cover).getBytes();
+	}
+
+}
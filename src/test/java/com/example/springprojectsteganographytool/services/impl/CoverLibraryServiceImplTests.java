@@ -0,0 +1,208 @@
+package com.example.springprojectsteganographytool.services.impl;
+
+import com.example.springprojectsteganographytool.concurrency.CpuWorkerPool;
+import com.example.springprojectsteganographytool.concurrency.MemoryBudget;
+import com.example.springprojectsteganographytool.concurrency.PinningGuard;
+import com.example.springprojectsteganographytool.crypto.CryptoPrimitivePool;
+import com.example.springprojectsteganographytool.exceptions.data.CoverLibraryFullException;
+import com.example.springprojectsteganographytool.exceptions.data.CoverNotFoundException;
+import com.example.springprojectsteganographytool.exceptions.data.MessageTooLargeException;
+import com.example.springprojectsteganographytool.exceptions.file.InvalidImageFormatException;
+import com.example.springprojectsteganographytool.models.StegoCoverDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.springprojectsteganographytool.services.impl.StegoFixtures.png;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Storing, selecting and copying covers of the memory-mapped cover library.
+ */
+class CoverLibraryServiceImplTests {
+
+	private static final DataSize METADATA_RESERVE = DataSize.ofKilobytes(1);
+	private static final DataSize MAX_SIZE = DataSize.ofKilobytes(200);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final PinningGuard pinningGuard = new PinningGuard(meterRegistry, false, Duration.ofMillis(20), 3, List.of(), 1);
+	private final CpuWorkerPool cpuWorkerPool = new CpuWorkerPool(meterRegistry, 2, 16, Duration.ofSeconds(1), 20);
+	private final MemoryBudget memoryBudget = new MemoryBudget(meterRegistry, DataSize.ofMegabytes(16), Duration.ofSeconds(1), Duration.ofSeconds(1));
+	private final CoverCache coverCache = new CoverCache(new CryptoPrimitivePool(4), memoryBudget, meterRegistry, DataSize.ofMegabytes(16));
+	private final LsbUtilServiceImpl lsbUtilService = new LsbUtilServiceImpl(pinningGuard, cpuWorkerPool, coverCache);
+
+	private final StegoFixtures fixtures = new StegoFixtures();
+
+	@TempDir
+	private Path directory;
+
+	private CoverLibraryServiceImpl coverLibrary;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		coverLibrary = newCoverLibrary();
+	}
+
+	@AfterEach
+	void tearDown() {
+		coverLibrary.close();
+		cpuWorkerPool.close();
+		pinningGuard.close();
+	}
+
+	@Test
+	void coversAreListedSmallestFirst() throws Exception {
+		var large = coverLibrary.addCover("large", png(fixtures.cover(160, 120)));
+		var small = coverLibrary.addCover("small", png(fixtures.cover(40, 40)));
+		var medium = coverLibrary.addCover("medium", png(fixtures.cover(80, 80)));
+
+		assertThat(coverLibrary.listCovers()).containsExactly(small, medium, large);
+		assertThat(medium).isEqualTo(new StegoCoverDTO(medium.id(), "medium", 80, 80, 6400));
+	}
+
+	@Test
+	void smallestCoverThatHoldsThePayloadIsSelected() throws Exception {
+		var small = coverLibrary.addCover("small", png(fixtures.cover(40, 40)));
+		var medium = coverLibrary.addCover("medium", png(fixtures.cover(80, 80)));
+		var large = coverLibrary.addCover("large", png(fixtures.cover(160, 120)));
+		var reserve = (int) METADATA_RESERVE.toBytes();
+
+		for (var lsbDepth = 1; lsbDepth <= 2; lsbDepth++) {
+			for (var cover : List.of(small, medium, large)) {
+				// The largest payload this cover holds, and one byte more
+				var payloadLength = largestPayload(cover.pixelCount(), lsbDepth);
+				if (payloadLength < 0) {
+					continue;
+				}
+				assertThat(lsbUtilService.requiredPixelCount(payloadLength, reserve, lsbDepth)).isLessThanOrEqualTo(cover.pixelCount());
+				assertThat(coverLibrary.selectCover(payloadLength, lsbDepth)).isEqualTo(cover);
+
+				if (cover != large) {
+					assertThat(coverLibrary.selectCover(payloadLength + 1, lsbDepth)).isNotEqualTo(cover);
+				}
+			}
+		}
+
+		var tooLarge = largestPayload(large.pixelCount(), 2) + 1;
+		assertThatThrownBy(() -> coverLibrary.selectCover(tooLarge, 2))
+				.isInstanceOf(MessageTooLargeException.class);
+	}
+
+	@Test
+	void copyHoldsThePixelsOfTheCover() throws Exception {
+		var image = fixtures.cover(33, 17);
+		var cover = coverLibrary.addCover("odd", png(image));
+
+		var copy = coverLibrary.copyCover(cover.id());
+		assertThat(copy.getWidth()).isEqualTo(33);
+		assertThat(copy.getHeight()).isEqualTo(17);
+		for (var y = 0; y < 17; y++) {
+			for (var x = 0; x < 33; x++) {
+				assertThat(copy.getRGB(x, y)).isEqualTo(image.getRGB(x, y));
+			}
+		}
+
+		// Copies are independent of the stored raster
+		copy.setRGB(0, 0, 0);
+		assertThat(coverLibrary.copyCover(cover.id()).getRGB(0, 0)).isEqualTo(image.getRGB(0, 0));
+	}
+
+	@Test
+	void removedCoverIsNoLongerSelectedOrCopied() throws Exception {
+		var cover = coverLibrary.addCover("only", png(fixtures.cover(80, 80)));
+
+		coverLibrary.removeCover(cover.id());
+
+		assertThat(coverLibrary.listCovers()).isEmpty();
+		assertThat(Files.exists(directory.resolve(cover.id() + ".argb"))).isFalse();
+		assertThatThrownBy(() -> coverLibrary.copyCover(cover.id()))
+				.isInstanceOf(CoverNotFoundException.class);
+		assertThatThrownBy(() -> coverLibrary.selectCover(0, 2))
+				.isInstanceOf(MessageTooLargeException.class);
+		assertThatThrownBy(() -> coverLibrary.removeCover(cover.id()))
+				.isInstanceOf(CoverNotFoundException.class);
+		assertThatThrownBy(() -> coverLibrary.removeCover(UUID.randomUUID()))
+				.isInstanceOf(CoverNotFoundException.class);
+	}
+
+	@Test
+	void coversAreMappedAgainAfterARestart() throws Exception {
+		var image = fixtures.cover(50, 30);
+		var cover = coverLibrary.addCover("kept", png(image));
+		Files.write(directory.resolve(UUID.randomUUID() + ".argb.tmp"), new byte[10]);
+		Files.write(directory.resolve(UUID.randomUUID() + ".argb"), new byte[10]);
+		coverLibrary.close();
+
+		coverLibrary = newCoverLibrary();
+
+		assertThat(coverLibrary.listCovers()).containsExactly(cover);
+		assertThat(coverLibrary.copyCover(cover.id()).getRGB(49, 29)).isEqualTo(image.getRGB(49, 29));
+		try (var files = Files.list(directory)) {
+			assertThat(files.filter(file -> file.toString().endsWith(".tmp")).toList()).isEmpty();
+		}
+	}
+
+	@Test
+	void undecodableCoverIsRejected() {
+		var garbage = fixtures.randomBytes(64);
+
+		assertThatThrownBy(() -> coverLibrary.addCover("garbage", garbage))
+				.isInstanceOf(InvalidImageFormatException.class);
+		assertThat(coverLibrary.listCovers()).isEmpty();
+	}
+
+	@Test
+	void coverBeyondTheSizeLimitIsRejected() throws Exception {
+		// Two 75 KB rasters fit into the 200 KB limit, a third one does not
+		var first = coverLibrary.addCover("first", png(fixtures.cover(160, 120)));
+		coverLibrary.addCover("second", png(fixtures.cover(160, 120)));
+		var third = png(fixtures.cover(160, 120));
+
+		assertThatThrownBy(() -> coverLibrary.addCover("third", third))
+				.isInstanceOf(CoverLibraryFullException.class);
+		assertThat(coverLibrary.listCovers()).hasSize(2);
+		try (var files = Files.list(directory)) {
+			assertThat(files.count()).isEqualTo(2);
+		}
+
+		coverLibrary.removeCover(first.id());
+		coverLibrary.addCover("third", third);
+		assertThat(coverLibrary.listCovers()).hasSize(2);
+	}
+
+	// ----- Helpers -----
+
+	private CoverLibraryServiceImpl newCoverLibrary() throws Exception {
+		return new CoverLibraryServiceImpl(lsbUtilService, cpuWorkerPool, memoryBudget, directory, METADATA_RESERVE, MAX_SIZE);
+	}
+
+	// The largest payload whose required pixel count still fits the given count, or -1 if none does
+	private long largestPayload(long pixelCount, int lsbDepth) throws Exception {
+		var reserve = (int) METADATA_RESERVE.toBytes();
+		if (lsbUtilService.requiredPixelCount(0, reserve, lsbDepth) > pixelCount) {
+			return -1;
+		}
+		var low = 0L;
+		var high = pixelCount;
+		while (low < high) {
+			var mid = (low + high + 1) / 2;
+			if (lsbUtilService.requiredPixelCount(mid, reserve, lsbDepth) <= pixelCount) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+}
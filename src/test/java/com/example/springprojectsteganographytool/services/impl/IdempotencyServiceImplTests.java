@@ -0,0 +1,227 @@
+package com.example.springprojectsteganographytool.services.impl;
+
+import com.example.springprojectsteganographytool.crypto.CryptoPrimitivePool;
+import com.example.springprojectsteganographytool.documents.StegoData;
+import com.example.springprojectsteganographytool.documents.StegoIdempotencyRecord;
+import com.example.springprojectsteganographytool.exceptions.data.InvalidIdempotencyKeyException;
+import com.example.springprojectsteganographytool.models.StegoEncodeResponseDTO;
+import com.example.springprojectsteganographytool.models.StegoJobType;
+import com.example.springprojectsteganographytool.repos.StegoDataRepository;
+import com.example.springprojectsteganographytool.repos.StegoIdempotencyRecordRepository;
+import com.example.springprojectsteganographytool.services.AesUtilService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Retries of encode requests under one idempotency key, on one node and across simulated nodes.
+ */
+@DataMongoTest
+@Testcontainers
+class IdempotencyServiceImplTests {
+
+	private static final byte[] COVER = {1, 2, 3, 4};
+
+	@Container
+	@ServiceConnection
+	static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+	@Autowired
+	private StegoIdempotencyRecordRepository idempotencyRepository;
+
+	@Autowired
+	private StegoDataRepository stegoDataRepository;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	private final AtomicInteger encodes = new AtomicInteger();
+
+	private IdempotencyServiceImpl idempotencyService;
+
+	@BeforeEach
+	void setUp() {
+		idempotencyRepository.deleteAll();
+		stegoDataRepository.deleteAll();
+		idempotencyService = newNode();
+	}
+
+	@Test
+	void retryReturnsTheStoredResultWithoutEncodingAgain() throws Exception {
+		var requestHash = checkText("key-1", "message", "password");
+
+		var first = idempotencyService.encodeOnce("key-1", requestHash, this::encode);
+		var retry = idempotencyService.encodeOnce("key-1", checkText("key-1", "message", "password"), this::encode);
+
+		assertThat(retry).isEqualTo(first);
+		assertThat(encodes).hasValue(1);
+	}
+
+	@Test
+	void anotherNodeAnswersTheRetryFromMongo() throws Exception {
+		var first = idempotencyService.encodeOnce("key-1", checkText("key-1", "message", "password"), this::encode);
+
+		var otherNode = newNode();
+		var retry = otherNode.encodeOnce("key-1", checkText("key-1", "message", "password"), this::encode);
+
+		assertThat(retry).isEqualTo(first);
+		assertThat(encodes).hasValue(1);
+	}
+
+	@Test
+	void keyIsRejectedForADifferentRequest() throws Exception {
+		idempotencyService.encodeOnce("key-1", checkText("key-1", "message", "password"), this::encode);
+
+		assertThatThrownBy(() -> checkText("key-1", "message", "other password"))
+				.isInstanceOf(InvalidIdempotencyKeyException.class);
+		assertThatThrownBy(() -> checkText("key-1", "other message", "password"))
+				.isInstanceOf(InvalidIdempotencyKeyException.class);
+		assertThatThrownBy(() -> newNode().checkRequest("key-1", StegoJobType.ENCODE_TEXT, COVER, "message", null, null, "password", 2))
+				.isInstanceOf(InvalidIdempotencyKeyException.class);
+
+		// A request that passed its check elsewhere is still rejected once it runs under the used key
+		var otherHash = checkText("key-2", "message", "other password");
+		assertThatThrownBy(() -> idempotencyService.encodeOnce("key-1", otherHash, this::encode))
+				.isInstanceOf(InvalidIdempotencyKeyException.class);
+		assertThat(encodes).hasValue(1);
+	}
+
+	@Test
+	void malformedKeysAreRejectedAndNoKeyAlwaysEncodes() throws Exception {
+		assertThatThrownBy(() -> checkText(" ", "message", "password"))
+				.isInstanceOf(InvalidIdempotencyKeyException.class);
+		assertThatThrownBy(() -> checkText("k".repeat(256), "message", "password"))
+				.isInstanceOf(InvalidIdempotencyKeyException.class);
+
+		assertThat(checkText(null, "message", "password")).isNull();
+		idempotencyService.encodeOnce(null, null, this::encode);
+		idempotencyService.encodeOnce(null, null, this::encode);
+		assertThat(encodes).hasValue(2);
+	}
+
+	@Test
+	void concurrentRetriesShareOneEncode() throws Exception {
+		var requestHash = checkText("key-1", "message", "password");
+		var callers = 8;
+		var start = new CountDownLatch(1);
+
+		try (var executor = Executors.newFixedThreadPool(callers)) {
+			var results = new ArrayList<Future<StegoEncodeResponseDTO>>();
+			for (var i = 0; i < callers; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return idempotencyService.encodeOnce("key-1", requestHash, () -> {
+						Thread.sleep(100);
+						return encode();
+					});
+				}));
+			}
+			start.countDown();
+
+			var first = results.getFirst().get();
+			for (var result : results) {
+				assertThat(result.get()).isEqualTo(first);
+			}
+		}
+		assertThat(encodes).hasValue(1);
+	}
+
+	@Test
+	void duplicateEncodedByAnotherNodeIsDiscarded() throws Exception {
+		var requestHash = checkText("key-1", "message", "password");
+		var otherNode = newNode();
+
+		// The other node stores its result while this node is still encoding the same request
+		var result = idempotencyService.encodeOnce("key-1", requestHash, () -> {
+			otherNode.encodeOnce("key-1", requestHash, this::encode);
+			return encode();
+		});
+
+		assertThat(encodes).hasValue(2);
+		assertThat(stegoDataRepository.count()).isEqualTo(1);
+		assertThat(stegoDataRepository.findById(result.id())).isPresent();
+		assertThat(idempotencyService.encodeOnce("key-1", requestHash, this::encode)).isEqualTo(result);
+	}
+
+	@Test
+	void recordsExpireAfterTheRetryWindow() {
+		assertThat(expiryOfRecords()).contains(Duration.ofHours(1));
+
+		newNode(Duration.ofDays(3));
+
+		assertThat(expiryOfRecords()).contains(Duration.ofDays(3));
+	}
+
+	// ----- Helpers -----
+
+	private IdempotencyServiceImpl newNode() {
+		return newNode(Duration.ofHours(1));
+	}
+
+	private IdempotencyServiceImpl newNode(Duration window) {
+		var aesUtilService = mock(AesUtilService.class);
+		when(aesUtilService.generateKey(anyString())).thenAnswer(invocation -> "key-hash:" + invocation.getArgument(0));
+
+		return new IdempotencyServiceImpl(
+				idempotencyRepository,
+				stegoDataRepository,
+				new CryptoPrimitivePool(4),
+				aesUtilService,
+				mongoTemplate,
+				new SimpleMeterRegistry(),
+				window,
+				Duration.ofMinutes(1),
+				16
+		);
+	}
+
+	private Optional<Duration> expiryOfRecords() {
+		return mongoTemplate.indexOps(StegoIdempotencyRecord.class).getIndexInfo().stream()
+				.filter(index -> index.isIndexForFields(List.of("createdDate")))
+				.findFirst()
+				.flatMap(IndexInfo::getExpireAfter);
+	}
+
+	private String checkText(String idempotencyKey, String message, String password) {
+		return idempotencyService.checkRequest(idempotencyKey, StegoJobType.ENCODE_TEXT, COVER, message, null, null, password, 2);
+	}
+
+	// Stores stego data like a real encode, so a discarded duplicate can be seen to be deleted
+	private StegoEncodeResponseDTO encode() {
+		encodes.incrementAndGet();
+		var stegoData = new StegoData();
+		stegoData.setId(UUID.randomUUID());
+		stegoData.setStegoImageBytes(COVER);
+		stegoData.setHasText(true);
+		stegoData.setCreatedDate(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+		var saved = stegoDataRepository.save(stegoData);
+		return new StegoEncodeResponseDTO(saved.getId(), null, null, true, false, saved.getCreatedDate(), null);
+	}
+
+}
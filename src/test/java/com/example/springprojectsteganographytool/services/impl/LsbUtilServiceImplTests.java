@@ -0,0 +1,204 @@
+package com.example.springprojectsteganographytool.services.impl;
+
+import com.example.springprojectsteganographytool.concurrency.CpuWorkerPool;
+import com.example.springprojectsteganographytool.concurrency.MemoryBudget;
+import com.example.springprojectsteganographytool.concurrency.PinningGuard;
+import com.example.springprojectsteganographytool.crypto.CryptoPrimitivePool;
+import com.example.springprojectsteganographytool.exceptions.data.MessageTooLargeException;
+import com.example.springprojectsteganographytool.exceptions.file.InvalidImageFormatException;
+import com.example.springprojectsteganographytool.exceptions.lsb.LsbDecodingException;
+import com.example.springprojectsteganographytool.exceptions.lsb.LsbEncodingException;
+import com.example.springprojectsteganographytool.models.StegoChunkIndexDTO;
+import com.example.springprojectsteganographytool.models.StegoContainerDTO;
+import com.example.springprojectsteganographytool.models.StegoMetadataDTO;
+import com.example.springprojectsteganographytool.models.StegoShardDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.awt.Dimension;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.springprojectsteganographytool.services.impl.StegoFixtures.png;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Embedding into and extracting from still images, on the pixel level and without the application context.
+ */
+class LsbUtilServiceImplTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final PinningGuard pinningGuard = new PinningGuard(meterRegistry, false, Duration.ofMillis(20), 3, List.of(), 1);
+	private final CpuWorkerPool cpuWorkerPool = new CpuWorkerPool(meterRegistry, 2, 16, Duration.ofSeconds(1), 20);
+	private final MemoryBudget memoryBudget = new MemoryBudget(meterRegistry, DataSize.ofMegabytes(64), Duration.ofSeconds(1), Duration.ofSeconds(1));
+	private final CoverCache coverCache = new CoverCache(new CryptoPrimitivePool(4), memoryBudget, meterRegistry, DataSize.ofMegabytes(16));
+	private final LsbUtilServiceImpl lsbUtilService = new LsbUtilServiceImpl(pinningGuard, cpuWorkerPool, coverCache);
+
+	private final StegoFixtures fixtures = new StegoFixtures();
+
+	@AfterEach
+	void tearDown() {
+		cpuWorkerPool.close();
+		pinningGuard.close();
+	}
+
+	@Test
+	void shardRoundTripsAtBothDepths() throws Exception {
+		for (var lsbDepth = 1; lsbDepth <= 2; lsbDepth++) {
+			var payload = fixtures.randomBytes(1000);
+			var shard = new StegoShardDTO(UUID.randomUUID(), 1, 3, 3000);
+			var metadata = shardMetadata(lsbDepth, shard);
+
+			var stegoImage = lsbUtilService.readImage(lsbUtilService.embed(fixtures.cover(120, 90), payload, metadata));
+
+			var extracted = lsbUtilService.extractMetadata(stegoImage);
+			assertThat(extracted.lsbDepth()).isEqualTo(lsbDepth);
+			assertThat(extracted.shard()).isEqualTo(shard);
+			assertThat(lsbUtilService.decode(stegoImage, extracted.lsbDepth())).isEqualTo(payload);
+		}
+	}
+
+	@Test
+	void payloadOfExactlyTheCapacityFits() throws Exception {
+		var metadata = shardMetadata(2, new StegoShardDTO(UUID.randomUUID(), 0, 2, 100_000));
+		var coverImage = fixtures.cover(64, 48);
+
+		var capacity = lsbUtilService.payloadCapacity(coverImage, metadata);
+		assertThat(capacity).isPositive();
+
+		var payload = fixtures.randomBytes((int) capacity);
+		var stegoImage = lsbUtilService.readImage(lsbUtilService.embed(coverImage, payload, metadata));
+		assertThat(lsbUtilService.decode(stegoImage, null)).isEqualTo(payload);
+
+		assertThatThrownBy(() -> lsbUtilService.embed(coverImage, fixtures.randomBytes((int) capacity + 1), metadata))
+				.isInstanceOf(MessageTooLargeException.class);
+	}
+
+	@Test
+	void capacityIsZeroWhenOnlyTheMetadataFits() throws Exception {
+		var metadata = shardMetadata(1, new StegoShardDTO(UUID.randomUUID(), 0, 2, 100_000));
+
+		// Grow a one-row cover until the metadata and the payload length fit; no payload byte fits yet
+		var width = 1;
+		while (true) {
+			try {
+				lsbUtilService.payloadCapacity(width, 1, metadata);
+				break;
+			} catch (MessageTooLargeException _) {
+				width++;
+			}
+		}
+
+		assertThat(lsbUtilService.payloadCapacity(width, 1, metadata)).isZero();
+	}
+
+	@Test
+	void decodeMemoryFromTheHeaderCoversReadingAndDecodingTheImage() {
+		var stegoImage = fixtures.cover(37, 21);
+
+		// Reserved from the image header before the shard images are decoded
+		assertThat(lsbUtilService.estimateDecodeMemory(37, 21))
+				.isEqualTo(lsbUtilService.estimateReadMemory(37, 21) + lsbUtilService.estimateDecodeMemory(stegoImage));
+	}
+
+	@Test
+	void containerEntriesAreReadOneAtATime() throws Exception {
+		var directory = fixtures.randomBytes(57);
+		var entries = List.of(fixtures.randomBytes(10), fixtures.randomBytes(333), fixtures.randomBytes(1));
+		var metadata = containerMetadata(2, new StegoContainerDTO(entries.size(), directory.length));
+
+		var stegoBytes = lsbUtilService.embedContainer(lsbUtilService.prepareCover(fixtures.cover(100, 80)), directory, entries, metadata);
+		var stegoImage = lsbUtilService.readImage(stegoBytes);
+
+		var extracted = lsbUtilService.extractMetadata(stegoImage);
+		assertThat(extracted.container()).isEqualTo(metadata.container());
+		assertThat(lsbUtilService.readContainerDirectory(stegoImage, extracted)).isEqualTo(directory);
+
+		var entryLengths = entries.stream().mapToInt(entry -> entry.length).toArray();
+		for (var index = entries.size() - 1; index >= 0; index--) {
+			var lengthsUpToEntry = Arrays.copyOf(entryLengths, index + 1);
+			assertThat(lsbUtilService.readContainerEntry(stegoImage, extracted, lengthsUpToEntry, index)).isEqualTo(entries.get(index));
+		}
+	}
+
+	@Test
+	void containerThatDoesNotFitIsRejected() {
+		var metadata = containerMetadata(1, new StegoContainerDTO(1, 10));
+
+		assertThatThrownBy(() -> lsbUtilService.ensureContainerCapacity(fixtures.cover(20, 10), new int[]{100_000}, metadata))
+				.isInstanceOf(MessageTooLargeException.class);
+	}
+
+	@Test
+	void containerHeaderMustMatchTheEntries() {
+		var metadata = containerMetadata(1, new StegoContainerDTO(2, 10));
+		var workingImage = lsbUtilService.prepareCover(fixtures.cover(100, 80));
+
+		assertThatThrownBy(() -> lsbUtilService.embedContainer(workingImage, fixtures.randomBytes(10), List.of(fixtures.randomBytes(5)), metadata))
+				.isInstanceOf(LsbEncodingException.class);
+	}
+
+	@Test
+	void chunksInTheMiddleAreReadOnTheirOwn() throws Exception {
+		var header = fixtures.randomBytes(32);
+		var chunks = List.of(fixtures.randomBytes(80), fixtures.randomBytes(80), fixtures.randomBytes(80), fixtures.randomBytes(30));
+		var metadata = chunkedMetadata(2, new StegoChunkIndexDTO(64, chunks.size(), 3 * 64 + 14, header.length, 80, 30));
+
+		var stegoBytes = lsbUtilService.embedChunked(lsbUtilService.prepareCover(fixtures.cover(90, 60)), header, chunks, metadata);
+		var stegoImage = lsbUtilService.readImage(stegoBytes);
+
+		var extracted = lsbUtilService.extractMetadata(stegoImage);
+		assertThat(extracted.chunks()).isEqualTo(metadata.chunks());
+		assertThat(lsbUtilService.readChunkHeader(stegoImage, extracted)).isEqualTo(header);
+
+		var middle = lsbUtilService.readChunks(stegoImage, extracted, 1, 2);
+		assertThat(middle).hasSize(2);
+		assertThat(middle.get(0)).isEqualTo(chunks.get(1));
+		assertThat(middle.get(1)).isEqualTo(chunks.get(2));
+
+		var last = lsbUtilService.readChunks(stegoImage, extracted, 3, 1);
+		assertThat(last.getFirst()).isEqualTo(chunks.get(3));
+	}
+
+	@Test
+	void chunkRangePastTheEndIsRejected() throws Exception {
+		var header = fixtures.randomBytes(32);
+		var chunks = List.of(fixtures.randomBytes(80), fixtures.randomBytes(30));
+		var metadata = chunkedMetadata(1, new StegoChunkIndexDTO(64, chunks.size(), 64 + 14, header.length, 80, 30));
+		var stegoImage = lsbUtilService.readImage(
+				lsbUtilService.embedChunked(lsbUtilService.prepareCover(fixtures.cover(90, 60)), header, chunks, metadata)
+		);
+
+		assertThatThrownBy(() -> lsbUtilService.readChunks(stegoImage, metadata, 1, 2))
+				.isInstanceOf(LsbDecodingException.class);
+		assertThatThrownBy(() -> lsbUtilService.readChunks(stegoImage, metadata, -1, 1))
+				.isInstanceOf(LsbDecodingException.class);
+	}
+
+	@Test
+	void imageSizeIsReadFromTheHeader() throws Exception {
+		assertThat(lsbUtilService.readImageSize(png(fixtures.cover(37, 21)))).isEqualTo(new Dimension(37, 21));
+		assertThatThrownBy(() -> lsbUtilService.readImageSize(fixtures.randomBytes(64)))
+				.isInstanceOf(InvalidImageFormatException.class);
+	}
+
+	// ----- Helpers -----
+
+	private static StegoMetadataDTO containerMetadata(int lsbDepth, StegoContainerDTO container) {
+		return new StegoMetadataDTO(lsbDepth, false, false, "key-hash", null, null, null, container, null);
+	}
+
+	private static StegoMetadataDTO chunkedMetadata(int lsbDepth, StegoChunkIndexDTO chunks) {
+		return new StegoMetadataDTO(lsbDepth, false, true, "key-hash", "large.bin", null, null, null, chunks);
+	}
+
+	private static StegoMetadataDTO shardMetadata(int lsbDepth, StegoShardDTO shard) {
+		return new StegoMetadataDTO(lsbDepth, false, true, "key-hash", "payload.bin", null, shard, null, null);
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.example.springprojectsteganographytool.services.impl;
+
+import com.example.springprojectsteganographytool.exceptions.data.InvalidBatchException;
+import com.example.springprojectsteganographytool.exceptions.encryption.AesKeyInvalidException;
+import com.example.springprojectsteganographytool.models.StegoBatchItemDTO;
+import com.example.springprojectsteganographytool.repos.StegoDataRepository;
+import com.example.springprojectsteganographytool.services.SteganographyService;
+import com.example.springprojectsteganographytool.services.StegoProgressListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Encoding a batch of messages into copies of one cover, each decodable with its own password only.
+ */
+@SpringBootTest(properties = "stego.batch.max-items=4")
+@Testcontainers
+class SteganographyServiceImplBatchTests {
+
+	@Container
+	@ServiceConnection
+	static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+	@Autowired
+	private SteganographyService steganographyService;
+
+	@Autowired
+	private StegoDataRepository stegoDataRepository;
+
+	private final BufferedImage cover = new StegoFixtures().cover(80, 60);
+
+	@Test
+	void everyMessageIsDecodedFromItsOwnImageInBatchOrder() throws Exception {
+		var items = List.of(
+				new StegoBatchItemDTO("first message", "password-1"),
+				new StegoBatchItemDTO("", "password-2"),
+				new StegoBatchItemDTO("third message, a little longer than the others", "password-3")
+		);
+
+		var responses = steganographyService.encodeTextBatch(cover, items, 2, StegoProgressListener.NONE);
+
+		assertThat(responses).hasSize(items.size());
+		for (var i = 0; i < items.size(); i++) {
+			var stegoBytes = stegoDataRepository.findById(responses.get(i).id()).orElseThrow().getStegoImageBytes();
+			var decoded = steganographyService.decodeProcess(stegoBytes, items.get(i).password(), StegoProgressListener.NONE);
+			assertThat(decoded.message()).isEqualTo(items.get(i).message());
+		}
+	}
+
+	@Test
+	void messageIsNotDecodedWithThePasswordOfAnotherItem() throws Exception {
+		var items = List.of(
+				new StegoBatchItemDTO("first message", "password-1"),
+				new StegoBatchItemDTO("second message", "password-2")
+		);
+
+		var responses = steganographyService.encodeTextBatch(cover, items, 1, StegoProgressListener.NONE);
+		var stegoBytes = stegoDataRepository.findById(responses.getFirst().id()).orElseThrow().getStegoImageBytes();
+
+		assertThatThrownBy(() -> steganographyService.decodeProcess(stegoBytes, "password-2", StegoProgressListener.NONE))
+				.isInstanceOf(AesKeyInvalidException.class);
+	}
+
+	@Test
+	void batchSizeIsBounded() {
+		var item = new StegoBatchItemDTO("message", "password");
+
+		assertThatThrownBy(() -> steganographyService.encodeTextBatch(cover, List.of(), 1, StegoProgressListener.NONE))
+				.isInstanceOf(InvalidBatchException.class);
+		assertThatThrownBy(() -> steganographyService.encodeTextBatch(cover, Collections.nCopies(5, item), 1, StegoProgressListener.NONE))
+				.isInstanceOf(InvalidBatchException.class);
+	}
+
+	@Test
+	void everyItemNeedsAMessageAndAPassword() {
+		var blankPassword = List.of(new StegoBatchItemDTO("message", "password"), new StegoBatchItemDTO("message", " "));
+		var missingMessage = List.of(new StegoBatchItemDTO(null, "password"));
+
+		assertThatThrownBy(() -> steganographyService.encodeTextBatch(cover, blankPassword, 1, StegoProgressListener.NONE))
+				.isInstanceOf(InvalidBatchException.class);
+		assertThatThrownBy(() -> steganographyService.encodeTextBatch(cover, missingMessage, 1, StegoProgressListener.NONE))
+				.isInstanceOf(InvalidBatchException.class);
+	}
+
+}
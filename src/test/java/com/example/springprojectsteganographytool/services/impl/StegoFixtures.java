@@ -0,0 +1,42 @@
+package com.example.springprojectsteganographytool.services.impl;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Covers and payloads shared by the steganography tests. Pixels and bytes come from a fixed seed, so every run
+ * embeds the same data; random pixels also keep PNGs from compressing, so file sizes follow the pixel count.
+ */
+final class StegoFixtures {
+
+	private final Random random = new Random(42);
+
+	/**
+	 * @return An opaque ARGB image with random pixels.
+	 */
+	BufferedImage cover(int width, int height) {
+		var image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		for (var y = 0; y < height; y++) {
+			for (var x = 0; x < width; x++) {
+				image.setRGB(x, y, random.nextInt() | 0xFF000000);
+			}
+		}
+		return image;
+	}
+
+	byte[] randomBytes(int length) {
+		var bytes = new byte[length];
+		random.nextBytes(bytes);
+		return bytes;
+	}
+
+	static byte[] png(BufferedImage image) throws IOException {
+		var png = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", png);
+		return png.toByteArray();
+	}
+
+}
@@ -0,0 +1,167 @@
+package com.example.springprojectsteganographytool.services.impl;
+
+import com.example.springprojectsteganographytool.concurrency.CpuWorkerPool;
+import com.example.springprojectsteganographytool.concurrency.MemoryBudget;
+import com.example.springprojectsteganographytool.concurrency.PinningGuard;
+import com.example.springprojectsteganographytool.crypto.CryptoPrimitivePool;
+import com.example.springprojectsteganographytool.exceptions.data.StorageException;
+import com.example.springprojectsteganographytool.models.StegoMetadataDTO;
+import com.example.springprojectsteganographytool.models.StegoScanHitDTO;
+import com.example.springprojectsteganographytool.models.StegoShardDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+import static com.example.springprojectsteganographytool.services.impl.StegoFixtures.png;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Probing images for stego headers from their leading rows, one at a time and in bulk.
+ */
+class StegoScanServiceImplTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final PinningGuard pinningGuard = new PinningGuard(meterRegistry, false, Duration.ofMillis(20), 3, List.of(), 1);
+	private final CpuWorkerPool cpuWorkerPool = new CpuWorkerPool(meterRegistry, 2, 16, Duration.ofSeconds(1), 20);
+	private final MemoryBudget memoryBudget = new MemoryBudget(meterRegistry, DataSize.ofMegabytes(64), Duration.ofSeconds(1), Duration.ofSeconds(1));
+	private final CoverCache coverCache = new CoverCache(new CryptoPrimitivePool(4), memoryBudget, meterRegistry, DataSize.ofMegabytes(16));
+	private final LsbUtilServiceImpl lsbUtilService = new LsbUtilServiceImpl(pinningGuard, cpuWorkerPool, coverCache);
+	private final StegoScanServiceImpl scanService = new StegoScanServiceImpl(
+			lsbUtilService,
+			Executors.newVirtualThreadPerTaskExecutor(),
+			3,
+			Duration.ofMinutes(1)
+	);
+
+	private final StegoFixtures fixtures = new StegoFixtures();
+
+	@TempDir
+	private Path directory;
+
+	@AfterEach
+	void tearDown() {
+		cpuWorkerPool.close();
+		pinningGuard.close();
+	}
+
+	@Test
+	void probeReadsTheMetadataThatExtractionReads() throws Exception {
+		for (var lsbDepth = 1; lsbDepth <= 2; lsbDepth++) {
+			var metadata = metadata(lsbDepth);
+			var stegoBytes = lsbUtilService.embed(fixtures.cover(90, 70), fixtures.randomBytes(500), metadata);
+
+			var probed = lsbUtilService.probeMetadata(new ByteArrayInputStream(stegoBytes));
+
+			assertThat(probed).isEqualTo(lsbUtilService.extractMetadata(lsbUtilService.readImage(stegoBytes)));
+			assertThat(probed.shard()).isEqualTo(metadata.shard());
+		}
+	}
+
+	@Test
+	void probeNeedsOnlyTheLeadingRows() throws Exception {
+		var metadata = metadata(1);
+		var stegoBytes = lsbUtilService.embed(fixtures.cover(200, 1000), fixtures.randomBytes(16), metadata);
+
+		// Random pixels barely compress, so half of the file holds roughly the upper half of the rows
+		var leadingHalf = Arrays.copyOf(stegoBytes, stegoBytes.length / 2);
+
+		assertThat(lsbUtilService.probeMetadata(new ByteArrayInputStream(leadingHalf)).shard()).isEqualTo(metadata.shard());
+	}
+
+	@Test
+	void metadataLongerThanTheFirstRegionIsProbedWithASecondRead() throws Exception {
+		var shard = new StegoShardDTO(UUID.randomUUID(), 0, 1, 1000);
+		var metadata = new StegoMetadataDTO(1, false, true, "key-hash", "x".repeat(5000) + ".bin", null, shard, null, null);
+		var stegoBytes = lsbUtilService.embed(fixtures.cover(200, 1000), fixtures.randomBytes(16), metadata);
+
+		var leadingHalf = Arrays.copyOf(stegoBytes, stegoBytes.length / 2);
+
+		assertThat(lsbUtilService.probeMetadata(new ByteArrayInputStream(leadingHalf))).isEqualTo(metadata);
+	}
+
+	@Test
+	void directoryScanReportsHitsMissesAndNonImages() throws Exception {
+		var nested = Files.createDirectories(directory.resolve("nested"));
+		var first = metadata(1);
+		var second = metadata(2);
+		Files.write(directory.resolve("b-stego.png"), lsbUtilService.embed(fixtures.cover(60, 40), fixtures.randomBytes(100), first));
+		Files.write(nested.resolve("a-stego.png"), lsbUtilService.embed(fixtures.cover(60, 40), fixtures.randomBytes(100), second));
+		Files.write(directory.resolve("plain.png"), png(fixtures.cover(60, 40)));
+		Files.write(nested.resolve("plain.png"), png(fixtures.cover(30, 20)));
+		Files.write(directory.resolve("notes.txt"), "not an image".getBytes());
+
+		var report = scanService.scanDirectory(directory);
+
+		assertThat(report.scanned()).isEqualTo(5);
+		assertThat(report.misses()).isEqualTo(3);
+		assertThat(report.failed()).isEmpty();
+		assertThat(report.hits().stream().map(StegoScanHitDTO::source).toList()).containsExactly(
+				directory.resolve("b-stego.png").toString(),
+				nested.resolve("a-stego.png").toString()
+		);
+		assertThat(report.hits().get(0).metadata().shard()).isEqualTo(first.shard());
+		assertThat(report.hits().get(1).metadata().shard()).isEqualTo(second.shard());
+	}
+
+	@Test
+	void uploadScanReportsHitsSortedByName() throws Exception {
+		var uploads = new LinkedHashMap<String, byte[]>();
+		for (var i = 9; i >= 0; i--) {
+			uploads.put("upload-" + i, i % 2 == 0
+					? lsbUtilService.embed(fixtures.cover(40, 40), fixtures.randomBytes(20), metadata(1))
+					: png(fixtures.cover(40, 40)));
+		}
+
+		var report = scanService.scanUploads(uploads);
+
+		assertThat(report.scanned()).isEqualTo(10);
+		assertThat(report.misses()).isEqualTo(5);
+		assertThat(report.hits().stream().map(StegoScanHitDTO::source).toList())
+				.containsExactly("upload-0", "upload-2", "upload-4", "upload-6", "upload-8");
+	}
+
+	@Test
+	void scanLargerThanABatchReportsEveryImage() throws Exception {
+		var serialScan = new StegoScanServiceImpl(lsbUtilService, Executors.newVirtualThreadPerTaskExecutor(), 1, Duration.ofMinutes(1));
+		var uploads = new LinkedHashMap<String, byte[]>();
+		for (var i = 0; i < 150; i++) {
+			uploads.put("upload-%03d".formatted(i), i % 50 == 0
+					? lsbUtilService.embed(fixtures.cover(40, 40), fixtures.randomBytes(20), metadata(1))
+					: png(fixtures.cover(8, 8)));
+		}
+
+		var report = serialScan.scanUploads(uploads);
+
+		assertThat(report.scanned()).isEqualTo(150);
+		assertThat(report.misses()).isEqualTo(147);
+		assertThat(report.hits().stream().map(StegoScanHitDTO::source).toList())
+				.containsExactly("upload-000", "upload-050", "upload-100");
+	}
+
+	@Test
+	void missingDirectoryIsRejected() {
+		assertThatThrownBy(() -> scanService.scanDirectory(directory.resolve("missing")))
+				.isInstanceOf(StorageException.class);
+	}
+
+	// ----- Helpers -----
+
+	private static StegoMetadataDTO metadata(int lsbDepth) {
+		var shard = new StegoShardDTO(UUID.randomUUID(), 0, 1, 1000);
+		return new StegoMetadataDTO(lsbDepth, false, true, "key-hash", "payload.bin", null, shard, null, null);
+	}
+
+}
@@ -0,0 +1,191 @@
+package com.example.springprojectsteganographytool.services.impl;
+
+import com.example.springprojectsteganographytool.concurrency.CpuWorkerPool;
+import com.example.springprojectsteganographytool.concurrency.MemoryBudget;
+import com.example.springprojectsteganographytool.concurrency.PinningGuard;
+import com.example.springprojectsteganographytool.crypto.CryptoPrimitivePool;
+import com.example.springprojectsteganographytool.exceptions.data.MessageTooLargeException;
+import com.example.springprojectsteganographytool.exceptions.file.InvalidAudioFormatException;
+import com.example.springprojectsteganographytool.models.StegoMetadataDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Streaming embedding into and extraction from 16-bit PCM WAV audio.
+ */
+class WavCarrierTests {
+
+	private static final short PCM = 1;
+	private static final short IEEE_FLOAT = 3;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final PinningGuard pinningGuard = new PinningGuard(meterRegistry, false, Duration.ofMillis(20), 3, List.of(), 1);
+	private final CpuWorkerPool cpuWorkerPool = new CpuWorkerPool(meterRegistry, 2, 16, Duration.ofSeconds(1), 20);
+	private final MemoryBudget memoryBudget = new MemoryBudget(meterRegistry, DataSize.ofMegabytes(64), Duration.ofSeconds(1), Duration.ofSeconds(1));
+	private final CoverCache coverCache = new CoverCache(new CryptoPrimitivePool(4), memoryBudget, meterRegistry, DataSize.ofMegabytes(16));
+	private final LsbUtilServiceImpl lsbUtilService = new LsbUtilServiceImpl(pinningGuard, cpuWorkerPool, coverCache);
+
+	private final StegoFixtures fixtures = new StegoFixtures();
+
+	@AfterEach
+	void tearDown() {
+		cpuWorkerPool.close();
+		pinningGuard.close();
+	}
+
+	@Test
+	void payloadRoundTripsAtBothDepths() throws Exception {
+		for (var lsbDepth = 1; lsbDepth <= 2; lsbDepth++) {
+			var cover = wav(PCM, 16, 2, 100_000);
+			var payload = fixtures.randomBytes(20_000);
+			var metadata = metadata(lsbDepth);
+
+			var stego = embed(cover, payload, metadata);
+
+			assertThat(lsbUtilService.extractAudioMetadata(new ByteArrayInputStream(stego))).isEqualTo(metadata);
+			assertThat(lsbUtilService.decodeAudio(new ByteArrayInputStream(stego))).isEqualTo(payload);
+		}
+	}
+
+	@Test
+	void onlyTheLowSampleBitsChange() throws Exception {
+		var cover = wav(PCM, 16, 1, 50_000);
+
+		var stego = embed(cover, fixtures.randomBytes(5_000), metadata(2));
+
+		assertThat(stego.length).isEqualTo(cover.length);
+		var dataStart = dataOffset(cover);
+		assertThat(Arrays.equals(cover, 0, dataStart, stego, 0, dataStart)).isTrue();
+		for (var i = dataStart; i < stego.length; i++) {
+			// Samples are little-endian, so only the first byte of each sample holds its low bits
+			var changedBits = (cover[i] ^ stego[i]) & 0xFF;
+			var allowedBits = (i - dataStart) % 2 == 0 ? 0b11 : 0;
+			assertThat(changedBits & ~allowedBits).isZero();
+		}
+	}
+
+	@Test
+	void chunksAroundTheSamplesAreKept() throws Exception {
+		var list = chunk("LIST", "INFOISFT\0\0\0\0".getBytes(StandardCharsets.US_ASCII));
+		var trailer = chunk("junk", new byte[]{1, 2, 3});
+		var cover = wav(PCM, 16, 2, 20_000, list, trailer);
+
+		var stego = embed(cover, fixtures.randomBytes(1_000), metadata(1));
+
+		assertThat(stego.length).isEqualTo(cover.length);
+		assertThat(Arrays.copyOfRange(stego, stego.length - trailer.length, stego.length)).isEqualTo(trailer);
+		assertThat(Arrays.copyOfRange(stego, 12, 12 + list.length)).isEqualTo(list);
+	}
+
+	@Test
+	void metadataIsReadFromTheLeadingSamplesOnly() throws Exception {
+		var stego = embed(wav(PCM, 16, 2, 500_000), fixtures.randomBytes(100), metadata(1));
+		var stegoStream = new ByteArrayInputStream(stego);
+
+		lsbUtilService.extractAudioMetadata(stegoStream);
+
+		assertThat((long) stegoStream.available()).isGreaterThan(stego.length / 2);
+	}
+
+	@Test
+	void audioTooShortForThePayloadIsRejected() {
+		var cover = wav(PCM, 16, 1, 1_000);
+
+		assertThatThrownBy(() -> embed(cover, fixtures.randomBytes(1_000), metadata(2)))
+				.isInstanceOf(MessageTooLargeException.class);
+	}
+
+	@Test
+	void onlySixteenBitPcmIsAccepted() {
+		var payload = fixtures.randomBytes(10);
+
+		assertThatThrownBy(() -> embed(wav(PCM, 8, 1, 10_000), payload, metadata(1)))
+				.isInstanceOf(InvalidAudioFormatException.class);
+		assertThatThrownBy(() -> embed(wav(IEEE_FLOAT, 32, 1, 10_000), payload, metadata(1)))
+				.isInstanceOf(InvalidAudioFormatException.class);
+		assertThatThrownBy(() -> embed("not a wav file at all".getBytes(StandardCharsets.US_ASCII), payload, metadata(1)))
+				.isInstanceOf(InvalidAudioFormatException.class);
+	}
+
+	@Test
+	void audioWithoutAStegoHeaderIsRejected() {
+		var cover = wav(PCM, 16, 2, 10_000);
+
+		assertThatThrownBy(() -> lsbUtilService.extractAudioMetadata(new ByteArrayInputStream(cover)))
+				.isInstanceOf(InvalidAudioFormatException.class);
+		assertThatThrownBy(() -> lsbUtilService.decodeAudio(new ByteArrayInputStream(cover)))
+				.isInstanceOf(InvalidAudioFormatException.class);
+	}
+
+	// ----- Helpers -----
+
+	private byte[] embed(byte[] cover, byte[] payload, StegoMetadataDTO metadata) throws Exception {
+		var stego = new ByteArrayOutputStream(cover.length);
+		lsbUtilService.embedAudio(new ByteArrayInputStream(cover), stego, payload, metadata);
+		return stego.toByteArray();
+	}
+
+	// A RIFF WAVE file with random samples; the first extra chunk goes before fmt, the others after data
+	private byte[] wav(short formatCode, int bitsPerSample, int channels, int frames, byte[]... extraChunks) {
+		var blockAlign = channels * bitsPerSample / 8;
+		var fmt = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN)
+				.putShort(formatCode).putShort((short) channels).putInt(44_100).putInt(44_100 * blockAlign)
+				.putShort((short) blockAlign).putShort((short) bitsPerSample)
+				.array();
+
+		var body = new ByteArrayOutputStream();
+		body.writeBytes("WAVE".getBytes(StandardCharsets.US_ASCII));
+		if (extraChunks.length > 0) {
+			body.writeBytes(extraChunks[0]);
+		}
+		body.writeBytes(chunk("fmt ", fmt));
+		body.writeBytes(chunk("data", fixtures.randomBytes(frames * blockAlign)));
+		for (var i = 1; i < extraChunks.length; i++) {
+			body.writeBytes(extraChunks[i]);
+		}
+
+		var riff = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN)
+				.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(body.size())
+				.array();
+		var wav = new ByteArrayOutputStream();
+		wav.writeBytes(riff);
+		wav.writeBytes(body.toByteArray());
+		return wav.toByteArray();
+	}
+
+	// A RIFF chunk, padded to an even length
+	private static byte[] chunk(String id, byte[] data) {
+		return ByteBuffer.allocate(8 + data.length + data.length % 2).order(ByteOrder.LITTLE_ENDIAN)
+				.put(id.getBytes(StandardCharsets.US_ASCII)).putInt(data.length).put(data)
+				.array();
+	}
+
+	private static int dataOffset(byte[] wav) {
+		var buffer = ByteBuffer.wrap(wav).order(ByteOrder.LITTLE_ENDIAN);
+		var offset = 12;
+		while (!"data".equals(new String(wav, offset, 4, StandardCharsets.US_ASCII))) {
+			offset += 8 + buffer.getInt(offset + 4);
+			offset += offset % 2;
+		}
+		return offset + 8;
+	}
+
+	private static StegoMetadataDTO metadata(int lsbDepth) {
+		return new StegoMetadataDTO(lsbDepth, false, true, "key-hash", "recording.bin", null, null, null, null);
+	}
+
+}
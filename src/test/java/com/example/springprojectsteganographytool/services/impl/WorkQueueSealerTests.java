@@ -0,0 +1,83 @@
+package com.example.springprojectsteganographytool.services.impl;
+
+import com.example.springprojectsteganographytool.crypto.CryptoPrimitivePool;
+import com.example.springprojectsteganographytool.exceptions.encryption.AesOperationException;
+import com.example.springprojectsteganographytool.models.StegoDecodeResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Sealing of the secrets that pass through the shared work queue.
+ */
+class WorkQueueSealerTests {
+
+	private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+	private final WorkQueueSealer sealer = new WorkQueueSealer(new CryptoPrimitivePool(4), SECRET);
+
+	@Test
+	void passwordRoundTripsWithoutBeingStoredInPlainText() {
+		var jobId = UUID.randomUUID();
+
+		var sealed = sealer.sealPassword(jobId, "correct horse");
+
+		assertThat(new String(sealed, StandardCharsets.UTF_8)).doesNotContain("correct horse");
+		assertThat(sealer.openPassword(jobId, sealed)).isEqualTo("correct horse");
+	}
+
+	@Test
+	void sealedValueDoesNotOpenForAnotherJob() {
+		var sealed = sealer.sealPassword(UUID.randomUUID(), "password");
+
+		assertThatThrownBy(() -> sealer.openPassword(UUID.randomUUID(), sealed))
+				.isInstanceOf(AesOperationException.class);
+	}
+
+	@Test
+	void sealedValueDoesNotOpenWithAnotherSecret() {
+		var jobId = UUID.randomUUID();
+		var sealed = sealer.sealPassword(jobId, "password");
+		var otherSecret = new byte[32];
+		otherSecret[0] = 1;
+		var other = new WorkQueueSealer(new CryptoPrimitivePool(4), Base64.getEncoder().encodeToString(otherSecret));
+
+		assertThatThrownBy(() -> other.openPassword(jobId, sealed))
+				.isInstanceOf(AesOperationException.class);
+	}
+
+	@Test
+	void decodeResultRoundTrips() {
+		var jobId = UUID.randomUUID();
+		var resultId = UUID.randomUUID();
+		var decoded = new StegoDecodeResponseDTO(null, "notes.txt", new byte[]{1, 2, 3}, false, true, null);
+
+		var record = sealer.sealResult(resultId, jobId, decoded, Instant.EPOCH);
+
+		assertThat(record.getId()).isEqualTo(resultId);
+		assertThat(record.getJobId()).isEqualTo(jobId);
+		assertThat(record.getMessage()).isNull();
+		assertThat(record.getEmbeddedFileContent()).isNotEqualTo(decoded.embeddedFileContent());
+
+		var opened = sealer.openResult(record);
+		assertThat(opened.message()).isNull();
+		assertThat(opened.embeddedFileName()).isEqualTo("notes.txt");
+		assertThat(opened.embeddedFileContent()).containsExactly(1, 2, 3);
+		assertThat(opened.hasFile()).isTrue();
+	}
+
+	@Test
+	void rejectsMissingOrShortSecrets() {
+		assertThatThrownBy(() -> new WorkQueueSealer(new CryptoPrimitivePool(4), ""))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new WorkQueueSealer(new CryptoPrimitivePool(4), Base64.getEncoder().encodeToString(new byte[16])))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+}